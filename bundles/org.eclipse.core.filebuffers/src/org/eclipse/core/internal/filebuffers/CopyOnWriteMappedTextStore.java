@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filebuffers;
+
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.RopeTextStore;
+
+
+/**
+ * Copy-on-write text store for the content of a {@link MappedTextStore}. Upon the first
+ * modification, the content is copied into a {@link RopeTextStore}.
+ *
+ * @see org.eclipse.jface.text.CopyOnWriteTextStore
+ * @since 3.8
+ */
+class CopyOnWriteMappedTextStore implements ITextStore {
+
+	/** The current text store, either the mapped or the modifiable one. */
+	private volatile ITextStore fTextStore;
+
+	/**
+	 * Creates a new text store for the content of the given mapped store.
+	 *
+	 * @param mappedStore the mapped store
+	 */
+	CopyOnWriteMappedTextStore(MappedTextStore mappedStore) {
+		fTextStore= mappedStore;
+	}
+
+	/**
+	 * Tells whether this text store still reads from the mapped store.
+	 *
+	 * @return <code>true</code> if the content has not yet been copied
+	 */
+	boolean isMapped() {
+		return fTextStore instanceof MappedTextStore;
+	}
+
+	/**
+	 * Copies the mapped content into a modifiable text store.
+	 */
+	synchronized void unmap() {
+		if (isMapped()) {
+			RopeTextStore store= new RopeTextStore();
+			store.set(fTextStore.get(0, fTextStore.getLength()));
+			fTextStore= store;
+		}
+	}
+
+	/**
+	 * Returns a copy of the content which shares the content with this store, see
+	 * {@link RopeTextStore#copy()}. The mapped content is copied into memory first.
+	 *
+	 * @return a copy of the content
+	 */
+	synchronized RopeTextStore copy() {
+		unmap();
+		return ((RopeTextStore) fTextStore).copy();
+	}
+
+	@Override
+	public char get(int offset) {
+		return fTextStore.get(offset);
+	}
+
+	@Override
+	public String get(int offset, int length) {
+		return fTextStore.get(offset, length);
+	}
+
+	@Override
+	public int getLength() {
+		return fTextStore.getLength();
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		if (length == 0 && (text == null || text.isEmpty()))
+			return;
+		unmap();
+		fTextStore.replace(offset, length, text);
+	}
+
+	@Override
+	public void set(String text) {
+		RopeTextStore store= new RopeTextStore();
+		store.set(text);
+		fTextStore= store;
+	}
+}
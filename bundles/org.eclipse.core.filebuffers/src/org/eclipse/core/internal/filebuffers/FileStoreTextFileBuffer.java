@@ -15,6 +15,7 @@
 package org.eclipse.core.internal.filebuffers;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -220,7 +221,7 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 			return;
 
 		String originalContents= original.get();
-		boolean replaceContents= !originalContents.equals(fDocument.get());
+		boolean replaceContents= isMappedDocument() || !originalContents.equals(fDocument.get());
 
 		if (!replaceContents && !fCanBeSaved)
 			return;
@@ -305,9 +306,12 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 	@Override
 	protected void initializeFileBufferContent(IProgressMonitor monitor) throws CoreException {
 		try {
-			fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
 			cacheEncodingState();
-			setDocumentContent(fDocument, fFileStore, fEncoding, fHasBOM, monitor);
+			fDocument= createMappedDocument();
+			if (fDocument == null) {
+				fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
+				setDocumentContent(fDocument, fFileStore, fEncoding, fHasBOM, monitor);
+			}
 		} catch (CoreException x) {
 			fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
 			fStatus= x.getStatus();
@@ -361,6 +365,8 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 			throw new CoreException(new Status(IStatus.WARNING, FileBuffersPlugin.PLUGIN_ID, IResourceStatus.OUT_OF_SYNC_LOCAL, message, null));
 		}
 
+		unmapDocument();
+
 		String encoding= computeEncoding();
 
 		Charset charset;
@@ -524,6 +530,55 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 		}
 	}
 
+	/**
+	 * Creates a document whose content is read from the memory mapped file if the file is a local
+	 * file larger than {@link MappedTextStore#THRESHOLD} with a supported encoding.
+	 *
+	 * @return the document or <code>null</code> if the file content has to be read into memory
+	 * @since 3.8
+	 */
+	private IDocument createMappedDocument() {
+		try {
+			File file= fFileStore.toLocalFile(EFS.NONE, null);
+			if (file == null || file.length() <= MappedTextStore.THRESHOLD)
+				return null;
+
+			String encoding= fEncoding != null ? fEncoding : fManager.getDefaultEncoding();
+			Charset charset= Charset.forName(encoding);
+			if (!MappedTextStore.isSupported(charset))
+				return null;
+
+			boolean skipUTF8BOM= fHasBOM && StandardCharsets.UTF_8.name().equals(encoding);
+			MappedTextStore store= new MappedTextStore(file.toPath(), charset, skipUTF8BOM ? IContentDescription.BOM_UTF_8.length : 0);
+			return fManager.createMappedDocument(getLocationOrName(), LocationKind.LOCATION, store);
+		} catch (CoreException | IOException | IllegalArgumentException x) {
+			// read the content into memory instead
+			return null;
+		}
+	}
+
+	/**
+	 * Copies the content of the document into memory if it is still read from the memory mapped
+	 * file, so that the file can be modified.
+	 *
+	 * @since 3.8
+	 */
+	private void unmapDocument() {
+		if (fDocument instanceof SynchronizableDocument document)
+			document.unmap();
+	}
+
+	/**
+	 * Tells whether the content of the document is still read from the memory mapped file. Its
+	 * content must not be compared to the file as it may already reflect changes of the file.
+	 *
+	 * @return <code>true</code> if the document content is read from the mapped file
+	 * @since 3.8
+	 */
+	private boolean isMappedDocument() {
+		return fDocument instanceof SynchronizableDocument document && document.isMapped();
+	}
+
 	/**
 	 * Checks whether the given file is synchronized with the local file system.
 	 * If the file has been changed, a <code>CoreException</code> is thrown.
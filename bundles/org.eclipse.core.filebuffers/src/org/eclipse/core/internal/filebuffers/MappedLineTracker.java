@@ -0,0 +1,337 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filebuffers;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.ILineTrackerExtension;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+
+/**
+ * Line tracker for the content of a {@link MappedTextStore}. Behaves like a
+ * {@link DefaultLineTracker}, i.e. it considers "\n", "\r" and "\r\n" as line delimiters.
+ * <p>
+ * The number of lines per window is known as soon as the store has been created, the line
+ * offsets inside a window are computed when the window is first accessed. This way the first lines
+ * of a huge file are available immediately. The first modification converts the tracker into a
+ * {@link DefaultLineTracker}.
+ * </p>
+ *
+ * @since 3.8
+ */
+public class MappedLineTracker implements ILineTracker, ILineTrackerExtension {
+
+	/** The number of windows for which the line offsets are cached. */
+	private static final int CACHE_SIZE= 16;
+
+	/** The tracked store, <code>null</code> once the tracker has been converted. */
+	private MappedTextStore fStore;
+	/**
+	 * The number of lines starting before each window, followed by the total number of lines. The
+	 * first line (starting at offset 0) is not counted.
+	 */
+	private int[] fFirstLines;
+
+	/** The indices of the windows whose line offsets are cached, most recently used first. */
+	private final int[] fCachedIndices= new int[CACHE_SIZE];
+	/** The cached line offsets, in the order of {@link #fCachedIndices}. */
+	private final int[][] fCachedLineStarts= new int[CACHE_SIZE][];
+
+	/** The tracker this tracker delegates to once the content has been modified. */
+	private final DefaultLineTracker fDelegate= new DefaultLineTracker();
+
+	/**
+	 * Creates a new line tracker for the given store.
+	 *
+	 * @param store the store to track
+	 */
+	public MappedLineTracker(MappedTextStore store) {
+		fStore= store;
+		int windows= store.getWindowCount();
+		fFirstLines= new int[windows + 1];
+		for (int i= 0; i < windows; i++)
+			fFirstLines[i + 1]= fFirstLines[i] + store.getLineStartCount(i);
+		Arrays.fill(fCachedIndices, -1);
+	}
+
+	/**
+	 * Tells whether this tracker still tracks the content of the mapped store.
+	 *
+	 * @return <code>true</code> if the tracker has not yet been converted
+	 */
+	synchronized boolean isMapped() {
+		return fStore != null;
+	}
+
+	/**
+	 * Converts this tracker into a {@link DefaultLineTracker} initialized with the content of the
+	 * mapped store.
+	 */
+	synchronized void unmap() {
+		if (fStore != null) {
+			fDelegate.set(fStore.get(0, fStore.getLength()));
+			fStore= null;
+			fFirstLines= null;
+			Arrays.fill(fCachedLineStarts, null);
+		}
+	}
+
+	@Override
+	public String[] getLegalLineDelimiters() {
+		return fDelegate.getLegalLineDelimiters();
+	}
+
+	@Override
+	public synchronized String getLineDelimiter(int line) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineDelimiter(line);
+
+		checkLine(line);
+		if (line >= getNumberOfLines() - 1)
+			return null;
+
+		int end= getLineStart(line + 1);
+		if (fStore.get(end - 1) == '\r')
+			return "\r"; //$NON-NLS-1$
+		if (end - 2 >= getLineStart(line) && fStore.get(end - 2) == '\r')
+			return "\r\n"; //$NON-NLS-1$
+		return "\n"; //$NON-NLS-1$
+	}
+
+	@Override
+	public int computeNumberOfLines(String text) {
+		return fDelegate.computeNumberOfLines(text);
+	}
+
+	@Override
+	public synchronized int getNumberOfLines() {
+		if (fStore == null)
+			return fDelegate.getNumberOfLines();
+
+		return fFirstLines[fFirstLines.length - 1] + 1;
+	}
+
+	@Override
+	public synchronized int getNumberOfLines(int offset, int length) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getNumberOfLines(offset, length);
+
+		if (offset < 0 || length < 0 || offset + length > fStore.getLength())
+			throw new BadLocationException();
+
+		if (length == 0)
+			return 1;
+
+		int startLine= getLineNumberOfOffset(offset);
+		if (startLine == getNumberOfLines() - 1)
+			return 1;
+
+		int target= offset + length;
+		int end= getLineStart(startLine + 1);
+		if (end > target)
+			return 1;
+		if (end == target)
+			return 2;
+		return getLineNumberOfOffset(target) - startLine + 1;
+	}
+
+	@Override
+	public synchronized int getLineOffset(int line) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineOffset(line);
+
+		if (line < 0 || line >= getNumberOfLines())
+			throw new BadLocationException();
+		return getLineStart(line);
+	}
+
+	@Override
+	public synchronized int getLineLength(int line) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineLength(line);
+
+		checkLine(line);
+		int lines= getNumberOfLines();
+		if (line == lines)
+			return 0;
+		int end= line == lines - 1 ? fStore.getLength() : getLineStart(line + 1);
+		return end - getLineStart(line);
+	}
+
+	@Override
+	public synchronized int getLineNumberOfOffset(int offset) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineNumberOfOffset(offset);
+
+		int length= fStore.getLength();
+		if (offset < 0 || offset > length)
+			throw new BadLocationException();
+		if (offset == length)
+			return getNumberOfLines() - 1;
+
+		int window= fStore.getWindowOfOffset(offset);
+		int[] lineStarts= getLineStarts(window);
+		int index= Arrays.binarySearch(lineStarts, offset);
+		return fFirstLines[window] + (index >= 0 ? index + 1 : -index - 1);
+	}
+
+	@Override
+	public synchronized IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineInformationOfOffset(offset);
+
+		return getLineInformation(getLineNumberOfOffset(offset));
+	}
+
+	@Override
+	public synchronized IRegion getLineInformation(int line) throws BadLocationException {
+		if (fStore == null)
+			return fDelegate.getLineInformation(line);
+
+		checkLine(line);
+		if (line == getNumberOfLines())
+			return new Region(fStore.getLength(), 0);
+
+		String delimiter= getLineDelimiter(line);
+		int length= getLineLength(line) - (delimiter == null ? 0 : delimiter.length());
+		return new Region(getLineStart(line), length);
+	}
+
+	@Override
+	public synchronized void replace(int offset, int length, String text) throws BadLocationException {
+		if (length == 0 && (text == null || text.isEmpty()))
+			return;
+		unmap();
+		fDelegate.replace(offset, length, text);
+	}
+
+	@Override
+	public synchronized void set(String text) {
+		fStore= null;
+		fFirstLines= null;
+		Arrays.fill(fCachedLineStarts, null);
+		fDelegate.set(text);
+	}
+
+	@Override
+	public synchronized void startRewriteSession(DocumentRewriteSession session) throws IllegalStateException {
+		unmap();
+		fDelegate.startRewriteSession(session);
+	}
+
+	@Override
+	public synchronized void stopRewriteSession(DocumentRewriteSession session, String text) {
+		fDelegate.stopRewriteSession(session, text);
+	}
+
+	/**
+	 * Checks the given line number the way {@link DefaultLineTracker} does: the line after the
+	 * last line is accepted if the content does not end with a line delimiter.
+	 *
+	 * @param line the line to check
+	 * @throws BadLocationException if the line is invalid
+	 */
+	private void checkLine(int line) throws BadLocationException {
+		int lines= getNumberOfLines();
+		int length= fStore.getLength();
+		boolean trailingDelimiter= lines > 1 && getLineStart(lines - 1) == length;
+		int maxLine= length == 0 ? 0 : trailingDelimiter ? lines - 1 : lines;
+		if (line < 0 || line > maxLine)
+			throw new BadLocationException();
+	}
+
+	/**
+	 * Returns the offset of the given line, which must exist.
+	 *
+	 * @param line the line
+	 * @return the offset of the line
+	 */
+	private int getLineStart(int line) {
+		if (line == 0)
+			return 0;
+
+		int index= Arrays.binarySearch(fFirstLines, line);
+		int window;
+		if (index >= 0) {
+			// several windows may start with the same line, the line start is in the last of them
+			// that contains line starts
+			window= index - 1;
+			while (fStore.getLineStartCount(window) == 0)
+				window--;
+		} else {
+			window= -index - 2;
+		}
+		return getLineStarts(window)[line - fFirstLines[window] - 1];
+	}
+
+	/**
+	 * Returns the line starts attributed to the given window. If the file has been modified since
+	 * it was indexed, the line starts are cut or padded to the number of line starts recorded at
+	 * that time, like the store pads the content with replacement characters.
+	 *
+	 * @param window the window index
+	 * @return the sorted line starts
+	 */
+	private int[] getLineStarts(int window) {
+		for (int i= 0; i < CACHE_SIZE; i++) {
+			if (fCachedIndices[i] == window) {
+				int[] lineStarts= fCachedLineStarts[i];
+				if (i > 0)
+					moveToFront(i, window, lineStarts);
+				return lineStarts;
+			}
+		}
+
+		int[] lineStarts= new int[fStore.getLineStartCount(window)];
+		char[] chars= fStore.getWindow(window);
+		int start= fStore.getWindowOffset(window);
+		int count= 0;
+		for (int i= 0; i < chars.length && count < lineStarts.length; i++) {
+			char c= chars[i];
+			if (c == '\n') {
+				lineStarts[count++]= start + i + 1;
+			} else if (c == '\r') {
+				int next= start + i + 1;
+				if (next == fStore.getLength() || (i + 1 < chars.length ? chars[i + 1] : fStore.get(next)) != '\n')
+					lineStarts[count++]= next;
+			}
+		}
+		// the file has lost line delimiters since it was indexed, keep the line starts sorted
+		int end= start + chars.length;
+		while (count < lineStarts.length)
+			lineStarts[count++]= end;
+		moveToFront(CACHE_SIZE - 1, window, lineStarts);
+		return lineStarts;
+	}
+
+	/**
+	 * Moves the cache entry at the given index to the front of the cache.
+	 *
+	 * @param index the current index of the entry
+	 * @param window the window index
+	 * @param lineStarts the line starts of the window
+	 */
+	private void moveToFront(int index, int window, int[] lineStarts) {
+		System.arraycopy(fCachedIndices, 0, fCachedIndices, 1, index);
+		System.arraycopy(fCachedLineStarts, 0, fCachedLineStarts, 1, index);
+		fCachedIndices[0]= window;
+		fCachedLineStarts[0]= lineStarts;
+	}
+}
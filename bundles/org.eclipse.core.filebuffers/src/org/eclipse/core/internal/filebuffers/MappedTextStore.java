@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filebuffers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import org.eclipse.jface.text.ITextStore;
+
+
+/**
+ * Read-only text store whose content is decoded lazily from a file.
+ * <p>
+ * On creation, the file is decoded once in order to split it into windows of at most
+ * {@link #WINDOW_SIZE} characters, recording the byte and character offset of every window and
+ * the number of line delimiters it contains. The decoded characters are not retained. This pass
+ * runs in the thread that creates the store, since the length of the content and the number of
+ * lines have to be known before the document is handed out. Accessing the content reads the
+ * bytes of the affected window and decodes them; a few decoded windows are cached.
+ * </p>
+ * <p>
+ * The windows are read into a reused buffer rather than mapped: a mapped buffer is only released
+ * by the garbage collector and keeps the file locked on some platforms until then.
+ * </p>
+ * <p>
+ * The content is only valid as long as the file is not modified. Clients are responsible for
+ * replacing the store once the file changes on disk.
+ * </p>
+ *
+ * @since 3.8
+ */
+public class MappedTextStore implements ITextStore {
+
+	/**
+	 * Files larger than this number of bytes are loaded into a mapped text store, can be
+	 * configured with the <code>org.eclipse.core.filebuffers.mappedDocumentThreshold</code> system
+	 * property.
+	 */
+	static final long THRESHOLD= Long.getLong("org.eclipse.core.filebuffers.mappedDocumentThreshold", 64 * 1024 * 1024).longValue(); //$NON-NLS-1$
+
+	/** The number of characters per window. */
+	static final int WINDOW_SIZE= 64 * 1024;
+
+	/** The number of decoded windows that are cached. */
+	private static final int CACHE_SIZE= 16;
+
+	/** The size of the buffer used to read the file while indexing it. */
+	private static final int BUFFER_SIZE= 1024 * 1024;
+
+	/** The character used for content that could not be read. */
+	private static final char REPLACEMENT= '\uFFFD';
+
+	/** The mapped file. */
+	private final Path fPath;
+	/** The charset of the file. */
+	private final Charset fCharset;
+	/** The byte offsets of the windows, followed by the end offset of the last window. */
+	private long[] fByteOffsets= new long[16];
+	/** The character offsets of the windows, followed by the length of the content. */
+	private int[] fCharOffsets= new int[16];
+	/**
+	 * The number of line starts in each window, a line start being the offset after a line
+	 * delimiter. It is attributed to the window that contains the last character of the delimiter.
+	 */
+	private int[] fLineStartCounts= new int[16];
+	/** The number of windows. */
+	private int fWindowCount;
+
+	/** The indices of the cached windows, most recently used first. */
+	private final int[] fCachedIndices= new int[CACHE_SIZE];
+	/** The cached windows, in the order of {@link #fCachedIndices}. */
+	private final char[][] fCachedWindows= new char[CACHE_SIZE][];
+	/** The buffer the bytes of a window are read into, grown as needed. */
+	private ByteBuffer fReadBuffer;
+	/** Tells whether a read failure has already been logged. */
+	private boolean fFailureLogged;
+
+	/**
+	 * Creates a new text store for the given file.
+	 *
+	 * @param path the path of the file
+	 * @param charset the charset of the file, must be {@linkplain #isSupported(Charset) supported}
+	 * @param skipBytes the number of bytes to skip at the start of the file, e.g. for a BOM
+	 * @throws IOException if the file cannot be read or is too large
+	 */
+	public MappedTextStore(Path path, Charset charset, int skipBytes) throws IOException {
+		fPath= path;
+		fCharset= charset;
+		Arrays.fill(fCachedIndices, -1);
+		try (FileChannel channel= FileChannel.open(path, StandardOpenOption.READ)) {
+			index(channel, skipBytes);
+		}
+	}
+
+	/**
+	 * Tells whether files with the given charset can be loaded into a mapped text store. This is
+	 * the case for all charsets that can be decoded starting at any character boundary.
+	 *
+	 * @param charset the charset
+	 * @return <code>true</code> if the charset is supported
+	 */
+	public static boolean isSupported(Charset charset) {
+		if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.UTF_16BE) || charset.equals(StandardCharsets.UTF_16LE))
+			return true;
+		return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1f;
+	}
+
+	/**
+	 * Decodes the whole file once and splits it into windows.
+	 *
+	 * @param channel the channel to read from
+	 * @param start the byte offset of the content
+	 * @throws IOException if the file cannot be read or is too large
+	 */
+	private void index(FileChannel channel, long start) throws IOException {
+		CharsetDecoder decoder= newDecoder();
+		ByteBuffer in= ByteBuffer.allocate(BUFFER_SIZE);
+		CharBuffer out= CharBuffer.allocate(WINDOW_SIZE);
+		long bufferStart= start;
+		long readPosition= start;
+		boolean endOfInput= false;
+		boolean pendingCR= false;
+		in.flip();
+		fByteOffsets[0]= start;
+		while (true) {
+			if (!endOfInput) {
+				bufferStart+= in.position();
+				in.compact();
+				int read= channel.read(in, readPosition);
+				if (read < 0)
+					endOfInput= true;
+				else
+					readPosition+= read;
+				in.flip();
+			}
+			CoderResult result= decoder.decode(in, out, endOfInput);
+			if (result.isOverflow()) {
+				pendingCR= addWindow(out, bufferStart + in.position(), pendingCR);
+			} else if (endOfInput) {
+				while (decoder.flush(out).isOverflow())
+					pendingCR= addWindow(out, bufferStart + in.position(), pendingCR);
+				if (out.position() > 0)
+					pendingCR= addWindow(out, bufferStart + in.position(), pendingCR);
+				if (pendingCR && fWindowCount > 0)
+					fLineStartCounts[fWindowCount - 1]++;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Adds a window with the decoded characters and clears the buffer.
+	 *
+	 * @param out the decoded characters of the window
+	 * @param end the byte offset after the window
+	 * @param pendingCR whether the previous window ended with a <code>'\r'</code>
+	 * @return whether this window ends with a <code>'\r'</code>
+	 * @throws IOException if the content gets too large
+	 */
+	private boolean addWindow(CharBuffer out, long end, boolean pendingCR) throws IOException {
+		int length= out.position();
+		if (length == 0)
+			return pendingCR;
+
+		long charEnd= (long) fCharOffsets[fWindowCount] + length;
+		if (charEnd > Integer.MAX_VALUE)
+			throw new IOException(NLSUtility.format(FileBuffersMessages.MappedTextStore_error_tooLarge, fPath.toString()));
+
+		char[] chars= out.array();
+		if (pendingCR && chars[0] != '\n')
+			fLineStartCounts[fWindowCount - 1]++;
+
+		int lineStarts= 0;
+		for (int i= 0; i < length; i++) {
+			char c= chars[i];
+			if (c == '\n' || c == '\r' && i + 1 < length && chars[i + 1] != '\n')
+				lineStarts++;
+		}
+
+		if (fWindowCount + 2 > fCharOffsets.length) {
+			int capacity= fCharOffsets.length * 2;
+			fByteOffsets= Arrays.copyOf(fByteOffsets, capacity);
+			fCharOffsets= Arrays.copyOf(fCharOffsets, capacity);
+			fLineStartCounts= Arrays.copyOf(fLineStartCounts, capacity);
+		}
+		fLineStartCounts[fWindowCount]= lineStarts;
+		fWindowCount++;
+		fByteOffsets[fWindowCount]= end;
+		fCharOffsets[fWindowCount]= (int) charEnd;
+		out.clear();
+		return chars[length - 1] == '\r';
+	}
+
+	/**
+	 * Returns a decoder for the charset of this store that replaces malformed input like
+	 * {@link String#String(byte[], Charset)} does.
+	 *
+	 * @return a new decoder
+	 */
+	private CharsetDecoder newDecoder() {
+		return fCharset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	@Override
+	public synchronized char get(int offset) {
+		int window= getWindowOfOffset(offset);
+		return getWindow(window)[offset - fCharOffsets[window]];
+	}
+
+	@Override
+	public synchronized String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > getLength())
+			throw new IndexOutOfBoundsException();
+
+		char[] chars= new char[length];
+		int end= offset + length;
+		int position= offset;
+		while (position < end) {
+			int window= getWindowOfOffset(position);
+			int windowStart= fCharOffsets[window];
+			int count= Math.min(end, fCharOffsets[window + 1]) - position;
+			System.arraycopy(getWindow(window), position - windowStart, chars, position - offset, count);
+			position+= count;
+		}
+		return new String(chars);
+	}
+
+	@Override
+	public int getLength() {
+		return fCharOffsets[fWindowCount];
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		// modification not supported
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void set(String text) {
+		// modification not supported
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns the number of windows.
+	 *
+	 * @return the number of windows
+	 */
+	int getWindowCount() {
+		return fWindowCount;
+	}
+
+	/**
+	 * Returns the character offset of the given window. For <code>window == getWindowCount()</code>
+	 * the length of the content is returned.
+	 *
+	 * @param window the window index
+	 * @return the offset of the first character of the window
+	 */
+	int getWindowOffset(int window) {
+		return fCharOffsets[window];
+	}
+
+	/**
+	 * Returns the number of line starts attributed to the given window, i.e. the number of line
+	 * delimiters ending in it.
+	 *
+	 * @param window the window index
+	 * @return the number of line starts attributed to the window
+	 */
+	int getLineStartCount(int window) {
+		return fLineStartCounts[window];
+	}
+
+	/**
+	 * Returns the index of the window containing the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the window index
+	 */
+	int getWindowOfOffset(int offset) {
+		if (offset < 0 || offset >= getLength())
+			throw new IndexOutOfBoundsException(offset);
+
+		int index= Arrays.binarySearch(fCharOffsets, 0, fWindowCount, offset);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Returns the decoded characters of the given window.
+	 *
+	 * @param window the window index
+	 * @return the characters of the window, must not be modified
+	 */
+	synchronized char[] getWindow(int window) {
+		for (int i= 0; i < CACHE_SIZE; i++) {
+			if (fCachedIndices[i] == window) {
+				char[] chars= fCachedWindows[i];
+				if (i > 0)
+					moveToFront(i, window, chars);
+				return chars;
+			}
+		}
+
+		char[] chars= decode(window);
+		moveToFront(CACHE_SIZE - 1, window, chars);
+		return chars;
+	}
+
+	/**
+	 * Moves the cache entry at the given index to the front of the cache.
+	 *
+	 * @param index the current index of the entry
+	 * @param window the window index
+	 * @param chars the characters of the window
+	 */
+	private void moveToFront(int index, int window, char[] chars) {
+		System.arraycopy(fCachedIndices, 0, fCachedIndices, 1, index);
+		System.arraycopy(fCachedWindows, 0, fCachedWindows, 1, index);
+		fCachedIndices[0]= window;
+		fCachedWindows[0]= chars;
+	}
+
+	/**
+	 * Reads and decodes the bytes of the given window. If the file has been modified in the
+	 * meantime, the result is padded with replacement characters as needed.
+	 *
+	 * @param window the window index
+	 * @return the characters of the window
+	 */
+	private char[] decode(int window) {
+		char[] chars= new char[fCharOffsets[window + 1] - fCharOffsets[window]];
+		CharBuffer out= CharBuffer.wrap(chars);
+		long byteStart= fByteOffsets[window];
+		try (FileChannel channel= FileChannel.open(fPath, StandardOpenOption.READ)) {
+			long size= Math.min(fByteOffsets[window + 1], channel.size()) - byteStart;
+			if (size > 0) {
+				ByteBuffer bytes= getReadBuffer((int) size);
+				while (bytes.hasRemaining()) {
+					if (channel.read(bytes, byteStart + bytes.position()) < 0)
+						break;
+				}
+				bytes.flip();
+				CharsetDecoder decoder= newDecoder();
+				decoder.decode(bytes, out, true);
+				decoder.flush(out);
+			}
+		} catch (IOException x) {
+			if (!fFailureLogged) {
+				fFailureLogged= true;
+				String message= NLSUtility.format(FileBuffersMessages.MappedTextStore_error_read, fPath.toString());
+				ILog.of(MappedTextStore.class).log(new Status(IStatus.ERROR, FileBuffersPlugin.PLUGIN_ID, IStatus.OK, message, x));
+			}
+		}
+		Arrays.fill(chars, out.position(), chars.length, REPLACEMENT);
+		return chars;
+	}
+
+	/**
+	 * Returns the cleared read buffer, limited to the given number of bytes.
+	 *
+	 * @param size the number of bytes to read
+	 * @return the read buffer
+	 */
+	private ByteBuffer getReadBuffer(int size) {
+		if (fReadBuffer == null || fReadBuffer.capacity() < size)
+			fReadBuffer= ByteBuffer.allocate(Math.max(size, WINDOW_SIZE));
+		fReadBuffer.clear();
+		fReadBuffer.limit(size);
+		return fReadBuffer;
+	}
+}
@@ -14,6 +14,7 @@
 package org.eclipse.core.internal.filebuffers;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -37,6 +38,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
@@ -45,6 +47,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.content.IContentDescription;
 import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
@@ -232,8 +235,11 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 			}
 
 
-			fDocument= getManager().createEmptyDocument(fFile);
-			setDocumentContent(fDocument, fFile, fEncoding);
+			fDocument= createMappedDocument();
+			if (fDocument == null) {
+				fDocument= getManager().createEmptyDocument(fFile);
+				setDocumentContent(fDocument, fFile, fEncoding);
+			}
 
 		} catch (CoreException x) {
 			fDocument= getManager().createEmptyDocument(fFile);
@@ -284,6 +290,8 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 			throw new CoreException(new Status(IStatus.WARNING, FileBuffersPlugin.PLUGIN_ID, IResourceStatus.OUT_OF_SYNC_LOCAL, message, null));
 		}
 
+		unmapDocument();
+
 		String encoding= computeEncoding();
 
 		if (fBOM == IContentDescription.BOM_UTF_16LE && StandardCharsets.UTF_16.name().equals(encoding))
@@ -431,7 +439,7 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 		}
 
 		String newContent= document.get();
-		boolean replaceContent= updateModificationStamp || !newContent.equals(fDocument.get());
+		boolean replaceContent= updateModificationStamp || isMappedDocument() || !newContent.equals(fDocument.get());
 
 		if (replaceContent)
 			fManager.fireBufferContentAboutToBeReplaced(this);
@@ -466,6 +474,64 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 		fManager.fireDirtyStateChanged(this, fCanBeSaved);
 	}
 
+	/**
+	 * Creates a document whose content is read from the memory mapped file if the file is a local
+	 * file larger than {@link MappedTextStore#THRESHOLD} with a supported encoding.
+	 *
+	 * @return the document or <code>null</code> if the file content has to be read into memory
+	 * @since 3.8
+	 */
+	private IDocument createMappedDocument() {
+		IPath location= fFile.getLocation();
+		if (location == null)
+			return null;
+
+		File file= location.toFile();
+		if (file.length() <= MappedTextStore.THRESHOLD)
+			return null;
+
+		try {
+			String encoding= fEncoding != null ? fEncoding : fManager.getDefaultEncoding();
+			Charset charset= Charset.forName(encoding);
+			if (!MappedTextStore.isSupported(charset))
+				return null;
+
+			boolean skipUTF8BOM= fBOM != null && StandardCharsets.UTF_8.name().equals(encoding);
+			MappedTextStore store= new MappedTextStore(file.toPath(), charset, skipUTF8BOM ? IContentDescription.BOM_UTF_8.length : 0);
+			IDocument document= getManager().createMappedDocument(fFile, store);
+			if (document instanceof IDocumentExtension4 ext4) {
+				// an empty change that only sets the modification stamp, leaving the content mapped
+				ext4.replace(0, 0, "", fFile.getModificationStamp()); //$NON-NLS-1$
+			}
+			return document;
+		} catch (IOException | BadLocationException | IllegalArgumentException x) {
+			// read the content into memory instead
+			return null;
+		}
+	}
+
+	/**
+	 * Copies the content of the document into memory if it is still read from the memory mapped
+	 * file, so that the file can be modified.
+	 *
+	 * @since 3.8
+	 */
+	private void unmapDocument() {
+		if (fDocument instanceof SynchronizableDocument document)
+			document.unmap();
+	}
+
+	/**
+	 * Tells whether the content of the document is still read from the memory mapped file. Its
+	 * content must not be compared to the file as it may already reflect changes of the file.
+	 *
+	 * @return <code>true</code> if the document content is read from the mapped file
+	 * @since 3.8
+	 */
+	private boolean isMappedDocument() {
+		return fDocument instanceof SynchronizableDocument document && document.isMapped();
+	}
+
 	/**
 	 * Initializes the given document with the given stream using the given encoding.
 	 *
@@ -132,6 +132,35 @@ public class ResourceTextFileBufferManager extends TextFileBufferManager {
 		else
 			document= new SynchronizableDocument();
 
+		return setUpDocument(document, file);
+	}
+
+	/**
+	 * Creates a document whose content is read from the given memory mapped text store and sets
+	 * it up like {@link #createEmptyDocument(IFile)} does.
+	 *
+	 * @param file the file
+	 * @param store the mapped text store
+	 * @return the document or <code>null</code> if a document factory is registered for the file
+	 * @since 3.8
+	 */
+	IDocument createMappedDocument(final IFile file, MappedTextStore store) {
+		if (createEmptyDocumentFromFactory(file) != null)
+			return null;
+
+		return setUpDocument(new SynchronizableDocument(store), file);
+	}
+
+	/**
+	 * Sets the initial line delimiter of the given document and runs the document setup
+	 * participants for the given file.
+	 *
+	 * @param document the document to set up
+	 * @param file the file
+	 * @return the given document
+	 * @since 3.8
+	 */
+	private IDocument setUpDocument(final IDocument document, final IFile file) {
 		// Set the initial line delimiter
 		if (document instanceof IDocumentExtension4) {
 			String initalLineDelimiter= getLineDelimiterPreference(file);
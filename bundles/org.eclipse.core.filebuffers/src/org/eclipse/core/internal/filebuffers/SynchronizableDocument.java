@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,17 +13,22 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filebuffers;
 
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPartitioningException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.DocumentRewriteSession;
 import org.eclipse.jface.text.DocumentRewriteSessionType;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.RopeTextStore;
 
 
 /**
@@ -31,23 +36,220 @@ import org.eclipse.jface.text.Position;
  * <p>
  * Initially no locking takes place.
  * </p>
+ * <p>
+ * By default, all reads and writes synchronize on the lock object. In read/write lock mode, only
+ * writes synchronize on the lock object, and in addition they take the write lock of a read/write
+ * lock. Line information is read under the read lock, so readers do not block each other. The
+ * text is read optimistically without any lock and read again under the read lock if a write
+ * happened in the meantime. In this mode a client holding the lock object still excludes all
+ * writers, but other threads can read the document between its changes. The mode is enabled with
+ * the <code>org.eclipse.core.filebuffers.readWriteLock</code> system property or with
+ * {@link #SynchronizableDocument(boolean)}.
+ * </p>
  *
  * @since 3.2
  */
 public class SynchronizableDocument extends Document implements ISynchronizable {
 
-	private Object fLockObject;
+	/**
+	 * Tells whether new documents use a read/write lock, can be enabled with the
+	 * <code>org.eclipse.core.filebuffers.readWriteLock</code> system property.
+	 *
+	 * @since 3.8
+	 */
+	static final boolean READ_WRITE_LOCK= Boolean.getBoolean("org.eclipse.core.filebuffers.readWriteLock"); //$NON-NLS-1$
+
+	/**
+	 * A document access run under a lock.
+	 *
+	 * @param <T> the type of the result
+	 * @param <E> the type of the exception thrown by the access
+	 * @since 3.8
+	 */
+	private interface Access<T, E extends Exception> {
+		T run() throws E;
+	}
+
+	private volatile Object fLockObject;
+
+	/**
+	 * The read/write lock, <code>null</code> if only the lock object is used.
+	 *
+	 * @since 3.8
+	 */
+	private final ReentrantReadWriteLock fReadWriteLock;
+
+	/**
+	 * The number of times the write lock has been taken and released, odd while it is held. Used
+	 * to validate optimistic reads.
+	 *
+	 * @since 3.8
+	 */
+	private volatile long fWriteCount;
+
+	/**
+	 * Creates a new empty document.
+	 */
+	public SynchronizableDocument() {
+		this(READ_WRITE_LOCK);
+	}
+
+	/**
+	 * Creates a new empty document.
+	 *
+	 * @param readWriteLock <code>true</code> to use a read/write lock in addition to the lock
+	 *            object, see the class comment
+	 * @since 3.8
+	 */
+	public SynchronizableDocument(boolean readWriteLock) {
+		fReadWriteLock= readWriteLock ? new ReentrantReadWriteLock() : null;
+	}
+
+	/**
+	 * Creates a new document whose content is read from the given memory mapped text store until
+	 * it is modified for the first time.
+	 *
+	 * @param store the mapped text store
+	 * @since 3.8
+	 */
+	SynchronizableDocument(MappedTextStore store) {
+		super(new CopyOnWriteMappedTextStore(store));
+		setLineTracker(new MappedLineTracker(store));
+		fReadWriteLock= READ_WRITE_LOCK ? new ReentrantReadWriteLock() : null;
+	}
+
+	/**
+	 * Tells whether the content of this document is still read from a memory mapped file.
+	 *
+	 * @return <code>true</code> if the content is read from a mapped file
+	 * @since 3.8
+	 */
+	boolean isMapped() {
+		return getStore() instanceof CopyOnWriteMappedTextStore store && store.isMapped();
+	}
+
+	/**
+	 * Copies the content of this document into memory so that it no longer depends on the
+	 * mapped file. Must be called before the file gets modified.
+	 *
+	 * @since 3.8
+	 */
+	void unmap() {
+		Object lockObject= getLockObject();
+		if (lockObject == null) {
+			unmapContent();
+			return;
+		}
+		synchronized (lockObject) {
+			beginWrite();
+			try {
+				unmapContent();
+			} finally {
+				endWrite();
+			}
+		}
+	}
+
+	private void unmapContent() {
+		if (getStore() instanceof CopyOnWriteMappedTextStore store)
+			store.unmap();
+		if (getTracker() instanceof MappedLineTracker tracker)
+			tracker.unmap();
+	}
 
 	@Override
-	public synchronized void setLockObject(Object lockObject) {
+	public void setLockObject(Object lockObject) {
 		fLockObject= lockObject;
 	}
 
 	@Override
-	public synchronized Object getLockObject() {
+	public Object getLockObject() {
 		return fLockObject;
 	}
 
+	/**
+	 * Takes the write lock if this document uses a read/write lock. Must be called while holding
+	 * the lock object.
+	 *
+	 * @since 3.8
+	 */
+	private void beginWrite() {
+		if (fReadWriteLock != null) {
+			fReadWriteLock.writeLock().lock();
+			if (fReadWriteLock.getWriteHoldCount() == 1) {
+				fWriteCount++;
+				// optimistic readers must see the odd count before any change
+				VarHandle.storeStoreFence();
+			}
+		}
+	}
+
+	/**
+	 * Releases the write lock taken by {@link #beginWrite()}.
+	 *
+	 * @since 3.8
+	 */
+	private void endWrite() {
+		if (fReadWriteLock != null) {
+			if (fReadWriteLock.getWriteHoldCount() == 1)
+				fWriteCount++;
+			fReadWriteLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs the given read access under the read lock. Line trackers may update internal
+	 * structures while a rewrite session is active, so the write lock is taken in that case.
+	 *
+	 * @param access the read access
+	 * @return the result of the access
+	 * @throws E if the access fails
+	 * @since 3.8
+	 */
+	private <T, E extends Exception> T read(Access<T, E> access) throws E {
+		ReentrantReadWriteLock.ReadLock readLock= fReadWriteLock.readLock();
+		readLock.lock();
+		try {
+			if (getActiveRewriteSession() == null || fReadWriteLock.isWriteLockedByCurrentThread())
+				return access.run();
+		} finally {
+			readLock.unlock();
+		}
+
+		fReadWriteLock.writeLock().lock();
+		try {
+			return access.run();
+		} finally {
+			fReadWriteLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Runs the given read access without any lock and returns its result if no write happened in
+	 * the meantime. Otherwise the access is repeated under the read lock. The access must not have
+	 * any side effects and must not loop depending on the document state, as it may see the
+	 * document in an inconsistent state.
+	 *
+	 * @param access the read access
+	 * @return the result of the access
+	 * @throws E if the access fails
+	 * @since 3.8
+	 */
+	private <T, E extends Exception> T readOptimistically(Access<T, E> access) throws E {
+		long count= fWriteCount;
+		if ((count & 1) == 0 && getActiveRewriteSession() == null) {
+			try {
+				T result= access.run();
+				VarHandle.acquireFence();
+				if (fWriteCount == count)
+					return result;
+			} catch (Exception e) {
+				// the document has been changed while reading it, read it again under the lock
+			}
+		}
+		return read(access);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -63,7 +265,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.startSequentialRewrite(normalized);
+			beginWrite();
+			try {
+				super.startSequentialRewrite(normalized);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -82,7 +289,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.stopSequentialRewrite();
+			beginWrite();
+			try {
+				super.stopSequentialRewrite();
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -93,7 +305,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return super.startRewriteSession(sessionType);
 		}
 		synchronized (lockObject) {
-			return super.startRewriteSession(sessionType);
+			beginWrite();
+			try {
+				return super.startRewriteSession(sessionType);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -105,7 +322,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.stopRewriteSession(session);
+			beginWrite();
+			try {
+				super.stopRewriteSession(session);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -115,6 +337,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.get();
 		}
+		if (fReadWriteLock != null) {
+			return readOptimistically(() -> super.get());
+		}
 		synchronized (lockObject) {
 			return super.get();
 		}
@@ -126,6 +351,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.get(offset, length);
 		}
+		if (fReadWriteLock != null) {
+			return readOptimistically(() -> super.get(offset, length));
+		}
 		synchronized (lockObject) {
 			return super.get(offset, length);
 		}
@@ -137,6 +365,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getChar(offset);
 		}
+		if (fReadWriteLock != null) {
+			return readOptimistically(() -> super.getChar(offset));
+		}
 		synchronized (lockObject) {
 			return super.getChar(offset);
 		}
@@ -148,11 +379,54 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getModificationStamp();
 		}
+		if (fReadWriteLock != null) {
+			return readOptimistically(() -> super.getModificationStamp());
+		}
 		synchronized (lockObject) {
 			return super.getModificationStamp();
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The lock object is only held while the snapshot is taken, reading the snapshot does not
+	 * need any synchronization.
+	 * </p>
+	 */
+	@Override
+	public IDocument getSnapshot() {
+		Object lockObject= getLockObject();
+		if (lockObject == null) {
+			return super.getSnapshot();
+		}
+		synchronized (lockObject) {
+			beginWrite();
+			try {
+				return super.getSnapshot();
+			} finally {
+				endWrite();
+			}
+		}
+	}
+
+	@Override
+	public boolean isSnapshotShared() {
+		if (getStore() instanceof CopyOnWriteMappedTextStore store)
+			return !store.isMapped();
+		return super.isSnapshotShared();
+	}
+
+	@Override
+	protected RopeTextStore getSnapshotContent() {
+		if (getStore() instanceof CopyOnWriteMappedTextStore store) {
+			// copy the mapped content once, further snapshots share it; the line tracker keeps
+			// reading from the mapped store, which has the same content
+			return store.copy();
+		}
+		return super.getSnapshotContent();
+	}
+
 	@Override
 	public void replace(int offset, int length, String text) throws BadLocationException {
 		Object lockObject= getLockObject();
@@ -161,7 +435,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.replace(offset, length, text);
+			beginWrite();
+			try {
+				super.replace(offset, length, text);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -173,7 +452,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.replace(offset, length, text, modificationStamp);
+			beginWrite();
+			try {
+				super.replace(offset, length, text, modificationStamp);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -185,7 +469,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.set(text);
+			beginWrite();
+			try {
+				super.set(text);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -197,7 +486,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.set(text, modificationStamp);
+			beginWrite();
+			try {
+				super.set(text, modificationStamp);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -209,7 +503,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.addPosition(category, position);
+			beginWrite();
+			try {
+				super.addPosition(category, position);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -221,7 +520,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return;
 		}
 		synchronized (lockObject) {
-			super.removePosition(category, position);
+			beginWrite();
+			try {
+				super.removePosition(category, position);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -232,7 +536,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return super.getPositions(category);
 		}
 		synchronized (lockObject) {
-			return super.getPositions(category);
+			beginWrite();
+			try {
+				return super.getPositions(category);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -243,7 +552,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return super.getPositions(category, offset, length, canStartBefore, canEndAfter);
 		}
 		synchronized (lockObject) {
-			return super.getPositions(category, offset, length, canStartBefore, canEndAfter);
+			beginWrite();
+			try {
+				return super.getPositions(category, offset, length, canStartBefore, canEndAfter);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -254,7 +568,12 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 			return super.computePartitioning(partitioning, offset, length, includeZeroLengthPartitions);
 		}
 		synchronized (lockObject) {
-			return super.computePartitioning(partitioning, offset, length, includeZeroLengthPartitions);
+			beginWrite();
+			try {
+				return super.computePartitioning(partitioning, offset, length, includeZeroLengthPartitions);
+			} finally {
+				endWrite();
+			}
 		}
 	}
 
@@ -264,6 +583,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineDelimiter(line);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineDelimiter(line));
+		}
 		synchronized (lockObject) {
 			return super.getLineDelimiter(line);
 		}
@@ -275,6 +597,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getDefaultLineDelimiter();
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getDefaultLineDelimiter());
+		}
 		synchronized (lockObject) {
 			return super.getDefaultLineDelimiter();
 		}
@@ -286,6 +611,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineInformation(line);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineInformation(line));
+		}
 		synchronized (lockObject) {
 			return super.getLineInformation(line);
 		}
@@ -297,6 +625,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineInformationOfOffset(offset);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineInformationOfOffset(offset));
+		}
 		synchronized (lockObject) {
 			return super.getLineInformationOfOffset(offset);
 		}
@@ -308,6 +639,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineLength(line);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineLength(line));
+		}
 		synchronized (lockObject) {
 			return super.getLineLength(line);
 		}
@@ -319,6 +653,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineOffset(line);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineOffset(line));
+		}
 		synchronized (lockObject) {
 			return super.getLineOffset(line);
 		}
@@ -330,6 +667,9 @@ public class SynchronizableDocument extends Document implements ISynchronizable
 		if (lockObject == null) {
 			return super.getLineOfOffset(pos);
 		}
+		if (fReadWriteLock != null) {
+			return read(() -> super.getLineOfOffset(pos));
+		}
 		synchronized (lockObject) {
 			return super.getLineOfOffset(pos);
 		}
@@ -443,6 +443,38 @@ public class TextFileBufferManager implements ITextFileBufferManager {
 		if (location == null)
 			return document;
 
+		return setUpDocument(document, location, locationKind);
+	}
+
+	/**
+	 * Creates a document whose content is read from the given memory mapped text store and sets
+	 * it up like {@link #createEmptyDocument(IPath, LocationKind)} does.
+	 *
+	 * @param location the location of the file to be connected
+	 * @param locationKind the kind of the given location
+	 * @param store the mapped text store
+	 * @return the document or <code>null</code> if a document factory is registered for the
+	 *         location
+	 * @since 3.8
+	 */
+	IDocument createMappedDocument(final IPath location, final LocationKind locationKind, MappedTextStore store) {
+		if (createDocumentFromFactory(location, locationKind) != null)
+			return null;
+
+		return setUpDocument(new SynchronizableDocument(store), location, locationKind);
+	}
+
+	/**
+	 * Sets the initial line delimiter of the given document and runs the document setup
+	 * participants for the given location.
+	 *
+	 * @param document the document to set up
+	 * @param location the location of the file to be connected
+	 * @param locationKind the kind of the given location
+	 * @return the given document
+	 * @since 3.8
+	 */
+	private IDocument setUpDocument(final IDocument document, final IPath location, final LocationKind locationKind) {
 		// Set the initial line delimiter
 		if (document instanceof IDocumentExtension4) {
 			String initalLineDelimiter= getLineDelimiterPreference(location, locationKind);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@
 package org.eclipse.jface.text.source.projection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -660,6 +661,50 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		}
 	}
 
+	/**
+	 * Adds the given master ranges to or removes them from the given projection document with a
+	 * single projection change. While the modification is processed, the viewer no longer handles
+	 * projection changes, as it is causing them.
+	 *
+	 * @param projection the projection document
+	 * @param type {@link ProjectionCommand#ADD} or {@link ProjectionCommand#REMOVE}
+	 * @param ranges the ranges in the master document
+	 * @throws BadLocationException in case one of the ranges is invalid
+	 *
+	 * @see ProjectionDocument#addMasterDocumentRanges(IRegion[])
+	 * @see ProjectionDocument#removeMasterDocumentRanges(IRegion[])
+	 */
+	private void changeMasterDocumentRanges(ProjectionDocument projection, int type, List<IRegion> ranges) throws BadLocationException {
+		if (ranges.size() == 1 || fCommandQueue != null) {
+			for (IRegion range : ranges) {
+				if (type == ProjectionCommand.ADD)
+					addMasterDocumentRange(projection, range.getOffset(), range.getLength());
+				else
+					removeMasterDocumentRange(projection, range.getOffset(), range.getLength());
+			}
+			return;
+		}
+
+		// make sure the document ranges are strictly line based, see addMasterDocumentRange
+		IDocument master= projection.getMasterDocument();
+		IRegion[] lineRanges= new IRegion[ranges.size()];
+		for (int i= 0; i < lineRanges.length; i++) {
+			IRegion range= ranges.get(i);
+			int offset= toLineStart(master, range.getOffset(), false);
+			int end= toLineStart(master, range.getOffset() + range.getLength(), true);
+			lineRanges[i]= new Region(offset, end - offset);
+		}
+		try {
+			fHandleProjectionChanges= false;
+			if (type == ProjectionCommand.ADD)
+				projection.addMasterDocumentRanges(lineRanges);
+			else
+				projection.removeMasterDocumentRanges(lineRanges);
+		} finally {
+			fHandleProjectionChanges= true;
+		}
+	}
+
 	/**
 	 * Returns the first line offset &lt;= <code>offset</code>. If <code>testLastLine</code>
 	 * is <code>true</code> and the offset is on last line then <code>offset</code> is returned.
@@ -992,23 +1037,36 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 
 	private void executeProjectionCommands(ProjectionCommandQueue commandQueue, boolean fireRedraw) throws BadLocationException {
 
+		// consecutive additions or removals are applied at once, the presentation is invalidated afterwards
+		List<ProjectionCommand> invalidations= new ArrayList<>();
+		List<IRegion> ranges= new ArrayList<>();
+		ProjectionCommand first= null;
 		ProjectionCommand command;
 		Iterator<ProjectionCommand> e= commandQueue.iterator();
 		while (e.hasNext()) {
 			command= e.next();
 			switch (command.fType) {
 				case ProjectionCommand.ADD:
-					addMasterDocumentRange(command.fProjection, command.fOffset, command.fLength);
-					break;
 				case ProjectionCommand.REMOVE:
-					removeMasterDocumentRange(command.fProjection, command.fOffset, command.fLength);
+					if (first != null && (first.fType != command.fType || first.fProjection != command.fProjection)) {
+						changeMasterDocumentRanges(first.fProjection, first.fType, ranges);
+						ranges.clear();
+					}
+					if (ranges.isEmpty())
+						first= command;
+					ranges.add(new Region(command.fOffset, command.fLength));
 					break;
 				case ProjectionCommand.INVALIDATE_PRESENTATION:
 					if (fireRedraw)
-						invalidateTextPresentation(command.fOffset, command.fLength);
+						invalidations.add(command);
 					break;
 			}
 		}
+		if (!ranges.isEmpty())
+			changeMasterDocumentRanges(first.fProjection, first.fType, ranges);
+
+		for (ProjectionCommand invalidation : invalidations)
+			invalidateTextPresentation(invalidation.fOffset, invalidation.fLength);
 
 		commandQueue.clear();
 	}
@@ -1201,6 +1259,7 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		}
 
 		if (projection != null) {
+			List<IRegion> collapsed= new ArrayList<>();
 			Iterator<Annotation> e= fProjectionAnnotationModel.getAnnotationIterator();
 			while (e.hasNext()) {
 				ProjectionAnnotation annotation= (ProjectionAnnotation) e.next();
@@ -1209,12 +1268,12 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 					if (position != null) {
 						IRegion[] regions= computeCollapsedRegions(position);
 						if (regions != null)
-							for (IRegion region : regions) {
-								removeMasterDocumentRange(projection, region.getOffset(), region.getLength());
-						}
+							collapsed.addAll(Arrays.asList(regions));
 					}
 				}
 			}
+			if (!collapsed.isEmpty())
+				changeMasterDocumentRanges(projection, ProjectionCommand.REMOVE, collapsed);
 
 		}
 
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal.text;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Selects the first elements of a list in sorted order without sorting the whole list. Selecting
+ * the first <code>k</code> of <code>n</code> elements takes <code>O(n log k)</code> comparisons
+ * instead of <code>O(n log n)</code>.
+ * <p>
+ * The selection is stable: it is equal to the first <code>k</code> elements of the list after a
+ * stable sort.
+ * </p>
+ *
+ * @since 3.25
+ */
+public final class TopKSelector {
+
+	private TopKSelector() {
+		// static methods only
+	}
+
+	/**
+	 * Returns the first <code>limit</code> elements of the given list in the order of the given
+	 * comparator. The given list is not modified.
+	 *
+	 * @param <T> the type of the elements
+	 * @param elements the elements to select from
+	 * @param limit the maximum number of elements to select
+	 * @param comparator the comparator defining the order, or <code>null</code> to keep the order
+	 *            of the list
+	 * @return a new list with the first <code>limit</code> elements in sorted order
+	 */
+	public static <T> List<T> select(List<? extends T> elements, int limit, Comparator<? super T> comparator) {
+		int size= elements.size();
+		if (comparator == null || limit <= 0)
+			return new ArrayList<>(elements.subList(0, Math.max(0, Math.min(limit, size))));
+
+		// binary heap of the indices of the best elements so far, the worst one at the top
+		int[] heap= new int[Math.min(limit, size)];
+		int count= 0;
+		for (int i= 0; i < size; i++) {
+			if (count < heap.length) {
+				heap[count]= i;
+				siftUp(elements, comparator, heap, count++);
+			} else if (isBefore(elements, comparator, i, heap[0])) {
+				heap[0]= i;
+				siftDown(elements, comparator, heap, count);
+			}
+		}
+
+		// removes the worst element first
+		List<T> selection= new ArrayList<>(count);
+		while (count > 0) {
+			selection.add(elements.get(heap[0]));
+			heap[0]= heap[--count];
+			siftDown(elements, comparator, heap, count);
+		}
+		Collections.reverse(selection);
+		return selection;
+	}
+
+	/**
+	 * Returns the given elements with the given selection of them moved to the front. The first
+	 * elements of a subset of the result are likely to be selected again, so selecting from the
+	 * subset replaces fewer elements of the heap.
+	 *
+	 * @param <T> the type of the elements
+	 * @param elements the elements
+	 * @param selection the elements to move to the front, in the order in which they are moved
+	 * @return a new list with the elements, starting with the selection
+	 */
+	public static <T> List<T> moveToFront(List<? extends T> elements, List<? extends T> selection) {
+		Set<T> selected= Collections.newSetFromMap(new IdentityHashMap<>());
+		selected.addAll(selection);
+		List<T> result= new ArrayList<>(elements.size());
+		result.addAll(selection);
+		for (T element : elements) {
+			if (!selected.contains(element))
+				result.add(element);
+		}
+		return result;
+	}
+
+	/**
+	 * Tells whether the element at the first index comes before the one at the second index.
+	 */
+	private static <T> boolean isBefore(List<? extends T> elements, Comparator<? super T> comparator, int i1, int i2) {
+		int result= comparator.compare(elements.get(i1), elements.get(i2));
+		return result < 0 || result == 0 && i1 < i2;
+	}
+
+	/**
+	 * Moves the element at the given index of the heap up until its parent comes after it.
+	 */
+	private static <T> void siftUp(List<? extends T> elements, Comparator<? super T> comparator, int[] heap, int index) {
+		int element= heap[index];
+		while (index > 0) {
+			int parent= (index - 1) / 2;
+			if (!isBefore(elements, comparator, heap[parent], element))
+				break;
+			heap[index]= heap[parent];
+			index= parent;
+		}
+		heap[index]= element;
+	}
+
+	/**
+	 * Moves the element at the top of the heap down until both children come before it.
+	 */
+	private static <T> void siftDown(List<? extends T> elements, Comparator<? super T> comparator, int[] heap, int count) {
+		if (count == 0)
+			return;
+		int element= heap[0];
+		int index= 0;
+		while (true) {
+			int child= 2 * index + 1;
+			if (child >= count)
+				break;
+			if (child + 1 < count && isBefore(elements, comparator, heap[child], heap[child + 1]))
+				child++;
+			if (!isBefore(elements, comparator, element, heap[child]))
+				break;
+			heap[index]= heap[child];
+			index= child;
+		}
+		heap[index]= element;
+	}
+}
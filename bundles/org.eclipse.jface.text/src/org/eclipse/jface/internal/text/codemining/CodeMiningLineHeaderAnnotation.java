@@ -1,5 +1,5 @@
 /**
- *  Copyright (c) 2017, 2022 Angelo ZERR.
+ *  Copyright (c) 2017, 2026 Angelo ZERR.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -117,6 +117,11 @@ public class CodeMiningLineHeaderAnnotation extends LineHeaderAnnotation impleme
 		fMinings.addAll(minings);
 	}
 
+	@Override
+	public List<ICodeMining> getMinings() {
+		return new ArrayList<>(fMinings);
+	}
+
 	@Override
 	public void markDeleted(boolean deleted) {
 		super.markDeleted(deleted);
@@ -1,5 +1,5 @@
 /**
- *  Copyright (c) 2017 Angelo ZERR.
+ *  Copyright (c) 2017, 2026 Angelo ZERR.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -13,12 +13,16 @@
  */
 package org.eclipse.jface.internal.text.codemining;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -27,6 +31,8 @@ import java.util.stream.Collectors;
 
 import org.osgi.framework.Bundle;
 
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.ControlListener;
 import org.eclipse.swt.graphics.Rectangle;
 
 import org.eclipse.core.runtime.Assert;
@@ -36,9 +42,13 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.IViewportListener;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.codemining.ICodeMining;
 import org.eclipse.jface.text.codemining.ICodeMiningProvider;
 import org.eclipse.jface.text.codemining.LineHeaderCodeMining;
@@ -48,11 +58,38 @@ import org.eclipse.jface.text.source.inlined.InlinedAnnotationSupport;
 
 /**
  * Code Mining manager implementation.
+ * <p>
+ * The code minings are rendered and resolved only for the visible lines and a margin of one page
+ * above and below them. The others are rendered when the viewport reaches them. The resolved code
+ * minings of a line are kept as long as the content of the line doesn't change.
+ * </p>
  *
  * @since 3.13
  */
 public class CodeMiningManager implements Runnable {
 
+	/**
+	 * Code minings rendered together, whose resolve is canceled when the viewport moves away from
+	 * them.
+	 *
+	 * @since 3.25
+	 */
+	private static class ResolvePass {
+
+		/** The document range of the code minings. */
+		final IRegion fRange;
+
+		/** The progress monitor used to resolve the code minings. */
+		final IProgressMonitor fMonitor= new CancellationExceptionMonitor();
+
+		/** The annotations updated with the code minings. */
+		final List<ICodeMiningAnnotation> fAnnotations= new ArrayList<>();
+
+		ResolvePass(IRegion range) {
+			fRange= range;
+		}
+	}
+
 	/**
 	 * The source viewer
 	 */
@@ -73,6 +110,84 @@ public class CodeMiningManager implements Runnable {
 	 */
 	private IProgressMonitor fMonitor;
 
+	/**
+	 * Renders the code minings which come into view.
+	 *
+	 * @since 3.25
+	 */
+	private final IViewportListener fViewportListener= verticalOffset -> visibleLinesChanged();
+
+	/**
+	 * Renders the code minings which come into view when the text widget is resized.
+	 *
+	 * @since 3.25
+	 */
+	private final ControlListener fControlListener= ControlListener.controlResizedAdapter(e -> visibleLinesChanged());
+
+	/**
+	 * The first visible line or <code>-1</code> if unknown.
+	 *
+	 * @since 3.25
+	 */
+	private volatile int fTopLine= -1;
+
+	/**
+	 * The last visible line or <code>-1</code> if unknown.
+	 *
+	 * @since 3.25
+	 */
+	private volatile int fBottomLine= -1;
+
+	/**
+	 * Guards the rendering state below.
+	 *
+	 * @since 3.25
+	 */
+	private final Object fLock= new Object();
+
+	/**
+	 * The code minings grouped by line position which are not rendered yet since they are not near
+	 * the visible lines.
+	 *
+	 * @since 3.25
+	 */
+	private Map<Position, List<ICodeMining>> fPendingGroups= new LinkedHashMap<>();
+
+	/**
+	 * The annotations rendered for the current code minings.
+	 *
+	 * @since 3.25
+	 */
+	private Set<AbstractInlinedAnnotation> fRenderedAnnotations= new HashSet<>();
+
+	/**
+	 * The annotations of the inlined annotation support.
+	 *
+	 * @since 3.25
+	 */
+	private Set<AbstractInlinedAnnotation> fAnnotations= new HashSet<>();
+
+	/**
+	 * The content of the line of an annotation when it was updated with its code minings.
+	 *
+	 * @since 3.25
+	 */
+	private final Map<ICodeMiningAnnotation, String> fLineContents= new HashMap<>();
+
+	/**
+	 * The rendered code minings which may still be resolved.
+	 *
+	 * @since 3.25
+	 */
+	private final List<ResolvePass> fResolvePasses= new ArrayList<>();
+
+	/**
+	 * The annotations whose code minings were canceled before they were resolved.
+	 *
+	 * @since 3.25
+	 */
+	private final Set<ICodeMiningAnnotation> fCanceledAnnotations= new HashSet<>();
+
 	/**
 	 * Constructor of codemining manager with the given arguments.
 	 *
@@ -88,6 +203,12 @@ public class CodeMiningManager implements Runnable {
 		fViewer= viewer;
 		fInlinedAnnotationSupport= inlinedAnnotationSupport;
 		setCodeMiningProviders(codeMiningProviders);
+		fViewer.addViewportListener(fViewportListener);
+		StyledText textWidget= fViewer.getTextWidget();
+		if (textWidget != null) {
+			textWidget.addControlListener(fControlListener);
+		}
+		updateVisibleLines();
 	}
 
 	/**
@@ -108,6 +229,18 @@ public class CodeMiningManager implements Runnable {
 	 */
 	public void uninstall() {
 		cancel();
+		fViewer.removeViewportListener(fViewportListener);
+		StyledText textWidget= fViewer.getTextWidget();
+		if (textWidget != null && !textWidget.isDisposed()) {
+			textWidget.removeControlListener(fControlListener);
+		}
+		synchronized (fLock) {
+			disposePendingGroups();
+			fRenderedAnnotations.clear();
+			fAnnotations.clear();
+			fLineContents.clear();
+			fCanceledAnnotations.clear();
+		}
 		if (fInlinedAnnotationSupport != null) {
 			fInlinedAnnotationSupport.updateAnnotations(Collections.emptySet());
 		}
@@ -125,6 +258,7 @@ public class CodeMiningManager implements Runnable {
 		// Cancel the last progress monitor to cancel last resolve and render of code
 		// minings
 		cancel();
+		updateVisibleLines();
 		// Update the code minings
 		updateCodeMinings();
 	}
@@ -155,6 +289,140 @@ public class CodeMiningManager implements Runnable {
 		if (fMonitor != null) {
 			fMonitor.setCanceled(true);
 		}
+		synchronized (fLock) {
+			for (ResolvePass pass : fResolvePasses) {
+				pass.fMonitor.setCanceled(true);
+			}
+			fResolvePasses.clear();
+		}
+	}
+
+	/**
+	 * Updates the visible lines if called in the UI thread.
+	 *
+	 * @return <code>true</code> if the visible lines changed and <code>false</code> otherwise
+	 * @since 3.25
+	 */
+	private boolean updateVisibleLines() {
+		StyledText textWidget= fViewer.getTextWidget();
+		if (textWidget == null || textWidget.isDisposed() || textWidget.getDisplay().getThread() != Thread.currentThread()) {
+			return false;
+		}
+		int topLine= fViewer.getTopIndex();
+		int bottomLine= fViewer.getBottomIndex();
+		if (topLine == fTopLine && bottomLine == fBottomLine) {
+			return false;
+		}
+		fTopLine= topLine;
+		fBottomLine= bottomLine;
+		return true;
+	}
+
+	/**
+	 * Cancels the resolve of the code minings the viewport moved away from and renders the code
+	 * minings which come into view.
+	 *
+	 * @since 3.25
+	 */
+	private void visibleLinesChanged() {
+		if (!updateVisibleLines()) {
+			return;
+		}
+		IDocument document= fViewer.getDocument();
+		IProgressMonitor monitor= fMonitor;
+		if (document == null || monitor == null) {
+			return;
+		}
+		IRegion resolveRange= getResolveRange(document);
+		boolean refresh= false;
+		boolean render;
+		synchronized (fLock) {
+			for (Iterator<ResolvePass> iter= fResolvePasses.iterator(); iter.hasNext();) {
+				ResolvePass pass= iter.next();
+				if (resolveRange == null || overlaps(pass.fRange, resolveRange)) {
+					continue;
+				}
+				// the viewport moved away, cancel the resolve of the code minings
+				pass.fMonitor.setCanceled(true);
+				iter.remove();
+				for (ICodeMiningAnnotation ann : pass.fAnnotations) {
+					if (ann.getMinings().stream().anyMatch(m -> !m.isResolved())) {
+						fCanceledAnnotations.add(ann);
+						fLineContents.remove(ann);
+					}
+				}
+			}
+			for (ICodeMiningAnnotation ann : fCanceledAnnotations) {
+				if (isInRange(((AbstractInlinedAnnotation) ann).getPosition().getOffset(), resolveRange)) {
+					refresh= true;
+					break;
+				}
+			}
+			render= !fPendingGroups.isEmpty();
+		}
+		if (refresh) {
+			// canceled code minings come into view again, they must be provided again
+			run();
+		} else if (render) {
+			CompletableFuture.runAsync(() -> renderPendingCodeMinings(fViewer, monitor));
+		}
+	}
+
+	/**
+	 * Returns the document range of the given lines or <code>null</code> if unknown.
+	 *
+	 * @param document the document
+	 * @param firstLine the first line
+	 * @param lastLine the last line
+	 * @return the range of the lines or <code>null</code>
+	 * @since 3.25
+	 */
+	private static IRegion getLineRange(IDocument document, int firstLine, int lastLine) {
+		if (firstLine < 0 || lastLine < firstLine) {
+			return null;
+		}
+		try {
+			int lastDocumentLine= document.getNumberOfLines() - 1;
+			int offset= document.getLineOffset(Math.min(firstLine, lastDocumentLine));
+			IRegion last= document.getLineInformation(Math.min(lastLine, lastDocumentLine));
+			return new Region(offset, last.getOffset() + last.getLength() - offset);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the range of the visible lines or <code>null</code> if unknown.
+	 *
+	 * @param document the document
+	 * @return the range of the visible lines or <code>null</code>
+	 * @since 3.25
+	 */
+	private IRegion getVisibleRange(IDocument document) {
+		return getLineRange(document, fTopLine, fBottomLine);
+	}
+
+	/**
+	 * Returns the range of the lines whose code minings are rendered and resolved: the visible
+	 * lines plus one page above and below, or <code>null</code> if unknown.
+	 *
+	 * @param document the document
+	 * @return the range of the lines whose code minings are resolved or <code>null</code>
+	 * @since 3.25
+	 */
+	private IRegion getResolveRange(IDocument document) {
+		int topLine= fTopLine;
+		int bottomLine= fBottomLine;
+		int margin= bottomLine - topLine + 1;
+		return getLineRange(document, Math.max(0, topLine - margin), bottomLine + margin);
+	}
+
+	private static boolean isInRange(int offset, IRegion range) {
+		return range == null || offset >= range.getOffset() && offset <= range.getOffset() + range.getLength();
+	}
+
+	private static boolean overlaps(IRegion range, IRegion other) {
+		return range == null || range.getOffset() <= other.getOffset() + other.getLength() && other.getOffset() <= range.getOffset() + range.getLength();
 	}
 
 	private static void logCodeMiningProviderException(Throwable e) {
@@ -233,6 +501,25 @@ public class CodeMiningManager implements Runnable {
 	 */
 	private void renderCodeMinings(Map<Position, List<ICodeMining>> groups, ISourceViewer viewer,
 			IProgressMonitor monitor) {
+		synchronized (fLock) {
+			// check if request was canceled.
+			monitor.isCanceled();
+			disposePendingGroups();
+			fPendingGroups= groups;
+			fRenderedAnnotations= new HashSet<>();
+			fCanceledAnnotations.clear();
+		}
+		renderPendingCodeMinings(viewer, monitor);
+	}
+
+	/**
+	 * Render the pending code minings which are near the visible lines.
+	 *
+	 * @param viewer  the viewer
+	 * @param monitor the progress monitor
+	 * @since 3.25
+	 */
+	private void renderPendingCodeMinings(ISourceViewer viewer, IProgressMonitor monitor) {
 		// check if request was canceled.
 		monitor.isCanceled();
 		IDocument document= viewer != null ? viewer.getDocument() : null;
@@ -241,33 +528,133 @@ public class CodeMiningManager implements Runnable {
 			// done.
 			return;
 		}
+		IRegion visibleRange= getVisibleRange(document);
+		IRegion resolveRange= getResolveRange(document);
 		Set<ICodeMiningAnnotation> annotationsToRedraw= new HashSet<>();
-		Set<AbstractInlinedAnnotation> currentAnnotations= new HashSet<>();
-		// Loop for grouped code minings
-		groups.entrySet().stream().forEach(g -> {
+		List<ICodeMining> miningsToResolve= new ArrayList<>();
+		ResolvePass pass= null;
+		synchronized (fLock) {
+			Map<Position, AbstractInlinedAnnotation> existingAnnotations= new HashMap<>();
+			for (AbstractInlinedAnnotation ann : fAnnotations) {
+				Position pos= ann.getPosition();
+				if (!pos.isDeleted()) {
+					existingAnnotations.put(new Position(pos.getOffset(), pos.getLength()), ann);
+				}
+			}
+			Set<AbstractInlinedAnnotation> currentAnnotations= new HashSet<>(fRenderedAnnotations);
+			// Loop for grouped code minings
+			for (Iterator<Entry<Position, List<ICodeMining>>> iter= fPendingGroups.entrySet().iterator(); iter.hasNext();) {
+				// check if request was canceled.
+				monitor.isCanceled();
+
+				Entry<Position, List<ICodeMining>> g= iter.next();
+				Position pos= new Position(g.getKey().offset, g.getKey().length);
+				// Try to find existing annotation
+				AbstractInlinedAnnotation ann= existingAnnotations.get(pos);
+				if (!isInRange(pos.getOffset(), resolveRange)) {
+					// render the code minings when they come into view, keep the existing annotation until then
+					if (ann != null) {
+						currentAnnotations.add(ann);
+					}
+					continue;
+				}
+				iter.remove();
+				List<ICodeMining> minings= g.getValue();
+				String lineContent= getLineContent(document, pos.getOffset());
+				if (ann == null) {
+					// The annotation doesn't exists, create it.
+					boolean inLineHeader= !minings.isEmpty() ? (minings.get(0) instanceof LineHeaderCodeMining) : true;
+					ann= inLineHeader ? new CodeMiningLineHeaderAnnotation(pos, viewer) : new CodeMiningLineContentAnnotation(pos, viewer);
+				} else if (lineContent != null && lineContent.equals(fLineContents.get(ann))
+						&& isResolved(((ICodeMiningAnnotation) ann).getMinings(), minings)) {
+					// the line didn't change, keep its resolved code minings
+					minings.forEach(ICodeMining::dispose);
+					fRenderedAnnotations.add(ann);
+					currentAnnotations.add(ann);
+					continue;
+				} else if (isInRange(pos.getOffset(), visibleRange)) {
+					// annotation is in visible lines
+					annotationsToRedraw.add((ICodeMiningAnnotation) ann);
+				}
+				if (pass == null) {
+					pass= new ResolvePass(resolveRange);
+					fResolvePasses.add(pass);
+				}
+				((ICodeMiningAnnotation) ann).update(minings, pass.fMonitor);
+				pass.fAnnotations.add((ICodeMiningAnnotation) ann);
+				fLineContents.put((ICodeMiningAnnotation) ann, lineContent);
+				fRenderedAnnotations.add(ann);
+				currentAnnotations.add(ann);
+				if (!isInRange(pos.getOffset(), visibleRange)) {
+					// resolve the code minings before they come into view
+					miningsToResolve.addAll(minings);
+				}
+			}
 			// check if request was canceled.
 			monitor.isCanceled();
-
-			Position pos= new Position(g.getKey().offset, g.getKey().length);
-			List<ICodeMining> minings= g.getValue();
-			boolean inLineHeader= !minings.isEmpty() ? (minings.get(0) instanceof LineHeaderCodeMining) : true;
-			// Try to find existing annotation
-			AbstractInlinedAnnotation ann= fInlinedAnnotationSupport.findExistingAnnotation(pos);
-			if (ann == null) {
-				// The annotation doesn't exists, create it.
-				ann= inLineHeader ? new CodeMiningLineHeaderAnnotation(pos, viewer) : new CodeMiningLineContentAnnotation(pos, viewer);
-			} else if (ann instanceof ICodeMiningAnnotation && ((ICodeMiningAnnotation) ann).isInVisibleLines()) {
-				// annotation is in visible lines
-				annotationsToRedraw.add((ICodeMiningAnnotation) ann);
+			if (!currentAnnotations.equals(fAnnotations)) {
+				fInlinedAnnotationSupport.updateAnnotations(new HashSet<>(currentAnnotations));
+				fAnnotations= currentAnnotations;
+				fLineContents.keySet().retainAll(currentAnnotations);
+				fCanceledAnnotations.retainAll(currentAnnotations);
 			}
-			((ICodeMiningAnnotation) ann).update(minings, monitor);
-			currentAnnotations.add(ann);
-		});
-		// check if request was canceled.
-		monitor.isCanceled();
-		fInlinedAnnotationSupport.updateAnnotations(currentAnnotations);
+		}
 		// redraw the existing codemining annotations since their content can change
 		annotationsToRedraw.stream().forEach(ICodeMiningAnnotation::redraw);
+		for (ICodeMining mining : miningsToResolve) {
+			mining.resolve(viewer, pass.fMonitor);
+		}
+	}
+
+	/**
+	 * Disposes the code minings which were not rendered.
+	 *
+	 * @since 3.25
+	 */
+	private void disposePendingGroups() {
+		fPendingGroups.values().forEach(minings -> minings.forEach(ICodeMining::dispose));
+		fPendingGroups= new LinkedHashMap<>();
+	}
+
+	/**
+	 * Returns the content of the line at the given offset or <code>null</code> if unknown.
+	 *
+	 * @param document the document
+	 * @param offset the offset
+	 * @return the content of the line or <code>null</code>
+	 * @since 3.25
+	 */
+	private static String getLineContent(IDocument document, int offset) {
+		try {
+			IRegion line= document.getLineInformationOfOffset(offset);
+			return document.get(line.getOffset(), line.getLength());
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given resolved minings can be kept instead of the given
+	 * minings of an unchanged line and <code>false</code> otherwise.
+	 *
+	 * @param resolvedMinings the current minings of the annotation
+	 * @param minings the new minings of the line
+	 * @return <code>true</code> if all the resolved minings have a label and match the new minings
+	 * @since 3.25
+	 */
+	private static boolean isResolved(List<ICodeMining> resolvedMinings, List<ICodeMining> minings) {
+		if (resolvedMinings.size() != minings.size()) {
+			return false;
+		}
+		for (int i= 0; i < minings.size(); i++) {
+			ICodeMining resolvedMining= resolvedMinings.get(i);
+			ICodeMining mining= minings.get(i);
+			if (!resolvedMining.isResolved() || resolvedMining.getLabel() == null || resolvedMining.getProvider() != mining.getProvider()
+					|| resolvedMining.getClass() != mining.getClass()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
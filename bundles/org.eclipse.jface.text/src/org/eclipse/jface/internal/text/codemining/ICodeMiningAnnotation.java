@@ -1,5 +1,5 @@
 /**
- *  Copyright (c) 2018, Angelo ZERR and others.
+ *  Copyright (c) 2018, 2026 Angelo ZERR and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -34,6 +34,14 @@ public interface ICodeMiningAnnotation {
 	 */
 	void update(List<ICodeMining> minings, IProgressMonitor monitor);
 
+	/**
+	 * Returns the current minings.
+	 *
+	 * @return the current resolved/unresolved minings.
+	 * @since 3.25
+	 */
+	List<ICodeMining> getMinings();
+
 	/**
 	 * Redraw the codemining annotation.
 	 */
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal.text.source;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+
+
+/**
+ * Annotations sorted by the offsets of their positions. The overview ruler keeps one index per
+ * annotation type and style, paints one annotation per pixel row from it and looks up the
+ * annotations of the lines at a mouse location in it.
+ * <p>
+ * The positions are the live positions of the annotation model. The order is kept as long as the
+ * positions are updated by document changes; a position whose offset is changed directly must be
+ * removed and added again.
+ * </p>
+ *
+ * @since 3.25
+ */
+public final class AnnotationIndex {
+
+	private Annotation[] fAnnotations= new Annotation[8];
+	private Position[] fPositions= new Position[8];
+	private int fSize;
+	/** An upper bound of the lengths of the positions, recomputed by {@link #sort()}. */
+	private int fMaxLength;
+
+	/**
+	 * Adds the given annotation at its place in the order.
+	 *
+	 * @param annotation the annotation
+	 * @param position the position of the annotation
+	 */
+	public void add(Annotation annotation, Position position) {
+		ensureCapacity();
+		int index= lowerBound(position.getOffset() + 1);
+		System.arraycopy(fAnnotations, index, fAnnotations, index + 1, fSize - index);
+		System.arraycopy(fPositions, index, fPositions, index + 1, fSize - index);
+		fAnnotations[index]= annotation;
+		fPositions[index]= position;
+		fSize++;
+		fMaxLength= Math.max(fMaxLength, position.getLength());
+	}
+
+	/**
+	 * Removes the given annotation. The annotation is looked up at the offset of the given
+	 * position, which is the position it has been added with. If its offset has been changed
+	 * directly, the annotation is searched in the whole index.
+	 *
+	 * @param annotation the annotation
+	 * @param position the position the annotation has been added with
+	 * @return <code>true</code> if the annotation has been removed
+	 */
+	public boolean remove(Annotation annotation, Position position) {
+		int index= -1;
+		if (position != null) {
+			int offset= position.getOffset();
+			for (int i= lowerBound(offset); i < fSize && fPositions[i].getOffset() == offset; i++) {
+				if (fAnnotations[i] == annotation) {
+					index= i;
+					break;
+				}
+			}
+		}
+		if (index == -1) {
+			for (int i= 0; i < fSize; i++) {
+				if (fAnnotations[i] == annotation) {
+					index= i;
+					break;
+				}
+			}
+			if (index == -1)
+				return false;
+		}
+		System.arraycopy(fAnnotations, index + 1, fAnnotations, index, fSize - index - 1);
+		System.arraycopy(fPositions, index + 1, fPositions, index, fSize - index - 1);
+		fSize--;
+		fAnnotations[fSize]= null;
+		fPositions[fSize]= null;
+		return true;
+	}
+
+	/**
+	 * Appends the given annotation without keeping the order, see {@link #sort()}.
+	 *
+	 * @param annotation the annotation
+	 * @param position the position of the annotation
+	 */
+	public void append(Annotation annotation, Position position) {
+		ensureCapacity();
+		fAnnotations[fSize]= annotation;
+		fPositions[fSize]= position;
+		fSize++;
+	}
+
+	/**
+	 * Sorts the annotations added by {@link #append(Annotation, Position)} and recomputes the
+	 * maximal length of the positions.
+	 */
+	public void sort() {
+		Integer[] order= new Integer[fSize];
+		for (int i= 0; i < fSize; i++)
+			order[i]= Integer.valueOf(i);
+		Arrays.sort(order, Comparator.comparingInt(i -> fPositions[i.intValue()].getOffset()));
+		Annotation[] annotations= new Annotation[Math.max(8, fSize)];
+		Position[] positions= new Position[annotations.length];
+		int maxLength= 0;
+		for (int i= 0; i < fSize; i++) {
+			annotations[i]= fAnnotations[order[i].intValue()];
+			positions[i]= fPositions[order[i].intValue()];
+			maxLength= Math.max(maxLength, positions[i].getLength());
+		}
+		fAnnotations= annotations;
+		fPositions= positions;
+		fMaxLength= maxLength;
+	}
+
+	/**
+	 * Returns the number of annotations.
+	 *
+	 * @return the number of annotations
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the annotation at the given index.
+	 *
+	 * @param index the index
+	 * @return the annotation
+	 */
+	public Annotation getAnnotation(int index) {
+		return fAnnotations[index];
+	}
+
+	/**
+	 * Returns the position of the annotation at the given index.
+	 *
+	 * @param index the index
+	 * @return the position
+	 */
+	public Position getPosition(int index) {
+		return fPositions[index];
+	}
+
+	/**
+	 * Returns an upper bound of the lengths of the positions.
+	 *
+	 * @return an upper bound of the lengths of the positions
+	 */
+	public int getMaxLength() {
+		return fMaxLength;
+	}
+
+	/**
+	 * Returns the index of the first annotation whose position starts at or after the given
+	 * offset.
+	 *
+	 * @param offset the offset
+	 * @return the index of the first annotation starting at or after the offset
+	 */
+	public int lowerBound(int offset) {
+		int low= 0;
+		int high= fSize;
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if (fPositions[mid].getOffset() < offset)
+				low= mid + 1;
+			else
+				high= mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Skips the annotations of a pixel row. Returns the index of the first annotation after the
+	 * given one that starts in the next row and reports the skipped annotations that reach into
+	 * the next row.
+	 *
+	 * @param index the index of the annotation painted for the row
+	 * @param nextOffset the offset of the first line of the next row
+	 * @param reaching receives the indexes of the skipped, not deleted annotations that end after
+	 *            <code>nextOffset</code>
+	 * @return the index of the first annotation of the next row
+	 */
+	public int skipRow(int index, int nextOffset, IntConsumer reaching) {
+		int next= Math.max(index + 1, lowerBound(nextOffset));
+		if (fPositions[next - 1].getOffset() + fMaxLength > nextOffset) {
+			for (int j= index + 1; j < next; j++) {
+				Position q= fPositions[j];
+				if (q.getOffset() + q.getLength() > nextOffset && !fAnnotations[j].isMarkedDeleted())
+					reaching.accept(j);
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Returns the position of the first not deleted annotation that starts in the given range, or
+	 * failing that, the position of the nearest annotation before the range that reaches into it.
+	 * Trailing empty lines of a position do not count.
+	 *
+	 * @param document the document
+	 * @param start the start offset of the range
+	 * @param end the end offset of the range, inclusive
+	 * @return the position or <code>null</code> if none
+	 * @throws BadLocationException if a position is not valid in the document
+	 */
+	public Position findPosition(IDocument document, int start, int end) throws BadLocationException {
+		// the annotations starting in the range
+		int first= lowerBound(start);
+		for (int j= first; j < fSize; j++) {
+			Position p= fPositions[j];
+			if (p.getOffset() > end)
+				break;
+			if (!fAnnotations[j].isMarkedDeleted())
+				return p;
+		}
+		// the annotations starting before the range that are long enough to reach it
+		for (int j= first - 1; j >= 0; j--) {
+			Position p= fPositions[j];
+			if (p.getOffset() + fMaxLength < start)
+				break;
+			if (!fAnnotations[j].isMarkedDeleted() && endsAtOrAfter(document, p, start))
+				return p;
+		}
+		return null;
+	}
+
+	private static boolean endsAtOrAfter(IDocument d, Position p, int offset) throws BadLocationException {
+		int posOffset= p.getOffset();
+		int posEnd= posOffset + p.getLength();
+		// trailing empty lines don't count
+		if (posEnd > posOffset && d.getLineInformationOfOffset(posEnd).getOffset() == posEnd)
+			posEnd--;
+		return posEnd >= offset;
+	}
+
+	private void ensureCapacity() {
+		if (fSize == fAnnotations.length) {
+			fAnnotations= Arrays.copyOf(fAnnotations, 2 * fSize);
+			fPositions= Arrays.copyOf(fPositions, 2 * fSize);
+		}
+	}
+}
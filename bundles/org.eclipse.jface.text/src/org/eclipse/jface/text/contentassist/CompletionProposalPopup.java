@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -79,6 +79,7 @@ import org.eclipse.jface.bindings.keys.SWTKeySupport;
 import org.eclipse.jface.contentassist.IContentAssistSubjectControl;
 import org.eclipse.jface.internal.text.InformationControlReplacer;
 import org.eclipse.jface.internal.text.TableOwnerDrawSupport;
+import org.eclipse.jface.internal.text.TopKSelector;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.resource.JFaceColors;
 import org.eclipse.jface.resource.JFaceResources;
@@ -450,6 +451,28 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 */
 	boolean fIsInitialSort;
 
+	/**
+	 * The maximum number of displayed proposals, or <code>-1</code> to display all proposals.
+	 *
+	 * @since 3.25
+	 */
+	int fProposalLimit= -1;
+
+	/**
+	 * All valid proposals if {@link #fFilteredProposals} only contains the best of them due to
+	 * {@link #fProposalLimit}, <code>null</code> otherwise.
+	 *
+	 * @since 3.25
+	 */
+	private List<ICompletionProposal> fCandidateProposals;
+
+	/**
+	 * The displayed proposals which have been selected from {@link #fCandidateProposals}.
+	 *
+	 * @since 3.25
+	 */
+	private List<ICompletionProposal> fSelectedProposals;
+
 	/**
 	 * Creates a new completion proposal popup for the given elements.
 	 *
@@ -580,7 +603,7 @@ class CompletionProposalPopup implements IContentAssistListener {
 			return Collections.emptyList();
 		}
 		List<ICompletionProposal> proposals= Arrays.asList(completionProposals);
-		if (fSorter != null) {
+		if (fSorter != null && (fProposalLimit < 0 || proposals.size() <= fProposalLimit)) {
 			sortProposals(proposals);
 			fIsInitialSort= true;
 		}
@@ -1139,6 +1162,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 
 		fFilteredProposals= null;
 		fComputedProposals= null;
+		fCandidateProposals= null;
+		fSelectedProposals= null;
 
 		fContentAssistant.possibleCompletionsClosed();
 	}
@@ -1177,7 +1202,16 @@ class CompletionProposalPopup implements IContentAssistListener {
 				proposals= Collections.singletonList(fEmptyProposal);
 			}
 
-			if (fSorter != null && !fIsInitialSort) {
+			fCandidateProposals= null;
+			fSelectedProposals= null;
+			if (fProposalLimit >= 0 && proposals.size() > fProposalLimit) {
+				// only select the best proposals instead of sorting all of them
+				List<ICompletionProposal> candidates= new ArrayList<>(proposals); // asynchronous processors may still add proposals
+				proposals= TopKSelector.select(candidates, fProposalLimit, fSorter == null || fIsInitialSort ? null : fSorter::compare);
+				// the best proposals are likely to be selected again when narrowing
+				fCandidateProposals= TopKSelector.moveToFront(candidates, proposals);
+				fSelectedProposals= proposals;
+			} else if (fSorter != null && !fIsInitialSort) {
 				sortProposals(proposals);
 			}
 			fIsInitialSort= false;
@@ -1549,7 +1583,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 			proposals= fComputedProposals;
 			fIsFilteredSubset= false;
 		} else {
-			proposals= fFilteredProposals;
+			// narrowing: filter the proposals that were valid so far, not only the displayed ones
+			proposals= getCandidateProposals();
 			fIsFilteredSubset= true;
 		}
 
@@ -1681,7 +1716,7 @@ class CompletionProposalPopup implements IContentAssistListener {
 	}
 
 	/**
-	 * Acts upon <code>fFilteredProposals</code>: if there is just one valid
+	 * Acts upon all valid proposals, see {@link #getCandidateProposals()}: if there is just one valid
 	 * proposal, it is inserted, otherwise, the common prefix of all proposals
 	 * is inserted into the document. If there is no common prefix, nothing
 	 * happens and <code>false</code> is returned.
@@ -1692,10 +1727,12 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 */
 	boolean completeCommonPrefix() {
 
+		List<ICompletionProposal> proposals= getCandidateProposals();
+
 		// 0: insert single proposals
-		if (fFilteredProposals.size() == 1) {
-			if (canAutoInsert(fFilteredProposals.get(0))) {
-				insertProposal(fFilteredProposals.get(0), (char) 0, 0, fFilterOffset);
+		if (proposals.size() == 1) {
+			if (canAutoInsert(proposals.get(0))) {
+				insertProposal(proposals.get(0), (char) 0, 0, fFilterOffset);
 				hide();
 				return true;
 			}
@@ -1720,8 +1757,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 		List<ICompletionProposal> wrongCase= new ArrayList<>();
 
 		boolean hasMixedProposals= hasMixedProposals();
-		for (int i= 0; i < fFilteredProposals.size(); i++) {
-			ICompletionProposal proposal= fFilteredProposals.get(i);
+		for (int i= 0; i < proposals.size(); i++) {
+			ICompletionProposal proposal= proposals.get(i);
 
 			if (!(proposal instanceof ICompletionProposalExtension3))
 				return false;
@@ -1861,7 +1898,7 @@ class CompletionProposalPopup implements IContentAssistListener {
 		IDocument document= fContentAssistSubjectControlAdapter.getDocument();
 		boolean hasSubstringMatch= false;
 		boolean hasPrefixMatch= false;
-		for (ICompletionProposal proposal : fFilteredProposals) {
+		for (ICompletionProposal proposal : getCandidateProposals()) {
 			if (!(proposal instanceof ICompletionProposalExtension3))
 				return false;
 
@@ -2016,6 +2053,32 @@ class CompletionProposalPopup implements IContentAssistListener {
 		fSorter= sorter;
 	}
 
+	/**
+	 * Sets the maximum number of displayed proposals. If more proposals are valid, only the best
+	 * ones according to the sorter are displayed.
+	 *
+	 * @param limit the maximum number of displayed proposals, or <code>-1</code> to display all
+	 *            proposals
+	 * @since 3.25
+	 * @see ContentAssistant#setProposalLimit(int)
+	 */
+	public void setProposalLimit(int limit) {
+		fProposalLimit= limit;
+	}
+
+	/**
+	 * Returns all valid proposals, including the ones which are not displayed due to the proposal
+	 * limit.
+	 *
+	 * @return all valid proposals, may be <code>null</code>
+	 * @since 3.25
+	 */
+	List<ICompletionProposal> getCandidateProposals() {
+		if (fCandidateProposals != null && fFilteredProposals == fSelectedProposals)
+			return fCandidateProposals;
+		return fFilteredProposals;
+	}
+
 	/**
 	 * Sorts the given proposal array.
 	 *
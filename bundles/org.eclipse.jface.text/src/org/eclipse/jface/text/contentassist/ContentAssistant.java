@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1070,6 +1070,13 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 	 */
 	private ICompletionProposalSorter fSorter;
 
+	/**
+	 * The maximum number of proposals displayed in the proposal popup, or <code>-1</code>.
+	 *
+	 * @since 3.25
+	 */
+	private int fProposalLimit= -1;
+
 	/**
 	 * Tells whether this content assistant allows to run asynchronous
 	 *
@@ -1586,6 +1593,7 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 		fContextInfoPopup= fContentAssistSubjectControlAdapter.createContextInfoPopup(this);
 		fProposalPopup= fContentAssistSubjectControlAdapter.createCompletionProposalPopup(this, controller, fAsynchronous);
 		fProposalPopup.setSorter(fSorter);
+		fProposalPopup.setProposalLimit(fProposalLimit);
 
 		registerHandler(SELECT_NEXT_PROPOSAL_COMMAND_ID, fProposalPopup.createProposalSelectionHandler(CompletionProposalPopup.ProposalSelectionHandler.SELECT_NEXT));
 		registerHandler(SELECT_PREVIOUS_PROPOSAL_COMMAND_ID, fProposalPopup.createProposalSelectionHandler(CompletionProposalPopup.ProposalSelectionHandler.SELECT_PREVIOUS));
@@ -2735,6 +2743,30 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 		}
 	}
 
+	/**
+	 * Sets the maximum number of proposals displayed in the proposal popup. By default, all valid
+	 * proposals are displayed.
+	 * <p>
+	 * This is meant for processors computing many thousands of proposals. If more proposals are
+	 * valid, only the best ones according to the sorter are displayed, and they are selected
+	 * without sorting all valid proposals. This applies whenever the list is updated, i.e. when
+	 * the proposals of another processor arrive in asynchronous mode and when the proposals are
+	 * filtered while typing. All valid proposals are kept, so typing more characters of a prefix
+	 * filters the proposals that were valid so far and not only the displayed ones.
+	 * </p>
+	 *
+	 * @param limit the maximum number of displayed proposals, or <code>-1</code> to display all
+	 *            valid proposals
+	 * @see #setSorter(ICompletionProposalSorter)
+	 * @since 3.25
+	 */
+	public void setProposalLimit(int limit) {
+		fProposalLimit= limit;
+		if (fProposalPopup != null) {
+			fProposalPopup.setProposalLimit(fProposalLimit);
+		}
+	}
+
 	/**
 	 * Returns whether completion trigger char are enabled. If false, completion proposal trigger
 	 * chars are ignored and only Enter key can be used to select a proposal.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,17 +14,25 @@
 
 package org.eclipse.jface.text.presentation;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.DocumentPartitioningChangedEvent;
 import org.eclipse.jface.text.IDocument;
@@ -40,11 +48,14 @@ import org.eclipse.jface.text.ITextListener;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.ITextViewerExtension5;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextEvent;
 import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.TypedPosition;
+import org.eclipse.jface.text.TypedRegion;
 
 
 
@@ -56,6 +67,12 @@ import org.eclipse.jface.text.TypedPosition;
  * document change rather than just the portion overlapping with the viewer's
  * viewport.
  * <p>
+ * For expensive repairers, the presentation can be repaired in a background thread
+ * instead, see {@link #setBackgroundRepair(boolean)}. For large documents, the part
+ * of the damage inside the viewport can be repaired first and the rest later, see
+ * {@link #setViewportRepairThreshold(int)}.
+ * </p>
+ * <p>
  * Usually, clients instantiate this class and configure it before using it.
  * </p>
  */
@@ -64,13 +81,27 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	/** Prefix of the name of the position category for tracking damage regions. */
 	protected final static String TRACKED_PARTITION= "__reconciler_tracked_partition"; //$NON-NLS-1$
 
+	/**
+	 * The number of characters repaired and applied at once by a background repair.
+	 * @since 3.25
+	 */
+	private static final int REPAIR_CHUNK_SIZE= 16 * 1024;
+
+	/**
+	 * The time in milliseconds a viewport first repair may spend at once on the damage outside
+	 * the viewport before it yields to the UI thread.
+	 * @since 3.25
+	 */
+	private static final long IDLE_REPAIR_TIME= 20;
+
 
 	/**
 	 * Internal listener class.
 	 */
 	class InternalListener implements
 			ITextInputListener, IDocumentListener, ITextListener,
-			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2 {
+			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2,
+			IViewportListener {
 
 		/** Set to <code>true</code> if between a document about to be changed and a changed event. */
 		private boolean fDocumentChanging= false;
@@ -82,6 +113,9 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 
 		@Override
 		public void inputDocumentAboutToBeChanged(IDocument oldDocument, IDocument newDocument) {
+			++ fRepairGeneration;
+			fPendingDamage= null;
+			fUnrepairedDamage.clear();
 			if (oldDocument != null) {
 				try {
 
@@ -116,8 +150,10 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 				newDocument.addDocumentListener(this);
 				fViewer.addTextListener(this);
 
-				setDocumentToDamagers(newDocument);
-				setDocumentToRepairers(newDocument);
+				synchronized (fRepairLock) {
+					setDocumentToDamagers(newDocument);
+					setDocumentToRepairers(newDocument);
+				}
 				processDamage(new Region(0, newDocument.getLength()), newDocument);
 			}
 		}
@@ -151,6 +187,8 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		public void documentAboutToBeChanged(DocumentEvent e) {
 
 			fDocumentChanging= true;
+			if (fBackgroundRepair)
+				++ fRepairGeneration;
 			if (fCachedRedrawState) {
 				try {
 					int offset= e.getOffset() + e.getLength();
@@ -218,6 +256,13 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			fChangedDocumentPartitions= null;
 		}
 
+		@Override
+		public void viewportChanged(int verticalOffset) {
+			IDocument document= fViewer.getDocument();
+			if (document != null && !fUnrepairedDamage.isEmpty())
+				repairVisibleDamage(document);
+		}
+
 		/**
 		 * Translates the given text event into the corresponding range of the viewer's document.
 		 *
@@ -265,6 +310,54 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 * @since 3.0
 	 */
 	private String fPartitioning;
+	/**
+	 * Tells whether the presentation is repaired in a background thread.
+	 * @since 3.25
+	 */
+	private boolean fBackgroundRepair= false;
+	/**
+	 * The executor running the background repairs.
+	 * @since 3.25
+	 */
+	private ExecutorService fRepairExecutor;
+	/**
+	 * The lock guarding the use of the damagers and repairers once they are used by the
+	 * background thread.
+	 * @since 3.25
+	 */
+	private final Object fRepairLock= new Object();
+	/**
+	 * The generation of the document content. Background repairs of an older generation are
+	 * discarded.
+	 * @since 3.25
+	 */
+	private volatile long fRepairGeneration;
+	/**
+	 * The damage that has not yet been repaired in the background, or <code>null</code>.
+	 * @since 3.25
+	 */
+	private Position fPendingDamage;
+	/**
+	 * The length above which documents are repaired viewport first, or <code>-1</code>.
+	 * @since 3.25
+	 */
+	private int fViewportRepairThreshold= -1;
+	/**
+	 * The length above which the damage outside the viewport is only repaired when it becomes
+	 * visible, or <code>-1</code>.
+	 * @since 3.25
+	 */
+	private int fOffscreenRepairLimit= -1;
+	/**
+	 * The damage that has not been repaired yet by a viewport first repair.
+	 * @since 3.25
+	 */
+	private final List<Position> fUnrepairedDamage= new ArrayList<>();
+	/**
+	 * Tells whether the repair of the damage outside the viewport is scheduled.
+	 * @since 3.25
+	 */
+	private boolean fIdleRepairScheduled= false;
 
 	/**
 	 * Creates a new presentation reconciler. There are no damagers or repairers
@@ -289,6 +382,94 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		fPartitioning= partitioning;
 	}
 
+	/**
+	 * Sets whether the presentation is repaired in a background thread. By default, the
+	 * presentation is repaired in the UI thread.
+	 * <p>
+	 * In background mode, the damage is still computed in the UI thread, but the repairers work
+	 * on an immutable snapshot in a background thread: the whole document if its snapshots share
+	 * the content (see {@link AbstractDocument#isSnapshotShared()}), a copy of the damaged range
+	 * otherwise. The partitioning is computed chunk by chunk as the repair proceeds. The resulting
+	 * presentation is applied to the viewer in chunks, starting with the part of the damage
+	 * inside the viewer's viewport. When the document is changed again before a chunk is applied,
+	 * the chunk is discarded and the damage that has not been repaired yet is repaired together
+	 * with the new damage.
+	 * </p>
+	 * <p>
+	 * The repairers must not access the viewer or its widget in background mode. Since
+	 * {@link #createPresentation(IRegion, IDocument)} works on the live document, it is not
+	 * called in background mode.
+	 * </p>
+	 *
+	 * @param backgroundRepair <code>true</code> to repair the presentation in a background thread
+	 * @since 3.25
+	 */
+	public void setBackgroundRepair(boolean backgroundRepair) {
+		if (fBackgroundRepair == backgroundRepair)
+			return;
+
+		fBackgroundRepair= backgroundRepair;
+		++ fRepairGeneration;
+		if (!backgroundRepair) {
+			stopBackgroundRepair();
+			IDocument document= fViewer == null ? null : fViewer.getDocument();
+			if (document != null) {
+				synchronized (fRepairLock) {
+					setDocumentToDamagers(document);
+					setDocumentToRepairers(document);
+				}
+				Position pending= fPendingDamage;
+				removePendingDamage(document);
+				if (pending != null && !pending.isDeleted())
+					processDamage(new Region(pending.getOffset(), pending.getLength()), document);
+			}
+		}
+	}
+
+	/**
+	 * Sets the document length above which the presentation is repaired viewport first: the part
+	 * of the damage inside the viewer's viewport is repaired immediately, the rest is repaired
+	 * later in the UI thread in time-sliced chunks, starting next to the viewport. By default,
+	 * all documents are repaired at once.
+	 * <p>
+	 * Viewport first repair is not used in background mode, see
+	 * {@link #setBackgroundRepair(boolean)}, which repairs the viewport first anyway.
+	 * </p>
+	 *
+	 * @param threshold the document length above which the presentation is repaired viewport
+	 *            first, or <code>-1</code> to repair all documents at once
+	 * @see #setOffscreenRepairLimit(int)
+	 * @since 3.25
+	 */
+	public void setViewportRepairThreshold(int threshold) {
+		fViewportRepairThreshold= threshold;
+	}
+
+	/**
+	 * Sets the document length above which a viewport first repair does not repair the damage
+	 * outside the viewport until it becomes visible. By default, all damage is repaired
+	 * eventually.
+	 *
+	 * @param limit the document length above which off-screen damage is only repaired when it
+	 *            becomes visible, or <code>-1</code> to always repair it
+	 * @see #setViewportRepairThreshold(int)
+	 * @since 3.25
+	 */
+	public void setOffscreenRepairLimit(int limit) {
+		fOffscreenRepairLimit= limit;
+	}
+
+	/**
+	 * Tells whether the presentation is repaired in a background thread.
+	 *
+	 * @return <code>true</code> if the presentation is repaired in a background thread
+	 * @see #setBackgroundRepair(boolean)
+	 * @since 3.25
+	 */
+	public boolean isBackgroundRepair() {
+		return fBackgroundRepair;
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.presentation.IPresentationReconcilerExtension#geDocumenttPartitioning()
 	 * @since 3.0
@@ -346,6 +527,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 
 		fViewer= viewer;
 		fViewer.addTextInputListener(fInternalListener);
+		fViewer.addViewportListener(fInternalListener);
 
 		IDocument document= viewer.getDocument();
 		if (document != null)
@@ -355,9 +537,11 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	@Override
 	public void uninstall() {
 		fViewer.removeTextInputListener(fInternalListener);
+		fViewer.removeViewportListener(fInternalListener);
 
 		// Ensure we uninstall all listeners
 		fInternalListener.inputDocumentAboutToBeChanged(fViewer.getDocument(), null);
+		stopBackgroundRepair();
 	}
 
 	@Override
@@ -467,6 +651,28 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		}
 
 		boolean isDeletion= length == 0;
+		if (fBackgroundRepair) {
+			// the background thread sets the snapshot to the repairers, which may be damagers, too
+			synchronized (fRepairLock) {
+				setDocumentToDamagers(e.getDocument());
+				return getDamage(e, optimize, isDeletion);
+			}
+		}
+		return getDamage(e, optimize, isDeletion);
+	}
+
+	/**
+	 * Computes the damage of a document event, see {@link #getDamage(DocumentEvent, boolean)}.
+	 *
+	 * @param e the event describing the document change
+	 * @param optimize <code>true</code> if partition changes should be considered for
+	 *            optimization
+	 * @param isDeletion <code>true</code> if the event does not insert text
+	 * @return the damaged caused by the change or <code>null</code> if computing the
+	 *         partitioning failed
+	 * @since 3.25
+	 */
+	private IRegion getDamage(DocumentEvent e, boolean optimize, boolean isDeletion) {
 		IRegion damage= null;
 		try {
 			int offset= e.getOffset();
@@ -546,6 +752,14 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 */
 	private void processDamage(IRegion damage, IDocument document) {
 		if (damage != null && damage.getLength() > 0) {
+			if (fBackgroundRepair) {
+				repairInBackground(damage, document);
+				return;
+			}
+			if (fViewportRepairThreshold >= 0 && document.getLength() > fViewportRepairThreshold) {
+				repairViewportFirst(damage, document);
+				return;
+			}
 			TextPresentation p= createPresentation(damage, document);
 			if (p != null)
 				applyTextRegionCollection(p);
@@ -574,4 +788,485 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	private ITypedRegion getPartition(IDocument document, int offset) throws BadLocationException {
 		return TextUtilities.getPartition(document, getDocumentPartitioning(), offset, false);
 	}
+
+	/**
+	 * Repairs the given damage in the background thread. The damage that has not been repaired
+	 * yet is repaired as well.
+	 *
+	 * @param damage the damage to be repaired
+	 * @param document the document whose presentation must be repaired
+	 * @since 3.25
+	 */
+	private void repairInBackground(IRegion damage, IDocument document) {
+		int offset= damage.getOffset();
+		int end= offset + damage.getLength();
+		if (fPendingDamage != null) {
+			if (!fPendingDamage.isDeleted()) {
+				offset= Math.min(offset, fPendingDamage.getOffset());
+				end= Math.max(end, fPendingDamage.getOffset() + fPendingDamage.getLength());
+			}
+			removePendingDamage(document);
+		}
+		end= Math.min(end, document.getLength());
+		if (offset >= end)
+			return;
+
+		long generation= ++ fRepairGeneration;
+		try {
+			fPendingDamage= new Position(offset, end - offset);
+			document.addPosition(fPositionCategory, fPendingDamage);
+		} catch (BadLocationException | BadPositionCategoryException x) {
+			fPendingDamage= null;
+			return;
+		}
+
+		// only take a snapshot of the whole document if that does not copy it, otherwise copy the
+		// damaged range and repair it with translated offsets
+		IDocument snapshot;
+		int snapshotOffset;
+		if (document instanceof AbstractDocument && ((AbstractDocument) document).isSnapshotShared()) {
+			snapshot= ((AbstractDocument) document).getSnapshot();
+			snapshotOffset= 0;
+		} else {
+			try {
+				snapshot= new Document(document.get(offset, end - offset));
+				snapshotOffset= offset;
+			} catch (BadLocationException x) {
+				removePendingDamage(document);
+				return;
+			}
+		}
+		boolean partitioned= fRepairers != null && !fRepairers.isEmpty();
+		IRegion visible= new Region(fViewer.getTopIndexStartOffset(), Math.max(0, fViewer.getBottomIndexEndOffset() - fViewer.getTopIndexStartOffset()));
+		StyledText widget= fViewer.getTextWidget();
+		Display display= widget == null || widget.isDisposed() ? null : widget.getDisplay();
+
+		if (fRepairExecutor == null) {
+			fRepairExecutor= Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread= new Thread(runnable, getClass().getName());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		IRegion region= new Region(offset, end - offset);
+		IDocument content= snapshot;
+		int contentOffset= snapshotOffset;
+		fRepairExecutor.execute(() -> repair(generation, document, content, contentOffset, region, partitioned, visible, display));
+	}
+
+	/**
+	 * Repairs the given damage chunk by chunk in the background thread, starting with the part
+	 * inside the visible region. Every chunk is applied in the UI thread unless the document has
+	 * been changed in the meantime.
+	 *
+	 * @param generation the generation of the document content
+	 * @param document the document whose presentation must be repaired
+	 * @param snapshot the snapshot of the document to repair, may only contain a range of it
+	 * @param snapshotOffset the offset in the document of the start of the snapshot
+	 * @param damage the damage to be repaired
+	 * @param partitioned <code>true</code> if the damage must be partitioned, <code>false</code>
+	 *            if there are no repairers
+	 * @param visible the visible region of the document
+	 * @param display the display to apply the presentation in, or <code>null</code> if the
+	 *            viewer has no widget
+	 * @since 3.25
+	 */
+	private void repair(long generation, IDocument document, IDocument snapshot, int snapshotOffset, IRegion damage, boolean partitioned, IRegion visible, Display display) {
+		List<IRegion> chunks= new ArrayList<>();
+		try {
+			int offset= damage.getOffset();
+			int end= offset + damage.getLength();
+			int visibleStart= Math.min(Math.max(visible.getOffset(), offset), end);
+			int visibleEnd= Math.min(Math.max(visible.getOffset() + visible.getLength(), visibleStart), end);
+			addChunks(chunks, snapshot, snapshotOffset, visibleStart, visibleEnd);
+			addChunks(chunks, snapshot, snapshotOffset, visibleEnd, end);
+			addChunks(chunks, snapshot, snapshotOffset, offset, visibleStart);
+		} catch (BadLocationException x) {
+			return;
+		}
+
+		for (int i= 0; i < chunks.size(); i++) {
+			IRegion chunk= chunks.get(i);
+			ITypedRegion[] partitioning= null;
+			if (partitioned) {
+				partitioning= computePartitioning(generation, document, chunk, display);
+				if (partitioning == null)
+					return;
+			}
+
+			TextPresentation presentation;
+			synchronized (fRepairLock) {
+				if (generation != fRepairGeneration)
+					return;
+				setDocumentToRepairers(snapshot);
+				presentation= createPresentation(chunk, partitioning, snapshotOffset);
+			}
+
+			boolean last= i == chunks.size() - 1;
+			Runnable apply= () -> {
+				if (generation != fRepairGeneration)
+					return;
+				applyTextRegionCollection(presentation);
+				if (last)
+					removePendingDamage(document);
+			};
+			if (display == null)
+				apply.run();
+			else if (!display.isDisposed())
+				display.asyncExec(apply);
+		}
+	}
+
+	/**
+	 * Computes the partitioning of the given chunk of the document for a background repair.
+	 * Partitioners work on the live document and are not thread safe, hence the partitioning is
+	 * computed in the UI thread, one chunk at a time. Without a widget, it is computed in the
+	 * calling thread.
+	 *
+	 * @param generation the generation of the document content
+	 * @param document the document whose presentation must be repaired
+	 * @param chunk the chunk to be repaired
+	 * @param display the display of the viewer, or <code>null</code> if the viewer has no widget
+	 * @return the partitioning of the chunk, or <code>null</code> if the document has been
+	 *         changed in the meantime
+	 * @since 3.25
+	 */
+	private ITypedRegion[] computePartitioning(long generation, IDocument document, IRegion chunk, Display display) {
+		ITypedRegion[][] partitioning= new ITypedRegion[1][];
+		Runnable compute= () -> {
+			if (generation != fRepairGeneration)
+				return;
+			try {
+				partitioning[0]= TextUtilities.computePartitioning(document, getDocumentPartitioning(), chunk.getOffset(), chunk.getLength(), false);
+			} catch (BadLocationException x) {
+				// the chunk is outdated
+			}
+		};
+		if (display == null)
+			compute.run();
+		else if (!display.isDisposed())
+			display.syncExec(compute);
+		return partitioning[0];
+	}
+
+	/**
+	 * Splits the given range of the document into chunks that end at line starts.
+	 *
+	 * @param chunks the list to add the chunks to
+	 * @param snapshot the snapshot of the document
+	 * @param snapshotOffset the offset in the document of the start of the snapshot
+	 * @param start the start offset of the range in the document
+	 * @param end the end offset of the range in the document
+	 * @throws BadLocationException if the range is invalid
+	 * @since 3.25
+	 */
+	private static void addChunks(List<IRegion> chunks, IDocument snapshot, int snapshotOffset, int start, int end) throws BadLocationException {
+		while (start < end) {
+			int chunkEnd= end;
+			if (end - start > REPAIR_CHUNK_SIZE) {
+				int lineStart= snapshot.getLineInformationOfOffset(start + REPAIR_CHUNK_SIZE - snapshotOffset).getOffset() + snapshotOffset;
+				if (lineStart > start)
+					chunkEnd= lineStart;
+			}
+			chunks.add(new Region(start, chunkEnd - start));
+			start= chunkEnd;
+		}
+	}
+
+	/**
+	 * Creates the presentation for the given chunk of the damage with the given partitioning
+	 * which has been computed beforehand, see {@link #createPresentation(IRegion, IDocument)}.
+	 * The repairers work on a snapshot that starts at the given offset of the document.
+	 *
+	 * @param damage the chunk to be repaired
+	 * @param partitioning the partitioning of the chunk, or <code>null</code> if there are no
+	 *            repairers
+	 * @param snapshotOffset the offset in the document of the start of the snapshot
+	 * @return the presentation repair description
+	 * @since 3.25
+	 */
+	private TextPresentation createPresentation(IRegion damage, ITypedRegion[] partitioning, int snapshotOffset) {
+		if (partitioning == null) {
+			TextPresentation presentation= new TextPresentation(damage, 100);
+			presentation.setDefaultStyleRange(new StyleRange(damage.getOffset(), damage.getLength(), null, null));
+			return presentation;
+		}
+
+		int offset= damage.getOffset();
+		int end= offset + damage.getLength();
+		TextPresentation presentation= new TextPresentation(new Region(offset - snapshotOffset, end - offset), 1000);
+		for (int i= findPartition(partitioning, offset); i < partitioning.length && partitioning[i].getOffset() < end; i++) {
+			ITypedRegion partition= partitioning[i];
+			int start= Math.max(partition.getOffset(), offset);
+			int partitionEnd= Math.min(partition.getOffset() + partition.getLength(), end);
+			IPresentationRepairer repairer= getRepairer(partition.getType());
+			if (repairer != null && start < partitionEnd)
+				repairer.createPresentation(presentation, new TypedRegion(start - snapshotOffset, partitionEnd - start, partition.getType()));
+		}
+		return snapshotOffset == 0 ? presentation : move(presentation, snapshotOffset);
+	}
+
+	/**
+	 * Returns a copy of the given presentation whose ranges are moved by the given delta.
+	 *
+	 * @param presentation the presentation
+	 * @param delta the number of characters to move the ranges by
+	 * @return the moved presentation
+	 * @since 3.25
+	 */
+	private static TextPresentation move(TextPresentation presentation, int delta) {
+		IRegion extent= presentation.getExtent();
+		TextPresentation moved= new TextPresentation(new Region(extent.getOffset() + delta, extent.getLength()), presentation.getDenumerableRanges());
+		StyleRange defaultRange= presentation.getDefaultStyleRange();
+		if (defaultRange != null) {
+			defaultRange.start+= delta;
+			moved.setDefaultStyleRange(defaultRange);
+		}
+		Iterator<StyleRange> e= presentation.getNonDefaultStyleRangeIterator();
+		while (e.hasNext()) {
+			StyleRange range= (StyleRange) e.next().clone();
+			range.start+= delta;
+			moved.addStyleRange(range);
+		}
+		return moved;
+	}
+
+	/**
+	 * Returns the index of the partition containing the given offset.
+	 *
+	 * @param partitioning the partitioning, ordered by offset
+	 * @param offset the offset
+	 * @return the index of the last partition starting at or before the offset
+	 * @since 3.25
+	 */
+	private static int findPartition(ITypedRegion[] partitioning, int offset) {
+		int low= 0;
+		int high= partitioning.length - 1;
+		while (low < high) {
+			int mid= (low + high + 1) >>> 1;
+			if (partitioning[mid].getOffset() <= offset)
+				low= mid;
+			else
+				high= mid - 1;
+		}
+		return low;
+	}
+
+	/**
+	 * Forgets the damage that has not been repaired in the background.
+	 *
+	 * @param document the document tracking the damage
+	 * @since 3.25
+	 */
+	private void removePendingDamage(IDocument document) {
+		if (fPendingDamage != null) {
+			try {
+				document.removePosition(fPositionCategory, fPendingDamage);
+			} catch (BadPositionCategoryException x) {
+				// the category is removed together with the input document
+			}
+			fPendingDamage= null;
+		}
+	}
+
+	/**
+	 * Stops the background thread. Pending background repairs are discarded.
+	 *
+	 * @since 3.25
+	 */
+	private void stopBackgroundRepair() {
+		++ fRepairGeneration;
+		if (fRepairExecutor != null) {
+			fRepairExecutor.shutdown();
+			fRepairExecutor= null;
+		}
+	}
+
+	/**
+	 * Repairs the part of the given damage inside the viewport immediately and schedules the
+	 * repair of the rest, unless the document is too large to repair off-screen damage.
+	 *
+	 * @param damage the damage to be repaired
+	 * @param document the document whose presentation must be repaired
+	 * @since 3.25
+	 */
+	private void repairViewportFirst(IRegion damage, IDocument document) {
+		int offset= damage.getOffset();
+		int end= offset + damage.getLength();
+		Iterator<Position> e= fUnrepairedDamage.iterator();
+		while (e.hasNext()) {
+			Position position= e.next();
+			if (!position.isDeleted() && position.getOffset() <= end && offset <= position.getOffset() + position.getLength()) {
+				offset= Math.min(offset, position.getOffset());
+				end= Math.max(end, position.getOffset() + position.getLength());
+			} else if (!position.isDeleted()) {
+				continue;
+			}
+			removeUnrepairedDamage(document, position);
+			e.remove();
+		}
+		addUnrepairedDamage(document, offset, Math.min(end, document.getLength()));
+
+		repairVisibleDamage(document);
+		if (fOffscreenRepairLimit < 0 || document.getLength() <= fOffscreenRepairLimit)
+			scheduleIdleRepair(document);
+	}
+
+	/**
+	 * Repairs the part of the unrepaired damage inside the viewport.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @since 3.25
+	 */
+	private void repairVisibleDamage(IDocument document) {
+		int visibleStart= fViewer.getTopIndexStartOffset();
+		int visibleEnd= Math.max(visibleStart, fViewer.getBottomIndexEndOffset());
+		for (Position position : new ArrayList<>(fUnrepairedDamage)) {
+			int start= Math.max(position.getOffset(), visibleStart);
+			int end= Math.min(position.getOffset() + position.getLength(), visibleEnd);
+			if (start < end || position.isDeleted())
+				repairUnrepairedDamage(document, position, start, end);
+		}
+	}
+
+	/**
+	 * Schedules the repair of the unrepaired damage outside the viewport. Without a widget, the
+	 * damage is repaired immediately.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @since 3.25
+	 */
+	private void scheduleIdleRepair(IDocument document) {
+		StyledText widget= fViewer.getTextWidget();
+		if (widget == null) {
+			while (repairNextChunk(document)) {
+				// repair everything
+			}
+			return;
+		}
+
+		if (fIdleRepairScheduled || widget.isDisposed())
+			return;
+		fIdleRepairScheduled= true;
+		widget.getDisplay().asyncExec(() -> {
+			fIdleRepairScheduled= false;
+			if (widget.isDisposed() || fViewer.getDocument() != document)
+				return;
+			long start= System.currentTimeMillis();
+			boolean more;
+			do {
+				more= repairNextChunk(document);
+			} while (more && System.currentTimeMillis() - start < IDLE_REPAIR_TIME);
+			if (more)
+				scheduleIdleRepair(document);
+		});
+	}
+
+	/**
+	 * Repairs the chunk of unrepaired damage that is next to the viewport.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @return <code>true</code> if there is unrepaired damage left
+	 * @since 3.25
+	 */
+	private boolean repairNextChunk(IDocument document) {
+		int visibleStart= fViewer.getTopIndexStartOffset();
+		int visibleEnd= Math.max(visibleStart, fViewer.getBottomIndexEndOffset());
+		Position next= null;
+		int nextDistance= Integer.MAX_VALUE;
+		for (Position position : fUnrepairedDamage) {
+			int distance;
+			if (position.isDeleted())
+				distance= 0;
+			else if (position.getOffset() >= visibleEnd)
+				distance= position.getOffset() - visibleEnd;
+			else if (position.getOffset() + position.getLength() <= visibleStart)
+				distance= visibleStart - position.getOffset() - position.getLength();
+			else
+				distance= 0;
+			if (distance < nextDistance) {
+				next= position;
+				nextDistance= distance;
+			}
+		}
+		if (next == null)
+			return false;
+
+		try {
+			int start= next.getOffset();
+			int end= start + next.getLength();
+			if (next.isDeleted() || end - start <= REPAIR_CHUNK_SIZE) {
+				repairUnrepairedDamage(document, next, start, end);
+			} else if (end <= visibleStart) {
+				// above the viewport, repair upwards
+				int lineStart= document.getLineInformationOfOffset(end - REPAIR_CHUNK_SIZE).getOffset();
+				repairUnrepairedDamage(document, next, lineStart > start ? lineStart : start, end);
+			} else {
+				int lineStart= document.getLineInformationOfOffset(start + REPAIR_CHUNK_SIZE).getOffset();
+				repairUnrepairedDamage(document, next, start, lineStart > start ? lineStart : end);
+			}
+		} catch (BadLocationException x) {
+			removeUnrepairedDamage(document, next);
+			fUnrepairedDamage.remove(next);
+		}
+		return !fUnrepairedDamage.isEmpty();
+	}
+
+	/**
+	 * Repairs the given range of the given unrepaired damage and keeps the rest of the damage
+	 * unrepaired. A deleted damage is just removed.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @param position the unrepaired damage
+	 * @param start the start of the range to repair
+	 * @param end the end of the range to repair
+	 * @since 3.25
+	 */
+	private void repairUnrepairedDamage(IDocument document, Position position, int start, int end) {
+		removeUnrepairedDamage(document, position);
+		fUnrepairedDamage.remove(position);
+		if (position.isDeleted())
+			return;
+
+		addUnrepairedDamage(document, position.getOffset(), start);
+		addUnrepairedDamage(document, end, position.getOffset() + position.getLength());
+		TextPresentation presentation= createPresentation(new Region(start, end - start), document);
+		if (presentation != null)
+			applyTextRegionCollection(presentation);
+	}
+
+	/**
+	 * Adds the given range to the unrepaired damage unless it is empty.
+	 *
+	 * @param document the document whose presentation must be repaired
+	 * @param start the start of the range
+	 * @param end the end of the range
+	 * @since 3.25
+	 */
+	private void addUnrepairedDamage(IDocument document, int start, int end) {
+		if (start >= end)
+			return;
+		Position position= new Position(start, end - start);
+		try {
+			document.addPosition(fPositionCategory, position);
+			fUnrepairedDamage.add(position);
+		} catch (BadLocationException | BadPositionCategoryException x) {
+			// the range is not repaired later on
+		}
+	}
+
+	/**
+	 * Removes the given unrepaired damage from the document.
+	 *
+	 * @param document the document
+	 * @param position the unrepaired damage
+	 * @since 3.25
+	 */
+	private void removeUnrepairedDamage(IDocument document, Position position) {
+		try {
+			document.removePosition(fPositionCategory, position);
+		} catch (BadPositionCategoryException x) {
+			// the category has already been removed
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -109,4 +109,36 @@ public class DirtyRegion implements ITypedRegion {
 		fLength= end - start;
 		fText= (dr.fText == null ? fText : (fText == null) ? dr.fText : fText + dr.fText);
 	}
+
+	/**
+	 * Modify the receiver so that it includes the text inserted by the given dirty region,
+	 * which must be an insertion inside or at the end of the receiver's inserted text.
+	 *
+	 * @param dr the dirty region inserting the text
+	 * @since 3.25
+	 */
+	void insert(DirtyRegion dr) {
+		if (fText != null && dr.fText != null) {
+			int index= dr.fOffset - fOffset;
+			fText= fText.substring(0, index) + dr.fText + fText.substring(index);
+		} else if (fText == null) {
+			fText= dr.fText;
+		}
+		fLength+= dr.fLength;
+	}
+
+	/**
+	 * Modify the receiver so that it no longer includes the text removed by the given dirty
+	 * region, which must be a removal inside the receiver's inserted text.
+	 *
+	 * @param dr the dirty region removing the text
+	 * @since 3.25
+	 */
+	void remove(DirtyRegion dr) {
+		if (fText != null) {
+			int index= dr.fOffset - fOffset;
+			fText= fText.substring(0, index) + fText.substring(index + dr.fLength);
+		}
+		fLength-= dr.fLength;
+	}
 }
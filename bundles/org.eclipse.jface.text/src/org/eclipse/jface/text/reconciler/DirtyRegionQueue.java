@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,7 +20,7 @@ import java.util.List;
 /**
  * Queue used by {@link org.eclipse.jface.text.reconciler.AbstractReconciler} to manage
  * dirty regions. When a dirty region is inserted into the queue, the queue tries
- * to fold it into the neighboring dirty region.
+ * to fold it into the neighboring dirty region if they overlap or are adjacent.
  *
  * @see org.eclipse.jface.text.reconciler.AbstractReconciler
  * @see org.eclipse.jface.text.reconciler.DirtyRegion
@@ -43,29 +43,54 @@ class DirtyRegionQueue {
 	 * @param dr the dirty region to add
 	 */
 	public void addDirtyRegion(DirtyRegion dr) {
-		// If the dirty region being added is directly after the last dirty
+		// If the dirty region being added overlaps with the last dirty
 		// region on the queue then merge the two dirty regions together.
 		DirtyRegion lastDR= getLastDirtyRegion();
-		boolean wasMerged= false;
-		if (lastDR != null)
-			if (lastDR.getType() == dr.getType())
-				if (lastDR.getType() == DirtyRegion.INSERT) {
-					if (lastDR.getOffset() + lastDR.getLength() == dr.getOffset()) {
-						lastDR.mergeWith(dr);
-						wasMerged= true;
-					}
-				} else if (lastDR.getType() == DirtyRegion.REMOVE) {
-					if (dr.getOffset() + dr.getLength() == lastDR.getOffset()) {
-						lastDR.mergeWith(dr);
-						wasMerged= true;
-					}
-				}
-
-		if (!wasMerged)
+		if (lastDR == null || !coalesce(lastDR, dr))
 			// Don't merge- just add the new one onto the queue.
 			fDirtyRegions.add(dr);
 	}
 
+	/**
+	 * Folds the given dirty region into the last dirty region of the queue if the latter
+	 * covers the same change afterwards. The following dirty regions are folded:
+	 * <ul>
+	 * <li>an insertion inside or at the end of the text inserted by the last dirty region</li>
+	 * <li>a removal inside the text inserted by the last dirty region, unless it removes all
+	 * of it</li>
+	 * <li>a removal before, at or around the start of the text removed by the last dirty
+	 * region, like backspace or delete typed repeatedly</li>
+	 * </ul>
+	 *
+	 * @param lastDR the last dirty region on the queue
+	 * @param dr the dirty region to add
+	 * @return <code>true</code> if the dirty region has been folded into the last one
+	 * @since 3.25
+	 */
+	private static boolean coalesce(DirtyRegion lastDR, DirtyRegion dr) {
+		int lastEnd= lastDR.getOffset() + lastDR.getLength();
+		int end= dr.getOffset() + dr.getLength();
+		if (lastDR.getType() == DirtyRegion.INSERT) {
+			if (dr.getOffset() < lastDR.getOffset())
+				return false;
+			if (dr.getType() == DirtyRegion.INSERT && dr.getOffset() <= lastEnd) {
+				lastDR.insert(dr);
+				return true;
+			}
+			if (dr.getType() == DirtyRegion.REMOVE && end <= lastEnd && dr.getLength() < lastDR.getLength()) {
+				lastDR.remove(dr);
+				return true;
+			}
+		} else if (lastDR.getType() == DirtyRegion.REMOVE && dr.getType() == DirtyRegion.REMOVE) {
+			if (dr.getOffset() <= lastDR.getOffset() && lastDR.getOffset() <= end) {
+				// the removed texts are adjacent in the original document
+				lastDR.mergeWith(new DirtyRegion(dr.getOffset(), dr.getLength() + lastDR.getLength(), DirtyRegion.REMOVE, null));
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the last dirty region that was added to the queue.
 	 *
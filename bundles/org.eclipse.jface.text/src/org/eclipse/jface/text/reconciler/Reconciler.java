@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,13 @@ package org.eclipse.jface.text.reconciler;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -39,6 +44,11 @@ import org.eclipse.jface.text.TypedRegion;
  * The reconciler is configured with a set of {@linkplain org.eclipse.jface.text.reconciler.IReconcilingStrategy reconciling strategies}
  * each of which is responsible for a particular content type.
  * <p>
+ * Different reconciling strategies can be run in parallel on a pool of worker threads shared
+ * by all reconcilers, see {@link #setParallelReconciling(boolean)}. The time spent by each
+ * strategy is recorded, see {@link #getReconcilingTime(IReconcilingStrategy)}.
+ * </p>
+ * <p>
  * Usually, clients instantiate this class and configure it before using it.
  * </p>
  *
@@ -57,6 +67,24 @@ public class Reconciler extends AbstractReconciler implements IReconcilerExtensi
 	 */
 	private String fPartitioning;
 
+	/**
+	 * Tells whether different reconciling strategies are run in parallel.
+	 * @since 3.25
+	 */
+	private boolean fParallelReconciling= false;
+
+	/**
+	 * The time spent by each reconciling strategy in nanoseconds.
+	 * @since 3.25
+	 */
+	private final Map<IReconcilingStrategy, Long> fReconcilingTimes= new HashMap<>();
+
+	/**
+	 * The worker threads shared by all reconcilers which reconcile in parallel.
+	 * @since 3.25
+	 */
+	private static ExecutorService fgWorkers;
+
 	/**
 	 * Creates a new reconciler with the following configuration: it is
 	 * an incremental reconciler with a standard delay of 500 milliseconds. There
@@ -110,6 +138,40 @@ public class Reconciler extends AbstractReconciler implements IReconcilerExtensi
 		}
 	}
 
+	/**
+	 * Sets whether different reconciling strategies are run in parallel. By default, all
+	 * reconciling strategies are run one after the other in the reconciler's background thread.
+	 * <p>
+	 * In parallel mode, each strategy which has something to reconcile processes its partitions
+	 * of the dirty region in order, but in parallel to the other strategies, using a pool of
+	 * worker threads shared by all reconcilers. A strategy registered for several content types
+	 * is never run in parallel to itself. The strategies must therefore not depend on each
+	 * other and must be able to run in any thread.
+	 * </p>
+	 *
+	 * @param parallel <code>true</code> to run different reconciling strategies in parallel
+	 * @since 3.25
+	 */
+	public void setParallelReconciling(boolean parallel) {
+		fParallelReconciling= parallel;
+	}
+
+	/**
+	 * Returns the time the given reconciling strategy has spent reconciling for this reconciler
+	 * so far, including its initial reconcile.
+	 *
+	 * @param strategy the reconciling strategy
+	 * @return the time spent by the strategy in nanoseconds, <code>0</code> if the strategy has
+	 *         not reconciled anything yet
+	 * @since 3.25
+	 */
+	public long getReconcilingTime(IReconcilingStrategy strategy) {
+		synchronized (fReconcilingTimes) {
+			Long time= fReconcilingTimes.get(strategy);
+			return time == null ? 0 : time.longValue();
+		}
+	}
+
 	@Override
 	public IReconcilingStrategy getReconcilingStrategy(String contentType) {
 
@@ -140,18 +202,133 @@ public class Reconciler extends AbstractReconciler implements IReconcilerExtensi
 
 		ITypedRegion[] regions= computePartitioning(region.getOffset(), region.getLength());
 
+		Map<IReconcilingStrategy, List<ITypedRegion>> work= new LinkedHashMap<>();
 		for (ITypedRegion r : regions) {
 			IReconcilingStrategy s= getReconcilingStrategy(r.getType());
 			if (s == null)
 				continue;
 
+			if (!fParallelReconciling) {
+				reconcile(s, dirtyRegion, r);
+				continue;
+			}
+			List<ITypedRegion> partitions= work.get(s);
+			if (partitions == null) {
+				partitions= new ArrayList<>();
+				work.put(s, partitions);
+			}
+			partitions.add(r);
+		}
+
+		List<Runnable> tasks= new ArrayList<>(work.size());
+		for (Map.Entry<IReconcilingStrategy, List<ITypedRegion>> entry : work.entrySet()) {
+			tasks.add(() -> {
+				for (ITypedRegion r : entry.getValue())
+					reconcile(entry.getKey(), dirtyRegion, r);
+			});
+		}
+		runInParallel(tasks);
+	}
+
+	/**
+	 * Reconciles the given partition of the given dirty region with the given strategy and
+	 * records the time spent.
+	 *
+	 * @param s the reconciling strategy
+	 * @param dirtyRegion the dirty region or <code>null</code> if the whole document is dirty
+	 * @param r the partition to reconcile
+	 * @since 3.25
+	 */
+	private void reconcile(IReconcilingStrategy s, DirtyRegion dirtyRegion, ITypedRegion r) {
+		long start= System.nanoTime();
+		try {
 			if(dirtyRegion != null)
 				s.reconcile(dirtyRegion, r);
 			else
 				s.reconcile(r);
+		} finally {
+			addReconcilingTime(s, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Adds the given time to the time spent by the given reconciling strategy.
+	 *
+	 * @param strategy the reconciling strategy
+	 * @param time the time in nanoseconds
+	 * @since 3.25
+	 */
+	private void addReconcilingTime(IReconcilingStrategy strategy, long time) {
+		synchronized (fReconcilingTimes) {
+			Long total= fReconcilingTimes.get(strategy);
+			fReconcilingTimes.put(strategy, Long.valueOf(total == null ? time : total.longValue() + time));
 		}
 	}
 
+	/**
+	 * Runs the given tasks in parallel on the shared worker threads and in the calling thread
+	 * and waits until all of them are done. The first exception thrown by a task is rethrown.
+	 *
+	 * @param tasks the tasks to run
+	 * @since 3.25
+	 */
+	private static void runInParallel(List<Runnable> tasks) {
+		if (tasks.isEmpty())
+			return;
+
+		List<Future<?>> futures= new ArrayList<>(tasks.size() - 1);
+		for (int i= 1; i < tasks.size(); i++)
+			futures.add(getWorkers().submit(tasks.get(i)));
+
+		Throwable failure= null;
+		try {
+			tasks.get(0).run();
+		} catch (RuntimeException | Error x) {
+			failure= x;
+		}
+		for (Future<?> future : futures) {
+			boolean interrupted= false;
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException x) {
+					interrupted= true;
+				} catch (ExecutionException x) {
+					if (failure == null)
+						failure= x.getCause();
+					break;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+	}
+
+	/**
+	 * Returns the worker threads shared by all reconcilers, creates them if necessary.
+	 *
+	 * @return the worker threads
+	 * @since 3.25
+	 */
+	private static synchronized ExecutorService getWorkers() {
+		if (fgWorkers == null) {
+			int count= Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+			fgWorkers= Executors.newFixedThreadPool(count, runnable -> {
+				Thread thread= new Thread(runnable, Reconciler.class.getName() + " worker"); //$NON-NLS-1$
+				thread.setPriority(Thread.MIN_PRIORITY);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return fgWorkers;
+	}
+
 	@Override
 	protected void reconcilerDocumentChanged(IDocument document) {
 		if (fStrategies != null) {
@@ -212,6 +389,7 @@ public class Reconciler extends AbstractReconciler implements IReconcilerExtensi
 	protected void initialProcess() {
 		ITypedRegion[] regions= computePartitioning(0, getDocument().getLength());
 		List<String> contentTypes= new ArrayList<>(regions.length);
+		Map<IReconcilingStrategy, List<Runnable>> work= new LinkedHashMap<>();
 		for (ITypedRegion region : regions) {
 			String contentType= region.getType();
 			if( contentTypes.contains(contentType))
@@ -220,9 +398,31 @@ public class Reconciler extends AbstractReconciler implements IReconcilerExtensi
 			IReconcilingStrategy s= getReconcilingStrategy(contentType);
 			if (s instanceof IReconcilingStrategyExtension) {
 				IReconcilingStrategyExtension e= (IReconcilingStrategyExtension) s;
-				e.initialReconcile();
+				Runnable task= () -> {
+					long start= System.nanoTime();
+					try {
+						e.initialReconcile();
+					} finally {
+						addReconcilingTime(s, System.nanoTime() - start);
+					}
+				};
+				if (!fParallelReconciling) {
+					task.run();
+					continue;
+				}
+				List<Runnable> strategyTasks= work.get(s);
+				if (strategyTasks == null) {
+					strategyTasks= new ArrayList<>();
+					work.put(s, strategyTasks);
+				}
+				strategyTasks.add(task);
 			}
 		}
+
+		List<Runnable> tasks= new ArrayList<>(work.size());
+		for (List<Runnable> strategyTasks : work.values())
+			tasks.add(() -> strategyTasks.forEach(Runnable::run));
+		runInParallel(tasks);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.jface.text.source;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -21,9 +22,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -42,7 +45,9 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.Platform;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IPaintPositionManager;
 import org.eclipse.jface.text.IPainter;
 import org.eclipse.jface.text.IRegion;
@@ -444,6 +449,70 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 */
 	private ReusableRegion fReusableRegion= new ReusableRegion();
 
+	/**
+	 * The annotations of the model touching a document line, by line number. The lines are
+	 * filled when painted and invalidated by annotation model and document changes, so that
+	 * repainting a scrolled viewport only queries the model for the lines not painted before.
+	 * @since 3.25
+	 */
+	private final TreeMap<Integer, Annotation[]> fLineAnnotations= new TreeMap<>();
+	/**
+	 * The first and the last line in whose cached annotations an annotation can be found.
+	 * @since 3.25
+	 */
+	private final Map<Annotation, int[]> fAnnotationLines= new HashMap<>();
+	/**
+	 * Mutex for the line annotations.
+	 * @since 3.25
+	 */
+	private final Object fLineAnnotationsLock= new Object();
+	/**
+	 * The document whose changes invalidate the line annotations.
+	 * @since 3.25
+	 */
+	private IDocument fDocument;
+	/**
+	 * The first line of the current document change.
+	 * @since 3.25
+	 */
+	private int fFirstChangedLine;
+	/**
+	 * The last line of the current document change, before the change.
+	 * @since 3.25
+	 */
+	private int fLastChangedLine;
+	/**
+	 * The number of lines of the document before the current change.
+	 * @since 3.25
+	 */
+	private int fNumberOfLines;
+	/**
+	 * Invalidates the line annotations of the changed lines.
+	 * @since 3.25
+	 */
+	private final IDocumentListener fDocumentListener= new IDocumentListener() {
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			IDocument document= event.getDocument();
+			try {
+				fFirstChangedLine= document.getLineOfOffset(event.getOffset());
+				fLastChangedLine= document.getLineOfOffset(event.getOffset() + event.getLength());
+			} catch (BadLocationException x) {
+				fFirstChangedLine= 0;
+				fLastChangedLine= Integer.MAX_VALUE;
+			}
+			fNumberOfLines= document.getNumberOfLines();
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			// the annotations of the following lines move to other lines if lines are added or removed
+			int lastLine= event.getDocument().getNumberOfLines() == fNumberOfLines ? fLastChangedLine : Integer.MAX_VALUE;
+			invalidateLines(fFirstChangedLine, lastLine);
+		}
+	};
+
 	/**
 	 * Creates a new annotation painter for the given source viewer and with the
 	 * given annotation access. The painter is not initialized, i.e. no
@@ -511,6 +580,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			if (fModel != null)
 				fModel.removeAnnotationModelListener(this);
 			fModel= model;
+			clearLineAnnotations();
 			if (fModel != null) {
 				try {
 					fIsSettingModel= true;
@@ -537,6 +607,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 		if (fModel == null) {
 			// annotation model is null -> clear all
+			clearLineAnnotations();
 			synchronized (fDecorationMapLock) {
 				fDecorationsMap.clear();
 			}
@@ -587,11 +658,21 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 			highlightedDecorationsMap.clear();
 
+			clearLineAnnotations();
+
 			e= fModel.getAnnotationIterator();
 
 
 		} else {
 
+			// Invalidate the lines of the annotations
+			for (Annotation annotation : event.getRemovedAnnotations())
+				invalidateLines(annotation, null);
+			for (Annotation annotation : event.getChangedAnnotations())
+				invalidateLines(annotation, fModel.getPosition(annotation));
+			for (Annotation annotation : event.getAddedAnnotations())
+				invalidateLines(annotation, fModel.getPosition(annotation));
+
 			// Remove annotations
 			Annotation[] removedAnnotations= event.getRemovedAnnotations();
 			for (Annotation annotation : removedAnnotations) {
@@ -807,6 +888,149 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		adaptToDocumentLength(fTotalDrawRange);
 	}
 
+	/**
+	 * Sets the document whose changes invalidate the line annotations.
+	 *
+	 * @param document the document or <code>null</code>
+	 * @since 3.25
+	 */
+	private void setDocument(IDocument document) {
+		if (fDocument == document)
+			return;
+		if (fDocument != null)
+			fDocument.removeDocumentListener(fDocumentListener);
+		fDocument= document;
+		if (fDocument != null)
+			fDocument.addDocumentListener(fDocumentListener);
+		clearLineAnnotations();
+	}
+
+	/**
+	 * Clears the line annotations.
+	 *
+	 * @since 3.25
+	 */
+	private void clearLineAnnotations() {
+		synchronized (fLineAnnotationsLock) {
+			fLineAnnotations.clear();
+			fAnnotationLines.clear();
+		}
+	}
+
+	/**
+	 * Invalidates the line annotations of the given lines.
+	 *
+	 * @param firstLine the first line
+	 * @param lastLine the last line, inclusive
+	 * @since 3.25
+	 */
+	private void invalidateLines(int firstLine, int lastLine) {
+		if (firstLine > lastLine)
+			return;
+		synchronized (fLineAnnotationsLock) {
+			fLineAnnotations.subMap(Integer.valueOf(firstLine), true, Integer.valueOf(lastLine), true).clear();
+		}
+	}
+
+	/**
+	 * Invalidates the line annotations containing the given annotation and those of the lines of
+	 * the given position.
+	 *
+	 * @param annotation the added, removed or changed annotation
+	 * @param position the position of the annotation or <code>null</code> if removed
+	 * @since 3.25
+	 */
+	private void invalidateLines(Annotation annotation, Position position) {
+		synchronized (fLineAnnotationsLock) {
+			int[] lines= fAnnotationLines.remove(annotation);
+			if (lines != null)
+				invalidateLines(lines[0], lines[1]);
+			IDocument document= fDocument;
+			if (position != null && !position.isDeleted() && document != null) {
+				try {
+					invalidateLines(document.getLineOfOffset(position.getOffset()), document.getLineOfOffset(position.getOffset() + position.getLength()));
+				} catch (BadLocationException x) {
+					fLineAnnotations.clear();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries of the given decorations whose annotations touch the lines of the given
+	 * region, found through the line annotations.
+	 *
+	 * @param decorations the decorations
+	 * @param region the region
+	 * @return the entries of the decorations touching the lines of the region, or
+	 *         <code>null</code> if the line annotations cannot be used or if checking all
+	 *         decorations is cheaper
+	 * @since 3.25
+	 */
+	private Collection<Entry<Annotation, Decoration>> getLineDecorations(Map<Annotation, Decoration> decorations, IRegion region) {
+		IDocument document= fDocument;
+		if (decorations == null || !(fModel instanceof IAnnotationModelExtension2) || document == null || document != fSourceViewer.getDocument())
+			return null;
+
+		try {
+			int firstLine= document.getLineOfOffset(region.getOffset());
+			int lastLine= document.getLineOfOffset(region.getOffset() + region.getLength());
+			if (lastLine - firstLine >= decorations.size())
+				return null;
+
+			Set<Annotation> found= new HashSet<>();
+			List<Entry<Annotation, Decoration>> result= new ArrayList<>();
+			synchronized (fLineAnnotationsLock) {
+				for (int line= firstLine; line <= lastLine; line++) {
+					for (Annotation annotation : getLineAnnotations(document, line)) {
+						Decoration decoration= decorations.get(annotation);
+						if (decoration != null && found.add(annotation))
+							result.add(new SimpleImmutableEntry<>(annotation, decoration));
+					}
+				}
+			}
+			return result;
+		} catch (BadLocationException x) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the annotations of the model touching the given line.
+	 *
+	 * @param document the document
+	 * @param line the line
+	 * @return the annotations touching the line
+	 * @throws BadLocationException if the line does not exist
+	 * @since 3.25
+	 */
+	private Annotation[] getLineAnnotations(IDocument document, int line) throws BadLocationException {
+		Integer key= Integer.valueOf(line);
+		Annotation[] annotations= fLineAnnotations.get(key);
+		if (annotations == null) {
+			int offset= document.getLineOffset(line);
+			int length= document.getLineLength(line);
+			if (line == document.getNumberOfLines() - 1)
+				length++; // include empty annotations at the document end
+			List<Annotation> lineAnnotations= new ArrayList<>();
+			Iterator<Annotation> iter= ((IAnnotationModelExtension2) fModel).getAnnotationIterator(offset, length, true, true);
+			while (iter.hasNext()) {
+				Annotation annotation= iter.next();
+				lineAnnotations.add(annotation);
+				int[] lines= fAnnotationLines.get(annotation);
+				if (lines == null) {
+					fAnnotationLines.put(annotation, new int[] { line, line });
+				} else {
+					lines[0]= Math.min(lines[0], line);
+					lines[1]= Math.max(lines[1], line);
+				}
+			}
+			annotations= lineAnnotations.toArray(new Annotation[lineAnnotations.size()]);
+			fLineAnnotations.put(key, annotations);
+		}
+		return annotations;
+	}
+
 	/**
 	 * Adapts the given position to the document length.
 	 *
@@ -976,16 +1200,25 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 	@Override
 	public void applyTextPresentation(TextPresentation tp) {
-		Set<Entry<Annotation, Decoration>> decorations;
+		IRegion region= tp.getExtent();
+		Map<Annotation, Decoration> highlightedDecorationsMap;
 
 		synchronized (fHighlightedDecorationsMapLock) {
 			if (fHighlightedDecorationsMap == null || fHighlightedDecorationsMap.isEmpty())
 				return;
 
-			decorations= new HashSet<>(fHighlightedDecorationsMap.entrySet());
+			highlightedDecorationsMap= fHighlightedDecorationsMap;
 		}
 
-		IRegion region= tp.getExtent();
+		Collection<Entry<Annotation, Decoration>> decorations= getLineDecorations(highlightedDecorationsMap, region);
+		if (decorations == null) {
+			synchronized (fHighlightedDecorationsMapLock) {
+				if (fHighlightedDecorationsMap == null)
+					return;
+
+				decorations= new HashSet<>(fHighlightedDecorationsMap.entrySet());
+			}
+		}
 
 		if (DEBUG)
 			System.out.println("AP: applying text presentation offset: " + region.getOffset() + ", length= " + region.getLength()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1253,6 +1486,8 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	@Override
 	public void dispose() {
 
+		setDocument(null);
+
 		if (fAnnotationType2Color != null) {
 			fAnnotationType2Color.clear();
 			fAnnotationType2Color= null;
@@ -1356,11 +1591,17 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 		final GC gc= event != null ? event.gc : null;
 
-		// Clone decorations
-		Collection<Entry<Annotation, Decoration>> decorations;
+		// Look up the decorations of the painted lines or clone all decorations
+		Map<Annotation, Decoration> decorationsMap;
 		synchronized (fDecorationMapLock) {
-			decorations= new ArrayList<>(fDecorationsMap.size());
-			decorations.addAll(fDecorationsMap.entrySet());
+			decorationsMap= fDecorationsMap;
+		}
+		Collection<Entry<Annotation, Decoration>> decorations= getLineDecorations(decorationsMap, clippingRegion);
+		if (decorations == null) {
+			synchronized (fDecorationMapLock) {
+				decorations= new ArrayList<>(fDecorationsMap.size());
+				decorations.addAll(fDecorationsMap.entrySet());
+			}
 		}
 
 		/*
@@ -1594,6 +1835,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			fIsActive= false;
 			disablePainting(redraw);
 			setModel(null);
+			setDocument(null);
 			catchupWithModel(null);
 		}
 	}
@@ -1633,10 +1875,14 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			IAnnotationModel model= findAnnotationModel(fSourceViewer);
 			if (model != null) {
 				fIsActive= true;
+				setDocument(fSourceViewer.getDocument());
 				setModel(model);
 			}
-		} else if (isRepaintReason(reason))
-			updatePainting(null);
+		} else {
+			setDocument(fSourceViewer.getDocument());
+			if (isRepaintReason(reason))
+				updatePainting(null);
+		}
 	}
 
 	@Override
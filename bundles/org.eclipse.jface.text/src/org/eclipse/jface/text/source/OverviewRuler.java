@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -43,6 +43,8 @@ import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.ScrollBar;
 
+import org.eclipse.jface.internal.text.source.AnnotationIndex;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
@@ -89,6 +91,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 		@Override
 		public void modelChanged(IAnnotationModel model) {
+			invalidateIndex();
 			update();
 		}
 
@@ -98,10 +101,13 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 				return;
 
 			if (event.isWorldChange()) {
+				invalidateIndex();
 				update();
 				return;
 			}
 
+			updateIndex(event);
+
 			Annotation[] annotations= event.getAddedAnnotations();
 			int length= annotations.length;
 			for (int i= 0; i < length; i++) {
@@ -393,6 +399,12 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	private static final int INSET= 2;
 	private static final int ANNOTATION_HEIGHT= 4;
 	private static boolean ANNOTATION_HEIGHT_SCALABLE= true;
+	/**
+	 * The number of annotations in a model delta above which the annotation index is rebuilt
+	 * instead of being updated.
+	 * @since 3.25
+	 */
+	private static final int INDEX_REBUILD_THRESHOLD= 32;
 
 
 	/** The model of the overview ruler */
@@ -462,10 +474,26 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	 */
 	private Map<Object, Boolean> fAllowedHeaderAnnotationTypes= new HashMap<>();
 	/**
-	 * The cached annotations.
-	 * @since 3.0
+	 * The persistent annotations of the model by annotation type, or <code>null</code> if the
+	 * index must be built from the model.
+	 * @since 3.25
+	 */
+	private Map<Object, AnnotationIndex> fPersistentIndex;
+	/**
+	 * The temporary annotations of the model by annotation type.
+	 * @since 3.25
 	 */
-	private List<Annotation> fCachedAnnotations= new ArrayList<>();
+	private Map<Object, AnnotationIndex> fTemporaryIndex;
+	/**
+	 * The index of each annotation of the model.
+	 * @since 3.25
+	 */
+	private Map<Annotation, AnnotationIndex> fIndexOfAnnotation;
+	/**
+	 * Mutex for the annotation index.
+	 * @since 3.25
+	 */
+	private final Object fIndexLock= new Object();
 
 	/**
 	 * Redraw runnable lock
@@ -555,6 +583,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 				fModel.removeAnnotationModelListener(fInternalListener);
 
 			fModel= model;
+			invalidateIndex();
 
 			if (fModel != null)
 				fModel.addAnnotationModelListener(fInternalListener);
@@ -684,8 +713,6 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			gc.setBackground(fCanvas.getBackground());
 			gc.fillRectangle(0, 0, size.x, size.y);
 
-			cacheAnnotations();
-
 			doPaint(gc);
 
 		} finally {
@@ -695,24 +722,150 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		dest.drawImage(fBuffer, 0, 0);
 	}
 
-	private void cacheAnnotations() {
-		fCachedAnnotations.clear();
-		if (fModel != null) {
-			Iterator<Annotation> iter= fModel.getAnnotationIterator();
-			while (iter.hasNext()) {
-				Annotation annotation= iter.next();
+	/**
+	 * Discards the annotation index, it is built from the model when needed.
+	 *
+	 * @since 3.25
+	 */
+	private void invalidateIndex() {
+		synchronized (fIndexLock) {
+			fPersistentIndex= null;
+			fTemporaryIndex= null;
+			fIndexOfAnnotation= null;
+		}
+	}
 
-				if (annotation.isMarkedDeleted())
-					continue;
+	/**
+	 * Builds the annotation index from the model if it was discarded.
+	 *
+	 * @since 3.25
+	 */
+	private void ensureIndex() {
+		synchronized (fIndexLock) {
+			if (fPersistentIndex != null)
+				return;
 
-				if (skip(annotation.getType()))
-					continue;
+			fPersistentIndex= new HashMap<>();
+			fTemporaryIndex= new HashMap<>();
+			fIndexOfAnnotation= new HashMap<>();
+			if (fModel != null) {
+				Iterator<Annotation> iter= fModel.getAnnotationIterator();
+				while (iter.hasNext()) {
+					Annotation annotation= iter.next();
+					Position position= fModel.getPosition(annotation);
+					if (position != null)
+						getIndex(annotation).append(annotation, position);
+				}
+			}
+			fPersistentIndex.values().forEach(AnnotationIndex::sort);
+			fTemporaryIndex.values().forEach(AnnotationIndex::sort);
+		}
+	}
 
-				fCachedAnnotations.add(annotation);
+	/**
+	 * Returns the index of the type and style of the given annotation and remembers it as the
+	 * index of the annotation.
+	 *
+	 * @param annotation the annotation
+	 * @return the index of the annotation
+	 * @since 3.25
+	 */
+	private AnnotationIndex getIndex(Annotation annotation) {
+		Map<Object, AnnotationIndex> indexes= annotation.isPersistent() ? fPersistentIndex : fTemporaryIndex;
+		AnnotationIndex index= indexes.computeIfAbsent(annotation.getType(), t -> new AnnotationIndex());
+		fIndexOfAnnotation.put(annotation, index);
+		return index;
+	}
+
+	/**
+	 * Updates the annotation index with the given model delta.
+	 *
+	 * @param event the annotation model event
+	 * @since 3.25
+	 */
+	private void updateIndex(AnnotationModelEvent event) {
+		synchronized (fIndexLock) {
+			if (fPersistentIndex == null)
+				return;
+
+			Annotation[] removed= event.getRemovedAnnotations();
+			Annotation[] changed= event.getChangedAnnotations();
+			Annotation[] added= event.getAddedAnnotations();
+			if (removed.length + changed.length + added.length > INDEX_REBUILD_THRESHOLD) {
+				// every update may move the whole index, rebuilding it is cheaper
+				invalidateIndex();
+				return;
+			}
+
+			for (Annotation annotation : removed) {
+				AnnotationIndex index= fIndexOfAnnotation.remove(annotation);
+				if (index != null)
+					index.remove(annotation, event.getPositionOfRemovedAnnotation(annotation));
+			}
+			for (Annotation annotation : changed) {
+				// the position or the type may have changed
+				Position position= fModel != null ? fModel.getPosition(annotation) : null;
+				AnnotationIndex index= fIndexOfAnnotation.remove(annotation);
+				if (index != null)
+					index.remove(annotation, position);
+				if (position != null)
+					getIndex(annotation).add(annotation, position);
 			}
+			for (Annotation annotation : added) {
+				Position position= fModel != null ? fModel.getPosition(annotation) : null;
+				if (position != null && !fIndexOfAnnotation.containsKey(annotation))
+					getIndex(annotation).add(annotation, position);
+			}
+		}
+	}
+
+	/**
+	 * Returns the indexes of the annotations shown as the given annotation type.
+	 *
+	 * @param annotationType the annotation type
+	 * @param style {@link FilterIterator#PERSISTENT}, {@link FilterIterator#TEMPORARY} or both
+	 * @return the indexes of the annotations shown as the given type
+	 * @since 3.25
+	 */
+	private List<AnnotationIndex> getIndexes(Object annotationType, int style) {
+		List<AnnotationIndex> result= new ArrayList<>();
+		synchronized (fIndexLock) {
+			ensureIndex();
+			if ((style & FilterIterator.PERSISTENT) != 0)
+				addIndexes(annotationType, fPersistentIndex, result);
+			if ((style & FilterIterator.TEMPORARY) != 0)
+				addIndexes(annotationType, fTemporaryIndex, result);
+		}
+		return result;
+	}
+
+	private void addIndexes(Object annotationType, Map<Object, AnnotationIndex> indexes, List<AnnotationIndex> result) {
+		for (Map.Entry<Object, AnnotationIndex> entry : indexes.entrySet()) {
+			Object type= entry.getKey();
+			if (entry.getValue().size() > 0 && !skip(type) && isShownAs(type, annotationType))
+				result.add(entry.getValue());
 		}
 	}
 
+	/**
+	 * Tells whether the annotations of the given type are shown as the given configured type,
+	 * like {@link FilterIterator} selects them.
+	 *
+	 * @param type the type of the annotations
+	 * @param annotationType the configured annotation type
+	 * @return <code>true</code> if the annotations are shown as the configured type
+	 * @since 3.25
+	 */
+	private boolean isShownAs(Object type, Object annotationType) {
+		if (annotationType.equals(type))
+			return true;
+		if (fConfiguredAnnotationTypes.contains(type))
+			return false;
+		if (fAnnotationAccess instanceof IAnnotationAccessExtension)
+			return ((IAnnotationAccessExtension) fAnnotationAccess).isSubtype(type, annotationType);
+		return false;
+	}
+
 	/**
 	 * Draws this overview ruler.
 	 *
@@ -721,18 +874,15 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	private void doPaint(GC gc) {
 
 		Rectangle r= new Rectangle(0, 0, 0, 0);
-		int yy, hh= ANNOTATION_HEIGHT;
 
 		IDocument document= fTextViewer.getDocument();
 		StyledText textWidget= fTextViewer.getTextWidget();
-		ITextViewerExtension5 extension= null;
-		IRegion visible= null;
-		if (fTextViewer instanceof ITextViewerExtension5)
-			extension= (ITextViewerExtension5) fTextViewer;
-		else
-			visible= fTextViewer.getVisibleRegion(); // legacy support
+		ITextViewerExtension5 extension= fTextViewer instanceof ITextViewerExtension5 ? (ITextViewerExtension5) fTextViewer : null;
+		IRegion visible= extension == null ? fTextViewer.getVisibleRegion() : null; // legacy support
 
-		WidgetInfos infos= null;
+		WidgetInfos infos= new WidgetInfos(textWidget, fCanvas);
+		r.x= INSET;
+		r.width= infos.bounds.width - (2 * INSET);
 
 		for (Object annotationType : fAnnotationsSortedByLayer) {
 			if (skip(annotationType))
@@ -740,86 +890,36 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 			int[] style= new int[] { FilterIterator.PERSISTENT, FilterIterator.TEMPORARY };
 			for (int element : style) {
-				boolean areColorsComputed= false;
-				Color fill= null;
-				Color stroke= null;
-
-				Iterator<Annotation> e= new FilterIterator(annotationType, element, fCachedAnnotations.iterator());
-				while (e.hasNext()) {
-					Annotation a= e.next();
-					Position p= fModel.getPosition(a);
-
-					if (p == null)
-						continue;
-					if (visible != null && !p.overlapsWith(visible.getOffset(), visible.getLength()))
-						continue;
-
-					int annotationOffset= p.getOffset();
-					int annotationLength= p.getLength();
-					IRegion widgetRegion= null;
-					if (visible != null) {
-						annotationOffset= Math.max(p.getOffset(), visible.getOffset());
-						int annotationEnd= Math.min(p.getOffset() + p.getLength(), visible.getOffset() + visible.getLength());
-						annotationLength= annotationEnd - annotationOffset;
-					} else {
-						ITextViewerExtension5 ext= extension;
-						widgetRegion= ext.modelRange2WidgetRange(new Region(annotationOffset, annotationLength));
-						if (widgetRegion == null)
-							continue;
-					}
-
-					if (infos == null) {
-						infos= new WidgetInfos(textWidget, fCanvas);
-						r.x= INSET;
-						r.width= infos.bounds.width - (2 * INSET);
-					}
-
-					try {
-						@SuppressWarnings("null")
-						int startOffset= visible != null ? annotationOffset - visible.getOffset() : widgetRegion.getOffset();
-						int startLine= textWidget.getLineAtOffset(startOffset);
-
-						yy= computeY(startLine, infos);
+				List<AnnotationIndex> indexes= getIndexes(annotationType, element);
+				if (indexes.isEmpty())
+					continue;
 
-						if (ANNOTATION_HEIGHT_SCALABLE) {
-							int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
-							// don't count empty trailing line
-							IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
-							if (lastLine.getOffset() == annotationOffset + annotationLength) {
-								numberOfLines--;
+				Color stroke= getStrokeColor(annotationType, element == FilterIterator.TEMPORARY);
+				Color fill= fUseSaturatedColors ? stroke : getFillColor(annotationType, element == FilterIterator.TEMPORARY);
+
+				for (AnnotationIndex index : indexes) {
+					synchronized (fIndexLock) {
+						int i= 0;
+						while (i < index.size()) {
+							Annotation a= index.getAnnotation(i);
+							Position p= index.getPosition(i);
+							int startLine= a.isMarkedDeleted() ? -1 : drawAnnotation(gc, p, fill, stroke, r, infos, document, extension, visible);
+							if (startLine == -1 || extension == null) {
+								i++;
+								continue;
 							}
-							if (numberOfLines > 1) {
-								int yy2= computeY(startLine + numberOfLines - 1, infos);
-								hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
-							} else {
-								hh= ANNOTATION_HEIGHT;
+							try {
+								// the annotations starting in the lines of the same pixel row are drawn as one
+								int nextLine= findNextRowLine(startLine, computeY(startLine, infos), infos);
+								if (nextLine >= infos.maxLines)
+									break;
+								int nextOffset= document.getLineOffset(extension.widgetLine2ModelLine(nextLine));
+								// unless they reach below the row
+								i= index.skipRow(i, nextOffset, j -> drawAnnotation(gc, index.getPosition(j), fill, stroke, r, infos, document, extension, visible));
+							} catch (BadLocationException x) {
+								i++;
 							}
 						}
-						fAnnotationHeight= hh;
-
-						if (!areColorsComputed) {
-							stroke= getStrokeColor(annotationType, element == FilterIterator.TEMPORARY);
-							fill= fUseSaturatedColors ? stroke : getFillColor(annotationType, element == FilterIterator.TEMPORARY);
-							areColorsComputed= true;
-						}
-
-						if (fill != null) {
-							gc.setBackground(fill);
-							gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
-						}
-
-						if (stroke != null) {
-							gc.setForeground(stroke);
-							r.y= yy;
-							if (yy + hh == infos.bounds.height)
-								r.y--;
-							r.height= hh;
-							gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
-							gc.drawRectangle(r);
-						}
-					} catch (BadLocationException | IllegalArgumentException x) {
-						// We don't care if the widget's content is changed since the annotation was created
-						// and do not match the annotation line/offset etc
 					}
 				}
 			}
@@ -827,10 +927,8 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 		if (DEBUG_DRAW) {
 			// draw debugging guides (boundaries):
-			if (infos == null)
-				infos= new WidgetInfos(textWidget, fCanvas);
 			gc.setForeground(gc.getDevice().getSystemColor(SWT.COLOR_DARK_MAGENTA));
-			yy= infos.thumbHeight / 2;
+			int yy= infos.thumbHeight / 2;
 			gc.drawLine(0, yy, infos.bounds.x/2, yy);
 			yy= infos.bounds.height - infos.thumbHeight / 2;
 			gc.drawLine(0, yy, infos.bounds.x/2, yy);
@@ -843,6 +941,106 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		}
 	}
 
+	/**
+	 * Draws the annotation at the given position.
+	 *
+	 * @param gc the GC to draw into
+	 * @param p the position of the annotation
+	 * @param fill the fill color or <code>null</code>
+	 * @param stroke the stroke color or <code>null</code>
+	 * @param r the rectangle to reuse for drawing
+	 * @param infos the cached widget infos
+	 * @param document the document
+	 * @param extension the text viewer extension, or <code>null</code> if the visible region is used
+	 * @param visible the visible region of a legacy text viewer or <code>null</code>
+	 * @return the widget line of the start of the annotation, or <code>-1</code> if the
+	 *         annotation is not visible
+	 * @since 3.25
+	 */
+	private int drawAnnotation(GC gc, Position p, Color fill, Color stroke, Rectangle r, WidgetInfos infos, IDocument document, ITextViewerExtension5 extension, IRegion visible) {
+		if (visible != null && !p.overlapsWith(visible.getOffset(), visible.getLength()))
+			return -1;
+
+		int annotationOffset= p.getOffset();
+		int annotationLength= p.getLength();
+		IRegion widgetRegion= null;
+		if (visible != null) {
+			annotationOffset= Math.max(p.getOffset(), visible.getOffset());
+			int annotationEnd= Math.min(p.getOffset() + p.getLength(), visible.getOffset() + visible.getLength());
+			annotationLength= annotationEnd - annotationOffset;
+		} else {
+			widgetRegion= extension.modelRange2WidgetRange(new Region(annotationOffset, annotationLength));
+			if (widgetRegion == null)
+				return -1;
+		}
+
+		try {
+			StyledText textWidget= fTextViewer.getTextWidget();
+			int startOffset= visible != null ? annotationOffset - visible.getOffset() : widgetRegion.getOffset();
+			int startLine= textWidget.getLineAtOffset(startOffset);
+
+			int yy= computeY(startLine, infos);
+			int hh= ANNOTATION_HEIGHT;
+
+			if (ANNOTATION_HEIGHT_SCALABLE) {
+				int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
+				// don't count empty trailing line
+				IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
+				if (lastLine.getOffset() == annotationOffset + annotationLength) {
+					numberOfLines--;
+				}
+				if (numberOfLines > 1) {
+					int yy2= computeY(startLine + numberOfLines - 1, infos);
+					hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
+				}
+			}
+			fAnnotationHeight= hh;
+
+			if (fill != null) {
+				gc.setBackground(fill);
+				gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
+			}
+
+			if (stroke != null) {
+				gc.setForeground(stroke);
+				r.y= yy;
+				if (yy + hh == infos.bounds.height)
+					r.y--;
+				r.height= hh;
+				gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
+				gc.drawRectangle(r);
+			}
+			return startLine;
+		} catch (BadLocationException | IllegalArgumentException x) {
+			// We don't care if the widget's content is changed since the annotation was created
+			// and do not match the annotation line/offset etc
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the first widget line after the given one which is drawn below the given y
+	 * location. Relies on {@link #computeY(int, WidgetInfos)} increasing with the line.
+	 *
+	 * @param startLine the widget line drawn at the given y location
+	 * @param y the y location
+	 * @param infos the cached widget infos
+	 * @return the first line drawn below the y location or the number of lines if there is none
+	 * @since 3.25
+	 */
+	private int findNextRowLine(int startLine, int y, WidgetInfos infos) {
+		int low= startLine + 1;
+		int high= infos.maxLines;
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if (computeY(mid, infos) > y)
+				high= mid;
+			else
+				low= mid + 1;
+		}
+		return low;
+	}
+
 	/**
 	 * Computes and returns the y location of the given startLine.
 	 *
@@ -1036,34 +1234,16 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			line= d.getLineInformation(lineNumbers[lineNumbers.length - 1]);
 			int end= line.getOffset() + line.getLength();
 
-			for (int i= fAnnotationsSortedByLayer.size() -1; i >= 0; i--) {
+			for (int i= fAnnotationsSortedByLayer.size() -1; i >= 0 && found == null; i--) {
 
 				Object annotationType= fAnnotationsSortedByLayer.get(i);
 
-				Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY);
-				while (e.hasNext() && found == null) {
-					Annotation a= e.next();
-					if (a.isMarkedDeleted())
-						continue;
-
-					if (skip(a.getType()))
-						continue;
-
-					Position p= fModel.getPosition(a);
-					if (p == null)
-						continue;
-
-					int posOffset= p.getOffset();
-					int posEnd= posOffset + p.getLength();
-					IRegion region= d.getLineInformationOfOffset(posEnd);
-					// trailing empty lines don't count
-					if (posEnd > posOffset && region.getOffset() == posEnd) {
-						posEnd--;
-						region= d.getLineInformationOfOffset(posEnd);
+				for (AnnotationIndex index : getIndexes(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY)) {
+					synchronized (fIndexLock) {
+						found= index.findPosition(d, start, end);
 					}
-
-					if (posOffset <= end && posEnd >= start)
-							found= p;
+					if (found != null)
+						break;
 				}
 			}
 		} catch (BadLocationException x) {
@@ -1455,11 +1635,15 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			if (skipInHeader(annotationType) || skip(annotationType))
 				continue;
 
-			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fCachedAnnotations.iterator());
-			while (e.hasNext()) {
-				if (e.next() != null) {
-					colorType= annotationType;
-					break outer;
+			for (AnnotationIndex index : getIndexes(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY)) {
+				synchronized (fIndexLock) {
+					for (int j= 0; j < index.size(); j++) {
+						Annotation annotation= index.getAnnotation(j);
+						if (!annotation.isMarkedDeleted() && !(annotation instanceof AnnotationBag)) {
+							colorType= annotationType;
+							break outer;
+						}
+					}
 				}
 			}
 		}
@@ -1505,13 +1689,16 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			int count= 0;
 			String annotationTypeLabel= null;
 
-			Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY | FilterIterator.IGNORE_BAGS, fCachedAnnotations.iterator());
-			while (e.hasNext()) {
-				Annotation annotation= e.next();
-				if (annotation != null) {
-					if (annotationTypeLabel == null)
-						annotationTypeLabel= ((IAnnotationAccessExtension)fAnnotationAccess).getTypeLabel(annotation);
-					count++;
+			for (AnnotationIndex index : getIndexes(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY)) {
+				synchronized (fIndexLock) {
+					for (int j= 0; j < index.size(); j++) {
+						Annotation annotation= index.getAnnotation(j);
+						if (annotation.isMarkedDeleted() || annotation instanceof AnnotationBag)
+							continue;
+						if (annotationTypeLabel == null)
+							annotationTypeLabel= ((IAnnotationAccessExtension)fAnnotationAccess).getTypeLabel(annotation);
+						count++;
+					}
 				}
 			}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
 package org.eclipse.jface.text.projection;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.jface.text.AbstractDocument;
@@ -369,9 +371,20 @@ public class ProjectionDocument extends AbstractDocument {
 	 */
 	private Fragment findFragment(int offsetInMaster, int lengthInMaster) {
 		Position[] fragments= getFragments();
-		for (Position fragment : fragments) {
-			Fragment f = (Fragment) fragment;
-			if (f.getOffset() <= offsetInMaster && offsetInMaster + lengthInMaster <= f.getOffset() + f.getLength())
+		int index;
+		try {
+			index= fMasterDocument.computeIndexInCategory(fFragmentsCategory, offsetInMaster);
+		} catch (BadLocationException | BadPositionCategoryException x) {
+			return null;
+		}
+
+		// only the fragments starting at or immediately before the offset can contain the range
+		int start= Math.max(index - 1, 0);
+		while (start > 0 && fragments[start - 1].getOffset() == fragments[start].getOffset())
+			start--;
+		for (int i= start; i < fragments.length && fragments[i].getOffset() <= offsetInMaster; i++) {
+			Fragment f= (Fragment) fragments[i];
+			if (offsetInMaster + lengthInMaster <= f.getOffset() + f.getLength())
 				return f;
 		}
 		return null;
@@ -594,6 +607,259 @@ public class ProjectionDocument extends AbstractDocument {
 		}
 	}
 
+	/**
+	 * Ensures that the given ranges of the master document are part of this projection document.
+	 * The resulting projection is the same as when calling {@link #addMasterDocumentRange(int, int)}
+	 * for every range, but the fragments and segments are computed in a single pass and only one
+	 * projection change is sent. This change replaces the part of this projection document between
+	 * the first and the last changed segment.
+	 *
+	 * @param ranges the master document ranges, they may overlap and be in any order
+	 * @throws BadLocationException if one of the ranges is invalid in the master document
+	 * @since 3.14
+	 */
+	public void addMasterDocumentRanges(IRegion[] ranges) throws BadLocationException {
+		changeMasterDocumentRanges(ranges, true);
+	}
+
+	/**
+	 * Ensures that the given ranges of the master document are not part of this projection
+	 * document. The resulting projection is the same as when calling
+	 * {@link #removeMasterDocumentRange(int, int)} for every range, but the fragments and segments
+	 * are computed in a single pass and only one projection change is sent. This change replaces
+	 * the part of this projection document between the first and the last changed segment.
+	 *
+	 * @param ranges the master document ranges, they may overlap and be in any order
+	 * @throws BadLocationException if one of the ranges is invalid in the master document
+	 * @since 3.14
+	 */
+	public void removeMasterDocumentRanges(IRegion[] ranges) throws BadLocationException {
+		changeMasterDocumentRanges(ranges, false);
+	}
+
+	/**
+	 * Adds the given master document ranges to or removes them from this projection document
+	 * with a single projection change.
+	 *
+	 * @param ranges the master document ranges
+	 * @param add <code>true</code> to add the ranges, <code>false</code> to remove them
+	 * @throws BadLocationException if one of the ranges is invalid in the master document
+	 * @since 3.14
+	 */
+	private void changeMasterDocumentRanges(IRegion[] ranges, boolean add) throws BadLocationException {
+		int[] changes= normalize(ranges);
+		if (changes.length == 0)
+			return;
+
+		// empty fragments do not contribute to the projection and are dropped
+		Position[] allFragments= getFragments();
+		List<Position> nonEmpty= new ArrayList<>(allFragments.length);
+		for (Position fragment : allFragments) {
+			if (fragment.getLength() > 0)
+				nonEmpty.add(fragment);
+		}
+		Position[] fragments= nonEmpty.toArray(new Position[nonEmpty.size()]);
+		int[] projected= new int[2 * fragments.length];
+		for (int i= 0; i < fragments.length; i++) {
+			projected[2 * i]= fragments[i].getOffset();
+			projected[2 * i + 1]= fragments[i].getOffset() + fragments[i].getLength();
+		}
+		int[] result= add ? union(projected, projected.length, changes) : subtract(projected, projected.length, changes);
+		if (result.length == 0) {
+			if (fragments.length == 0)
+				return;
+			// as with single removals, an empty fragment remains at the end of the last one
+			Position last= fragments[fragments.length - 1];
+			int end= last.getOffset() + last.getLength();
+			result= new int[] { end, end };
+		}
+
+		// the fragments which do not change at the start and the end keep their segments
+		int oldCount= fragments.length;
+		int newCount= result.length / 2;
+		int prefix= 0;
+		while (prefix < oldCount && prefix < newCount && matches(fragments[prefix], result, prefix))
+			prefix++;
+		if (prefix == oldCount && prefix == newCount)
+			return;
+		int suffix= 0;
+		while (suffix < oldCount - prefix && suffix < newCount - prefix && matches(fragments[oldCount - 1 - suffix], result, newCount - 1 - suffix))
+			suffix++;
+
+		int offsetInSlave= 0;
+		if (prefix > 0) {
+			Segment segment= ((Fragment) fragments[prefix - 1]).segment;
+			offsetInSlave= segment.getOffset() + segment.getLength();
+		}
+		int lengthInSlave= 0;
+		int masterStart= Integer.MAX_VALUE;
+		int masterEnd= 0;
+		for (int i= prefix; i < oldCount - suffix; i++) {
+			Fragment fragment= (Fragment) fragments[i];
+			lengthInSlave+= fragment.segment.getLength();
+			masterStart= Math.min(masterStart, fragment.getOffset());
+			masterEnd= Math.max(masterEnd, fragment.getOffset() + fragment.getLength());
+		}
+		StringBuilder text= new StringBuilder();
+		for (int i= prefix; i < newCount - suffix; i++) {
+			text.append(fMasterDocument.get(result[2 * i], result[2 * i + 1] - result[2 * i]));
+			masterStart= Math.min(masterStart, result[2 * i]);
+			masterEnd= Math.max(masterEnd, result[2 * i + 1]);
+		}
+
+		ProjectionDocumentEvent event= new ProjectionDocumentEvent(this, offsetInSlave, lengthInSlave, text.toString(), masterStart, masterEnd - masterStart);
+		super.fireDocumentAboutToBeChanged(event);
+
+		Fragment[] newFragments= new Fragment[newCount];
+		Segment[] newSegments= new Segment[newCount];
+		int delta= text.length() - lengthInSlave;
+		int offset= offsetInSlave;
+		for (int i= 0; i < newCount; i++) {
+			Fragment fragment;
+			if (i < prefix) {
+				fragment= (Fragment) fragments[i];
+			} else if (i >= newCount - suffix) {
+				fragment= (Fragment) fragments[i - newCount + oldCount];
+				fragment.segment.setOffset(fragment.segment.getOffset() + delta);
+			} else {
+				fragment= new Fragment(result[2 * i], result[2 * i + 1] - result[2 * i]);
+				Segment segment= new Segment(offset, fragment.getLength());
+				segment.fragment= fragment;
+				fragment.segment= segment;
+				offset+= segment.getLength();
+			}
+			newFragments[i]= fragment;
+			newSegments[i]= fragment.segment;
+		}
+
+		try {
+			// rebuild the categories, this is linear in the number of fragments
+			fMapping.projectionChanged(newFragments, newSegments);
+			fMasterDocument.removePositionCategory(fFragmentsCategory);
+			fMasterDocument.addPositionCategory(fFragmentsCategory);
+			removePositionCategory(fSegmentsCategory);
+			addPositionCategory(fSegmentsCategory);
+			for (int i= 0; i < newCount; i++) {
+				fMasterDocument.addPosition(fFragmentsCategory, newFragments[i]);
+				addPosition(fSegmentsCategory, newSegments[i]);
+			}
+		} catch (BadPositionCategoryException x) {
+			internalError();
+		}
+
+		getTracker().replace(event.getOffset(), event.getLength(), event.getText());
+		try {
+			fSegmentUpdater.setAdaptedEvent(event);
+			super.fireDocumentChanged(event);
+		} finally {
+			fSegmentUpdater.setAdaptedEvent(null);
+		}
+	}
+
+	/**
+	 * Returns the given ranges as sorted array of start and end offsets, where overlapping and
+	 * adjacent ranges are joined and empty ranges are left out.
+	 *
+	 * @param ranges the master document ranges
+	 * @return the start and end offsets of the joined ranges
+	 * @throws BadLocationException if one of the ranges is invalid in the master document
+	 * @since 3.14
+	 */
+	private int[] normalize(IRegion[] ranges) throws BadLocationException {
+		int length= fMasterDocument.getLength();
+		IRegion[] sorted= ranges.clone();
+		for (IRegion range : sorted) {
+			if (range.getOffset() < 0 || range.getLength() < 0 || range.getOffset() + range.getLength() > length)
+				throw new BadLocationException();
+		}
+		Arrays.sort(sorted, Comparator.comparingInt(IRegion::getOffset));
+
+		int[] result= new int[2 * sorted.length];
+		int count= 0;
+		for (IRegion range : sorted) {
+			if (range.getLength() == 0)
+				continue;
+			int end= range.getOffset() + range.getLength();
+			if (count > 0 && range.getOffset() <= result[count - 1])
+				result[count - 1]= Math.max(result[count - 1], end);
+			else {
+				result[count++]= range.getOffset();
+				result[count++]= end;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Joins two sorted arrays of disjoint ranges given as start and end offsets.
+	 *
+	 * @param ranges the start and end offsets of the first ranges
+	 * @param count the number of offsets in <code>ranges</code>
+	 * @param others the start and end offsets of the other ranges
+	 * @return the start and end offsets of the union, adjacent ranges are joined
+	 * @since 3.14
+	 */
+	private static int[] union(int[] ranges, int count, int[] others) {
+		int[] result= new int[count + others.length];
+		int size= 0;
+		int i= 0;
+		int j= 0;
+		while (i < count || j < others.length) {
+			int start, end;
+			if (j == others.length || i < count && ranges[i] <= others[j]) {
+				start= ranges[i++];
+				end= ranges[i++];
+			} else {
+				start= others[j++];
+				end= others[j++];
+			}
+			if (size > 0 && start <= result[size - 1])
+				result[size - 1]= Math.max(result[size - 1], end);
+			else {
+				result[size++]= start;
+				result[size++]= end;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Removes the ranges of a sorted array of disjoint ranges from another such array.
+	 *
+	 * @param ranges the start and end offsets of the ranges
+	 * @param count the number of offsets in <code>ranges</code>
+	 * @param others the start and end offsets of the ranges to remove
+	 * @return the start and end offsets of the remaining ranges
+	 * @since 3.14
+	 */
+	private static int[] subtract(int[] ranges, int count, int[] others) {
+		int[] result= new int[count + others.length];
+		int size= 0;
+		int j= 0;
+		for (int i= 0; i < count; i+= 2) {
+			int start= ranges[i];
+			int end= ranges[i + 1];
+			while (j < others.length && others[j + 1] <= start)
+				j+= 2;
+			for (int k= j; k < others.length && others[k] < end; k+= 2) {
+				if (start < others[k]) {
+					result[size++]= start;
+					result[size++]= others[k];
+				}
+				start= Math.max(start, others[k + 1]);
+			}
+			if (start < end) {
+				result[size++]= start;
+				result[size++]= end;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	private static boolean matches(Position fragment, int[] ranges, int index) {
+		return fragment.getOffset() == ranges[2 * index] && fragment.getOffset() + fragment.getLength() == ranges[2 * index + 1];
+	}
+
 	/**
 	 * Returns the sequence of all master document regions with are contained in the given master document
 	 * range and which are part of this projection document. May return <code>null</code> if no such
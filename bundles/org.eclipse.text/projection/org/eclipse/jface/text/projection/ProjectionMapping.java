@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -78,6 +78,19 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 		fCachedFragments= null;
 	}
 
+	/**
+	 * Notifies this projection mapping that the projection has been replaced by the given
+	 * fragments and segments, which may not yet have been added to the documents.
+	 *
+	 * @param fragments the new fragments of the master document
+	 * @param segments the new segments of the slave document
+	 * @since 3.14
+	 */
+	void projectionChanged(Position[] fragments, Position[] segments) {
+		fCachedFragments= fragments;
+		fCachedSegments= segments;
+	}
+
 	private Position[] getSegments() {
 		if (fCachedSegments == null) {
 			try {
@@ -548,11 +561,10 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 	@Override
 	public int getImageLength() {
 		Position[] segments= getSegments();
-		int length= 0;
-		for (Position segment : segments) {
-			length += segment.length;
-		}
-		return length;
+		if (segments.length == 0)
+			return 0;
+		// the segments are adjacent
+		return exclusiveEnd(segments[segments.length - 1]) - segments[0].offset;
 	}
 
 	@Override
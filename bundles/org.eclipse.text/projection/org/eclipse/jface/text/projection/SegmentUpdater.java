@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2007 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,11 @@ class SegmentUpdater extends DefaultPositionUpdater {
 
 	private Segment fNextSegment= null;
 	private boolean fIsProjectionChange= false;
+	/**
+	 * The event to which the segments have already been adapted.
+	 * @since 3.14
+	 */
+	private DocumentEvent fAdaptedEvent= null;
 
 	/**
 	 * Creates the segment updater for the given category.
@@ -45,11 +50,24 @@ class SegmentUpdater extends DefaultPositionUpdater {
 		super(segmentCategory);
 	}
 
+	/**
+	 * Tells this updater that the segments have already been adapted to the given event, so
+	 * they are left unchanged when the event is processed.
+	 *
+	 * @param event the event or <code>null</code> if none
+	 * @since 3.14
+	 */
+	void setAdaptedEvent(DocumentEvent event) {
+		fAdaptedEvent= event;
+	}
+
 	@Override
 	public void update(DocumentEvent event) {
 
 		Assert.isTrue(event instanceof ProjectionDocumentEvent);
 		fIsProjectionChange= ((ProjectionDocumentEvent) event).getChangeType() == ProjectionDocumentEvent.PROJECTION_CHANGE;
+		if (event == fAdaptedEvent)
+			return;
 
 		try {
 
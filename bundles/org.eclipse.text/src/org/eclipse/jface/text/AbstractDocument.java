@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -111,6 +111,11 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	private final Map<String, List<Position>> fEndPositions= new HashMap<>();
 	/** All registered document position updaters */
 	private final List<IPositionUpdater> fPositionUpdaters= new CopyOnWriteArrayList<>();
+	/**
+	 * Indicates whether the position updaters are currently running.
+	 * @since 3.14
+	 */
+	private boolean fUpdatingPositions= false;
 	/**
 	 * The list of post notification changes
 	 * @since 2.0
@@ -244,8 +249,12 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 
 	/**
 	 * Returns all positions managed by the document grouped by category.
+	 * <p>
+	 * The lists of indexed position categories are read-only.
+	 * </p>
 	 *
 	 * @return the document's positions
+	 * @see #addPositionCategory(String, boolean)
 	 */
 	protected Map<String, List<Position>> getDocumentManagedPositions() {
 		return fPositions;
@@ -346,6 +355,10 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		List<Position> list= fPositions.get(category);
 		if (list == null)
 			throw new BadPositionCategoryException();
+		if (list instanceof PositionIndex index) {
+			index.addPosition(position);
+			return;
+		}
 		list.add(computeIndexInPositionList(list, position.offset), position);
 
 		List<Position> endPositions= fEndPositions.get(category);
@@ -364,16 +377,86 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 
 	@Override
 	public void addPositionCategory(String category) {
+		addPositionCategory(category, false);
+	}
+
+	/**
+	 * Adds a new position category to this document. If the position category already exists
+	 * nothing happens.
+	 * <p>
+	 * The positions of an indexed category are stored in an interval tree instead of sorted
+	 * lists. Adding and removing positions, {@link #computeIndexInCategory(String, int)},
+	 * {@link #containsPosition(String, int, int)} and
+	 * {@link #getPositions(String, int, int, boolean, boolean)} are logarithmic in the number of
+	 * positions of the category, and a {@link DefaultPositionUpdater} for the category only
+	 * visits the positions that overlap a change. This makes indexed categories suitable for
+	 * very large numbers of positions like search results or semantic highlightings.
+	 * </p>
+	 * <p>
+	 * The positions behind a change are shifted lazily. Their offsets are brought up to date
+	 * when they are returned by one of this document's position queries, but a position that a
+	 * client holds on to is not updated before that. Clients of indexed categories should
+	 * therefore access the positions through the document, e.g. using
+	 * {@link #getPositions(String, int, int, boolean, boolean)}.
+	 * </p>
+	 * <p>
+	 * Only an instance of {@link DefaultPositionUpdater} itself uses the index. Other position
+	 * updaters registered for an indexed category keep working, but they visit all positions
+	 * and the index is rebuilt afterwards.
+	 * </p>
+	 *
+	 * @param category the category to be added
+	 * @param indexed <code>true</code> if the positions of the category should be indexed
+	 * @since 3.14
+	 */
+	public void addPositionCategory(String category, boolean indexed) {
+		addPositionCategory(category, indexed, true);
+	}
+
+	/**
+	 * Adds a new position category to this document. If the position category already exists
+	 * nothing happens.
+	 * <p>
+	 * Like {@link #addPositionCategory(String, boolean)}, but for indexed categories the
+	 * positions behind a change can also be shifted right away. This is linear in the number of
+	 * positions behind the change, like for a category that is not indexed, but all positions are
+	 * always up to date. Use this for positions that are handed out to clients, e.g. the
+	 * positions of annotations.
+	 * </p>
+	 *
+	 * @param category the category to be added
+	 * @param indexed <code>true</code> if the positions of the category should be indexed
+	 * @param shiftLazily <code>true</code> if the positions of an indexed category behind a change
+	 *            should be shifted lazily, <code>false</code> if they should be shifted right away
+	 * @since 3.14
+	 */
+	public void addPositionCategory(String category, boolean indexed, boolean shiftLazily) {
 
 		if (category == null)
 			return;
 
 		if (!containsPositionCategory(category)) {
-			fPositions.put(category, new ArrayList<>());
-			fEndPositions.put(category, new ArrayList<>());
+			if (indexed) {
+				fPositions.put(category, new PositionIndex(shiftLazily));
+			} else {
+				fPositions.put(category, new ArrayList<>());
+				fEndPositions.put(category, new ArrayList<>());
+			}
 		}
 	}
 
+	/**
+	 * Tells whether the given position category is indexed.
+	 *
+	 * @param category the category to check
+	 * @return <code>true</code> if the category exists and is indexed
+	 * @see #addPositionCategory(String, boolean)
+	 * @since 3.14
+	 */
+	public boolean isIndexedPositionCategory(String category) {
+		return category != null && fPositions.get(category) instanceof PositionIndex;
+	}
+
 	@Override
 	public void addPositionUpdater(IPositionUpdater updater) {
 		insertPositionUpdater(updater, fPositionUpdaters.size());
@@ -389,6 +472,9 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		if (list == null)
 			return false;
 
+		if (list instanceof PositionIndex index)
+			return index.containsPosition(offset, length);
+
 		int size= list.size();
 		if (size == 0)
 			return false;
@@ -516,6 +602,9 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		if (c == null)
 			throw new BadPositionCategoryException();
 
+		if (c instanceof PositionIndex index)
+			return index.computeIndex(offset);
+
 		return computeIndexInPositionList(c, offset);
 	}
 
@@ -927,6 +1016,13 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		if (c == null)
 			throw new BadPositionCategoryException();
 
+		if (c instanceof PositionIndex index) {
+			// position updaters which are not aware of the index may modify the positions
+			if (fUpdatingPositions)
+				index.markNeedsRebuild();
+			return index.getPositions();
+		}
+
 		Position[] positions= new Position[c.size()];
 		c.toArray(positions);
 		return positions;
@@ -959,6 +1055,68 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		return getStore().get(pos, length);
 	}
 
+	/**
+	 * Returns an immutable snapshot of the current content of this document. The snapshot has its
+	 * own line information and can be read from any thread without synchronizing with this
+	 * document; later changes of this document are not visible in the snapshot. The content of
+	 * the snapshot cannot be changed, it throws an <code>UnsupportedOperationException</code> on
+	 * any attempt. Its {@linkplain IDocumentExtension4#getModificationStamp() modification stamp}
+	 * is the one of this document when the snapshot was taken.
+	 * <p>
+	 * If this document uses a {@link RopeTextStore}, the snapshot shares the content with it and is
+	 * created in constant time. Otherwise the content is copied, which costs as much as
+	 * {@link #get()}; clients that take snapshots frequently should check
+	 * {@link #isSnapshotShared()} first.
+	 * </p>
+	 * <p>
+	 * Like any other read access, taking a snapshot must not happen concurrently with changes of
+	 * this document.
+	 * </p>
+	 *
+	 * @return an immutable snapshot of this document
+	 * @since 3.14
+	 */
+	public IDocument getSnapshot() {
+		return new DocumentSnapshot(getSnapshotContent(), getLegalLineDelimiters(), getModificationStamp());
+	}
+
+	/**
+	 * Tells whether a {@linkplain #getSnapshot() snapshot} of this document shares the content
+	 * with it instead of copying it, i.e. whether taking a snapshot is cheap regardless of the
+	 * length of the document.
+	 * <p>
+	 * Subclasses that override {@link #getSnapshotContent()} should override this method as well.
+	 * </p>
+	 *
+	 * @return <code>true</code> if taking a snapshot does not copy the content
+	 * @since 3.14
+	 */
+	public boolean isSnapshotShared() {
+		return getStore() instanceof RopeTextStore;
+	}
+
+	/**
+	 * Returns a text store with the current content of this document for a
+	 * {@linkplain #getSnapshot() snapshot}. The returned store is owned by the snapshot and must not
+	 * be changed afterwards.
+	 * <p>
+	 * Subclasses whose text store wraps a {@link RopeTextStore} may override this method to return
+	 * a {@linkplain RopeTextStore#copy() copy} of it.
+	 * </p>
+	 *
+	 * @return a text store with the current content
+	 * @since 3.14
+	 */
+	protected RopeTextStore getSnapshotContent() {
+		ITextStore store= getStore();
+		if (store instanceof RopeTextStore rope)
+			return rope.copy();
+
+		RopeTextStore content= new RopeTextStore();
+		content.set(store.get(0, store.getLength()));
+		return content;
+	}
+
 	@Override
 	public void insertPositionUpdater(IPositionUpdater updater, int index) {
 		for (IPositionUpdater u: fPositionUpdaters) {
@@ -981,6 +1139,10 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		List<Position> c= fPositions.get(category);
 		if (c == null)
 			throw new BadPositionCategoryException();
+		if (c instanceof PositionIndex index) {
+			index.removePosition(position);
+			return;
+		}
 		removeFromPositionsList(c, position, true);
 
 		List<Position> endPositions= fEndPositions.get(category);
@@ -1140,11 +1302,39 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 *            the positions
 	 */
 	protected void updatePositions(DocumentEvent event) {
-		for(IPositionUpdater u: fPositionUpdaters) {
-			u.update(event);
+		fUpdatingPositions= true;
+		try {
+			for(IPositionUpdater u: fPositionUpdaters) {
+				u.update(event);
+			}
+		} finally {
+			fUpdatingPositions= false;
+			for (List<Position> positions : fPositions.values()) {
+				if (positions instanceof PositionIndex index)
+					index.rebuildIfNeeded();
+			}
 		}
 	}
 
+	/**
+	 * Updates the positions of the given category if it is indexed. Called by
+	 * {@link DefaultPositionUpdater}.
+	 *
+	 * @param category the position category
+	 * @param event the document event describing the change
+	 * @return <code>true</code> if the category is indexed and has been updated,
+	 *         <code>false</code> otherwise
+	 * @since 3.14
+	 */
+	boolean updateIndexedPositions(String category, DocumentEvent event) {
+		if (category == null || !(fPositions.get(category) instanceof PositionIndex index))
+			return false;
+
+		String text= event.getText();
+		index.update(event.getOffset(), event.getLength(), text == null ? 0 : text.length());
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -1582,6 +1772,9 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 * @since 3.4
 	 */
 	public Position[] getPositions(String category, int offset, int length, boolean canStartBefore, boolean canEndAfter) throws BadPositionCategoryException {
+		if (category != null && fPositions.get(category) instanceof PositionIndex index)
+			return getPositions(index, offset, length, canStartBefore, canEndAfter);
+
 		if (canStartBefore && canEndAfter || (!canStartBefore && !canEndAfter)) {
 			List<Position> documentPositions;
 			if (canStartBefore && canEndAfter) {
@@ -1622,6 +1815,37 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		}
 	}
 
+	/**
+	 * Returns all positions of the given index that are inside the given region.
+	 *
+	 * @param index the position index
+	 * @param offset the start position of the region
+	 * @param length the length of the region
+	 * @param canStartBefore if <code>true</code> then positions are included which start before
+	 *            the region if they end at or after the regions start
+	 * @param canEndAfter if <code>true</code> then positions are included which end after the
+	 *            region if they start at or before the regions end
+	 * @return all positions inside the region, ordered by offset
+	 * @see #getPositions(String, int, int, boolean, boolean)
+	 * @since 3.14
+	 */
+	private Position[] getPositions(PositionIndex index, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		List<Position> list;
+		if (canStartBefore && canEndAfter) {
+			list= index.getOverlappingCandidates(offset, offset + length);
+		} else if (canStartBefore) {
+			list= index.getEndingPositions(offset, length);
+		} else {
+			list= index.getStartingPositions(offset, length);
+		}
+
+		if (canStartBefore == canEndAfter) {
+			Position region= new Position(offset, length);
+			list.removeIf(position -> !isWithinRegion(region, position, canStartBefore, canEndAfter));
+		}
+		return list.toArray(new Position[list.size()]);
+	}
+
 	/*
 	 * @since 3.4
 	 */
@@ -41,6 +41,10 @@ package org.eclipse.jface.text;
  * This class can be used as is or be adapted by subclasses. Fields are protected to allow
  * subclasses direct access. Because of the frequency with which position updaters are used this is
  * a performance decision.
+ * <p>
+ * If the category is indexed (see {@link AbstractDocument#addPositionCategory(String, boolean)}),
+ * an instance of this class only visits the positions that overlap the change.
+ * </p>
  */
 public class DefaultPositionUpdater implements IPositionUpdater {
 
@@ -212,6 +216,11 @@ public class DefaultPositionUpdater implements IPositionUpdater {
 			fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
 			fDocument= event.getDocument();
 
+			// subclasses may adapt the positions differently, only this class can use the index
+			if (getClass() == DefaultPositionUpdater.class && fDocument instanceof AbstractDocument document
+					&& document.updateIndexedPositions(fCategory, event))
+				return;
+
 			Position[] category= fDocument.getPositions(fCategory);
 			for (Position element : category) {
 
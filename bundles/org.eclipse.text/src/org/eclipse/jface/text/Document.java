@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import org.eclipse.core.runtime.Assert;
+
 
 /**
  * Default document implementation. Uses a {@link org.eclipse.jface.text.GapTextStore} wrapped
@@ -33,7 +35,9 @@ package org.eclipse.jface.text;
  * source code documents. It is not designed for very large documents of a size of several
  * megabytes. Space-saving implementations are initially used for both the text store and the line
  * tracker; the first modification after a {@link #set(String) set} incurs the cost to transform the
- * document structures to efficiently handle updates.
+ * document structures to efficiently handle updates. Use {@link #Document(ITextStore)} with a
+ * {@link RopeTextStore} for documents of many megabytes and for documents of which
+ * {@linkplain #getSnapshot() snapshots} are taken frequently.
  * </p>
  * <p>
  * See {@link GapTextStore} and <code>TreeLineTracker</code> for algorithmic behavior of the used
@@ -68,6 +72,22 @@ public class Document extends AbstractDocument {
 		completeInitialization();
 	}
 
+	/**
+	 * Creates a new empty document that uses the given text store instead of the default one.
+	 * This allows to use a text store that is better suited for the expected content, e.g. a
+	 * {@link RopeTextStore} for very large documents.
+	 *
+	 * @param textStore the text store to use, may not be <code>null</code>
+	 * @since 3.14
+	 */
+	public Document(ITextStore textStore) {
+		super();
+		Assert.isNotNull(textStore);
+		setTextStore(textStore);
+		setLineTracker(new DefaultLineTracker());
+		completeInitialization();
+	}
+
 	@Override
 	public boolean isLineInformationRepairNeeded(int offset, int length, String text) throws BadLocationException {
 		if ((0 > offset) || (0 > length) || (offset + length > getLength()))
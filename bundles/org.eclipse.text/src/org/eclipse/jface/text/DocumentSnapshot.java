@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.Arrays;
+
+
+/**
+ * An immutable snapshot of a document, see {@link AbstractDocument#getSnapshot()}.
+ * <p>
+ * The content is kept in a {@link RopeTextStore} which is never changed, so it can share its
+ * nodes with the document. For the default line delimiters, the line information is computed
+ * from the line delimiter counts of the rope nodes, so no line tracker has to be built.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class DocumentSnapshot extends AbstractDocument {
+
+	/**
+	 * Read-only line tracker for the default line delimiters which answers all queries from the
+	 * line delimiter counts of a rope.
+	 */
+	private static final class RopeLineTracker implements ILineTracker {
+
+		/** The content of the snapshot. */
+		private final RopeTextStore fContent;
+
+		RopeLineTracker(RopeTextStore content) {
+			fContent= content;
+		}
+
+		@Override
+		public String[] getLegalLineDelimiters() {
+			return TextUtilities.copy(DefaultLineTracker.DELIMITERS);
+		}
+
+		@Override
+		public String getLineDelimiter(int line) throws BadLocationException {
+			checkLine(line);
+			if (line == fContent.getLineDelimiterCount())
+				return null;
+
+			int end= fContent.getLineDelimiterEnd(line);
+			if (fContent.get(end - 1) == '\r')
+				return DefaultLineTracker.DELIMITERS[0];
+			if (end > 1 && fContent.get(end - 2) == '\r')
+				return DefaultLineTracker.DELIMITERS[2];
+			return DefaultLineTracker.DELIMITERS[1];
+		}
+
+		@Override
+		public int computeNumberOfLines(String text) {
+			return new DefaultLineTracker().computeNumberOfLines(text);
+		}
+
+		@Override
+		public int getNumberOfLines() {
+			return fContent.getLineDelimiterCount() + 1;
+		}
+
+		@Override
+		public int getNumberOfLines(int offset, int length) throws BadLocationException {
+			if (length == 0)
+				return 1;
+
+			return getLineNumberOfOffset(offset + length) - getLineNumberOfOffset(offset) + 1;
+		}
+
+		@Override
+		public int getLineOffset(int line) throws BadLocationException {
+			checkLine(line);
+			return line == 0 ? 0 : fContent.getLineDelimiterEnd(line - 1);
+		}
+
+		@Override
+		public int getLineLength(int line) throws BadLocationException {
+			return getLineEnd(line) - getLineOffset(line);
+		}
+
+		@Override
+		public int getLineNumberOfOffset(int offset) throws BadLocationException {
+			if (offset < 0 || offset > fContent.getLength())
+				throw new BadLocationException(Integer.toString(offset));
+			return fContent.getLineDelimiterCount(offset);
+		}
+
+		@Override
+		public IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+			return getLineInformation(getLineNumberOfOffset(offset));
+		}
+
+		@Override
+		public IRegion getLineInformation(int line) throws BadLocationException {
+			int lines= fContent.getLineDelimiterCount();
+			if (line > 0 && line == lines + 1) {
+				// compatible with the other line trackers, see TreeLineTracker#getLineInformation(int)
+				int length= fContent.getLength();
+				if (getLineOffset(lines) < length)
+					return new Region(length, 0);
+			}
+
+			int offset= getLineOffset(line);
+			String delimiter= getLineDelimiter(line);
+			int length= getLineEnd(line) - offset;
+			return new Region(offset, delimiter == null ? length : length - delimiter.length());
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) throws BadLocationException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void set(String text) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Returns the end offset of the given line including its delimiter.
+		 *
+		 * @param line the line
+		 * @return the end offset of the line
+		 * @throws BadLocationException if the line does not exist
+		 */
+		private int getLineEnd(int line) throws BadLocationException {
+			checkLine(line);
+			return line == fContent.getLineDelimiterCount() ? fContent.getLength() : fContent.getLineDelimiterEnd(line);
+		}
+
+		private void checkLine(int line) throws BadLocationException {
+			if (line < 0 || line > fContent.getLineDelimiterCount())
+				throw new BadLocationException(Integer.toString(line));
+		}
+	}
+
+
+	/** The modification stamp of the document when the snapshot was taken. */
+	private final long fModificationStamp;
+
+	/**
+	 * Creates a new snapshot.
+	 *
+	 * @param content the content, which must not be changed any more
+	 * @param lineDelimiters the legal line delimiters of the document
+	 * @param modificationStamp the modification stamp of the document
+	 */
+	DocumentSnapshot(RopeTextStore content, String[] lineDelimiters, long modificationStamp) {
+		super();
+		fModificationStamp= modificationStamp;
+		setTextStore(content);
+
+		if (Arrays.equals(lineDelimiters, DefaultLineTracker.DELIMITERS)) {
+			setLineTracker(new RopeLineTracker(content));
+		} else {
+			ILineTracker tracker= new ConfigurableLineTracker(lineDelimiters);
+			tracker.set(content.get(0, content.getLength()));
+			setLineTracker(tracker);
+		}
+		completeInitialization();
+	}
+
+	@Override
+	public long getModificationStamp() {
+		return fModificationStamp;
+	}
+
+	@Override
+	public void replace(int pos, int length, String text) throws BadLocationException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void replace(int pos, int length, String text, long modificationStamp) throws BadLocationException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void set(String text) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void set(String text, long modificationStamp) {
+		throw new UnsupportedOperationException();
+	}
+}
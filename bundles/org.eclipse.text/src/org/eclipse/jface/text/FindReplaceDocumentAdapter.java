@@ -15,12 +15,17 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
 
 /**
  * Provides search and replace operations on
@@ -75,11 +80,234 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 	 */
 	private int fFindReplaceMatchOffset;
 
+	/**
+	 * The literal search used by findReplace for searches that are not regular expression
+	 * searches. It is reused as long as the search criteria do not change.
+	 * @since 3.14
+	 */
+	private LiteralSearch fLiteralSearch;
+
+	/**
+	 * Tells whether the last find operation used {@link #fLiteralSearch} instead of
+	 * {@link #fFindReplaceMatcher}.
+	 * @since 3.14
+	 */
+	private boolean fUseLiteralSearch;
+
 	/**
 	 * Retain case mode
 	 */
 	private int fRetainCaseMode;
 
+	/**
+	 * Searches a string in the adapted document with the Boyer-Moore-Horspool algorithm. The
+	 * document is read character by character, i.e. its content is not copied, and the matches are
+	 * the same as those of the regular expression which is used otherwise.
+	 *
+	 * @since 3.14
+	 */
+	private static final class LiteralSearch {
+
+		/** The size of the shift tables, characters are hashed by their low bits. */
+		private static final int TABLE_SIZE= 256;
+
+		/** The searched text. */
+		private final CharSequence fText;
+		/** The string to find. */
+		final String fFindString;
+		/** Whether lower and upper case are distinguished. */
+		final boolean fCaseSensitive;
+		/** Whether matches must be limited by word boundaries. */
+		final boolean fWholeWord;
+		/** The characters to find, case folded if the search is not case sensitive. */
+		private final char[] fChars;
+		/**
+		 * The shifts of a forward search, indexed by the hash of the text character under the last
+		 * character of the string to find.
+		 */
+		private final int[] fForwardShifts= new int[TABLE_SIZE];
+		/**
+		 * The shifts of a backward search, indexed by the hash of the text character under the
+		 * first character of the string to find.
+		 */
+		private final int[] fBackwardShifts= new int[TABLE_SIZE];
+		/** The matcher checking for word boundaries, <code>null</code> if not a whole word search. */
+		private final Matcher fBoundaryMatcher;
+		/** The offset of the last match or <code>-1</code> if there was none. */
+		int fMatchOffset= -1;
+		/** The end offset of the last match or of its replacement. */
+		int fMatchEnd= -1;
+
+		/**
+		 * Creates a new literal search.
+		 *
+		 * @param text the text to search
+		 * @param findString the string to find, must be supported
+		 * @param caseSensitive indicates whether lower and upper case should be distinguished
+		 * @param wholeWord indicates whether matches must be limited by word boundaries
+		 * @see #isSupported(String)
+		 */
+		LiteralSearch(CharSequence text, String findString, boolean caseSensitive, boolean wholeWord) {
+			fText= text;
+			fFindString= findString;
+			fCaseSensitive= caseSensitive;
+			fWholeWord= wholeWord;
+
+			int length= findString.length();
+			fChars= new char[length];
+			for (int i= 0; i < length; i++) {
+				char c= findString.charAt(i);
+				fChars[i]= caseSensitive ? c : fold(c);
+			}
+			Arrays.fill(fForwardShifts, length);
+			for (int i= 0; i < length - 1; i++)
+				setShift(fForwardShifts, fChars[i], length - 1 - i);
+			Arrays.fill(fBackwardShifts, length);
+			for (int i= length - 1; i > 0; i--)
+				setShift(fBackwardShifts, fChars[i], i);
+
+			if (wholeWord) {
+				int patternFlags= caseSensitive ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+				fBoundaryMatcher= Pattern.compile("\\b", patternFlags).matcher(text); //$NON-NLS-1$
+				fBoundaryMatcher.useTransparentBounds(true);
+			} else {
+				fBoundaryMatcher= null;
+			}
+		}
+
+		/**
+		 * Tells whether the given string can be searched literally. Strings containing surrogate
+		 * characters are left to the regular expression engine which matches them by code point.
+		 *
+		 * @param findString the string to find
+		 * @return <code>true</code> if the string can be searched literally
+		 */
+		static boolean isSupported(String findString) {
+			for (int i= 0, length= findString.length(); i < length; i++) {
+				if (Character.isSurrogate(findString.charAt(i)))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Tells whether this search uses the given search criteria.
+		 *
+		 * @param findString the string to find
+		 * @param caseSensitive indicates whether lower and upper case should be distinguished
+		 * @param wholeWord indicates whether matches must be limited by word boundaries
+		 * @return <code>true</code> if this search can be reused for the given criteria
+		 */
+		boolean isSearchFor(String findString, boolean caseSensitive, boolean wholeWord) {
+			return fFindString.equals(findString) && fCaseSensitive == caseSensitive && fWholeWord == wholeWord;
+		}
+
+		/**
+		 * Returns the offset of the first match at or after the given offset.
+		 *
+		 * @param offset the offset at which the search starts
+		 * @return the offset of the match or <code>-1</code> if there is none
+		 */
+		int findForward(int offset) {
+			int length= fChars.length;
+			int last= fText.length() - length;
+			while (offset <= last) {
+				if (matches(offset))
+					return setMatch(offset);
+				offset+= fForwardShifts[hash(fText.charAt(offset + length - 1))];
+			}
+			return setMatch(-1);
+		}
+
+		/**
+		 * Returns the offset of the last match at or before the given offset.
+		 *
+		 * @param offset the offset at which the search starts
+		 * @return the offset of the match or <code>-1</code> if there is none
+		 */
+		int findBackward(int offset) {
+			offset= Math.min(offset, fText.length() - fChars.length);
+			while (offset >= 0) {
+				if (matches(offset))
+					return setMatch(offset);
+				offset-= fBackwardShifts[hash(fText.charAt(offset))];
+			}
+			return setMatch(-1);
+		}
+
+		/**
+		 * Returns the offset of the last match.
+		 *
+		 * @return the offset of the last match
+		 * @throws IllegalStateException if the last search did not find a match
+		 */
+		int getMatchOffset() {
+			if (fMatchOffset == -1)
+				throw new IllegalStateException("No match available"); //$NON-NLS-1$
+			return fMatchOffset;
+		}
+
+		/**
+		 * Returns the length of all matches.
+		 *
+		 * @return the length of the string to find
+		 */
+		int getMatchLength() {
+			return fChars.length;
+		}
+
+		private int setMatch(int offset) {
+			fMatchOffset= offset;
+			fMatchEnd= offset == -1 ? -1 : offset + fChars.length;
+			return offset;
+		}
+
+		private boolean matches(int offset) {
+			for (int i= fChars.length - 1; i >= 0; i--) {
+				char c= fText.charAt(offset + i);
+				if (c != fChars[i] && (fCaseSensitive || fold(c) != fChars[i]))
+					return false;
+			}
+			return !fWholeWord || isWordBoundary(offset) && isWordBoundary(offset + fChars.length);
+		}
+
+		private boolean isWordBoundary(int offset) {
+			fBoundaryMatcher.region(offset, offset);
+			return fBoundaryMatcher.lookingAt();
+		}
+
+		/**
+		 * Sets the shift of the given character of the string to find. A text character matches it
+		 * if it is equal to it or, for searches that are not case sensitive, if the text character
+		 * folds to it. The shift is registered for both hashes under which such a text character
+		 * may be looked up.
+		 *
+		 * @param shifts the shift table
+		 * @param c the character, case folded if the search is not case sensitive
+		 * @param shift the shift, not larger than the shifts set before
+		 */
+		private void setShift(int[] shifts, char c, int shift) {
+			shifts[c & (TABLE_SIZE - 1)]= shift;
+			if (!fCaseSensitive)
+				shifts[fold(c) & (TABLE_SIZE - 1)]= shift;
+		}
+
+		private int hash(char c) {
+			return (fCaseSensitive ? c : fold(c)) & (TABLE_SIZE - 1);
+		}
+
+		/**
+		 * Folds the case of the given character the way {@link Pattern#UNICODE_CASE} does.
+		 *
+		 * @param c the character
+		 * @return the case folded character
+		 */
+		private static char fold(char c) {
+			return Character.toLowerCase(Character.toUpperCase(c));
+		}
+	}
+
+
 	/**
 	 * Constructs a new find replace document adapter.
 	 *
@@ -159,32 +387,13 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 			if (startOffset < 0 || startOffset > length())
 				throw new BadLocationException();
 
-			int patternFlags= 0;
-
-			if (regExSearch) {
-				patternFlags |= Pattern.MULTILINE;
-				findString= substituteLinebreak(findString);
-			}
-
-			if (!caseSensitive)
-				patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
-
-			if (!regExSearch)
-				findString= asRegPattern(findString);
-
-			if (wholeWord)
-				findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
-
 			fFindReplaceMatchOffset= startOffset;
-			if (fFindReplaceMatcher != null && fFindReplaceMatcher.pattern().pattern().equals(findString) && fFindReplaceMatcher.pattern().flags() == patternFlags) {
-				/*
-				 * Commented out for optimization:
-				 * The call is not needed since FIND_FIRST uses find(int) which resets the matcher
-				 */
-				// fFindReplaceMatcher.reset();
+			fUseLiteralSearch= !regExSearch && LiteralSearch.isSupported(findString);
+			if (fUseLiteralSearch) {
+				if (fLiteralSearch == null || !fLiteralSearch.isSearchFor(findString, caseSensitive, wholeWord))
+					fLiteralSearch= new LiteralSearch(this, findString, caseSensitive, wholeWord);
 			} else {
-				Pattern pattern= Pattern.compile(findString, patternFlags);
-				fFindReplaceMatcher= pattern.matcher(this);
+				fFindReplaceMatcher= getMatcher(findString, caseSensitive, wholeWord, regExSearch);
 			}
 		}
 
@@ -192,32 +401,47 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		fFindReplaceState= operationCode;
 
 		if (operationCode == REPLACE || operationCode == REPLACE_FIND_NEXT) {
-			if (regExSearch) {
-				Pattern pattern= fFindReplaceMatcher.pattern();
-				String prevMatch= fFindReplaceMatcher.group();
-				try {
-					replaceText= interpretReplaceEscapes(replaceText, prevMatch);
-					Matcher replaceTextMatcher= pattern.matcher(prevMatch);
-					replaceText= replaceTextMatcher.replaceFirst(replaceText);
-				} catch (IndexOutOfBoundsException ex) {
-					throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
+			int offset;
+			int length;
+			if (fUseLiteralSearch) {
+				offset= fLiteralSearch.getMatchOffset();
+				length= fLiteralSearch.getMatchLength();
+				if (regExSearch) {
+					// only the replace text is a regular expression
+					Pattern pattern= getMatcher(fLiteralSearch.fFindString, fLiteralSearch.fCaseSensitive, fLiteralSearch.fWholeWord, false).pattern();
+					replaceText= interpretReplaceText(pattern, fDocument.get(offset, length), replaceText);
 				}
+			} else {
+				if (regExSearch)
+					replaceText= interpretReplaceText(fFindReplaceMatcher.pattern(), fFindReplaceMatcher.group(), replaceText);
+				offset= fFindReplaceMatcher.start();
+				length= fFindReplaceMatcher.group().length();
 			}
 
-			int offset= fFindReplaceMatcher.start();
-			int length= fFindReplaceMatcher.group().length();
-
-			if (fDocument instanceof IRepairableDocumentExtension
-					&& ((IRepairableDocumentExtension)fDocument).isLineInformationRepairNeeded(offset, length, replaceText)) {
-				String message= TextMessages.getString("FindReplaceDocumentAdapter.incompatibleLineDelimiter"); //$NON-NLS-1$
-				throw new PatternSyntaxException(message, replaceText, offset);
-			}
+			checkLineDelimiters(offset, length, replaceText);
 
 			fDocument.replace(offset, length, replaceText);
 
 			if (operationCode == REPLACE) {
 				return new Region(offset, replaceText.length());
 			}
+			if (fUseLiteralSearch)
+				fLiteralSearch.fMatchEnd= offset + replaceText.length();
+		}
+
+		if (operationCode != REPLACE && fUseLiteralSearch) {
+			if (operationCode == REPLACE_FIND_NEXT)
+				fFindReplaceState= FIND_NEXT;
+
+			int offset;
+			if (forwardSearch)
+				offset= fLiteralSearch.findForward(operationCode == FIND_FIRST ? startOffset : fLiteralSearch.fMatchEnd);
+			else
+				offset= fLiteralSearch.findBackward(fFindReplaceMatchOffset + 1 - fLiteralSearch.getMatchLength());
+			if (offset == -1)
+				return null;
+			fFindReplaceMatchOffset= offset;
+			return new Region(offset, fLiteralSearch.getMatchLength());
 		}
 
 		if (operationCode != REPLACE) {
@@ -262,6 +486,86 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		return null;
 	}
 
+	/**
+	 * Returns a matcher on this adapter for the given search criteria. The current
+	 * {@link #fFindReplaceMatcher} is returned if it uses the same pattern.
+	 *
+	 * @param findString the string to find
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by word boundaries
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * @return the matcher
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax
+	 * @since 3.14
+	 */
+	private Matcher getMatcher(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+		int patternFlags= 0;
+
+		if (regExSearch) {
+			patternFlags |= Pattern.MULTILINE;
+			findString= substituteLinebreak(findString);
+		}
+
+		if (!caseSensitive)
+			patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+
+		if (!regExSearch)
+			findString= asRegPattern(findString);
+
+		if (wholeWord)
+			findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+
+		if (fFindReplaceMatcher != null && fFindReplaceMatcher.pattern().pattern().equals(findString) && fFindReplaceMatcher.pattern().flags() == patternFlags) {
+			/*
+			 * Commented out for optimization:
+			 * The call is not needed since FIND_FIRST uses find(int) which resets the matcher
+			 */
+			// fFindReplaceMatcher.reset();
+			return fFindReplaceMatcher;
+		}
+		Pattern pattern= Pattern.compile(findString, patternFlags);
+		return pattern.matcher(this);
+	}
+
+	/**
+	 * Computes the replacement of a regular expression match.
+	 *
+	 * @param pattern the pattern that produced the match
+	 * @param match the matched text
+	 * @param replaceText the replace pattern
+	 * @return the text to replace the match with
+	 * @throws PatternSyntaxException if the replace pattern has invalid syntax
+	 * @since 3.14
+	 */
+	private String interpretReplaceText(Pattern pattern, String match, String replaceText) {
+		try {
+			replaceText= interpretReplaceEscapes(replaceText, match);
+			Matcher replaceTextMatcher= pattern.matcher(match);
+			return replaceTextMatcher.replaceFirst(replaceText);
+		} catch (IndexOutOfBoundsException ex) {
+			throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
+		}
+	}
+
+	/**
+	 * Checks that replacing the given range does not break a line delimiter in a document that
+	 * cannot repair its line information.
+	 *
+	 * @param offset the offset of the range to replace
+	 * @param length the length of the range to replace
+	 * @param replaceText the replacement
+	 * @throws BadLocationException if the range is invalid
+	 * @throws PatternSyntaxException if the replacement would break a line delimiter
+	 * @since 3.14
+	 */
+	private void checkLineDelimiters(int offset, int length, String replaceText) throws BadLocationException {
+		if (fDocument instanceof IRepairableDocumentExtension
+				&& ((IRepairableDocumentExtension)fDocument).isLineInformationRepairNeeded(offset, length, replaceText)) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.incompatibleLineDelimiter"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, replaceText, offset);
+		}
+	}
+
 	/**
 	 * Substitutes \R in a regex find pattern with {@code (?>\r\n?|\n)}
 	 *
@@ -607,6 +911,78 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		return findReplace(REPLACE, -1, null, text, false, false, false, regExReplace);
 	}
 
+	/**
+	 * Replaces all occurrences of the given string in this adapter's document. All matches are
+	 * searched in the unmodified document and then replaced as one batched edit inside a
+	 * {@link DocumentRewriteSession} unless a session is already active, i.e. a replacement never
+	 * produces a new match. Strings that
+	 * are not regular expressions are searched without converting them to a regular expression.
+	 * <p>
+	 * Sends a <code>DocumentEvent</code> for each replacement to all registered
+	 * <code>IDocumentListener</code>. The state for {@link #replace(String, boolean)} is reset.
+	 * </p>
+	 *
+	 * @param findString the string to find
+	 * @param replaceText the substitution text
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by white spaces as
+	 * 			defined by Character.isWhiteSpace. Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString and replaceText represent regular expressions
+	 * 			Must not be used in combination with <code>wholeWord</code>.
+	 * @return the number of replaced matches
+	 * @throws BadLocationException if the document has been modified concurrently
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax or if a
+	 *             replacement would break a line delimiter
+	 * @since 3.14
+	 */
+	public int replaceAll(String findString, String replaceText, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		Assert.isTrue(!(regExSearch && wholeWord));
+
+		fFindReplaceState= null;
+		if (findString == null || findString.isEmpty())
+			return 0;
+
+		MultiTextEdit edit= new MultiTextEdit();
+		int count= 0;
+		if (!regExSearch && LiteralSearch.isSupported(findString)) {
+			if (fLiteralSearch == null || !fLiteralSearch.isSearchFor(findString, caseSensitive, wholeWord))
+				fLiteralSearch= new LiteralSearch(this, findString, caseSensitive, wholeWord);
+			int length= fLiteralSearch.getMatchLength();
+			for (int offset= fLiteralSearch.findForward(0); offset != -1; offset= fLiteralSearch.findForward(offset + length)) {
+				checkLineDelimiters(offset, length, replaceText);
+				edit.addChild(new ReplaceEdit(offset, length, replaceText));
+				count++;
+			}
+		} else {
+			fFindReplaceMatcher= getMatcher(findString, caseSensitive, wholeWord, regExSearch);
+			Matcher matcher= fFindReplaceMatcher;
+			try {
+				matcher.reset();
+				while (matcher.find()) {
+					String match= matcher.group();
+					if (match.isEmpty())
+						continue;
+					int offset= matcher.start();
+					String text= regExSearch ? interpretReplaceText(matcher.pattern(), match, replaceText) : replaceText;
+					checkLineDelimiters(offset, match.length(), text);
+					edit.addChild(new ReplaceEdit(offset, match.length(), text));
+					count++;
+				}
+			} catch (StackOverflowError e) {
+				String message= TextMessages.getString("FindReplaceDocumentAdapter.patternTooComplex"); //$NON-NLS-1$
+				throw new PatternSyntaxException(message, findString, -1);
+			}
+		}
+
+		if (count > 0) {
+			if (fDocument instanceof IDocumentExtension4 && ((IDocumentExtension4) fDocument).getActiveRewriteSession() != null)
+				edit.apply(fDocument, TextEdit.NONE);
+			else
+				new RewriteSessionEditProcessor(fDocument, edit, TextEdit.NONE).performEdits();
+		}
+		return count;
+	}
+
 	// ---------- CharSequence implementation ----------
 
 	@Override
@@ -0,0 +1,612 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+
+/**
+ * Stores the positions of an indexed position category of an {@link AbstractDocument}.
+ * <p>
+ * The positions are kept in a treap ordered by their offsets. Every node knows the size of its
+ * subtree and the largest end offset (see {@link #getEnd(Position)}) inside its subtree, which
+ * turns the treap into an interval tree. A document change only visits the positions that
+ * overlap the change; the positions behind the change are shifted lazily by recording the shift
+ * at the roots of their subtrees. The offsets of these positions are brought up to date as soon
+ * as they are accessed through this index. If the index shifts eagerly, the positions behind the
+ * change are shifted right away, which is linear in their number but keeps all offsets up to date.
+ * </p>
+ * <p>
+ * The index is a read-only, offset ordered {@link List} view of the positions so that it can be
+ * stored in the document's map of managed positions.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class PositionIndex extends AbstractList<Position> implements RandomAccess {
+
+	/** A node of the treap. */
+	private static final class Node {
+
+		/** The position */
+		final Position fPosition;
+		/** The heap priority */
+		final int fPriority;
+		/** The parent node, <code>null</code> for the root */
+		Node fParent;
+		/** The left child */
+		Node fLeft;
+		/** The right child */
+		Node fRight;
+		/** The number of nodes in this subtree */
+		int fSize= 1;
+		/** The largest end offset in this subtree */
+		int fMaxEnd;
+		/** The shift not yet applied to the children of this node */
+		int fShift;
+
+		Node(Position position, int priority) {
+			fPosition= position;
+			fPriority= priority;
+			fMaxEnd= getEnd(position);
+		}
+	}
+
+	/** The root of the treap */
+	private Node fRoot;
+	/** Maps the positions to their nodes */
+	private final Map<Position, Node> fNodes= new IdentityHashMap<>();
+	/** The state of the priority generator */
+	private int fSeed= 0x2545F491;
+	/** Whether the positions may have been modified outside of this index */
+	private boolean fNeedsRebuild;
+	/** Whether the positions behind a change are shifted lazily */
+	private final boolean fShiftLazily;
+
+
+	/**
+	 * Creates a new empty index.
+	 *
+	 * @param shiftLazily <code>true</code> if the positions behind a change should be shifted
+	 *            lazily, <code>false</code> if all positions should be up to date after a change
+	 */
+	PositionIndex(boolean shiftLazily) {
+		fShiftLazily= shiftLazily;
+	}
+
+
+	/**
+	 * Returns the end offset of the given position as used by the position updaters, i.e. the
+	 * offset of its last character or its offset if it is empty.
+	 *
+	 * @param position the position
+	 * @return the end offset
+	 */
+	static int getEnd(Position position) {
+		return Math.max(position.offset, position.offset + position.length - 1);
+	}
+
+	@Override
+	public int size() {
+		return fNodes.size();
+	}
+
+	@Override
+	public Position get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException(index);
+
+		Node node= fRoot;
+		while (true) {
+			push(node);
+			int leftSize= size(node.fLeft);
+			if (index < leftSize) {
+				node= node.fLeft;
+			} else if (index == leftSize) {
+				return node.fPosition;
+			} else {
+				index-= leftSize + 1;
+				node= node.fRight;
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return fNodes.containsKey(o);
+	}
+
+	/**
+	 * Returns all positions ordered by offset.
+	 *
+	 * @return the positions
+	 */
+	Position[] getPositions() {
+		Position[] positions= new Position[size()];
+		collect(fRoot, positions, 0);
+		return positions;
+	}
+
+	/**
+	 * Adds the given position. The position becomes the first of all positions with the same
+	 * offset.
+	 *
+	 * @param position the position to add
+	 */
+	void addPosition(Position position) {
+		if (fNodes.containsKey(position))
+			removePosition(position);
+
+		Node node= new Node(position, nextPriority());
+		fNodes.put(position, node);
+		Node[] parts= splitByOffset(fRoot, position.offset);
+		fRoot= merge(merge(parts[0], node), parts[1]);
+		fRoot.fParent= null;
+	}
+
+	/**
+	 * Removes the given position, based on identity.
+	 *
+	 * @param position the position to remove
+	 */
+	void removePosition(Position position) {
+		Node node= fNodes.remove(position);
+		if (node == null)
+			return;
+
+		int rank= rankOf(node);
+		Node[] left= splitByRank(fRoot, rank);
+		Node[] right= splitByRank(left[1], 1);
+		fRoot= merge(left[0], right[1]);
+		if (fRoot != null)
+			fRoot.fParent= null;
+	}
+
+	/**
+	 * Returns the number of positions whose offset is smaller than the given offset, i.e. the
+	 * index at which a position with the given offset would be inserted.
+	 *
+	 * @param offset the offset
+	 * @return the index
+	 * @see IDocument#computeIndexInCategory(String, int)
+	 */
+	int computeIndex(int offset) {
+		int index= 0;
+		Node node= fRoot;
+		while (node != null) {
+			push(node);
+			if (node.fPosition.offset < offset) {
+				index+= size(node.fLeft) + 1;
+				node= node.fRight;
+			} else {
+				node= node.fLeft;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Tells whether this index contains a position with the given offset and length.
+	 *
+	 * @param offset the offset
+	 * @param length the length
+	 * @return <code>true</code> if there is such a position
+	 */
+	boolean containsPosition(int offset, int length) {
+		for (Position position : getStartingPositions(offset, 1)) {
+			if (position.length == length)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the positions whose offset is inside the given region, ordered by offset.
+	 *
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @return the positions
+	 */
+	List<Position> getStartingPositions(int offset, int length) {
+		List<Position> result= new ArrayList<>();
+		collectStarting(fRoot, offset, offset + length, result);
+		return result;
+	}
+
+	/**
+	 * Returns the positions whose end offset is inside the given region, ordered by offset.
+	 *
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @return the positions
+	 */
+	List<Position> getEndingPositions(int offset, int length) {
+		List<Position> result= new ArrayList<>();
+		collectEnding(fRoot, offset, offset + length, result);
+		return result;
+	}
+
+	/**
+	 * Returns the positions which end at or after the given offset and start at or before the
+	 * given end offset, ordered by offset. This is a superset of the positions overlapping the
+	 * given range.
+	 *
+	 * @param offset the start offset
+	 * @param end the end offset
+	 * @return the positions
+	 */
+	List<Position> getOverlappingCandidates(int offset, int end) {
+		List<Position> result= new ArrayList<>();
+		collectOverlapping(fRoot, offset, end, result);
+		return result;
+	}
+
+	/**
+	 * Marks the index to be rebuilt because the positions may be modified by a client that does
+	 * not know about the index.
+	 */
+	void markNeedsRebuild() {
+		fNeedsRebuild= true;
+	}
+
+	/**
+	 * Rebuilds the index if its positions may have been modified outside of this index.
+	 */
+	void rebuildIfNeeded() {
+		if (!fNeedsRebuild)
+			return;
+
+		fNeedsRebuild= false;
+		List<Position> sorted= new ArrayList<>(List.of(getPositions()));
+		sorted.sort((p1, p2) -> Integer.compare(p1.offset, p2.offset));
+		fNodes.clear();
+		fRoot= build(sorted);
+	}
+
+	/**
+	 * Adapts the positions to the given change following the specification of
+	 * {@link DefaultPositionUpdater}. Deleted positions are removed from this index.
+	 *
+	 * @param offset the offset of the replaced text
+	 * @param length the length of the replaced text
+	 * @param replaceLength the length of the replacing text
+	 */
+	void update(int offset, int length, int replaceLength) {
+		if (fRoot == null)
+			return;
+
+		List<Node> deleted= new ArrayList<>();
+		List<Node> moved= new ArrayList<>();
+		update(fRoot, offset, length, replaceLength, deleted, moved);
+		for (Node node : deleted)
+			removePosition(node.fPosition);
+		for (Node node : moved)
+			removePosition(node.fPosition);
+		// insert in reverse order to keep their order
+		for (int i= moved.size() - 1; i >= 0; i--)
+			addPosition(moved.get(i).fPosition);
+	}
+
+	private void update(Node node, int offset, int length, int replaceLength, List<Node> deleted, List<Node> moved) {
+		if (node == null || node.fMaxEnd < offset)
+			return;
+
+		push(node);
+		Position position= node.fPosition;
+		if (position.offset >= offset + length) {
+			// the node and its right subtree are behind the change
+			int shift= replaceLength - length;
+			position.offset+= shift;
+			if (fShiftLazily)
+				shift(node.fRight, shift);
+			else
+				shiftAll(node.fRight, shift);
+			update(node.fLeft, offset, length, replaceLength, deleted, moved);
+		} else {
+			update(node.fLeft, offset, length, replaceLength, deleted, moved);
+			if (getEnd(position) >= offset) {
+				if (offset < position.offset && position.offset + position.length < offset + length) {
+					position.delete();
+					deleted.add(node);
+				} else if (position.offset == offset) {
+					adapt(position, offset, length, replaceLength);
+					// positions at the offset of the change either keep their offset or are moved
+					// behind the replacing text, the latter must be moved behind the former
+					if (position.offset != offset)
+						moved.add(node);
+				} else {
+					adapt(position, offset, length, replaceLength);
+				}
+			}
+			update(node.fRight, offset, length, replaceLength, deleted, moved);
+		}
+		pull(node);
+	}
+
+	/**
+	 * Adapts a position that is affected by the given change. See
+	 * {@link DefaultPositionUpdater#adaptToReplace()}.
+	 *
+	 * @param position the position to adapt
+	 * @param offset the offset of the replaced text
+	 * @param length the length of the replaced text
+	 * @param replaceLength the length of the replacing text
+	 */
+	private static void adapt(Position position, int offset, int length, int replaceLength) {
+		if (length > 0 && position.offset <= offset && offset + length <= position.offset + position.length) {
+			position.length+= replaceLength - length;
+			return;
+		}
+
+		if (length > 0) {
+			int myStart= position.offset;
+			int myEnd= getEnd(position);
+			int yoursEnd= Math.max(offset, offset + length - 1);
+			if (myEnd >= offset) {
+				if (myStart <= offset) {
+					if (yoursEnd <= myEnd)
+						position.length-= length;
+					else
+						position.length-= (myEnd - offset + 1);
+				} else if (yoursEnd < myStart) {
+					position.offset-= length;
+				} else {
+					position.offset-= (myStart - offset);
+					position.length-= (yoursEnd - myStart + 1);
+				}
+				if (position.offset < 0)
+					position.offset= 0;
+				if (position.length < 0)
+					position.length= 0;
+			}
+		}
+
+		if (replaceLength > 0) {
+			int myStart= position.offset;
+			int myEnd= getEnd(position);
+			if (myEnd >= offset) {
+				if (myStart < offset)
+					position.length+= replaceLength;
+				else
+					position.offset+= replaceLength;
+			}
+		}
+	}
+
+	private int nextPriority() {
+		// xorshift, good enough to balance the treap
+		int seed= fSeed;
+		seed^= seed << 13;
+		seed^= seed >>> 17;
+		seed^= seed << 5;
+		fSeed= seed;
+		return seed;
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.fSize;
+	}
+
+	private static void shift(Node node, int shift) {
+		if (node != null && shift != 0) {
+			node.fPosition.offset+= shift;
+			node.fMaxEnd+= shift;
+			node.fShift+= shift;
+		}
+	}
+
+	private static void shiftAll(Node node, int shift) {
+		if (node != null && shift != 0) {
+			node.fPosition.offset+= shift;
+			node.fMaxEnd+= shift;
+			shiftAll(node.fLeft, shift);
+			shiftAll(node.fRight, shift);
+		}
+	}
+
+	private static void push(Node node) {
+		if (node.fShift != 0) {
+			shift(node.fLeft, node.fShift);
+			shift(node.fRight, node.fShift);
+			node.fShift= 0;
+		}
+	}
+
+	private static void pull(Node node) {
+		int size= 1;
+		int maxEnd= getEnd(node.fPosition);
+		if (node.fLeft != null) {
+			node.fLeft.fParent= node;
+			size+= node.fLeft.fSize;
+			maxEnd= Math.max(maxEnd, node.fLeft.fMaxEnd);
+		}
+		if (node.fRight != null) {
+			node.fRight.fParent= node;
+			size+= node.fRight.fSize;
+			maxEnd= Math.max(maxEnd, node.fRight.fMaxEnd);
+		}
+		node.fSize= size;
+		node.fMaxEnd= maxEnd;
+	}
+
+	private static Node merge(Node left, Node right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+
+		if (left.fPriority > right.fPriority) {
+			push(left);
+			left.fRight= merge(left.fRight, right);
+			pull(left);
+			return left;
+		}
+		push(right);
+		right.fLeft= merge(left, right.fLeft);
+		pull(right);
+		return right;
+	}
+
+	/**
+	 * Splits the given tree into the nodes with an offset smaller than the given offset and the
+	 * remaining nodes.
+	 */
+	private static Node[] splitByOffset(Node node, int offset) {
+		if (node == null)
+			return new Node[2];
+
+		push(node);
+		Node[] parts;
+		if (node.fPosition.offset < offset) {
+			parts= splitByOffset(node.fRight, offset);
+			node.fRight= parts[0];
+			parts[0]= node;
+		} else {
+			parts= splitByOffset(node.fLeft, offset);
+			node.fLeft= parts[1];
+			parts[1]= node;
+		}
+		pull(node);
+		detach(parts);
+		return parts;
+	}
+
+	/**
+	 * Splits the given tree into the first <code>rank</code> nodes and the remaining nodes.
+	 */
+	private static Node[] splitByRank(Node node, int rank) {
+		if (node == null)
+			return new Node[2];
+
+		push(node);
+		Node[] parts;
+		int leftSize= size(node.fLeft);
+		if (leftSize < rank) {
+			parts= splitByRank(node.fRight, rank - leftSize - 1);
+			node.fRight= parts[0];
+			parts[0]= node;
+		} else {
+			parts= splitByRank(node.fLeft, rank);
+			node.fLeft= parts[1];
+			parts[1]= node;
+		}
+		pull(node);
+		detach(parts);
+		return parts;
+	}
+
+	private static void detach(Node[] parts) {
+		if (parts[0] != null)
+			parts[0].fParent= null;
+		if (parts[1] != null)
+			parts[1].fParent= null;
+	}
+
+	private static int rankOf(Node node) {
+		int rank= size(node.fLeft);
+		for (Node parent= node.fParent; parent != null; node= parent, parent= parent.fParent) {
+			if (parent.fRight == node)
+				rank+= size(parent.fLeft) + 1;
+		}
+		return rank;
+	}
+
+	private static int collect(Node node, Position[] positions, int index) {
+		if (node == null)
+			return index;
+		push(node);
+		index= collect(node.fLeft, positions, index);
+		positions[index++]= node.fPosition;
+		return collect(node.fRight, positions, index);
+	}
+
+	private static void collectStarting(Node node, int start, int end, List<Position> result) {
+		if (node == null)
+			return;
+		push(node);
+		int offset= node.fPosition.offset;
+		if (offset >= start)
+			collectStarting(node.fLeft, start, end, result);
+		if (start <= offset && offset < end)
+			result.add(node.fPosition);
+		if (offset < end)
+			collectStarting(node.fRight, start, end, result);
+	}
+
+	private static void collectEnding(Node node, int start, int end, List<Position> result) {
+		if (node == null || node.fMaxEnd < start)
+			return;
+		push(node);
+		collectEnding(node.fLeft, start, end, result);
+		int offset= node.fPosition.offset;
+		if (offset < end) {
+			int positionEnd= getEnd(node.fPosition);
+			if (start <= positionEnd && positionEnd < end)
+				result.add(node.fPosition);
+			collectEnding(node.fRight, start, end, result);
+		}
+	}
+
+	private static void collectOverlapping(Node node, int start, int end, List<Position> result) {
+		if (node == null || node.fMaxEnd < start)
+			return;
+		push(node);
+		collectOverlapping(node.fLeft, start, end, result);
+		if (node.fPosition.offset <= end) {
+			if (getEnd(node.fPosition) >= start)
+				result.add(node.fPosition);
+			collectOverlapping(node.fRight, start, end, result);
+		}
+	}
+
+	/**
+	 * Builds a treap from the given positions ordered by offset in linear time.
+	 */
+	private Node build(List<Position> positions) {
+		Node[] stack= new Node[positions.size()];
+		int top= -1;
+		for (Position position : positions) {
+			Node node= new Node(position, nextPriority());
+			fNodes.put(position, node);
+			Node last= null;
+			while (top >= 0 && stack[top].fPriority < node.fPriority) {
+				last= stack[top--];
+			}
+			node.fLeft= last;
+			if (top >= 0)
+				stack[top].fRight= node;
+			stack[++top]= node;
+		}
+		if (top < 0)
+			return null;
+
+		Node root= stack[0];
+		pullAll(root);
+		root.fParent= null;
+		return root;
+	}
+
+	private static void pullAll(Node node) {
+		if (node.fLeft != null)
+			pullAll(node.fLeft);
+		if (node.fRight != null)
+			pullAll(node.fRight);
+		pull(node);
+	}
+}
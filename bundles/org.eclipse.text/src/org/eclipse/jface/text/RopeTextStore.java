@@ -0,0 +1,554 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * Implements a rope based text store. The content is kept in a height balanced binary tree whose
+ * leaves hold chunks of at most a few thousand characters. Tree nodes are immutable, which allows
+ * copies of the store to share all their content with the original (see {@link #copy()}). The
+ * nodes also count the line delimiters they contain, which gives the line information of
+ * {@linkplain AbstractDocument#getSnapshot() document snapshots}.
+ * <p>
+ * <strong>Performance:</strong> Unlike {@link GapTextStore}, the rope text store does not assume
+ * that consecutive changes are co-located. Every {@linkplain #replace(int, int, String) change}
+ * performs in <i>O(log n + l)</i>, where <var>n</var> is the length of the content and
+ * <var>l</var> the length of the inserted text, independently of the distance to the previous
+ * change. {@link #get(int)} performs in <i>O(log n)</i>, or in <i>O(1)</i> for offsets close to the
+ * previously accessed one, {@linkplain #get(int, int) get(int, <var>length</var>)} in
+ * <i>O(log n + length)</i>. The store never needs a single contiguous array for its content, which
+ * makes it well suited for very large documents.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed.
+ * </p>
+ *
+ * @see GapTextStore
+ * @since 3.14
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class RopeTextStore implements ITextStore {
+
+	/** The maximal number of characters held by a single leaf. */
+	private static final int MAX_LEAF_LENGTH= 2048;
+
+	/**
+	 * An immutable node of the rope.
+	 */
+	private static abstract class Node {
+
+		/** The number of characters in this subtree. */
+		final int fLength;
+		/** The height of this subtree, leaves have height 0. */
+		final int fHeight;
+		/**
+		 * The number of {@linkplain DefaultLineTracker#DELIMITERS default line delimiters} in this
+		 * subtree, a trailing <code>'\r'</code> counts as a delimiter.
+		 */
+		final int fLineDelimiters;
+		/** Whether the first character of this subtree is a <code>'\n'</code>. */
+		final boolean fStartsWithLF;
+		/** Whether the last character of this subtree is a <code>'\r'</code>. */
+		final boolean fEndsWithCR;
+
+		Node(int length, int height, int lineDelimiters, boolean startsWithLF, boolean endsWithCR) {
+			fLength= length;
+			fHeight= height;
+			fLineDelimiters= lineDelimiters;
+			fStartsWithLF= startsWithLF;
+			fEndsWithCR= endsWithCR;
+		}
+	}
+
+	/**
+	 * A leaf holding a chunk of the content. The array must never be modified once the leaf has
+	 * been created.
+	 */
+	private static final class Leaf extends Node {
+
+		/** The characters of this leaf. */
+		final char[] fChars;
+
+		Leaf(char[] chars) {
+			this(chars, countLineDelimiters(chars, chars.length));
+		}
+
+		Leaf(char[] chars, int lineDelimiters) {
+			super(chars.length, 0, lineDelimiters, chars.length > 0 && chars[0] == '\n', chars.length > 0 && chars[chars.length - 1] == '\r');
+			fChars= chars;
+		}
+	}
+
+	/**
+	 * An inner node concatenating its two children.
+	 */
+	private static final class Branch extends Node {
+
+		/** The left child. */
+		final Node fLeft;
+		/** The right child. */
+		final Node fRight;
+
+		Branch(Node left, Node right) {
+			super(left.fLength + right.fLength, Math.max(left.fHeight, right.fHeight) + 1,
+					left.fLineDelimiters + right.fLineDelimiters - (splitsDelimiter(left, right) ? 1 : 0),
+					left.fStartsWithLF, right.fEndsWithCR);
+			fLeft= left;
+			fRight= right;
+		}
+	}
+
+	/**
+	 * A leaf together with the offset of its first character. Leaf and offset are kept in one
+	 * immutable object so that readers sharing a store never see a leaf with the offset of another
+	 * one.
+	 */
+	private static final class LeafPosition {
+
+		/** The leaf. */
+		final Leaf fLeaf;
+		/** The offset of the first character of the leaf. */
+		final int fStart;
+
+		LeafPosition(Leaf leaf, int start) {
+			fLeaf= leaf;
+			fStart= start;
+		}
+	}
+
+	/** The empty rope. */
+	private static final Leaf EMPTY= new Leaf(new char[0]);
+
+	/** The root of the rope. */
+	private Node fRoot= EMPTY;
+
+	/** The leaf that contained the last offset accessed through {@link #get(int)}. */
+	private LeafPosition fCachedLeaf;
+
+	/**
+	 * Creates a new empty rope text store.
+	 */
+	public RopeTextStore() {
+	}
+
+	/**
+	 * Creates a new rope text store that shares the given root.
+	 *
+	 * @param root the root of the new store
+	 */
+	private RopeTextStore(Node root) {
+		fRoot= root;
+	}
+
+	@Override
+	public char get(int offset) {
+		LeafPosition cached= fCachedLeaf;
+		if (cached != null) {
+			int relative= offset - cached.fStart;
+			if (relative >= 0 && relative < cached.fLeaf.fLength)
+				return cached.fLeaf.fChars[relative];
+		}
+
+		if (offset < 0 || offset >= fRoot.fLength)
+			throw new IndexOutOfBoundsException(offset);
+
+		Node node= fRoot;
+		int start= 0;
+		while (node instanceof Branch) {
+			Branch branch= (Branch) node;
+			if (offset - start < branch.fLeft.fLength) {
+				node= branch.fLeft;
+			} else {
+				start+= branch.fLeft.fLength;
+				node= branch.fRight;
+			}
+		}
+		Leaf leaf= (Leaf) node;
+		fCachedLeaf= new LeafPosition(leaf, start);
+		return leaf.fChars[offset - start];
+	}
+
+	@Override
+	public String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > fRoot.fLength)
+			throw new IndexOutOfBoundsException();
+
+		char[] chars= new char[length];
+		getChars(fRoot, offset, offset + length, chars, 0);
+		return new String(chars);
+	}
+
+	/**
+	 * Copies the specified character range of this text store into the given array.
+	 *
+	 * @param offset the offset of the range
+	 * @param length the length of the range
+	 * @param dest the array to copy the characters to
+	 * @param destPos the index in <code>dest</code> of the first copied character
+	 */
+	public void getChars(int offset, int length, char[] dest, int destPos) {
+		if (offset < 0 || length < 0 || offset + length > fRoot.fLength)
+			throw new IndexOutOfBoundsException();
+
+		getChars(fRoot, offset, offset + length, dest, destPos);
+	}
+
+	@Override
+	public int getLength() {
+		return fRoot.fLength;
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		if (offset < 0 || length < 0 || offset + length > fRoot.fLength)
+			throw new IndexOutOfBoundsException();
+
+		fCachedLeaf= null;
+		Node[] head= split(fRoot, offset);
+		Node tail= split(head[1], length)[1];
+		Node inserted= text == null ? EMPTY : build(text);
+		fRoot= join(join(head[0], inserted), tail);
+	}
+
+	@Override
+	public void set(String text) {
+		fCachedLeaf= null;
+		fRoot= text == null ? EMPTY : build(text);
+	}
+
+	/**
+	 * Returns a copy of this text store. The copy shares the content with this store and is
+	 * created in constant time; subsequent changes to either store are not visible in the
+	 * other one.
+	 *
+	 * @return a copy of this text store
+	 */
+	public RopeTextStore copy() {
+		return new RopeTextStore(fRoot);
+	}
+
+	/**
+	 * Returns the number of {@linkplain DefaultLineTracker#DELIMITERS default line delimiters} in
+	 * this text store.
+	 *
+	 * @return the number of line delimiters
+	 */
+	int getLineDelimiterCount() {
+		return fRoot.fLineDelimiters;
+	}
+
+	/**
+	 * Returns the number of {@linkplain DefaultLineTracker#DELIMITERS default line delimiters}
+	 * which end at or before the given offset, i.e. the number of the line containing the offset.
+	 *
+	 * @param offset the offset, <code>0 &lt;= offset &lt;= getLength()</code>
+	 * @return the number of line delimiters before the offset
+	 */
+	int getLineDelimiterCount(int offset) {
+		if (offset < 0 || offset > fRoot.fLength)
+			throw new IndexOutOfBoundsException(offset);
+
+		int count= 0;
+		int end= offset;
+		Node node= fRoot;
+		while (node instanceof Branch) {
+			Branch branch= (Branch) node;
+			int leftLength= branch.fLeft.fLength;
+			if (end <= leftLength) {
+				node= branch.fLeft;
+			} else {
+				count+= branch.fLeft.fLineDelimiters;
+				if (splitsDelimiter(branch.fLeft, branch.fRight))
+					count--;
+				end-= leftLength;
+				node= branch.fRight;
+			}
+		}
+		count+= countLineDelimiters(((Leaf) node).fChars, end);
+
+		// a "\r\n" delimiter which starts before the offset ends after it
+		if (offset > 0 && offset < fRoot.fLength && get(offset - 1) == '\r' && get(offset) == '\n')
+			count--;
+		return count;
+	}
+
+	/**
+	 * Returns the offset following the given {@linkplain DefaultLineTracker#DELIMITERS default line
+	 * delimiter}, i.e. the offset of the line following the delimiter.
+	 *
+	 * @param index the index of the delimiter, <code>0 &lt;= index &lt; getLineDelimiterCount()</code>
+	 * @return the offset after the delimiter
+	 */
+	int getLineDelimiterEnd(int index) {
+		if (index < 0 || index >= fRoot.fLineDelimiters)
+			throw new IndexOutOfBoundsException(index);
+
+		// the number of delimiters to skip in the current subtree when counted on its own
+		int remaining= index;
+		int start= 0;
+		Node node= fRoot;
+		while (node instanceof Branch) {
+			Branch branch= (Branch) node;
+			if (remaining < branch.fLeft.fLineDelimiters) {
+				node= branch.fLeft;
+			} else {
+				remaining-= branch.fLeft.fLineDelimiters;
+				if (splitsDelimiter(branch.fLeft, branch.fRight))
+					remaining++;
+				start+= branch.fLeft.fLength;
+				node= branch.fRight;
+			}
+		}
+
+		char[] chars= ((Leaf) node).fChars;
+		for (int i= 0; i < chars.length; i++) {
+			char c= chars[i];
+			if (c == '\n' || c == '\r' && (i + 1 == chars.length || chars[i + 1] != '\n')) {
+				if (remaining == 0) {
+					int end= start + i + 1;
+					if (c == '\r' && end < fRoot.fLength && get(end) == '\n')
+						end++;
+					return end;
+				}
+				remaining--;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Counts the {@linkplain DefaultLineTracker#DELIMITERS default line delimiters} in the given
+	 * range of characters, a trailing <code>'\r'</code> counts as a delimiter.
+	 *
+	 * @param chars the characters
+	 * @param end the end of the range starting at <code>0</code>
+	 * @return the number of line delimiters
+	 */
+	private static int countLineDelimiters(char[] chars, int end) {
+		int count= 0;
+		for (int i= 0; i < end; i++) {
+			char c= chars[i];
+			if (c == '\n' || c == '\r' && (i + 1 == end || chars[i + 1] != '\n'))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Tells whether a <code>"\r\n"</code> line delimiter is split between the given adjacent
+	 * subtrees, in which case it is counted in both of them.
+	 *
+	 * @param left the left subtree
+	 * @param right the right subtree
+	 * @return <code>true</code> if the left subtree ends with a <code>'\r'</code> and the right
+	 *         one starts with a <code>'\n'</code>
+	 */
+	private static boolean splitsDelimiter(Node left, Node right) {
+		return left.fEndsWithCR && right.fStartsWithLF;
+	}
+
+	/**
+	 * Copies the characters in <code>[start, end)</code> of the given subtree into
+	 * <code>dest</code>.
+	 *
+	 * @param node the subtree
+	 * @param start the start offset relative to the subtree
+	 * @param end the end offset relative to the subtree
+	 * @param dest the destination array
+	 * @param destPos the index in <code>dest</code> to copy the first character to
+	 */
+	private static void getChars(Node node, int start, int end, char[] dest, int destPos) {
+		while (start < end) {
+			if (node instanceof Leaf) {
+				System.arraycopy(((Leaf) node).fChars, start, dest, destPos, end - start);
+				return;
+			}
+			Branch branch= (Branch) node;
+			int leftLength= branch.fLeft.fLength;
+			if (end <= leftLength) {
+				node= branch.fLeft;
+			} else if (start >= leftLength) {
+				node= branch.fRight;
+				start-= leftLength;
+				end-= leftLength;
+			} else {
+				getChars(branch.fLeft, start, leftLength, dest, destPos);
+				destPos+= leftLength - start;
+				node= branch.fRight;
+				start= 0;
+				end-= leftLength;
+			}
+		}
+	}
+
+	/**
+	 * Builds a balanced rope containing the given text.
+	 *
+	 * @param text the text
+	 * @return the root of the new rope
+	 */
+	private static Node build(String text) {
+		int length= text.length();
+		if (length == 0)
+			return EMPTY;
+
+		int count= (length + MAX_LEAF_LENGTH - 1) / MAX_LEAF_LENGTH;
+		Node[] leaves= new Node[count];
+		for (int i= 0; i < count; i++) {
+			int start= i * MAX_LEAF_LENGTH;
+			int end= Math.min(length, start + MAX_LEAF_LENGTH);
+			char[] chars= new char[end - start];
+			text.getChars(start, end, chars, 0);
+			leaves[i]= new Leaf(chars);
+		}
+		return build(leaves, 0, count);
+	}
+
+	/**
+	 * Builds a perfectly balanced rope over the given range of nodes.
+	 *
+	 * @param nodes the nodes, all of the same height
+	 * @param from the first node to include
+	 * @param to the index after the last node to include
+	 * @return the root of the new rope
+	 */
+	private static Node build(Node[] nodes, int from, int to) {
+		if (to - from == 1)
+			return nodes[from];
+		int middle= (from + to) >>> 1;
+		return new Branch(build(nodes, from, middle), build(nodes, middle, to));
+	}
+
+	/**
+	 * Splits the given subtree at the given offset.
+	 *
+	 * @param node the subtree to split
+	 * @param offset the offset relative to the subtree
+	 * @return the ropes before and after <code>offset</code>
+	 */
+	private static Node[] split(Node node, int offset) {
+		if (offset == 0)
+			return new Node[] { EMPTY, node };
+		if (offset == node.fLength)
+			return new Node[] { node, EMPTY };
+
+		if (node instanceof Leaf) {
+			char[] chars= ((Leaf) node).fChars;
+			char[] head= new char[offset];
+			char[] tail= new char[chars.length - offset];
+			System.arraycopy(chars, 0, head, 0, head.length);
+			System.arraycopy(chars, offset, tail, 0, tail.length);
+			// only count the line delimiters of the shorter part
+			int split= chars[offset - 1] == '\r' && chars[offset] == '\n' ? 1 : 0;
+			if (head.length <= tail.length) {
+				int headDelimiters= countLineDelimiters(head, head.length);
+				return new Node[] { new Leaf(head, headDelimiters), new Leaf(tail, node.fLineDelimiters - headDelimiters + split) };
+			}
+			int tailDelimiters= countLineDelimiters(tail, tail.length);
+			return new Node[] { new Leaf(head, node.fLineDelimiters - tailDelimiters + split), new Leaf(tail, tailDelimiters) };
+		}
+
+		Branch branch= (Branch) node;
+		int leftLength= branch.fLeft.fLength;
+		if (offset < leftLength) {
+			Node[] result= split(branch.fLeft, offset);
+			result[1]= join(result[1], branch.fRight);
+			return result;
+		}
+		if (offset > leftLength) {
+			Node[] result= split(branch.fRight, offset - leftLength);
+			result[0]= join(branch.fLeft, result[0]);
+			return result;
+		}
+		return new Node[] { branch.fLeft, branch.fRight };
+	}
+
+	/**
+	 * Concatenates the given ropes, keeping the result balanced. Adjacent small leaves are merged
+	 * in order to avoid fragmentation when typing.
+	 *
+	 * @param left the left rope
+	 * @param right the right rope
+	 * @return the concatenation of the two ropes
+	 */
+	private static Node join(Node left, Node right) {
+		if (left.fLength == 0)
+			return right;
+		if (right.fLength == 0)
+			return left;
+
+		if (left.fHeight > right.fHeight + 1) {
+			Branch branch= (Branch) left;
+			return balance(branch.fLeft, join(branch.fRight, right));
+		}
+		if (right.fHeight > left.fHeight + 1) {
+			Branch branch= (Branch) right;
+			return balance(join(left, branch.fLeft), branch.fRight);
+		}
+
+		if (left instanceof Leaf && right instanceof Leaf) {
+			if (left.fLength + right.fLength <= MAX_LEAF_LENGTH)
+				return merge((Leaf) left, (Leaf) right);
+		} else if (right instanceof Leaf) {
+			Branch branch= (Branch) left;
+			if (branch.fRight instanceof Leaf && branch.fRight.fLength + right.fLength <= MAX_LEAF_LENGTH)
+				return balance(branch.fLeft, merge((Leaf) branch.fRight, (Leaf) right));
+		} else if (left instanceof Leaf) {
+			Branch branch= (Branch) right;
+			if (branch.fLeft instanceof Leaf && left.fLength + branch.fLeft.fLength <= MAX_LEAF_LENGTH)
+				return balance(merge((Leaf) left, (Leaf) branch.fLeft), branch.fRight);
+		}
+		return new Branch(left, right);
+	}
+
+	/**
+	 * Creates a branch over the two given subtrees whose heights differ by at most two and
+	 * rotates it if needed to restore the balance.
+	 *
+	 * @param left the left subtree
+	 * @param right the right subtree
+	 * @return the balanced concatenation of the two subtrees
+	 */
+	private static Node balance(Node left, Node right) {
+		if (left.fHeight > right.fHeight + 1) {
+			Branch l= (Branch) left;
+			if (l.fLeft.fHeight >= l.fRight.fHeight)
+				return new Branch(l.fLeft, new Branch(l.fRight, right));
+			Branch lr= (Branch) l.fRight;
+			return new Branch(new Branch(l.fLeft, lr.fLeft), new Branch(lr.fRight, right));
+		}
+		if (right.fHeight > left.fHeight + 1) {
+			Branch r= (Branch) right;
+			if (r.fRight.fHeight >= r.fLeft.fHeight)
+				return new Branch(new Branch(left, r.fLeft), r.fRight);
+			Branch rl= (Branch) r.fLeft;
+			return new Branch(new Branch(left, rl.fLeft), new Branch(rl.fRight, r.fRight));
+		}
+		return new Branch(left, right);
+	}
+
+	/**
+	 * Merges two leaves into one.
+	 *
+	 * @param left the left leaf
+	 * @param right the right leaf
+	 * @return the merged leaf
+	 */
+	private static Leaf merge(Leaf left, Leaf right) {
+		char[] chars= new char[left.fLength + right.fLength];
+		System.arraycopy(left.fChars, 0, chars, 0, left.fLength);
+		System.arraycopy(right.fChars, 0, chars, left.fLength, right.fLength);
+		return new Leaf(chars, left.fLineDelimiters + right.fLineDelimiters - (splitsDelimiter(left, right) ? 1 : 0));
+	}
+}
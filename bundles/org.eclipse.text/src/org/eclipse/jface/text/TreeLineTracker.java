@@ -41,7 +41,8 @@ import org.eclipse.jface.text.AbstractLineTracker.DelimiterInfo;
  * <strong>Performance:</strong> The query operations perform in <i>O(log n)</i> where <var>n</var>
  * is the number of lines in the document. The modification operations roughly perform in <i>O(l *
  * log n)</i> where <var>n</var> is the number of lines in the document and <var>l</var> is the
- * sum of the number of removed, added or modified lines.
+ * sum of the number of removed, added or modified lines. Setting the content builds a balanced
+ * tree in <i>O(n)</i>.
  * </p>
  *
  * @since 3.2
@@ -178,29 +179,82 @@ abstract class TreeLineTracker implements ILineTracker {
 		if (n == 0)
 			return;
 
-		Line line= lines.get(0);
-		String delim= line.delimiter;
-		if (delim == null)
-			delim= NO_DELIM;
-		int length= line.length;
-		fRoot= new Node(length, delim);
-		Node node= fRoot;
-
-		for (int i= 1; i < n; i++) {
-			line= lines.get(i);
-			delim= line.delimiter;
-			if (delim == null)
-				delim= NO_DELIM;
-			length= line.length;
-			node= insertAfter(node, length, delim);
+		Line last= lines.get(n - 1);
+		int count= last.delimiter == null ? n : n + 1;
+		int[] lengths= new int[count];
+		String[] delimiters= new String[count];
+		for (int i= 0; i < n; i++) {
+			Line line= lines.get(i);
+			lengths[i]= line.length;
+			delimiters[i]= line.delimiter == null ? NO_DELIM : line.delimiter;
 		}
+		if (count > n)
+			delimiters[n]= NO_DELIM;
 
-		if (node.delimiter != NO_DELIM)
-			insertAfter(node, 0, NO_DELIM);
+		fRoot= build(lengths, delimiters, count);
 
 		if (ASSERT) checkTree();
 	}
 
+	/**
+	 * Builds a balanced tree from the given lines in linear time.
+	 *
+	 * @param lengths the line lengths, including the delimiters
+	 * @param delimiters the line delimiters, the last line must have the {@link #NO_DELIM}
+	 *            delimiter
+	 * @param count the number of lines, at least 1
+	 * @return the root of the tree
+	 */
+	private static Node build(int[] lengths, String[] delimiters, int count) {
+		// convert the lengths to the offsets of the lines, followed by the total length
+		int[] offsets= new int[count + 1];
+		for (int i= 0; i < count; i++)
+			offsets[i + 1]= offsets[i] + lengths[i];
+
+		Node root= build(offsets, delimiters, 0, count);
+		root.parent= null;
+		return root;
+	}
+
+	/**
+	 * Builds a balanced subtree for the lines <code>[from, to)</code>.
+	 *
+	 * @param offsets the line offsets, followed by the total length
+	 * @param delimiters the line delimiters
+	 * @param from the first line, inclusive
+	 * @param to the last line, exclusive
+	 * @return the root of the subtree, <code>null</code> if the range is empty
+	 */
+	private static Node build(int[] offsets, String[] delimiters, int from, int to) {
+		if (from == to)
+			return null;
+
+		int mid= (from + to) >>> 1;
+		Node node= new Node(offsets[mid + 1] - offsets[mid], delimiters[mid]);
+		node.line= mid - from;
+		node.offset= offsets[mid] - offsets[from];
+		node.left= build(offsets, delimiters, from, mid);
+		node.right= build(offsets, delimiters, mid + 1, to);
+		if (node.left != null)
+			node.left.parent= node;
+		if (node.right != null)
+			node.right.parent= node;
+		// the subtrees differ by at most one in size, hence their depth is determined by their size
+		node.balance= (byte) (depth(to - mid - 1) - depth(mid - from));
+		return node;
+	}
+
+	/**
+	 * Returns the depth of a tree with the given number of nodes built by
+	 * {@link #build(int[], String[], int, int)}.
+	 *
+	 * @param size the number of nodes
+	 * @return the depth of the tree
+	 */
+	private static int depth(int size) {
+		return 32 - Integer.numberOfLeadingZeros(size);
+	}
+
 	/**
 	 * Returns the node (line) including a certain offset. If the offset is between two
 	 * lines, the line starting at <code>offset</code> is returned.
@@ -1206,12 +1260,37 @@ abstract class TreeLineTracker implements ILineTracker {
 
 	@Override
 	public final void set(String text) {
+		if (text == null)
+			text= ""; //$NON-NLS-1$
+
+		// release the old tree early, it may be huge
 		fRoot= new Node(0, NO_DELIM);
-		try {
-			replace(0, 0, text);
-		} catch (BadLocationException x) {
-			throw new InternalError();
+
+		// scan the delimiters in one pass and build the tree directly instead of inserting line by line
+		int[] lengths= new int[16];
+		String[] delimiters= new String[16];
+		int count= 0;
+		int start= 0;
+		DelimiterInfo info= nextDelimiterInfo(text, 0);
+		while (info != null && info.delimiterIndex > -1) {
+			if (count == lengths.length - 1) {
+				lengths= Arrays.copyOf(lengths, count * 2);
+				delimiters= Arrays.copyOf(delimiters, count * 2);
+			}
+			int end= info.delimiterIndex + info.delimiterLength;
+			lengths[count]= end - start;
+			delimiters[count]= info.delimiter;
+			count++;
+			start= end;
+			info= nextDelimiterInfo(text, start);
 		}
+		lengths[count]= text.length() - start;
+		delimiters[count]= NO_DELIM;
+		count++;
+
+		fRoot= build(lengths, delimiters, count);
+
+		if (ASSERT) checkTree();
 	}
 
 	@Override
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The rules of a {@link RuleBasedScanner} prepared for fast scanning, see
+ * {@link RuleBasedScanner#setCompileRules(boolean)}.
+ * <p>
+ * Consecutive {@link WordRule}s sharing a word detector are merged into a single rule which looks
+ * up the words in a trie while reading them, and the rules are dispatched by the first character
+ * of the token: for every ASCII character, only the rules which may detect a token starting with
+ * that character are evaluated. This is only done for the rules of this package whose behavior is
+ * known, i.e. whose evaluation has not been overridden. Other rules are evaluated for every
+ * character.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class CompiledRules {
+
+	/** The number of characters for which the rules are dispatched. */
+	private static final int TABLE_SIZE= 128;
+
+	/** The rules which have been compiled. */
+	private final IRule[] fRules;
+	/** The compiled rules. */
+	private final IRule[] fCompiledRules;
+	/** The compiled rules which may detect a token starting with a given ASCII character. */
+	private final IRule[][] fTable= new IRule[TABLE_SIZE][];
+	/** The merged keyword rules. */
+	private final List<KeywordRule> fKeywordRules= new ArrayList<>();
+
+
+	/**
+	 * A rule replacing consecutive word rules with the same word detector. The words of all rules
+	 * are kept in a trie, so no string has to be created to look up a word.
+	 */
+	private static final class KeywordRule implements IRule {
+
+		/** A node of the trie. */
+		private static final class Node {
+			/** The characters leading to the children. */
+			char[] fChars= new char[0];
+			/** The children. */
+			Node[] fChildren= new Node[0];
+			/** The token of the word ending at this node, <code>null</code> if none. */
+			IToken fToken;
+
+			Node get(char c) {
+				char[] chars= fChars;
+				for (int i= 0; i < chars.length; i++) {
+					if (chars[i] == c)
+						return fChildren[i];
+				}
+				return null;
+			}
+
+			Node add(char c) {
+				Node child= get(c);
+				if (child == null) {
+					int length= fChars.length;
+					fChars= Arrays.copyOf(fChars, length + 1);
+					fChildren= Arrays.copyOf(fChildren, length + 1);
+					child= new Node();
+					fChars[length]= c;
+					fChildren[length]= child;
+				}
+				return child;
+			}
+		}
+
+		/** The word detector shared by the merged rules. */
+		private final IWordDetector fDetector;
+		/** The default token of the last merged rule. */
+		private final IToken fDefaultToken;
+		/** The merged rules. */
+		private final WordRule[] fWordRules;
+		/** The word maps of the merged rules when the rule was created. */
+		private final Map<?, ?>[] fWords;
+		/** The sizes of the word maps when the rule was created. */
+		private final int[] fSizes;
+		/** The modification counts of the merged rules when the rule was created. */
+		private final int[] fModificationCounts;
+		/** The root of the trie. */
+		private final Node fRoot= new Node();
+
+		KeywordRule(WordRule[] rules) {
+			fWordRules= rules;
+			fDetector= rules[0].fDetector;
+			fDefaultToken= rules[rules.length - 1].fDefaultToken;
+			fWords= new Map<?, ?>[rules.length];
+			fSizes= new int[rules.length];
+			fModificationCounts= new int[rules.length];
+			// the first rule detecting a word wins
+			for (int i= rules.length - 1; i >= 0; i--) {
+				fWords[i]= rules[i].fWords;
+				fSizes[i]= rules[i].fWords.size();
+				fModificationCounts[i]= rules[i].getModificationCount();
+				for (Map.Entry<String, IToken> entry : rules[i].fWords.entrySet()) {
+					String word= entry.getKey();
+					Node node= fRoot;
+					for (int j= 0; j < word.length(); j++)
+						node= node.add(word.charAt(j));
+					node.fToken= entry.getValue();
+				}
+			}
+		}
+
+		/**
+		 * Returns whether no words have been added to the merged rules since this rule has been
+		 * created.
+		 *
+		 * @return <code>true</code> if this rule is up to date
+		 */
+		boolean isUpToDate() {
+			for (int i= 0; i < fWordRules.length; i++) {
+				WordRule rule= fWordRules[i];
+				if (rule.fWords != fWords[i] || rule.fWords.size() != fSizes[i] || rule.getModificationCount() != fModificationCounts[i])
+					return false;
+			}
+			return true;
+		}
+
+		boolean isWordStart(char c) {
+			return fDetector.isWordStart(c);
+		}
+
+		@Override
+		public IToken evaluate(ICharacterScanner scanner) {
+			int c= scanner.read();
+			if (c != ICharacterScanner.EOF && fDetector.isWordStart((char) c)) {
+				Node node= fRoot;
+				int length= 0;
+				do {
+					if (node != null)
+						node= node.get((char) c);
+					length++;
+					c= scanner.read();
+				} while (c != ICharacterScanner.EOF && fDetector.isWordPart((char) c));
+				scanner.unread();
+
+				if (node != null && node.fToken != null)
+					return node.fToken;
+
+				if (fDefaultToken.isUndefined()) {
+					for (int i= 0; i < length; i++)
+						scanner.unread();
+				}
+				return fDefaultToken;
+			}
+
+			scanner.unread();
+			return Token.UNDEFINED;
+		}
+	}
+
+
+	/**
+	 * Compiles the given rules.
+	 *
+	 * @param rules the rules of the scanner
+	 */
+	CompiledRules(IRule[] rules) {
+		fRules= rules;
+
+		List<IRule> compiled= new ArrayList<>(rules.length);
+		for (int i= 0; i < rules.length;) {
+			IRule rule= rules[i];
+			if (!isMergeable(rule)) {
+				compiled.add(rule);
+				i++;
+				continue;
+			}
+
+			// merge the following word rules with the same detector
+			WordRule last= (WordRule) rule;
+			int end= i + 1;
+			while (last.fDefaultToken.isUndefined() && end < rules.length && isMergeable(rules[end])
+					&& ((WordRule) rules[end]).fDetector == last.fDetector) {
+				last= (WordRule) rules[end];
+				end++;
+			}
+			KeywordRule keywordRule= new KeywordRule(Arrays.copyOfRange(rules, i, end, WordRule[].class));
+			fKeywordRules.add(keywordRule);
+			compiled.add(keywordRule);
+			i= end;
+		}
+		fCompiledRules= compiled.toArray(new IRule[compiled.size()]);
+
+		List<IRule> candidates= new ArrayList<>(fCompiledRules.length);
+		for (int c= 0; c < TABLE_SIZE; c++) {
+			candidates.clear();
+			for (IRule rule : fCompiledRules) {
+				if (mayStartWith(rule, (char) c))
+					candidates.add(rule);
+			}
+			fTable[c]= candidates.toArray(new IRule[candidates.size()]);
+		}
+	}
+
+	/**
+	 * Returns whether these compiled rules are up to date with the given rules.
+	 *
+	 * @param rules the rules of the scanner
+	 * @return <code>true</code> if the compiled rules can be used
+	 */
+	boolean isUpToDate(IRule[] rules) {
+		if (rules != fRules)
+			return false;
+		for (KeywordRule rule : fKeywordRules) {
+			if (!rule.isUpToDate())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the rules to evaluate for a token starting with the given character.
+	 *
+	 * @param c the first character of the token or {@link ICharacterScanner#EOF}
+	 * @return the rules to evaluate in order
+	 */
+	IRule[] getRules(int c) {
+		if (c >= 0 && c < TABLE_SIZE)
+			return fTable[c];
+		return fCompiledRules;
+	}
+
+	/**
+	 * Returns whether the given rule can be replaced by a {@link KeywordRule}.
+	 *
+	 * @param rule the rule
+	 * @return <code>true</code> if the rule is a word rule without column constraint which is
+	 *         case sensitive and behaves like a plain word rule
+	 */
+	private static boolean isMergeable(IRule rule) {
+		if (!(rule instanceof WordRule wordRule))
+			return false;
+		return wordRule.fColumn == WordRule.UNDEFINED && !wordRule.isIgnoreCase()
+				&& !overrides(rule.getClass(), WordRule.class, "evaluate", ICharacterScanner.class) //$NON-NLS-1$
+				&& !overrides(rule.getClass(), WordRule.class, "unreadBuffer", ICharacterScanner.class); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns whether the given rule may detect a token starting with the given character.
+	 *
+	 * @param rule the rule
+	 * @param c the character
+	 * @return <code>false</code> if the rule does not detect a token starting with the character
+	 */
+	private static boolean mayStartWith(IRule rule, char c) {
+		Class<?> ruleClass= rule.getClass();
+		if (rule instanceof KeywordRule keywordRule)
+			return keywordRule.isWordStart(c);
+		if (rule instanceof WordRule wordRule && !overrides(ruleClass, WordRule.class, "evaluate", ICharacterScanner.class)) //$NON-NLS-1$
+			return wordRule.fDetector.isWordStart(c);
+		if (rule instanceof PatternRule patternRule
+				&& !overrides(ruleClass, PatternRule.class, "evaluate", ICharacterScanner.class) //$NON-NLS-1$
+				&& !overrides(ruleClass, PatternRule.class, "evaluate", ICharacterScanner.class, boolean.class) //$NON-NLS-1$
+				&& !overrides(ruleClass, PatternRule.class, "doEvaluate", ICharacterScanner.class) //$NON-NLS-1$
+				&& !overrides(ruleClass, PatternRule.class, "doEvaluate", ICharacterScanner.class, boolean.class)) //$NON-NLS-1$
+			return patternRule.fStartSequence.length == 0 || patternRule.fStartSequence[0] == c;
+		if (rule instanceof WhitespaceRule whitespaceRule && !overrides(ruleClass, WhitespaceRule.class, "evaluate", ICharacterScanner.class)) //$NON-NLS-1$
+			return whitespaceRule.fDetector.isWhitespace(c);
+		if (rule instanceof NumberRule && !overrides(ruleClass, NumberRule.class, "evaluate", ICharacterScanner.class)) //$NON-NLS-1$
+			return Character.isDigit(c);
+		return true;
+	}
+
+	/**
+	 * Returns whether a class between the given class and the base class declares the given
+	 * method.
+	 *
+	 * @param type the class to check
+	 * @param base the base class declaring the method
+	 * @param name the name of the method
+	 * @param parameterTypes the parameter types of the method
+	 * @return <code>true</code> if the method is overridden
+	 */
+	private static boolean overrides(Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+		for (Class<?> c= type; c != base; c= c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// check the super class
+			}
+		}
+		return false;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -54,6 +54,12 @@ import org.eclipse.jface.text.TypedRegion;
  * {@link #clearPositionCache()} after modifying the partitioner's positions.
  * The cached positions may be accessed through {@link #getPositions()}.
  * </p>
+ * <p>
+ * A document change inside a partition is repartitioned from the start of the changed line if the
+ * scanner can be resumed in the middle of a partition, see {@link #canResumeScanner()}. The initial
+ * partitioning may be computed in a background thread, see
+ * {@link #setBackgroundInitialization(boolean)}.
+ * </p>
  *
  * Originally since 3.1, but moved to org.eclipse.text in 3.14
  *
@@ -99,9 +105,151 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 * someone requests partition information.
 	 */
 	private Position[] fCachedPositions= null;
+	/**
+	 * Indicates whether the initial partitioning is computed in a background thread.
+	 */
+	private boolean fBackgroundInitialization= false;
+	/**
+	 * The thread computing the initial partitioning, <code>null</code> if none is running or its
+	 * result has been completely added to the document.
+	 */
+	private Initializer fInitializer;
 	/** Debug option for cache consistency checking. */
 	private static final boolean CHECK_CACHE_CONSISTENCY= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jface.text/debug/FastPartitioner/PositionCache"));  //$NON-NLS-1$//$NON-NLS-2$;
 
+	/**
+	 * Computes the initial partitioning of the document in a background thread. The partitions
+	 * are collected by the thread and added to the document by the thread which accesses the
+	 * partitioner.
+	 */
+	private class Initializer extends Thread {
+
+		/** The number of partitions which are handed over at once. */
+		private static final int BATCH_SIZE= 1024;
+
+		/** The document to partition. */
+		private final IDocument fInitializedDocument;
+		/** The partitions which have not yet been added to the document. */
+		private List<TypedPosition> fFound= new ArrayList<>();
+		/** The offset of the last partition found so far, <code>-1</code> if none. */
+		private int fLastOffset= -1;
+		/** Indicates whether the document has been completely scanned. */
+		private boolean fDone= false;
+		/** The exception thrown by the scanner, <code>null</code> if none. */
+		private RuntimeException fException;
+		/** Indicates whether the initialization has been canceled. */
+		private volatile boolean fCanceled= false;
+
+		/**
+		 * Creates a new initializer for the given document.
+		 *
+		 * @param document the document to partition
+		 */
+		Initializer(IDocument document) {
+			super("FastPartitioner Initializer"); //$NON-NLS-1$
+			setDaemon(true);
+			fInitializedDocument= document;
+		}
+
+		@Override
+		public void run() {
+			List<TypedPosition> batch= new ArrayList<>();
+			try {
+				fScanner.setRange(fInitializedDocument, 0, fInitializedDocument.getLength());
+				IToken token= fScanner.nextToken();
+				while (!token.isEOF() && !fCanceled) {
+					String contentType= getTokenContentType(token);
+					if (isSupportedContentType(contentType)) {
+						batch.add(new TypedPosition(fScanner.getTokenOffset(), fScanner.getTokenLength(), contentType));
+						if (batch.size() == BATCH_SIZE) {
+							publish(batch, false);
+							batch= new ArrayList<>();
+						}
+					}
+					token= fScanner.nextToken();
+				}
+			} catch (RuntimeException x) {
+				synchronized (this) {
+					fException= x;
+				}
+			} finally {
+				publish(batch, true);
+			}
+		}
+
+		/**
+		 * Hands the given partitions over to the accessing thread.
+		 *
+		 * @param batch the partitions found since the last call
+		 * @param done <code>true</code> if the document has been completely scanned
+		 */
+		private synchronized void publish(List<TypedPosition> batch, boolean done) {
+			if (!batch.isEmpty()) {
+				fFound.addAll(batch);
+				fLastOffset= batch.get(batch.size() - 1).getOffset();
+			}
+			fDone= done;
+			notifyAll();
+		}
+
+		/**
+		 * Waits until all partitions starting before the given offset have been found and returns
+		 * the partitions found since the last call.
+		 *
+		 * @param end the offset before which all partitions must be known
+		 * @return the partitions found since the last call
+		 */
+		synchronized List<TypedPosition> take(int end) {
+			while (!fDone && fLastOffset < end) {
+				try {
+					wait();
+				} catch (InterruptedException x) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			List<TypedPosition> found= fFound;
+			fFound= new ArrayList<>();
+			return found;
+		}
+
+		/**
+		 * Returns whether the document has been completely scanned and all partitions have been
+		 * taken.
+		 *
+		 * @return <code>true</code> if the initialization is complete
+		 */
+		synchronized boolean isDone() {
+			return fDone && fFound.isEmpty();
+		}
+
+		/**
+		 * Returns the exception thrown by the scanner.
+		 *
+		 * @return the exception or <code>null</code> if none
+		 */
+		synchronized RuntimeException getException() {
+			return fException;
+		}
+
+		/**
+		 * Cancels the initialization and waits until the thread has stopped.
+		 */
+		void cancel() {
+			fCanceled= true;
+			boolean interrupted= false;
+			while (isAlive()) {
+				try {
+					join();
+				} catch (InterruptedException x) {
+					interrupted= true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
 	/**
 	 * Creates a new partitioner that uses the given scanner and may return
 	 * partitions of the given legal content types.
@@ -141,16 +289,127 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		fDocument.addPositionCategory(fPositionCategory);
 
 		fIsInitialized= false;
-		if (!delayInitialization)
-			checkInitialization();
+		if (!delayInitialization) {
+			if (fBackgroundInitialization)
+				startInitialization();
+			else
+				checkInitialization();
+		}
+	}
+
+	/**
+	 * Sets whether the initial partitioning of the document is computed in a background thread.
+	 * If enabled, the partitioning is started in the background when the partitioner is connected
+	 * or first accessed, and the partitions are added to the document as they are found. Queries
+	 * only wait until the partitions they depend on have been found, and so see the same result as
+	 * with the initial partitioning computed up front. The remaining partitioning is completed
+	 * before the document is changed.
+	 * <p>
+	 * While the initial partitioning is computed, the scanner and the methods
+	 * {@link #getTokenContentType(IToken)} and {@link #isSupportedContentType(String)} are
+	 * called from the background thread, and the document must not be changed other than through
+	 * its regular modification methods. Subclasses which extend {@link #initialize()} should not
+	 * enable the background initialization. By default the initial partitioning is computed in the
+	 * calling thread.
+	 * </p>
+	 *
+	 * @param backgroundInitialization <code>true</code> to compute the initial partitioning in a
+	 *            background thread
+	 * @since 3.14
+	 */
+	public void setBackgroundInitialization(boolean backgroundInitialization) {
+		fBackgroundInitialization= backgroundInitialization;
 	}
 
 	/**
 	 * Calls {@link #initialize()} if the receiver is not yet initialized.
 	 */
 	protected final void checkInitialization() {
-		if (!fIsInitialized)
-			initialize();
+		checkInitialization(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Initializes the receiver if it is not yet initialized and adds the partitions found by a
+	 * background initialization to the document, waiting until all partitions starting before the
+	 * given offset are known.
+	 *
+	 * @param end the offset before which all partitions must be known
+	 */
+	private void checkInitialization(int end) {
+		if (!fIsInitialized) {
+			if (fBackgroundInitialization)
+				startInitialization();
+			else
+				initialize();
+		}
+		if (fInitializer != null)
+			addInitialPartitions(end);
+	}
+
+	/**
+	 * Starts computing the initial partitioning in a background thread.
+	 */
+	private void startInitialization() {
+		fIsInitialized= true;
+		clearPositionCache();
+		fInitializer= new Initializer(fDocument);
+		fInitializer.start();
+	}
+
+	/**
+	 * Adds the partitions found by the background initialization to the document.
+	 *
+	 * @param end the offset before which all partitions must be known
+	 */
+	private void addInitialPartitions(int end) {
+		Initializer initializer= fInitializer;
+		List<TypedPosition> found= initializer.take(end);
+		try {
+			for (TypedPosition p : found)
+				fDocument.addPosition(fPositionCategory, p);
+		} catch (BadLocationException x) {
+			// cannot happen as offsets come from scanner
+		} catch (BadPositionCategoryException x) {
+			// cannot happen if document has been connected before
+		} finally {
+			clearPositionCache();
+		}
+
+		if (initializer.isDone()) {
+			fInitializer= null;
+			RuntimeException exception= initializer.getException();
+			if (exception != null)
+				throw exception;
+		}
+	}
+
+	/**
+	 * Cancels a running background initialization.
+	 */
+	private void cancelInitialization() {
+		if (fInitializer != null) {
+			fInitializer.cancel();
+			fInitializer= null;
+		}
+	}
+
+	/**
+	 * Returns whether the partitioner's scanner can be resumed at the start of a line in the middle
+	 * of a partition, as specified by
+	 * {@link IPartitionTokenScanner#setPartialRange(IDocument, int, int, String, int)}. The
+	 * partitions remembered in the document describe the scanner state at the start of every line,
+	 * so if the scanner can be resumed, a document change inside a partition is repartitioned
+	 * starting at the changed line rather than at the start of the partition.
+	 * <p>
+	 * May be replaced by subclasses. This implementation returns <code>true</code> for a
+	 * {@link RuleBasedPartitionScanner}.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the scanner can be resumed in the middle of a partition
+	 * @since 3.14
+	 */
+	protected boolean canResumeScanner() {
+		return fScanner instanceof RuleBasedPartitionScanner;
 	}
 
 	/**
@@ -195,6 +454,8 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 
 		Assert.isTrue(fDocument.containsPositionCategory(fPositionCategory));
 
+		cancelInitialization();
+
 		try {
 			fDocument.removePositionCategory(fPositionCategory);
 		} catch (BadPositionCategoryException x) {
@@ -210,6 +471,9 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	@Override
 	public void documentAboutToBeChanged(DocumentEvent e) {
+		if (fInitializer != null)
+			addInitialPartitions(Integer.MAX_VALUE);
+
 		if (fIsInitialized) {
 
 			Assert.isTrue(e.getDocument() == fDocument);
@@ -301,6 +565,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 			Position[] category= getPositions();
 			IRegion line= fDocument.getLineInformationOfOffset(e.getOffset());
 			int reparseStart= line.getOffset();
+			int resumeOffset= -1;
 			int partitionStart= -1;
 			String contentType= null;
 			int newLength= e.getText() == null ? 0 : e.getText().length();
@@ -311,6 +576,8 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 				if (partition.includes(reparseStart)) {
 					partitionStart= partition.getOffset();
 					contentType= partition.getType();
+					if (canResumeScanner())
+						resumeOffset= reparseStart;
 					reparseStart= partitionStart;
 					-- first;
 				} else if (reparseStart == e.getOffset() && reparseStart == partition.getOffset() + partition.getLength()) {
@@ -338,7 +605,9 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 			clearPositionCache();
 			category= getPositions();
 
-			fScanner.setPartialRange(fDocument, reparseStart, fDocument.getLength() - reparseStart, contentType, partitionStart);
+			if (resumeOffset == -1)
+				resumeOffset= reparseStart;
+			fScanner.setPartialRange(fDocument, resumeOffset, fDocument.getLength() - resumeOffset, contentType, partitionStart);
 
 			int behindLastScannedPosition= reparseStart;
 			IToken token= fScanner.nextToken();
@@ -462,7 +731,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	@Override
 	public String getContentType(int offset) {
-		checkInitialization();
+		checkInitialization(offset + 1);
 
 		TypedPosition p= findClosestPosition(offset);
 		if (p != null && p.includes(offset))
@@ -479,7 +748,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	@Override
 	public ITypedRegion getPartition(int offset) {
-		checkInitialization();
+		checkInitialization(offset + 1);
 
 		try {
 
@@ -619,7 +888,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	@Override
 	public ITypedRegion[] computePartitioning(int offset, int length, boolean includeZeroLengthPartitions) {
-		checkInitialization();
+		checkInitialization(offset + length + 1);
 		List<TypedRegion> list= new ArrayList<>();
 
 		try {
@@ -773,6 +1042,7 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	 */
 	protected final void flushRewriteSession() {
 		fActiveRewriteSession= null;
+		cancelInitialization();
 
 		// remove all position belonging to the partitioner position category
 		try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -56,6 +56,16 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 	protected int fColumn;
 	/** Internal setting for the un-initialized column cache. */
 	protected static final int UNDEFINED= -1;
+	/**
+	 * Tells whether the rules are compiled before scanning.
+	 * @since 3.14
+	 */
+	private boolean fCompileRules;
+	/**
+	 * The compiled rules, <code>null</code> if not yet compiled.
+	 * @since 3.14
+	 */
+	private CompiledRules fCompiledRules;
 
 	/**
 	 * Creates a new rule based scanner which does not have any rule.
@@ -76,6 +86,28 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 			fRules= null;
 	}
 
+	/**
+	 * Sets whether the rules of this scanner are compiled before scanning. Compiling merges
+	 * consecutive {@link WordRule}s with the same word detector into a single keyword lookup
+	 * which does not create a string per word, and only evaluates the rules which can detect a
+	 * token starting with the next character. The tokens returned by the scanner do not change.
+	 * <p>
+	 * The rules are recompiled when they are set again or when words are added to a word rule.
+	 * Compiling assumes that the word, whitespace and character detectors of the rules always
+	 * give the same answer for the same character, and that the words of a word rule are only
+	 * added through {@link WordRule#addWord(String, IToken)}. Rules which are not provided by
+	 * this package or whose evaluation has been overridden are evaluated as usual.
+	 * </p>
+	 *
+	 * @param compileRules <code>true</code> to compile the rules, <code>false</code> to evaluate
+	 *            every rule in sequence
+	 * @since 3.14
+	 */
+	public void setCompileRules(boolean compileRules) {
+		fCompileRules= compileRules;
+		fCompiledRules= null;
+	}
+
 	/**
 	 * Configures the scanner's default return token. This is the token
 	 * which is returned when none of the rules fired and EOF has not been
@@ -166,7 +198,15 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 		fColumn= UNDEFINED;
 
 		if (fRules != null) {
-			for (IRule fRule : fRules) {
+			IRule[] rules= fRules;
+			if (fCompileRules) {
+				if (fCompiledRules == null || !fCompiledRules.isUpToDate(fRules))
+					fCompiledRules= new CompiledRules(fRules);
+				int c= read();
+				unread();
+				rules= fCompiledRules.getRules(c);
+			}
+			for (IRule fRule : rules) {
 				IToken token= (fRule.evaluate(this));
 				if (!token.isUndefined())
 					return token;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -51,6 +51,11 @@ public class WordRule implements IRule {
 	 * @since 3.3
 	 */
 	private boolean fIgnoreCase= false;
+	/**
+	 * The number of words added to this rule.
+	 * @since 3.14
+	 */
+	private int fModificationCount;
 
 
 	/**
@@ -115,6 +120,7 @@ public class WordRule implements IRule {
 		if (fIgnoreCase)
 			word= word.toLowerCase();
 		fWords.put(word, token);
+		fModificationCount++;
 	}
 
 	/**
@@ -175,4 +181,25 @@ public class WordRule implements IRule {
 			scanner.unread();
 	}
 
+	/**
+	 * Returns the number of words added to this rule, used to detect whether compiled rules are
+	 * out of date.
+	 *
+	 * @return the number of calls to {@link #addWord(String, IToken)}
+	 * @since 3.14
+	 */
+	int getModificationCount() {
+		return fModificationCount;
+	}
+
+	/**
+	 * Tells whether this rule is case insensitive.
+	 *
+	 * @return <code>true</code> if the words are matched ignoring case
+	 * @since 3.14
+	 */
+	boolean isIgnoreCase() {
+		return fIgnoreCase;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,9 +30,11 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IPositionUpdater;
 import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.Position;
 
@@ -44,6 +46,15 @@ import org.eclipse.jface.text.Position;
  * also implements {@link org.eclipse.jface.text.ISynchronizable}. All
  * modifications of the model's internal annotation map are synchronized using
  * the model's lock object.
+ * <p>
+ * When connected to an {@link AbstractDocument}, the positions of the annotations are managed in
+ * an indexed position category of their own (see
+ * {@link AbstractDocument#addPositionCategory(String, boolean, boolean)}). Region queries
+ * ({@link #getAnnotationIterator(int, int, boolean, boolean)}) and adding or removing annotations
+ * are then logarithmic in the number of annotations. Large sets of annotations should be added
+ * and removed with {@link #replaceAnnotations(Annotation[], Map)}, which sends out a single
+ * annotation model event.
+ * </p>
  */
 public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtension, IAnnotationModelExtension2, ISynchronizable {
 
@@ -278,6 +289,27 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	private IDocumentListener fDocumentListener;
 	/** The flag indicating whether the document positions might have been changed. */
 	private boolean fDocumentChanged= true;
+	/**
+	 * The indexed position category of the annotation positions in the connected document, or
+	 * <code>null</code> if the positions are managed in the default category.
+	 * @since 3.14
+	 */
+	private String fPositionCategory;
+	/**
+	 * The position updater for the indexed position category.
+	 * @since 3.14
+	 */
+	private IPositionUpdater fPositionUpdater;
+	/**
+	 * The number of annotation positions in the indexed position category.
+	 * @since 3.14
+	 */
+	private int fIndexedPositions;
+	/**
+	 * The flag indicating whether the current document change might delete positions.
+	 * @since 3.14
+	 */
+	private boolean fDeletesPositions;
 	/**
 	 * The model's attachment.
 	 * @since 3.0
@@ -312,11 +344,13 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 
 			@Override
 			public void documentAboutToBeChanged(DocumentEvent event) {
+				fDeletesPositions= !isIndexed() || enclosesPositions(event);
 			}
 
 			@Override
 			public void documentChanged(DocumentEvent event) {
-				fDocumentChanged= true;
+				if (fDeletesPositions)
+					fDocumentChanged= true;
 			}
 		};
 	}
@@ -452,20 +486,32 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 
 	/**
 	 * Adds the given position to the default position category of the
-	 * given document.
+	 * given document. If the document is the connected {@link AbstractDocument},
+	 * the position is added to the indexed position category of this model instead.
 	 *
 	 * @param document the document to which to add the position
 	 * @param position the position to add
 	 * @throws BadLocationException if the position is not a valid document position
 	 */
 	protected void addPosition(IDocument document, Position position) throws BadLocationException {
-		if (document != null)
+		if (document == null)
+			return;
+
+		if (document == fDocument && fPositionCategory != null) {
+			try {
+				document.addPosition(fPositionCategory, position);
+				++ fIndexedPositions;
+			} catch (BadPositionCategoryException e) {
+				// can happen if the category has been removed by a client of the document
+			}
+		} else
 			document.addPosition(position);
 	}
 
 	/**
 	 * Removes the given position from the default position category of the
-	 * given document.
+	 * given document. If the document is the connected {@link AbstractDocument},
+	 * the position is removed from the indexed position category of this model instead.
 	 *
 	 * @param document the document to which to add the position
 	 * @param position the position to add
@@ -473,16 +519,102 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @since 3.0
 	 */
 	protected void removePosition(IDocument document, Position position) {
-		if (document != null)
+		if (document == null)
+			return;
+
+		if (document == fDocument && fPositionCategory != null) {
+			try {
+				document.removePosition(fPositionCategory, position);
+				-- fIndexedPositions;
+			} catch (BadPositionCategoryException e) {
+				// can happen if the category has been removed by a client of the document
+			}
+		} else
 			document.removePosition(position);
 	}
 
+	/**
+	 * Tells whether the positions of all annotations are in the indexed position category.
+	 * Subclasses may manage the positions differently.
+	 *
+	 * @return <code>true</code> if all positions are indexed
+	 * @since 3.14
+	 */
+	private boolean isIndexed() {
+		return fPositionCategory != null && fIndexedPositions == getAnnotationMap().size();
+	}
+
+	/**
+	 * Tells whether the given document change encloses positions of the indexed position
+	 * category, i.e. whether the position updater will delete positions. Positions of an
+	 * indexed category can only be deleted by changes that enclose them.
+	 *
+	 * @param event the document event
+	 * @return <code>true</code> if positions may be deleted by the change
+	 * @since 3.14
+	 */
+	private boolean enclosesPositions(DocumentEvent event) {
+		if (event.getLength() < 2)
+			return false;
+
+		try {
+			// a superset of the positions strictly inside the replaced text
+			return ((AbstractDocument) event.getDocument()).getPositions(fPositionCategory, event.getOffset() + 1, event.getLength() - 1, false, false).length > 0;
+		} catch (BadPositionCategoryException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Adds an indexed position category for the positions of this model to the given document
+	 * if it is an {@link AbstractDocument}.
+	 *
+	 * @param document the document
+	 * @since 3.14
+	 */
+	private void addPositionCategory(IDocument document) {
+		if (!(document instanceof AbstractDocument))
+			return;
+
+		String category= AnnotationModel.class.getName() + '.' + System.identityHashCode(this);
+		if (document.containsPositionCategory(category))
+			return; // use the default category
+
+		((AbstractDocument) document).addPositionCategory(category, true, false);
+		fPositionUpdater= new DefaultPositionUpdater(category);
+		document.addPositionUpdater(fPositionUpdater);
+		fPositionCategory= category;
+	}
+
+	/**
+	 * Removes the indexed position category of this model from the given document.
+	 *
+	 * @param document the document
+	 * @since 3.14
+	 */
+	private void removePositionCategory(IDocument document) {
+		if (fPositionCategory == null)
+			return;
+
+		document.removePositionUpdater(fPositionUpdater);
+		try {
+			document.removePositionCategory(fPositionCategory);
+		} catch (BadPositionCategoryException e) {
+			// category is already gone - no problem
+		}
+		fPositionUpdater= null;
+		fPositionCategory= null;
+		fIndexedPositions= 0;
+	}
+
 	@Override
 	public void connect(IDocument document) {
 		Assert.isTrue(fDocument == null || fDocument == document);
 
 		if (fDocument == null) {
 			fDocument= document;
+			fDocumentChanged= true;
+			addPositionCategory(document);
 			Iterator<Position> e= getAnnotationMap().valuesIterator();
 			while (e.hasNext())
 				try {
@@ -537,6 +669,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 				Position p= e.next();
 				removePosition(document, p);
 			}
+			removePositionCategory(document);
 			fDocument= null;
 		}
 	}
@@ -727,7 +860,11 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		cleanup(true);
 
 		try {
-			Position[] positions= document.getPositions(IDocument.DEFAULT_CATEGORY, offset, length, canStartBefore, canEndAfter);
+			String category= IDocument.DEFAULT_CATEGORY;
+			// subclasses that add the positions on their own keep finding them in the default category
+			if (fPositionCategory != null && (fIndexedPositions > 0 || getAnnotationMap().isEmpty()))
+				category= fPositionCategory;
+			Position[] positions= document.getPositions(category, offset, length, canStartBefore, canEndAfter);
 			return new AnnotationsInterator(positions, fPositions);
 		} catch (BadPositionCategoryException e) {
 			// can happen if e.g. the document doesn't contain such a category, or when removed in a different thread
@@ -883,13 +1020,25 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 			if (p != null) {
 
 				if (position.getOffset() != p.getOffset() || position.getLength() != p.getLength()) {
-					fDocument.removePosition(p);
-					p.setOffset(position.getOffset());
-					p.setLength(position.getLength());
-					try {
-						fDocument.addPosition(p);
-					} catch (BadLocationException e) {
-						// ignore invalid position
+					if (fPositionCategory != null) {
+						try {
+							fDocument.removePosition(fPositionCategory, p);
+							p.setOffset(position.getOffset());
+							p.setLength(position.getLength());
+							fDocument.addPosition(fPositionCategory, p);
+						} catch (BadLocationException | BadPositionCategoryException e) {
+							// ignore invalid position, which is no longer indexed
+							-- fIndexedPositions;
+						}
+					} else {
+						fDocument.removePosition(p);
+						p.setOffset(position.getOffset());
+						p.setLength(position.getLength());
+						try {
+							fDocument.addPosition(p);
+						} catch (BadLocationException e) {
+							// ignore invalid position
+						}
 					}
 				}
 				synchronized (getLockObject()) {
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.edits;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+
+
+/**
+ * Collects the replace operations of an edit tree and applies them to the document with a single
+ * replace operation, see {@link TextEdit#BULK_UPDATE}.
+ * <p>
+ * The edits of a tree modify the document from its end to its start, i.e. every replace operation
+ * starts at or before the previous one, and a parent edit replaces the text produced by its
+ * children. The text following the start of the last operation is kept as a sequence of pieces,
+ * each of which is either inserted text or a range of the unmodified document. An operation
+ * removes pieces from the start of that sequence and adds its text in front of it.
+ * </p>
+ *
+ * @since 3.14
+ */
+final class BulkUpdate {
+
+	/** The document, not modified before {@link #apply()}. */
+	private final IDocument fDocument;
+	/** The collector for the undo edit, <code>null</code> if no undo is created. */
+	private final UndoCollector fCollector;
+
+	/**
+	 * The offset in the unmodified document at which the pieces start. The text before it is not
+	 * modified.
+	 */
+	private int fFront;
+	/**
+	 * The text of each piece or <code>null</code> for ranges of the unmodified document. The
+	 * pieces are stored in reverse order, i.e. the first piece comes last.
+	 */
+	private String[] fTexts= new String[16];
+	/** The start of each piece in its text or in the unmodified document. */
+	private int[] fStarts= new int[16];
+	/** The end of each piece in its text or in the unmodified document. */
+	private int[] fEnds= new int[16];
+	/** The number of pieces. */
+	private int fCount;
+	/** Whether a replace operation has been recorded. */
+	private boolean fModified;
+	/** The document recording the replace operations, created lazily. */
+	private IDocument fRecordingDocument;
+
+	/**
+	 * Creates a new bulk update.
+	 *
+	 * @param document the document to update
+	 * @param collector the collector for the undo edit or <code>null</code>
+	 */
+	BulkUpdate(IDocument document, UndoCollector collector) {
+		fDocument= document;
+		fCollector= collector;
+		fFront= document.getLength();
+	}
+
+	/**
+	 * Records a replace operation. The offset refers to the document as modified by the
+	 * operations recorded so far.
+	 *
+	 * @param offset the offset of the text to replace, must not be after the offset of the
+	 *            previous operation
+	 * @param length the length of the text to replace
+	 * @param text the replacement
+	 * @throws BadLocationException if the range is not valid
+	 */
+	void replace(int offset, int length, String text) throws BadLocationException {
+		if (offset < 0 || length < 0 || offset > fFront)
+			throw new BadLocationException();
+
+		StringBuilder removed= fCollector != null ? new StringBuilder(length) : null;
+		int unmodified= Math.min(length, fFront - offset);
+		if (removed != null)
+			removed.append(fDocument.get(offset, unmodified));
+		if (offset + unmodified < fFront)
+			push(null, offset + unmodified, fFront);
+
+		int remaining= length - unmodified;
+		while (remaining > 0) {
+			if (fCount == 0)
+				throw new BadLocationException();
+			int index= fCount - 1;
+			int start= fStarts[index];
+			int end= Math.min(fEnds[index], start + remaining);
+			if (removed != null) {
+				if (fTexts[index] == null)
+					removed.append(fDocument.get(start, end - start));
+				else
+					removed.append(fTexts[index], start, end);
+			}
+			remaining-= end - start;
+			if (end == fEnds[index])
+				fCount--;
+			else
+				fStarts[index]= end;
+		}
+
+		if (!text.isEmpty())
+			push(text, 0, text.length());
+		fFront= offset;
+		fModified= true;
+
+		if (fCollector != null)
+			fCollector.replaced(offset, removed.toString(), text);
+	}
+
+	/**
+	 * Returns a document that records its replace operations in this bulk update, see
+	 * {@link #replace(int, int, String)}. The document does not support reading its content.
+	 *
+	 * @return the recording document
+	 */
+	IDocument getRecordingDocument() {
+		if (fRecordingDocument == null)
+			fRecordingDocument= new RecordingDocument();
+		return fRecordingDocument;
+	}
+
+	/**
+	 * Replaces the range of the document covered by the recorded operations with its new text.
+	 *
+	 * @throws BadLocationException if the document cannot be modified
+	 */
+	void apply() throws BadLocationException {
+		if (!fModified)
+			return;
+
+		// leave out unmodified ranges at both ends
+		int start= fFront;
+		while (fCount > 0 && fTexts[fCount - 1] == null && fStarts[fCount - 1] == start) {
+			start= fEnds[fCount - 1];
+			fCount--;
+		}
+		int end= fDocument.getLength();
+		int last= 0;
+		while (last < fCount && fTexts[last] == null && fEnds[last] == end) {
+			end= fStarts[last];
+			last++;
+		}
+		if (start > end)
+			end= start;
+
+		String original= fDocument.get(start, end - start);
+		int length= 0;
+		for (int i= fCount - 1; i >= last; i--)
+			length+= fEnds[i] - fStarts[i];
+		StringBuilder buffer= new StringBuilder(length);
+		for (int i= fCount - 1; i >= last; i--) {
+			if (fTexts[i] == null)
+				buffer.append(original, fStarts[i] - start, fEnds[i] - start);
+			else
+				buffer.append(fTexts[i], fStarts[i], fEnds[i]);
+		}
+		if (end > start || buffer.length() > 0)
+			fDocument.replace(start, end - start, buffer.toString());
+	}
+
+	private void push(String text, int start, int end) {
+		if (fCount == fTexts.length) {
+			int capacity= fCount * 2;
+			fTexts= Arrays.copyOf(fTexts, capacity);
+			fStarts= Arrays.copyOf(fStarts, capacity);
+			fEnds= Arrays.copyOf(fEnds, capacity);
+		}
+		fTexts[fCount]= text;
+		fStarts[fCount]= start;
+		fEnds[fCount]= end;
+		fCount++;
+	}
+
+	/**
+	 * A document whose replace operations are recorded in the bulk update.
+	 */
+	private final class RecordingDocument extends EditDocument {
+
+		RecordingDocument() {
+			super(""); //$NON-NLS-1$
+		}
+
+		@Override
+		public String get() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String get(int offset, int length) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int getLength() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) throws BadLocationException {
+			BulkUpdate.this.replace(offset, length, text);
+		}
+	}
+}
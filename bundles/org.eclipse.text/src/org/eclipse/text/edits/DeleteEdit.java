@@ -63,6 +63,11 @@ public final class DeleteEdit extends TextEdit {
 		return fDelta;
 	}
 
+	@Override
+	boolean supportsBulkUpdating() {
+		return true;
+	}
+
 	@Override
 	boolean deleteChildren() {
 		return true;
@@ -80,6 +80,11 @@ public final class InsertEdit extends TextEdit {
 		return fDelta;
 	}
 
+	@Override
+	boolean supportsBulkUpdating() {
+		return true;
+	}
+
 	@Override
 	boolean deleteChildren() {
 		return false;
@@ -172,6 +172,11 @@ public class MultiTextEdit extends TextEdit {
 		return fDelta;
 	}
 
+	@Override
+	boolean supportsBulkUpdating() {
+		return true;
+	}
+
 	@Override
 	boolean deleteChildren() {
 		return false;
@@ -60,6 +60,11 @@ public final class RangeMarker extends TextEdit {
 		return fDelta;
 	}
 
+	@Override
+	boolean supportsBulkUpdating() {
+		return true;
+	}
+
 	@Override
 	boolean deleteChildren() {
 		return false;
@@ -81,6 +81,11 @@ public final class ReplaceEdit extends TextEdit {
 		return fDelta;
 	}
 
+	@Override
+	boolean supportsBulkUpdating() {
+		return true;
+	}
+
 	@Override
 	boolean deleteChildren() {
 		return true;
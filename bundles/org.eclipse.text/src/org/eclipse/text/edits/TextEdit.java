@@ -14,6 +14,7 @@
 package org.eclipse.text.edits;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -105,6 +106,23 @@ public abstract class TextEdit {
 	 */
 	public static final int UPDATE_REGIONS= 1 << 1;
 
+	/**
+	 * Flag indicating that the document is modified with a single replace
+	 * operation covering all changed text instead of one replace operation
+	 * per edit. The new text is computed in one pass over the edit tree, which
+	 * is much faster for trees with many edits. Positions in the changed range
+	 * are updated as for any other large change, i.e. they may be deleted.
+	 * The undo edit and the updated regions are the same as without this flag.
+	 * <p>
+	 * The flag is ignored for edit trees containing edits other than
+	 * <code>MultiTextEdit</code>, <code>ReplaceEdit</code>, <code>InsertEdit</code>,
+	 * <code>DeleteEdit</code> and <code>RangeMarker</code>.
+	 * </p>
+	 *
+	 * @since 3.14
+	 */
+	public static final int BULK_UPDATE= 1 << 2;
+
 	private static class InsertionComparator implements Comparator<TextEdit> {
 		@Override
 		public int compare(TextEdit edit1, TextEdit edit2) throws MalformedTreeException {
@@ -131,6 +149,11 @@ public abstract class TextEdit {
 
 	private static final TextEdit[] EMPTY_ARRAY= new TextEdit[0];
 	private static final InsertionComparator INSERTION_COMPARATOR= new InsertionComparator();
+	/**
+	 * Sorts edits by offset, insertion points before other edits at the same offset.
+	 * @since 3.14
+	 */
+	private static final Comparator<TextEdit> OFFSET_COMPARATOR= Comparator.comparingInt(TextEdit::getOffset).thenComparingInt(TextEdit::getLength);
 
 	private static final int DELETED_VALUE= -1;
 
@@ -350,6 +373,8 @@ public abstract class TextEdit {
 	 * @see #addChild(TextEdit)
 	 */
 	public final void addChildren(TextEdit[] edits) throws MalformedTreeException {
+		if (edits.length > 1 && internalAddAll(edits))
+			return;
 		for (TextEdit edit : edits) {
 			internalAdd(edit);
 		}
@@ -695,7 +720,8 @@ public abstract class TextEdit {
 	 *
 	 * @param document the document to be manipulated
 	 * @param style flags controlling the execution of the edit tree. Valid
-	 *  flags are: <code>CREATE_UNDO</code> and <code>UPDATE_REGIONS</code>.
+	 *  flags are: <code>CREATE_UNDO</code>, <code>UPDATE_REGIONS</code> and
+	 *  <code>BULK_UPDATE</code>.
 	 * @return a undo edit, if <code>CREATE_UNDO</code> is specified. Otherwise
 	 *  <code>null</code> is returned.
 	 *
@@ -786,6 +812,50 @@ public abstract class TextEdit {
 		child.internalSetParent(this);
 	}
 
+	/**
+	 * Adds the given edits in O(n log n) by sorting them and merging them with the existing
+	 * children. The result is the same as adding the edits one by one. If adding them one by one
+	 * would fail, nothing is added and <code>false</code> is returned, so that adding the edits
+	 * one by one reports the problem.
+	 *
+	 * @param edits the edits to add
+	 * @return <code>true</code> if the edits have been added
+	 * @since 3.14
+	 */
+	boolean internalAddAll(TextEdit[] edits) {
+		for (TextEdit edit : edits) {
+			if (!edit.isDefined() || edit instanceof UndoEdit || edit.getParent() != null || edit.isDeleted() || !covers(edit))
+				return false;
+		}
+
+		TextEdit[] sorted= edits.clone();
+		Arrays.sort(sorted, OFFSET_COMPARATOR); // stable, insertion points at the same offset keep their order
+		int size= fChildren == null ? 0 : fChildren.size();
+		List<TextEdit> children= new ArrayList<>(size + sorted.length);
+		int i= 0;
+		int j= 0;
+		TextEdit previous= null;
+		while (i < size || j < sorted.length) {
+			TextEdit next;
+			// existing children come first, new insertion points at the same offset are inserted last
+			if (j == sorted.length || i < size && OFFSET_COMPARATOR.compare(fChildren.get(i), sorted[j]) <= 0)
+				next= fChildren.get(i++);
+			else
+				next= sorted[j++];
+			if (previous != null && previous.getExclusiveEnd() > next.getOffset())
+				return false;
+			children.add(next);
+			previous= next;
+		}
+
+		for (TextEdit edit : edits)
+			edit.aboutToBeAdded(this);
+		fChildren= children;
+		for (TextEdit edit : edits)
+			edit.internalSetParent(this);
+		return true;
+	}
+
 	private int computeInsertionIndex(TextEdit edit) throws MalformedTreeException {
 		int size= fChildren.size();
 		if (size == 0)
@@ -940,6 +1010,86 @@ public abstract class TextEdit {
 
 	abstract int performDocumentUpdating(IDocument document) throws BadLocationException;
 
+	/**
+	 * Tells whether the edit tree rooted by this edit can be applied with
+	 * {@link #traverseBulkUpdating(TextEditProcessor, BulkUpdate)}.
+	 *
+	 * @return <code>true</code> if all edits of the tree support bulk updating
+	 * @since 3.14
+	 */
+	boolean canTraverseBulkUpdating() {
+		if (!supportsBulkUpdating())
+			return false;
+		if (fChildren != null) {
+			for (TextEdit child : fChildren) {
+				if (!child.canTraverseBulkUpdating())
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tells whether this edit can record its replace operation with
+	 * {@link #performBulkUpdating(BulkUpdate)}.
+	 *
+	 * @return <code>true</code> if this edit supports bulk updating
+	 * @since 3.14
+	 */
+	boolean supportsBulkUpdating() {
+		return false;
+	}
+
+	/**
+	 * Traverses the edit tree like
+	 * {@link #traverseDocumentUpdating(TextEditProcessor, IDocument)} but records
+	 * the replace operations in the given bulk update instead of performing them.
+	 *
+	 * @param processor the text edit processor
+	 * @param update the bulk update
+	 * @return the delta of the edit tree
+	 * @throws BadLocationException if an edit is not valid
+	 * @since 3.14
+	 */
+	int traverseBulkUpdating(TextEditProcessor processor, BulkUpdate update) throws BadLocationException {
+		int delta= 0;
+		if (fChildren != null) {
+			for (int i= fChildren.size() - 1; i >= 0; i--) {
+				TextEdit child= fChildren.get(i);
+				delta+= child.traverseBulkUpdating(processor, update);
+				childDocumentUpdated();
+			}
+		}
+		if (processor.considerEdit(this)) {
+			if (delta != 0)
+				adjustLength(delta);
+			int r= performBulkUpdating(update);
+			if (r != 0)
+				adjustLength(r);
+			delta+= r;
+		}
+		return delta;
+	}
+
+	/**
+	 * Records the replace operation of this edit in the given bulk update. Only
+	 * called if {@link #supportsBulkUpdating()} returns <code>true</code>.
+	 * <p>
+	 * The default implementation performs the document updating of this edit on
+	 * a document that records its replace operations in the bulk update. It
+	 * requires that {@link #performDocumentUpdating(IDocument)} does not read
+	 * the document.
+	 * </p>
+	 *
+	 * @param update the bulk update
+	 * @return the delta of this edit
+	 * @throws BadLocationException if the edit is not valid
+	 * @since 3.14
+	 */
+	int performBulkUpdating(BulkUpdate update) throws BadLocationException {
+		return performDocumentUpdating(update.getRecordingDocument());
+	}
+
 	int traverseRegionUpdating(TextEditProcessor processor, IDocument document, int accumulatedDelta, boolean delete) {
 		performRegionUpdating(accumulatedDelta, delete);
 		if (fChildren != null) {
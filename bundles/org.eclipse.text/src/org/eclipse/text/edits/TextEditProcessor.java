@@ -55,7 +55,8 @@ public class TextEditProcessor {
 	 *  text edit processors. Clients must not modify the edit
 	 *  (e.g adding new children) any longer.
 	 *
-	 * @param style {@link TextEdit#NONE}, {@link TextEdit#CREATE_UNDO} or {@link TextEdit#UPDATE_REGIONS})
+	 * @param style {@link TextEdit#NONE} or a combination of {@link TextEdit#CREATE_UNDO},
+	 *  {@link TextEdit#UPDATE_REGIONS} and {@link TextEdit#BULK_UPDATE}
 	 */
 	public TextEditProcessor(IDocument document, TextEdit root, int style) {
 		this(document, root, style, false);
@@ -190,10 +191,18 @@ public class TextEditProcessor {
 	UndoEdit executeDo() throws BadLocationException {
 		UndoCollector collector= new UndoCollector(fRoot);
 		try {
-			if (createUndo())
-				collector.connect(fDocument);
-			computeSources();
-			fRoot.traverseDocumentUpdating(this, fDocument);
+			if (bulkUpdate() && fRoot.canTraverseBulkUpdating()) {
+				if (createUndo())
+					collector.start();
+				BulkUpdate update= new BulkUpdate(fDocument, createUndo() ? collector : null);
+				fRoot.traverseBulkUpdating(this, update);
+				update.apply();
+			} else {
+				if (createUndo())
+					collector.connect(fDocument);
+				computeSources();
+				fRoot.traverseDocumentUpdating(this, fDocument);
+			}
 			if (updateRegions()) {
 				fRoot.traverseRegionUpdating(this, fDocument, 0, false);
 			}
@@ -235,4 +244,8 @@ public class TextEditProcessor {
 	private boolean updateRegions() {
 		return (fStyle & TextEdit.UPDATE_REGIONS) != 0;
 	}
+
+	private boolean bulkUpdate() {
+		return (fStyle & TextEdit.BULK_UPDATE) != 0;
+	}
 }
@@ -42,6 +42,16 @@ class UndoCollector implements IDocumentListener {
 		undo= new UndoEdit();
 	}
 
+	/**
+	 * Starts collecting the undo of the replace operations reported to
+	 * {@link #replaced(int, String, String)} instead of document changes.
+	 *
+	 * @since 3.14
+	 */
+	void start() {
+		undo= new UndoEdit();
+	}
+
 	public void disconnect(IDocument document) {
 		if (undo != null) {
 			document.removeDocumentListener(this);
@@ -85,4 +95,21 @@ class UndoCollector implements IDocumentListener {
 		String newText= event.getText();
 		undo.add(new ReplaceEdit(offset, newText != null ? newText.length() : 0, currentText));
 	}
+
+	/**
+	 * Collects the undo of a replace operation which is not reported as a document change.
+	 *
+	 * @param offset the offset of the replaced text
+	 * @param currentText the replaced text
+	 * @param newText the replacement
+	 * @since 3.14
+	 */
+	void replaced(int offset, String currentText, String newText) {
+		fLength+= newText.length() - currentText.length();
+		if (fLastCurrentText != null && fLastCurrentText.equals(currentText))
+			currentText= fLastCurrentText;
+		else
+			fLastCurrentText= currentText;
+		undo.add(new ReplaceEdit(offset, newText.length(), currentText));
+	}
 }
@@ -48,6 +48,11 @@ public final class UndoEdit extends TextEdit {
 		throw new MalformedTreeException(null, this, TextEditMessages.getString("UndoEdit.no_children")); //$NON-NLS-1$
 	}
 
+	@Override
+	boolean internalAddAll(TextEdit[] edits) {
+		return false;
+	}
+
 	@Override
 	void aboutToBeAdded(TextEdit parent) {
 		throw new MalformedTreeException(parent, this, TextEditMessages.getString("UndoEdit.can_not_be_added")); //$NON-NLS-1$
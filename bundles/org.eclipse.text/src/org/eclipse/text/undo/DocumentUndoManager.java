@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2019 IBM Corporation and others.
+ * Copyright (c) 2006, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,16 @@
  *******************************************************************************/
 package org.eclipse.text.undo;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.AbstractOperation;
@@ -69,6 +77,234 @@ import org.eclipse.jface.text.TextUtilities;
  */
 public class DocumentUndoManager implements IDocumentUndoManager {
 
+	/**
+	 * Stage of {@link UndoableTextChange#reduceMemoryFootprint(int)} which joins consecutive
+	 * changes of a compound change.
+	 */
+	private static final int COMPACT= 0;
+
+	/**
+	 * Stage of {@link UndoableTextChange#reduceMemoryFootprint(int)} which compresses large
+	 * texts.
+	 */
+	private static final int COMPRESS= 1;
+
+	/**
+	 * Stage of {@link UndoableTextChange#reduceMemoryFootprint(int)} which moves compressed texts
+	 * to a temporary file.
+	 */
+	private static final int SPILL= 2;
+
+	/** The minimal length of the texts which are compressed to meet the memory budget. */
+	private static final int COMPRESSION_THRESHOLD= 512;
+
+	/** The estimated number of bytes held by a text change without its texts. */
+	private static final int CHANGE_FOOTPRINT= 80;
+
+	/** The estimated number of bytes held by a packed text without its compressed data. */
+	private static final int PACKED_TEXT_FOOTPRINT= 40;
+
+	/** The estimated number of bytes held by a string or array without its content. */
+	private static final int ARRAY_FOOTPRINT= 24;
+
+	/** The estimated number of bytes held by a reference to an object. */
+	private static final int REFERENCE_FOOTPRINT= 8;
+
+	/**
+	 * Returns the estimated number of bytes held by the given text.
+	 *
+	 * @param text the text or <code>null</code>
+	 * @return the estimated memory footprint of the text
+	 */
+	private static long getStringFootprint(String text) {
+		return text == null ? 0 : 2 * ARRAY_FOOTPRINT + 2L * text.length();
+	}
+
+
+	/**
+	 * A text compressed to meet the memory budget. The compressed data is either kept in memory or
+	 * in a {@link SpillFile}.
+	 */
+	private static final class PackedText {
+
+		/** The length of the text. */
+		private final int fLength;
+
+		/** The compressed text, <code>null</code> if the text has been spilled. */
+		private byte[] fData;
+
+		/** The file holding the compressed text, <code>null</code> if not spilled. */
+		private SpillFile fFile;
+
+		/** The position of the compressed text in the spill file. */
+		private long fPosition;
+
+		/** The length of the compressed text in the spill file. */
+		private int fSize;
+
+		private PackedText(int length, byte[] data) {
+			fLength= length;
+			fData= data;
+		}
+
+		/**
+		 * Compresses the given text.
+		 *
+		 * @param text the text to compress
+		 * @return the compressed text or <code>null</code> if the text cannot be compressed
+		 */
+		static PackedText pack(String text) {
+			int length= text.length();
+			byte[] bytes= new byte[2 * length];
+			for (int i= 0; i < length; i++) {
+				char c= text.charAt(i);
+				bytes[2 * i]= (byte) (c >> 8);
+				bytes[2 * i + 1]= (byte) c;
+			}
+
+			// keep the text only if it shrinks to less than a quarter of the UTF-16 form
+			byte[] buffer= new byte[bytes.length / 4];
+			Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+			try {
+				deflater.setInput(bytes);
+				deflater.finish();
+				int size= 0;
+				while (!deflater.finished()) {
+					if (size == buffer.length)
+						return null;
+					size+= deflater.deflate(buffer, size, buffer.length - size);
+				}
+				byte[] data= new byte[size];
+				System.arraycopy(buffer, 0, data, 0, size);
+				return new PackedText(length, data);
+			} finally {
+				deflater.end();
+			}
+		}
+
+		/**
+		 * Returns the length of the text.
+		 *
+		 * @return the length of the text
+		 */
+		int getLength() {
+			return fLength;
+		}
+
+		/**
+		 * Returns the estimated number of bytes held in memory by this text.
+		 *
+		 * @return the estimated memory footprint of this text
+		 */
+		long getMemoryFootprint() {
+			return PACKED_TEXT_FOOTPRINT + (fData == null ? 0 : ARRAY_FOOTPRINT + fData.length);
+		}
+
+		/**
+		 * Returns the uncompressed text.
+		 *
+		 * @return the text
+		 * @throws IllegalStateException if the spilled text cannot be read
+		 */
+		String unpack() {
+			byte[] data= fData != null ? fData : read();
+			byte[] bytes= new byte[2 * fLength];
+			Inflater inflater= new Inflater();
+			try {
+				inflater.setInput(data);
+				int size= 0;
+				while (size < bytes.length && !inflater.finished())
+					size+= inflater.inflate(bytes, size, bytes.length - size);
+			} catch (DataFormatException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				inflater.end();
+			}
+			char[] chars= new char[fLength];
+			for (int i= 0; i < fLength; i++)
+				chars[i]= (char) ((bytes[2 * i] & 0xff) << 8 | bytes[2 * i + 1] & 0xff);
+			return new String(chars);
+		}
+
+		/**
+		 * Moves the compressed text to the given file.
+		 *
+		 * @param file the spill file
+		 * @return <code>false</code> if the file could not be written
+		 */
+		boolean spill(SpillFile file) {
+			if (fData == null)
+				return true;
+			try {
+				fPosition= file.write(fData);
+				fSize= fData.length;
+				fFile= file;
+				fData= null;
+				return true;
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Reads the compressed text back into memory.
+		 */
+		void unspill() {
+			if (fData == null) {
+				fData= read();
+				fFile= null;
+			}
+		}
+
+		private byte[] read() {
+			try {
+				return fFile.read(fPosition, fSize);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+
+	/**
+	 * A temporary file holding compressed texts of old changes.
+	 */
+	private static final class SpillFile {
+
+		private final File fFile;
+
+		private final RandomAccessFile fAccess;
+
+		SpillFile() throws IOException {
+			fFile= File.createTempFile("undo", ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+			fFile.deleteOnExit();
+			fAccess= new RandomAccessFile(fFile, "rw"); //$NON-NLS-1$
+		}
+
+		synchronized long write(byte[] data) throws IOException {
+			long position= fAccess.length();
+			fAccess.seek(position);
+			fAccess.write(data);
+			return position;
+		}
+
+		synchronized byte[] read(long position, int size) throws IOException {
+			byte[] data= new byte[size];
+			fAccess.seek(position);
+			fAccess.readFully(data);
+			return data;
+		}
+
+		synchronized void close() {
+			try {
+				fAccess.close();
+			} catch (IOException e) {
+				// the file is deleted anyway
+			}
+			fFile.delete();
+		}
+	}
+
 
 	/**
 	 * Represents an undo-able text change, described as the
@@ -91,6 +327,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The replaced text. */
 		protected String fPreservedText;
 
+		/**
+		 * The compressed newly inserted text, <code>null</code> unless <code>fText</code> has been
+		 * packed to meet the memory budget.
+		 */
+		protected PackedText fPackedText;
+
+		/**
+		 * The compressed replaced text, <code>null</code> unless <code>fPreservedText</code> has
+		 * been packed to meet the memory budget.
+		 */
+		protected PackedText fPackedPreservedText;
+
 		/** The undo modification stamp. */
 		protected long fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
@@ -117,6 +365,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void reinitialize() {
 			fStart= fEnd= -1;
 			fText= fPreservedText= null;
+			fPackedText= fPackedPreservedText= null;
 			fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 			fRedoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
@@ -132,6 +381,38 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fEnd= end;
 			fText= null;
 			fPreservedText= null;
+			fPackedText= null;
+			fPackedPreservedText= null;
+		}
+
+		/**
+		 * Returns the newly inserted text.
+		 *
+		 * @return the newly inserted text or <code>null</code> if not set
+		 * @since 3.14
+		 */
+		protected String getText() {
+			return fPackedText != null ? fPackedText.unpack() : fText;
+		}
+
+		/**
+		 * Returns the length of the newly inserted text without unpacking it.
+		 *
+		 * @return the length of the newly inserted text
+		 * @since 3.14
+		 */
+		protected int getTextLength() {
+			return fPackedText != null ? fPackedText.getLength() : fText.length();
+		}
+
+		/**
+		 * Returns the replaced text.
+		 *
+		 * @return the replaced text or <code>null</code> if not set
+		 * @since 3.14
+		 */
+		protected String getPreservedText() {
+			return fPackedPreservedText != null ? fPackedPreservedText.unpack() : fPreservedText;
 		}
 
 		@Override
@@ -145,11 +426,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void undoTextChange() {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fText
-							.length(), fPreservedText, fUndoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, getTextLength(),
+							getPreservedText(), fUndoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fText.length(),
-							fPreservedText);
+					fDocumentUndoManager.fDocument.replace(fStart, getTextLength(),
+							getPreservedText());
 				}
 			} catch (BadLocationException x) {
 			}
@@ -258,10 +539,12 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
 				undoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.UNDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.UNDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -273,9 +556,9 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void redoTextChange() {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, fText, fRedoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, getText(), fRedoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, fText);
+					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, getText());
 				}
 			} catch (BadLocationException x) {
 			}
@@ -292,10 +575,12 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
 				redoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.REDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.REDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -375,7 +660,69 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * @return <code>true</code> if the change is valid for undo or redo
 		 */
 		protected boolean isValid() {
-			return fStart > -1 && fEnd > -1 && fText != null;
+			return fStart > -1 && fEnd > -1 && (fText != null || fPackedText != null);
+		}
+
+		/**
+		 * Returns the estimated number of bytes held by this change.
+		 *
+		 * @return the estimated memory footprint of this change
+		 * @since 3.14
+		 */
+		protected long getMemoryFootprint() {
+			long footprint= CHANGE_FOOTPRINT + getStringFootprint(fText) + getStringFootprint(fPreservedText);
+			if (fPackedText != null)
+				footprint+= fPackedText.getMemoryFootprint();
+			if (fPackedPreservedText != null)
+				footprint+= fPackedPreservedText.getMemoryFootprint();
+			return footprint;
+		}
+
+		/**
+		 * Reduces the memory footprint of this change in order to meet the memory budget. The
+		 * change is not modified by later document changes.
+		 *
+		 * @param stage {@link #COMPACT}, {@link #COMPRESS} or {@link #SPILL}
+		 * @return the estimated number of bytes released
+		 * @since 3.14
+		 */
+		protected long reduceMemoryFootprint(int stage) {
+			long footprint= getMemoryFootprint();
+			switch (stage) {
+			case COMPRESS:
+				if (fText != null && fText.length() >= COMPRESSION_THRESHOLD) {
+					fPackedText= PackedText.pack(fText);
+					if (fPackedText != null)
+						fText= null;
+				}
+				if (fPreservedText != null && fPreservedText.length() >= COMPRESSION_THRESHOLD) {
+					fPackedPreservedText= PackedText.pack(fPreservedText);
+					if (fPackedPreservedText != null)
+						fPreservedText= null;
+				}
+				break;
+			case SPILL:
+				SpillFile file= fDocumentUndoManager.getSpillFile();
+				if (file != null) {
+					if (fPackedText != null && !fPackedText.spill(file)
+							|| fPackedPreservedText != null && !fPackedPreservedText.spill(file))
+						fDocumentUndoManager.fSpillFailed= true;
+				}
+				break;
+			default:
+				break;
+			}
+			return footprint - getMemoryFootprint();
+		}
+
+		/**
+		 * Reads spilled texts of this change back into memory.
+		 */
+		protected void unspill() {
+			if (fPackedText != null)
+				fPackedText.unspill();
+			if (fPackedPreservedText != null)
+				fPackedPreservedText.unspill();
 		}
 
 		@Override
@@ -395,11 +742,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			text.append(fEnd);
 			text.append(delimiter);
 			text.append("text: '"); //$NON-NLS-1$
-			text.append(fText);
+			text.append(getText());
 			text.append('\'');
 			text.append(delimiter);
 			text.append("preservedText: '"); //$NON-NLS-1$
-			text.append(fPreservedText);
+			text.append(getPreservedText());
 			text.append('\'');
 			return text.toString();
 		}
@@ -459,7 +806,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				UndoableTextChange c;
 
 				c= fChanges.get(0);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getPreservedText(), c.getText(), uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -477,7 +824,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo,
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getPreservedText(), c.getText(), uiInfo,
 						DocumentUndoEvent.UNDONE, size > 1);
 			}
 			return Status.OK_STATUS;
@@ -491,7 +838,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 				UndoableTextChange c;
 				c= fChanges.get(size - 1);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getText(), c.getPreservedText(), uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -509,7 +856,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.REDONE, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.getText(), c.getPreservedText(), uiInfo, DocumentUndoEvent.REDONE, size > 1);
 			}
 
 			return Status.OK_STATUS;
@@ -560,6 +907,89 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			return fStart > -1 || !fChanges.isEmpty();
 		}
 
+		@Override
+		protected long getMemoryFootprint() {
+			long footprint= super.getMemoryFootprint();
+			for (UndoableTextChange change : fChanges)
+				footprint+= REFERENCE_FOOTPRINT + change.getMemoryFootprint();
+			return footprint;
+		}
+
+		@Override
+		protected long reduceMemoryFootprint(int stage) {
+			if (stage != COMPACT) {
+				long released= 0;
+				for (UndoableTextChange change : fChanges)
+					released+= change.reduceMemoryFootprint(stage);
+				return released;
+			}
+
+			long footprint= getMemoryFootprint();
+			List<UndoableTextChange> changes= new ArrayList<>();
+			int size= fChanges.size();
+			for (int i= 0; i < size;) {
+				UndoableTextChange first= fChanges.get(i);
+				if (first.fPackedText != null || first.fPackedPreservedText != null) {
+					changes.add(first);
+					i++;
+					continue;
+				}
+
+				// join consecutive changes which extend the text of the previous ones
+				int start= first.fStart;
+				int end= first.fEnd;
+				int textLength= first.fText.length();
+				Deque<String> texts= new ArrayDeque<>();
+				Deque<String> preservedTexts= new ArrayDeque<>();
+				texts.add(first.fText);
+				preservedTexts.add(first.fPreservedText);
+				int j= i + 1;
+				for (; j < size; j++) {
+					UndoableTextChange next= fChanges.get(j);
+					if (next.fPackedText != null || next.fPackedPreservedText != null)
+						break;
+					if (next.fStart == start + textLength) {
+						// the change follows the text of the previous ones
+						end+= next.fEnd - next.fStart;
+						texts.addLast(next.fText);
+						preservedTexts.addLast(next.fPreservedText);
+					} else if (next.fEnd == start) {
+						// the change precedes the text of the previous ones
+						start= next.fStart;
+						texts.addFirst(next.fText);
+						preservedTexts.addFirst(next.fPreservedText);
+					} else {
+						break;
+					}
+					textLength+= next.fText.length();
+				}
+
+				if (j > i + 1) {
+					UndoableTextChange last= fChanges.get(j - 1);
+					UndoableTextChange c= new UndoableTextChange(fDocumentUndoManager);
+					c.fStart= start;
+					c.fEnd= end;
+					c.fText= String.join("", texts); //$NON-NLS-1$
+					c.fPreservedText= String.join("", preservedTexts); //$NON-NLS-1$
+					c.fUndoModificationStamp= first.fUndoModificationStamp;
+					c.fRedoModificationStamp= last.fRedoModificationStamp;
+					changes.add(c);
+				} else {
+					changes.add(first);
+				}
+				i= j;
+			}
+			fChanges= changes;
+			return footprint - getMemoryFootprint();
+		}
+
+		@Override
+		protected void unspill() {
+			super.unspill();
+			for (UndoableTextChange change : fChanges)
+				change.unspill();
+		}
+
 		@Override
 		protected long getUndoModificationStamp() {
 			if (fStart > -1) {
@@ -773,6 +1203,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	/** The list of clients connected. */
 	private List<Object> fConnected;
 
+	/** The memory budget of the undo history in bytes, <code>-1</code> if not limited. */
+	private long fMemoryBudget= -1;
+
+	/** Indicates whether compressed texts may be moved to a temporary file to meet the budget. */
+	private boolean fSpillToFile= false;
+
+	/** Indicates whether writing the spill file failed. */
+	private boolean fSpillFailed= false;
+
+	/** The temporary file holding spilled texts, <code>null</code> if not yet created. */
+	private SpillFile fSpillFile;
+
 	/**
 	 *
 	 * Create a DocumentUndoManager for the given document.
@@ -895,6 +1337,112 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		fHistory.setLimit(fUndoContext, undoLimit);
 	}
 
+	@Override
+	public void setMemoryBudget(long bytes) {
+		fMemoryBudget= bytes < 0 ? -1 : bytes;
+		applyMemoryBudget();
+	}
+
+	@Override
+	public long getMemoryBudget() {
+		return fMemoryBudget;
+	}
+
+	@Override
+	public long getMemoryFootprint() {
+		if (!isConnected())
+			return 0;
+
+		long footprint= 2L * (fTextBuffer.capacity() + fPreservedTextBuffer.capacity());
+		boolean containsCurrent= false;
+		for (IUndoableOperation operation : fHistory.getUndoHistory(fUndoContext)) {
+			if (operation instanceof UndoableTextChange change) {
+				footprint+= change.getMemoryFootprint();
+				containsCurrent|= change == fCurrent;
+			}
+		}
+		for (IUndoableOperation operation : fHistory.getRedoHistory(fUndoContext)) {
+			if (operation instanceof UndoableTextChange change) {
+				footprint+= change.getMemoryFootprint();
+				containsCurrent|= change == fCurrent;
+			}
+		}
+		if (!containsCurrent)
+			footprint+= fCurrent.getMemoryFootprint();
+		return footprint;
+	}
+
+	/**
+	 * Sets whether the compressed texts of old changes may be moved to a temporary file if the
+	 * undo history exceeds its memory budget. The file is deleted when the last client
+	 * disconnects.
+	 *
+	 * @param spill <code>true</code> to allow moving texts to a temporary file
+	 * @see #setMemoryBudget(long)
+	 * @since 3.14
+	 */
+	public void setSpillToFile(boolean spill) {
+		fSpillToFile= spill;
+		applyMemoryBudget();
+	}
+
+	/**
+	 * Reduces the memory held by the undo history until it meets the memory budget. The oldest
+	 * changes are processed first and the most recent change is left alone. The history is first
+	 * compacted by joining consecutive changes of compound changes, then large texts are
+	 * compressed and, if allowed, moved to a temporary file. As a last resort, the oldest changes
+	 * are removed from the history.
+	 */
+	private void applyMemoryBudget() {
+		if (fMemoryBudget < 0 || !isConnected())
+			return;
+		long footprint= getMemoryFootprint();
+		if (footprint <= fMemoryBudget)
+			return;
+
+		IUndoableOperation[] operations= fHistory.getUndoHistory(fUndoContext);
+		int count= operations.length - 1;
+		for (int stage= COMPACT; stage <= SPILL && footprint > fMemoryBudget; stage++) {
+			if (stage == SPILL && (!fSpillToFile || fSpillFailed))
+				break;
+			for (int i= 0; i < count && footprint > fMemoryBudget; i++) {
+				// spilled texts must stay readable after the history of this manager is disposed
+				if (operations[i] instanceof UndoableTextChange change && change != fCurrent
+						&& (stage != SPILL || change.getContexts().length == 1))
+					footprint-= change.reduceMemoryFootprint(stage);
+			}
+		}
+
+		// the history must stay consistent, hence only the oldest changes can be removed
+		for (int i= 0; i < count && footprint > fMemoryBudget; i++) {
+			if (!(operations[i] instanceof UndoableTextChange change) || change == fCurrent)
+				break;
+			footprint-= change.getMemoryFootprint();
+			if (change.getContexts().length > 1) {
+				change.removeContext(fUndoContext);
+			} else {
+				fHistory.replaceOperation(change, new IUndoableOperation[0]);
+				change.dispose();
+			}
+		}
+	}
+
+	/**
+	 * Returns the temporary file for texts moved out of memory, creating it if needed.
+	 *
+	 * @return the spill file or <code>null</code> if it cannot be used
+	 */
+	private SpillFile getSpillFile() {
+		if (fSpillFile == null && !fSpillFailed) {
+			try {
+				fSpillFile= new SpillFile();
+			} catch (IOException e) {
+				fSpillFailed= true;
+			}
+		}
+		return fSpillFile;
+	}
+
 	/**
 	 * Fires a document undo event to all registered document undo listeners.
 	 * Uses a robust iterator.
@@ -944,6 +1492,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				|| edit instanceof UndoableCompoundTextChange) {
 			fHistory.add(edit);
 			fLastAddedTextEdit= edit;
+			applyMemoryBudget();
 		}
 	}
 
@@ -952,6 +1501,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	 */
 	private void disposeUndoHistory() {
 		fHistory.dispose(fUndoContext, true, true, true);
+		if (fSpillFile != null) {
+			fSpillFile.close();
+			fSpillFile= null;
+		}
+		fSpillFailed= false;
 	}
 
 	/**
@@ -1257,6 +1811,8 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			}
 			// Now update the manager that owns the text edit.
 			if (op instanceof UndoableTextChange) {
+				// the spill file of the original manager is deleted when it is disconnected
+				((UndoableTextChange)op).unspill();
 				((UndoableTextChange)op).fDocumentUndoManager= this;
 			}
 		}
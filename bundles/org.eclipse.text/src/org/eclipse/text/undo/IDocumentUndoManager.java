@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2008 IBM Corporation and others.
+ * Copyright (c) 2006, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -170,4 +170,49 @@ public interface IDocumentUndoManager {
 	 */
 	public void transferUndoHistory(IDocumentUndoManager manager);
 
+	/**
+	 * Sets the memory budget of the undo history. If the estimated memory footprint of the
+	 * history exceeds the budget, the undo manager reduces it, e.g. by compacting or compressing
+	 * the oldest changes, and finally by removing the oldest changes from the history. The most
+	 * recent change is always kept.
+	 * <p>
+	 * The default implementation does nothing.
+	 * </p>
+	 *
+	 * @param bytes the budget in bytes or a negative value if the memory held by the history is
+	 *            not limited
+	 * @see #getMemoryFootprint()
+	 * @since 3.14
+	 */
+	default void setMemoryBudget(long bytes) {
+	}
+
+	/**
+	 * Returns the memory budget of the undo history.
+	 * <p>
+	 * The default implementation returns <code>-1</code>.
+	 * </p>
+	 *
+	 * @return the budget in bytes or <code>-1</code> if the memory held by the history is not
+	 *         limited
+	 * @since 3.14
+	 */
+	default long getMemoryBudget() {
+		return -1;
+	}
+
+	/**
+	 * Returns the estimated number of bytes held by the undo history.
+	 * <p>
+	 * The default implementation returns <code>-1</code>.
+	 * </p>
+	 *
+	 * @return the estimated memory footprint of the history in bytes or <code>-1</code> if
+	 *         unknown
+	 * @since 3.14
+	 */
+	default long getMemoryFootprint() {
+		return -1;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,7 +35,6 @@ import org.eclipse.core.resources.IEncodedStorage;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IStorage;
 
-import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 
 import org.eclipse.ui.IEditorInput;
@@ -43,6 +42,8 @@ import org.eclipse.ui.IStorageEditorInput;
 import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.ui.IWorkbenchWindow;
 
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.LineHashDocument;
+
 import org.eclipse.ui.texteditor.IDocumentProvider;
 import org.eclipse.ui.texteditor.IElementStateListener;
 import org.eclipse.ui.texteditor.ITextEditor;
@@ -54,6 +55,11 @@ import org.eclipse.ui.editors.text.IStorageDocumentProvider;
 /**
  * Default provider for the quickdiff display - the saved document is taken as
  * the reference.
+ * <p>
+ * The saved document is kept as a {@link LineHashDocument}, which holds the
+ * hashes of its lines and its text in compressed form. Quick diff compares the
+ * hashes; the text is only read where a change is reverted or shown in a hover.
+ * </p>
  *
  * @since 3.0
  */
@@ -207,7 +213,7 @@ public class LastSaveReferenceProvider implements IQuickDiffReferenceProvider, I
 
 			if (doc == null)
 				if (force || fDocumentRead)
-					doc= new Document();
+					doc= new LineHashDocument();
 				else
 					return;
 
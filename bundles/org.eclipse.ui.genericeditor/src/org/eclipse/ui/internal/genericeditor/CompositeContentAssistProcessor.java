@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 Red Hat Inc. and others.
+ * Copyright (c) 2016, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,11 @@ import org.eclipse.jface.text.contentassist.IContextInformationValidator;
 /**
  * A content assist processor that delegates all content assist operations to
  * children provided in constructor and aggregates the results.
+ * <p>
+ * Unless content assist runs in the UI thread, proposals and context
+ * information are computed by the children in parallel, each within the time
+ * budget of an {@link ExtensionDispatcher}.
+ * </p>
  *
  * @since 1.0
  */
@@ -35,6 +40,8 @@ public class CompositeContentAssistProcessor implements IContentAssistProcessorE
 
 	private List<IContentAssistProcessor> fContentAssistProcessors;
 
+	private final ExtensionDispatcher fDispatcher = new ExtensionDispatcher("Content assist"); //$NON-NLS-1$
+
 	/**
 	 * Constructor
 	 * 
@@ -48,8 +55,8 @@ public class CompositeContentAssistProcessor implements IContentAssistProcessorE
 	@Override
 	public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int offset) {
 		List<ICompletionProposal> res = new ArrayList<>();
-		for (IContentAssistProcessor processor : this.fContentAssistProcessors) {
-			ICompletionProposal[] proposals = processor.computeCompletionProposals(viewer, offset);
+		for (ICompletionProposal[] proposals : fDispatcher.collect(this.fContentAssistProcessors,
+				processor -> processor.computeCompletionProposals(viewer, offset))) {
 			if (proposals != null) {
 				res.addAll(Arrays.asList(proposals));
 			}
@@ -60,8 +67,8 @@ public class CompositeContentAssistProcessor implements IContentAssistProcessorE
 	@Override
 	public IContextInformation[] computeContextInformation(ITextViewer viewer, int offset) {
 		List<IContextInformation> res = new ArrayList<>();
-		for (IContentAssistProcessor processor : this.fContentAssistProcessors) {
-			IContextInformation[] contextInformation = processor.computeContextInformation(viewer, offset);
+		for (IContextInformation[] contextInformation : fDispatcher.collect(this.fContentAssistProcessors,
+				processor -> processor.computeContextInformation(viewer, offset))) {
 			if (contextInformation != null) {
 				res.addAll(Arrays.asList(contextInformation));
 			}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Red Hat Inc. and others.
+ * Copyright (c) 2017, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.ui.internal.genericeditor;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.IDocument;
@@ -24,10 +25,22 @@ import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 
+/**
+ * A reconciling strategy that delegates to the strategies provided in
+ * constructor.
+ * <p>
+ * The strategies reconcile in parallel; each reconcile waits until all
+ * strategies are done, so a strategy is never run concurrently with itself.
+ * Strategies that take longer than the budget of an
+ * {@link ExtensionDispatcher} are reported.
+ * </p>
+ */
 public class CompositeReconcilerStrategy
 		implements IReconcilingStrategy, IReconcilingStrategyExtension, ITextViewerLifecycle {
 	private List<IReconcilingStrategy> fReconcilingStrategies;
 
+	private final ExtensionDispatcher fDispatcher = new ExtensionDispatcher("Reconciling"); //$NON-NLS-1$
+
 	public CompositeReconcilerStrategy(List<IReconcilingStrategy> strategies) {
 		this.fReconcilingStrategies = strategies;
 	}
@@ -43,11 +56,11 @@ public class CompositeReconcilerStrategy
 
 	@Override
 	public void initialReconcile() {
-		for (IReconcilingStrategy strategy : fReconcilingStrategies) {
-			if (strategy instanceof IReconcilingStrategyExtension) {
-				((IReconcilingStrategyExtension) strategy).initialReconcile();
-			}
-		}
+		List<IReconcilingStrategyExtension> extensions = fReconcilingStrategies.stream()
+				.filter(IReconcilingStrategyExtension.class::isInstance)
+				.map(IReconcilingStrategyExtension.class::cast)
+				.collect(Collectors.toList());
+		fDispatcher.run(extensions, IReconcilingStrategyExtension::initialReconcile);
 	}
 
 	@Override
@@ -59,16 +72,12 @@ public class CompositeReconcilerStrategy
 
 	@Override
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
-		for (IReconcilingStrategy strategy : fReconcilingStrategies) {
-			strategy.reconcile(dirtyRegion, subRegion);
-		}
+		fDispatcher.run(fReconcilingStrategies, strategy -> strategy.reconcile(dirtyRegion, subRegion));
 	}
 
 	@Override
 	public void reconcile(IRegion partition) {
-		for (IReconcilingStrategy strategy : fReconcilingStrategies) {
-			strategy.reconcile(partition);
-		}
+		fDispatcher.run(fReconcilingStrategies, strategy -> strategy.reconcile(partition));
 	}
 
 	@Override
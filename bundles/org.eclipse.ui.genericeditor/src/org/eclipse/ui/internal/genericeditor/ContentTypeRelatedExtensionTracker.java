@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Christoph Läubrich and others.
+ * Copyright (c) 2021, 2026 Christoph Läubrich and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,12 @@
 package org.eclipse.ui.internal.genericeditor;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentType;
@@ -39,6 +43,12 @@ final class ContentTypeRelatedExtensionTracker<T> implements ServiceTrackerCusto
 	private Consumer<LazyServiceSupplier<T>> addAction;
 	private Consumer<LazyServiceSupplier<T>> removeAction;
 	private Display display;
+	/**
+	 * The tracked services by content type, valid as long as the tracking count is
+	 * {@link #cachedTrackingCount}.
+	 */
+	private final Map<IContentType, List<LazyServiceSupplier<T>>> trackedByContentType = new HashMap<>();
+	private int cachedTrackingCount = -1;
 
 	ContentTypeRelatedExtensionTracker(BundleContext bundleContext, Class<T> serviceType, Display display) {
 		this.bundleContext = bundleContext;
@@ -88,6 +98,26 @@ final class ContentTypeRelatedExtensionTracker<T> implements ServiceTrackerCusto
 		return serviceTracker.getTracked().values();
 	}
 
+	/**
+	 * Returns the tracked services for the given content type. The services are
+	 * looked up once per content type until services are added, modified or
+	 * removed.
+	 *
+	 * @param contentType the content type
+	 * @return the tracked services whose content type is the given one
+	 */
+	public List<LazyServiceSupplier<T>> getTracked(IContentType contentType) {
+		synchronized (trackedByContentType) {
+			int trackingCount = serviceTracker.getTrackingCount();
+			if (trackingCount != cachedTrackingCount) {
+				trackedByContentType.clear();
+				cachedTrackingCount = trackingCount;
+			}
+			return trackedByContentType.computeIfAbsent(contentType, type -> getTracked().stream()
+					.filter(supplier -> type.equals(supplier.getContentType())).collect(Collectors.toList()));
+		}
+	}
+
 	public static final class LazyServiceSupplier<S> implements Supplier<S> {
 		private ServiceReference<S> reference;
 		private BundleContext bundleContext;
@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.genericeditor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Calls the extensions contributed for a content type in parallel, so that a
+ * slow contribution does not hold up the others.
+ * <p>
+ * Each extension gets a time budget, counted from the moment its call starts.
+ * Calls whose results are needed right away ({@link #collect(List, Function)})
+ * are awaited until the budget is used up; the results of the calls that
+ * completed are returned, late calls are cancelled and interrupted and their
+ * results are dropped. Calls that must complete ({@link #run(List, Consumer)})
+ * are always awaited. In both cases, calls that could not be started because
+ * all threads are busy are run in the calling thread.
+ * Contributions that exceed their budget are reported in the log, once per
+ * contribution class. A call that fails is logged and yields no result, without
+ * affecting the other calls.
+ * </p>
+ * <p>
+ * The extensions are called one after the other in the calling thread if there
+ * is a single extension, or if the calling thread is a UI thread: extensions
+ * called in the UI thread may access widgets, which is not possible from other
+ * threads.
+ * </p>
+ */
+public final class ExtensionDispatcher {
+
+	/** The default time budget of an extension call, in milliseconds. */
+	public static final long DEFAULT_BUDGET = 1000;
+
+	/**
+	 * The maximum number of threads calling extensions, shared by all
+	 * dispatchers.
+	 */
+	private static final int MAX_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+	/** The classes of the contributions that have been reported as slow. */
+	private static final Set<String> REPORTED = ConcurrentHashMap.newKeySet();
+
+	private final String operation;
+	private final long budget;
+
+	/**
+	 * Creates a dispatcher with the {@link #DEFAULT_BUDGET default budget}.
+	 *
+	 * @param operation the name of the dispatched operation, used in reports
+	 */
+	public ExtensionDispatcher(String operation) {
+		this(operation, DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Creates a dispatcher.
+	 *
+	 * @param operation the name of the dispatched operation, used in reports
+	 * @param budget    the time budget of each extension call, in milliseconds
+	 */
+	public ExtensionDispatcher(String operation, long budget) {
+		this.operation = operation;
+		this.budget = budget;
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable,
+							"Generic Editor Extension Dispatcher #" + THREAD_COUNT.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Calls the given function for all extensions in parallel and collects the
+	 * results that are available within the budget.
+	 *
+	 * @param extensions the extensions
+	 * @param call       the call of an extension, may return <code>null</code>
+	 * @return the results, in the order of the extensions; an element is
+	 *         <code>null</code> if the extension returned <code>null</code>,
+	 *         failed or exceeded its budget
+	 */
+	public <E, R> List<R> collect(List<E> extensions, Function<E, R> call) {
+		List<R> results = new ArrayList<>(extensions.size());
+		if (!isParallel(extensions)) {
+			for (E extension : extensions) {
+				results.add(safeCall(extension, call));
+			}
+			return results;
+		}
+		List<Call<R>> tasks = new ArrayList<>(extensions.size());
+		for (E extension : extensions) {
+			Call<R> task = new Call<>(() -> safeCall(extension, call));
+			EXECUTOR.execute(task);
+			tasks.add(task);
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < tasks.size(); i++) {
+			Call<R> task = tasks.get(i);
+			E extension = extensions.get(i);
+			if (interrupted) {
+				task.cancel(true);
+				EXECUTOR.remove(task);
+				results.add(null);
+			} else if (EXECUTOR.getActiveCount() >= MAX_THREADS && runIfQueued(task)) {
+				results.add(getDone(extension, task));
+			} else {
+				try {
+					results.add(await(extension, task));
+				} catch (InterruptedException e) {
+					interrupted = true;
+					task.cancel(true);
+					results.add(null);
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return results;
+	}
+
+	/**
+	 * Calls the given procedure for all extensions in parallel and waits until all
+	 * calls have completed. Calls that take longer than the budget are reported.
+	 *
+	 * @param extensions the extensions
+	 * @param call       the call of an extension
+	 */
+	public <E> void run(List<E> extensions, Consumer<E> call) {
+		if (!isParallel(extensions)) {
+			for (E extension : extensions) {
+				safeCall(extension, e -> {
+					call.accept(e);
+					return null;
+				});
+			}
+			return;
+		}
+		List<Call<Void>> tasks = new ArrayList<>(extensions.size());
+		for (E extension : extensions) {
+			Call<Void> task = new Call<>(() -> {
+				safeCall(extension, e -> {
+					call.accept(e);
+					return null;
+				});
+				return null;
+			});
+			EXECUTOR.execute(task);
+			tasks.add(task);
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < tasks.size(); i++) {
+			Call<Void> task = tasks.get(i);
+			// not started yet, all threads are busy
+			runIfQueued(task);
+			while (true) {
+				try {
+					task.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					// cannot happen, the call is run safely
+					break;
+				}
+			}
+			long elapsed = task.getElapsedMillis();
+			if (elapsed > budget) {
+				report(extensions.get(i), "took " + elapsed + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static boolean isParallel(List<?> extensions) {
+		return extensions.size() > 1 && Display.getCurrent() == null;
+	}
+
+	/**
+	 * Waits for the given call until its budget, counted from the moment the call
+	 * started, is used up.
+	 */
+	private <E, R> R await(E extension, Call<R> task) throws InterruptedException {
+		while (true) {
+			try {
+				return task.get(Math.max(0, task.getDeadline(budget) - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				if (runIfQueued(task)) {
+					return getDone(extension, task);
+				}
+				if (task.getDeadline(budget) - System.nanoTime() <= 0) {
+					task.cancel(true);
+					report(extension, "exceeded its budget of " + budget + " ms, its result is ignored"); //$NON-NLS-1$ //$NON-NLS-2$
+					return null;
+				}
+				// started while waiting, its budget has just begun
+			} catch (ExecutionException e) {
+				// cannot happen, the call is run safely
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Runs the given call in the calling thread if no thread has started it yet.
+	 *
+	 * @return <code>true</code> if the call has been run
+	 */
+	private static boolean runIfQueued(Call<?> task) {
+		if (EXECUTOR.remove(task)) {
+			task.run();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the result of a call that has been run in the calling thread.
+	 */
+	private <E, R> R getDone(E extension, Call<R> task) {
+		long elapsed = task.getElapsedMillis();
+		if (elapsed > budget) {
+			report(extension, "took " + elapsed + " ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try {
+			return task.get();
+		} catch (InterruptedException | ExecutionException e) {
+			// cannot happen, the call is done and run safely
+			return null;
+		}
+	}
+
+	private static <E, R> R safeCall(E extension, Function<E, R> call) {
+		AtomicReference<R> result = new AtomicReference<>();
+		SafeRunner.run(() -> result.set(call.apply(extension)));
+		return result.get();
+	}
+
+	/**
+	 * An extension call that remembers when it started and how long it took.
+	 */
+	private static final class Call<R> extends FutureTask<R> {
+
+		private volatile boolean started;
+		private volatile long startTime;
+		private volatile long endTime;
+
+		Call(Callable<R> callable) {
+			super(callable);
+		}
+
+		@Override
+		public void run() {
+			startTime = System.nanoTime();
+			started = true;
+			super.run();
+		}
+
+		@Override
+		protected void set(R result) {
+			// before the waiting threads are released
+			endTime = System.nanoTime();
+			super.set(result);
+		}
+
+		/**
+		 * Returns the time at which the given budget is used up, counted from the
+		 * start of the call, or from now if the call has not started yet.
+		 */
+		long getDeadline(long budget) {
+			return (started ? startTime : System.nanoTime()) + TimeUnit.MILLISECONDS.toNanos(budget);
+		}
+
+		/**
+		 * Returns the time the completed call took, in milliseconds.
+		 */
+		long getElapsedMillis() {
+			return started ? TimeUnit.NANOSECONDS.toMillis(endTime - startTime) : 0;
+		}
+	}
+
+	private void report(Object extension, String problem) {
+		String contribution = extension.getClass().getName();
+		if (!REPORTED.add(contribution)) {
+			return;
+		}
+		GenericEditorPlugin plugin = GenericEditorPlugin.getDefault();
+		if (plugin != null) {
+			plugin.getLog().log(new Status(IStatus.WARNING, GenericEditorPlugin.BUNDLE_ID,
+					operation + " of " + contribution + ' ' + problem)); //$NON-NLS-1$
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Christoph Läubrich and others.
+ * Copyright (c) 2021, 2026 Christoph Läubrich and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -123,8 +123,8 @@ public class GenericEditorContentAssistant extends ContentAssistant {
 	 */
 	public void updateTokens(IDocument document) {
 		updateProcessors(document);
-		contentAssistProcessorTracker.getTracked().stream().filter(s -> s.isPresent()).map(s -> s.get())
-				.forEach(p -> updateProcessorToken(p, document));
+		types.stream().flatMap(type -> contentAssistProcessorTracker.getTracked(type).stream())
+				.filter(s -> s.isPresent()).map(s -> s.get()).forEach(p -> updateProcessorToken(p, document));
 	}
 
 	private void updateProcessors(IDocument iDocument) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2023 IBM Corporation and others.
+ * Copyright (c) 2009, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@
 package org.eclipse.ui.internal.genericeditor.folding;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -23,13 +24,19 @@ import java.util.Map;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModelEvent;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModelListener;
+import org.eclipse.jface.text.source.IAnnotationModelListenerExtension;
 import org.eclipse.jface.text.source.projection.IProjectionListener;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
 import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
@@ -42,15 +49,100 @@ import org.eclipse.swt.widgets.Canvas;
 /**
  * Indent folding strategy to fold code by using indentation. The folding
  * strategy must be associated with a viewer for it to function.
+ * <p>
+ * The indentation of the lines is remembered and only the lines changed since
+ * the last reconcile are read again. The folding regions are re-derived only
+ * between the closest unchanged lines without indentation before and after the
+ * changed lines, since no other region can depend on the changed lines, and the
+ * differences to the folding annotations in between are applied as one batch
+ * that keeps the annotations of unchanged regions.
+ * </p>
  */
 public class IndentFoldingStrategy implements IReconcilingStrategy, IReconcilingStrategyExtension, IProjectionListener {
 
+	private static final int TAB_SIZE = 1;
+	private static final int MINIMUM_RANGE_SIZE = 1;
+
+	/** The state of a line that has to be read from the document. */
+	private static final int UNKNOWN = -1;
+	/** The flag of a line state for a line that starts with the keyword. */
+	private static final int KEYWORD = 1 << 30;
+	/** The flag of a line state for a line that is empty after trimming. */
+	private static final int BLANK = 1 << 29;
+	/** The mask of the indentation level plus one in a line state. */
+	private static final int INDENT_MASK = BLANK - 1;
+
 	private IDocument document;
 	private ProjectionViewer viewer;
 	private ProjectionAnnotationModel projectionAnnotationModel;
+	private IAnnotationModel listenedAnnotationModel;
 	private final String lineStartsWithKeyword;
 	private boolean hasExternalFoldingAnnotations = false;
 
+	/** Guards the line states, the dirty lines and the change counters. */
+	private final Object lock = new Object();
+	/**
+	 * The state of each line of the document, or <code>null</code> if the lines
+	 * have to be read from scratch.
+	 */
+	private int[] lineStates;
+	private int lineCount;
+	/**
+	 * The lines whose folding regions have to be derived again, or
+	 * <code>-1</code> if there are none.
+	 */
+	private int dirtyStart = -1;
+	private int dirtyEnd = -1;
+	/** The number of document changes, to detect changes during a reconcile. */
+	private int changeCount;
+	/** The first and last line of the change being applied to the document. */
+	private int[] pendingChange;
+	/** The thread applying folding annotations to the annotation model. */
+	private volatile Thread applyingThread;
+
+	private final IDocumentListener documentListener = new IDocumentListener() {
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+			synchronized (lock) {
+				changeCount++;
+				if (lineStates == null || pendingChange != null) {
+					invalidate();
+					return;
+				}
+				try {
+					IDocument changedDocument = event.getDocument();
+					pendingChange = new int[] { changedDocument.getLineOfOffset(event.getOffset()),
+							changedDocument.getLineOfOffset(event.getOffset() + event.getLength()) };
+				} catch (BadLocationException e) {
+					invalidate();
+				}
+			}
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			synchronized (lock) {
+				changeCount++;
+				int[] change = pendingChange;
+				pendingChange = null;
+				if (lineStates == null || change == null) {
+					invalidate();
+					return;
+				}
+				try {
+					String text = event.getText();
+					int newEndLine = event.getDocument()
+							.getLineOfOffset(event.getOffset() + (text != null ? text.length() : 0));
+					replaceLines(change[0], change[1], newEndLine);
+				} catch (BadLocationException e) {
+					invalidate();
+				}
+			}
+		}
+	};
+
+	private final IAnnotationModelListener annotationModelListener = new AnnotationModelListener();
+
 	public IndentFoldingStrategy() {
 		this(null);
 	}
@@ -117,6 +209,37 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 		}
 	}
 
+	/**
+	 * Keeps track of folding annotations contributed by others. Changes of the
+	 * folding annotations of this strategy, like the ones it applies or expanding
+	 * and collapsing them, are ignored.
+	 */
+	private class AnnotationModelListener implements IAnnotationModelListener, IAnnotationModelListenerExtension {
+
+		@Override
+		public void modelChanged(IAnnotationModel model) {
+			modelChanged(new AnnotationModelEvent(model));
+		}
+
+		@Override
+		public void modelChanged(AnnotationModelEvent event) {
+			if (applyingThread == Thread.currentThread()) {
+				return;
+			}
+			if (!event.isWorldChange() && event.getAddedAnnotations().length == 0
+					&& event.getRemovedAnnotations().length == 0
+					&& Arrays.stream(event.getChangedAnnotations()).allMatch(FoldingAnnotation.class::isInstance)) {
+				return;
+			}
+			hasExternalFoldingAnnotations = containsExternalFoldingAnnotations();
+			if (hasExternalFoldingAnnotations) {
+				removeCurrentFoldingAnnotations();
+			} else {
+				initialReconcile();
+			}
+		}
+	}
+
 	/**
 	 * The folding strategy must be associated with a viewer for it to function
 	 *
@@ -144,31 +267,46 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 
 	@Override
 	public void setDocument(IDocument document) {
-		this.document = document;
+		if (this.document != null) {
+			this.document.removeDocumentListener(documentListener);
+		}
+		synchronized (lock) {
+			this.document = document;
+			pendingChange = null;
+			invalidate();
+		}
+		if (document != null) {
+			document.addDocumentListener(documentListener);
+		}
 	}
 
 	@Override
 	public void projectionDisabled() {
 		projectionAnnotationModel = null;
+		setListenedAnnotationModel(null);
 	}
 
 	@Override
 	public void projectionEnabled() {
 		if (viewer != null) {
 			projectionAnnotationModel = viewer.getProjectionAnnotationModel();
-			if (projectionAnnotationModel != null) {
-				projectionAnnotationModel.addAnnotationModelListener(model -> {
-					IndentFoldingStrategy.this.hasExternalFoldingAnnotations = containsExternalFoldingAnnotations();
-					if (hasExternalFoldingAnnotations) {
-						removeCurrentFoldingAnnotations();
-					} else {
-						initialReconcile();
-					}
-				});
+			setListenedAnnotationModel(projectionAnnotationModel);
+			synchronized (lock) {
+				invalidate();
 			}
 		}
 	}
 
+	private void setListenedAnnotationModel(IAnnotationModel model) {
+		if (listenedAnnotationModel != null) {
+			listenedAnnotationModel.removeAnnotationModelListener(annotationModelListener);
+		}
+		listenedAnnotationModel = model;
+		if (model != null) {
+			model.addAnnotationModelListener(annotationModelListener);
+		}
+	}
+
 	private static class LineIndent {
 		public int line;
 		public final int indent;
@@ -200,129 +338,292 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 		Map<Annotation, Position> additions = new HashMap<>();
 		Iterator<Annotation> iter = getAnnotationIterator(null);
 		deletions = getAllAnnotationsForDeletion(iter);
+		synchronized (lock) {
+			invalidate();
+		}
 		projectionAnnotationModel.modifyAnnotations(deletions.toArray(new Annotation[1]), additions,
 				modifications.toArray(new Annotation[0]));
 	}
 
+	/**
+	 * Forgets the line states, so that the next reconcile reads all lines and
+	 * derives all folding regions again. Must be called with the lock held.
+	 */
+	private void invalidate() {
+		lineStates = null;
+		lineCount = 0;
+		dirtyStart = -1;
+		dirtyEnd = -1;
+	}
+
+	/**
+	 * Replaces the states of the given lines with the unknown states of the lines
+	 * that replaced them, and marks the new lines as dirty. Must be called with
+	 * the lock held.
+	 *
+	 * @param startLine  the first replaced line
+	 * @param oldEndLine the last replaced line, before the change
+	 * @param newEndLine the last replacing line, after the change
+	 */
+	private void replaceLines(int startLine, int oldEndLine, int newEndLine) {
+		int delta = newEndLine - oldEndLine;
+		if (delta != 0) {
+			int newLineCount = lineCount + delta;
+			if (newLineCount > lineStates.length) {
+				lineStates = Arrays.copyOf(lineStates, Math.max(newLineCount, lineStates.length * 3 / 2));
+			}
+			System.arraycopy(lineStates, oldEndLine + 1, lineStates, newEndLine + 1, lineCount - oldEndLine - 1);
+			lineCount = newLineCount;
+		}
+		Arrays.fill(lineStates, startLine, newEndLine + 1, UNKNOWN);
+
+		if (dirtyStart == -1) {
+			dirtyStart = startLine;
+			dirtyEnd = newEndLine;
+		} else {
+			// dirty lines that were replaced are covered by the new lines
+			int shiftedStart = dirtyStart > oldEndLine ? dirtyStart + delta : Math.min(dirtyStart, startLine);
+			int shiftedEnd = dirtyEnd > oldEndLine ? dirtyEnd + delta
+					: dirtyEnd >= startLine ? newEndLine : dirtyEnd;
+			dirtyStart = Math.min(shiftedStart, startLine);
+			dirtyEnd = Math.max(shiftedEnd, newEndLine);
+		}
+	}
+
 	@Override
 	public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
 		if (projectionAnnotationModel != null && !hasExternalFoldingAnnotations) {
+			try {
+				reconcileDirtyLines();
+			} catch (BadLocationException e) {
+				// the document has been changed meanwhile, the next reconcile derives the
+				// regions again
+			}
+		}
+	}
 
-			// these are what are passed off to the annotation model to
-			// actually create and maintain the annotations
-			List<Annotation> modifications = new ArrayList<>();
-			List<FoldingAnnotation> deletions = new ArrayList<>();
-			List<FoldingAnnotation> existing = new ArrayList<>();
-			Map<Annotation, Position> additions = new HashMap<>();
-
-			// find and mark all folding annotations with length 0 for deletion
-			markInvalidAnnotationsForDeletion(dirtyRegion, deletions, existing);
+	/**
+	 * Reads the changed lines, derives the folding regions around them and
+	 * applies the differences to the annotation model. Nothing is kept if the
+	 * document is changed meanwhile, the dirty lines are then derived again by the
+	 * reconcile that follows the change.
+	 */
+	private void reconcileDirtyLines() throws BadLocationException {
+		var thisDocument = document;
+		if (thisDocument == null) {
+			// Exit as soon as possible if uninstalled
+			return;
+		}
 
-			List<LineIndent> previousRegions = new ArrayList<>();
+		// 1. read the lines with unknown state
+		int stamp;
+		int[] states;
+		int start;
+		boolean all;
+		synchronized (lock) {
+			if (pendingChange != null) {
+				return;
+			}
+			stamp = changeCount;
+			all = lineStates == null;
+			if (all) {
+				states = null;
+				start = 0;
+			} else if (dirtyStart == -1) {
+				return;
+			} else {
+				states = Arrays.copyOfRange(lineStates, dirtyStart, dirtyEnd + 1);
+				start = dirtyStart;
+			}
+		}
+		int numberOfLines = thisDocument.getNumberOfLines();
+		if (all) {
+			String text = thisDocument.get();
+			states = new int[numberOfLines];
+			for (int line = 0; line < numberOfLines; line++) {
+				IRegion info = thisDocument.getLineInformation(line);
+				states[line] = computeLineState(text, info.getOffset(), info.getOffset() + info.getLength());
+			}
+		} else {
+			for (int i = 0; i < states.length; i++) {
+				if (states[i] == UNKNOWN) {
+					IRegion info = thisDocument.getLineInformation(start + i);
+					String line = thisDocument.get(info.getOffset(), info.getLength());
+					states[i] = computeLineState(line, 0, line.length());
+				}
+			}
+		}
 
-			int tabSize = 1;
-			int minimumRangeSize = 1;
-			try {
-				var thisDocument = document;
-				if (thisDocument == null) {
-					// Exit as soon as possible if uninstalled
+		// 2. derive the folding regions around the dirty lines
+		int windowStart;
+		int windowEnd;
+		List<int[]> regions = new ArrayList<>();
+		synchronized (lock) {
+			if (changeCount != stamp) {
+				return;
+			}
+			if (all) {
+				lineStates = states;
+				lineCount = numberOfLines;
+				dirtyStart = 0;
+				dirtyEnd = numberOfLines - 1;
+			} else {
+				if (lineCount != numberOfLines) {
+					// the changes could not be followed, read all lines
+					invalidate();
+					reconcileDirtyLines();
 					return;
 				}
+				System.arraycopy(states, 0, lineStates, start, states.length);
+			}
+			windowStart = dirtyStart - 1;
+			while (windowStart > 0 && !isTopLevel(lineStates[windowStart])) {
+				windowStart--;
+			}
+			windowStart = Math.max(windowStart, 0);
+			windowEnd = dirtyEnd + 1;
+			while (windowEnd < lineCount && !isTopLevel(lineStates[windowEnd])) {
+				windowEnd++;
+			}
+			computeRegions(windowStart, windowEnd, regions);
+			// the window is derived again if the document is changed before the
+			// annotations are applied
+			dirtyStart = windowStart;
+			dirtyEnd = windowEnd - 1;
+		}
 
-				// Today we recompute annotation from the whole document each
-				// time.
-				// performance s good even with large document, but it should be
-				// better to loop for only DirtyRegion (and before/after)
-				// int offset = dirtyRegion.getOffset();
-				// int length = dirtyRegion.getLength();
-				// int startLine = 0; //document.getLineOfOffset(offset);
-				int endLine = thisDocument.getNumberOfLines() - 1; // startLine +
-																// document.getNumberOfLines(offset,
-																// length) - 1;
-
-				// sentinel, to make sure there's at least one entry
-				previousRegions.add(new LineIndent(endLine + 1, -1));
-
-				int lastLineWhichIsNotEmpty = 0;
-				int lineEmptyCount = 0;
-				Integer lastLineForKeyword = null;
-				int line = endLine;
-				for (line = endLine; line >= 0 && this.document != null; line--) {
-					int lineOffset = thisDocument.getLineOffset(line);
-					String delim = thisDocument.getLineDelimiter(line);
-					int lineLength = thisDocument.getLineLength(line) - (delim != null ? delim.length() : 0);
-					String lineContent = thisDocument.get(lineOffset, lineLength);
-
-					LineState state = getLineState(lineContent, lastLineForKeyword);
-					switch (state) {
-					case StartWithKeyWord:
-						lineEmptyCount = 0;
-						lastLineWhichIsNotEmpty = line;
-						if (lastLineForKeyword == null) {
-							lastLineForKeyword = line;
-						}
-						break;
-					case EmptyLine:
-						lineEmptyCount++;
-						break;
-					default:
-						addAnnotationForKeyword(modifications, deletions, existing, additions,
-								line + 1 + lineEmptyCount, lastLineForKeyword);
-						lastLineForKeyword = null;
-						lineEmptyCount = 0;
-						lastLineWhichIsNotEmpty = line;
-						int indent = computeIndentLevel(lineContent, tabSize);
-						if (indent == -1) {
-							continue; // only whitespace
-						}
-
-						LineIndent previous = previousRegions.get(previousRegions.size() - 1);
-						if (previous.indent > indent) {
-							// discard all regions with larger indent
-							do {
-								previousRegions.remove(previousRegions.size() - 1);
-								previous = previousRegions.get(previousRegions.size() - 1);
-							} while (previous.indent > indent);
-
-							// new folding range
-							int endLineNumber = previous.line - 1;
-							if (endLineNumber - line >= minimumRangeSize) {
-								updateAnnotation(modifications, deletions, existing, additions, line, endLineNumber);
-							}
-						}
-						if (previous.indent == indent) {
-							previous.line = line;
-						} else { // previous.indent < indent
-							// new region with a bigger indent
-							previousRegions.add(new LineIndent(line, indent));
-						}
-					}
+		// 3. apply the differences to the folding annotations starting in the window
+		int windowOffset = thisDocument.getLineOffset(windowStart);
+		int windowEndOffset = windowEnd < numberOfLines ? thisDocument.getLineOffset(windowEnd)
+				: thisDocument.getLength() + 1;
+		List<Position> positions = new ArrayList<>(regions.size());
+		for (int[] region : regions) {
+			int startOffset = thisDocument.getLineOffset(region[0]);
+			int endOffset = thisDocument.getLineOffset(region[1]) + thisDocument.getLineLength(region[1]);
+			positions.add(new Position(startOffset, endOffset - startOffset));
+		}
+		ProjectionAnnotationModel model = projectionAnnotationModel;
+		if (model == null || this.document == null) {
+			return;
+		}
+		List<Annotation> modifications = new ArrayList<>();
+		List<FoldingAnnotation> deletions = new ArrayList<>();
+		Map<Annotation, Position> additions = new HashMap<>();
+		Map<Integer, FoldingAnnotation> existing = new HashMap<>();
+		Iterator<Annotation> iter = model.getAnnotationIterator(windowOffset, windowEndOffset - windowOffset, false,
+				true);
+		while (iter.hasNext()) {
+			Annotation anno = iter.next();
+			if (anno instanceof FoldingAnnotation) {
+				FoldingAnnotation folding = (FoldingAnnotation) anno;
+				Position pos = model.getPosition(folding);
+				if (pos == null || pos.length == 0 || existing.putIfAbsent(pos.offset, folding) != null) {
+					deletions.add(folding);
 				}
-				addAnnotationForKeyword(modifications, deletions, existing, additions, lastLineWhichIsNotEmpty,
-						lastLineForKeyword);
-			} catch (BadLocationException e) {
-				// should never done
-				e.printStackTrace();
 			}
+		}
+		for (Position position : positions) {
+			FoldingAnnotation existingAnnotation = existing.remove(position.offset);
+			if (existingAnnotation != null) {
+				updateAnnotations(existingAnnotation, position, modifications, deletions);
+			} else {
+				additions.put(new FoldingAnnotation(false), position);
+			}
+		}
+		deletions.addAll(existing.values());
+
+		// be sure projection has not been disabled
+		if (projectionAnnotationModel != null
+				&& (!deletions.isEmpty() || !additions.isEmpty() || !modifications.isEmpty())) {
+			// send the calculated updates to the annotations to the
+			// annotation model
+			applyingThread = Thread.currentThread();
+			try {
+				projectionAnnotationModel.modifyAnnotations(deletions.toArray(new Annotation[0]), additions,
+						modifications.toArray(new Annotation[0]));
+			} finally {
+				applyingThread = null;
+			}
+		}
+		synchronized (lock) {
+			if (changeCount == stamp) {
+				dirtyStart = -1;
+				dirtyEnd = -1;
+			}
+		}
+	}
+
+	/**
+	 * Derives the folding regions that start in the given window of lines. The
+	 * window must start at the first line or at a top level line, and end at the
+	 * end of the document or at a top level line. Must be called with the lock
+	 * held.
+	 *
+	 * @param windowStart the first line of the window
+	 * @param windowEnd   the end of the window (exclusive)
+	 * @param regions     the list to add the regions to, as
+	 *                    <code>{ startLine, endLine }</code>
+	 */
+	private void computeRegions(int windowStart, int windowEnd, List<int[]> regions) {
+		List<LineIndent> previousRegions = new ArrayList<>();
+		// sentinel, to make sure there's at least one entry
+		previousRegions.add(new LineIndent(windowEnd, -1));
+
+		int lastLineWhichIsNotEmpty = 0;
+		int lineEmptyCount = 0;
+		Integer lastLineForKeyword = null;
+		for (int line = windowEnd - 1; line >= windowStart; line--) {
+			int lineState = lineStates[line];
+			LineState state = getLineState(lineState, lastLineForKeyword);
+			switch (state) {
+			case StartWithKeyWord:
+				lineEmptyCount = 0;
+				lastLineWhichIsNotEmpty = line;
+				if (lastLineForKeyword == null) {
+					lastLineForKeyword = line;
+				}
+				break;
+			case EmptyLine:
+				lineEmptyCount++;
+				break;
+			default:
+				addRegionForKeyword(regions, line + 1 + lineEmptyCount, lastLineForKeyword);
+				lastLineForKeyword = null;
+				lineEmptyCount = 0;
+				lastLineWhichIsNotEmpty = line;
+				int indent = getIndent(lineState);
+				if (indent == -1) {
+					continue; // only whitespace
+				}
 
-			// be sure projection has not been disabled
-			if (projectionAnnotationModel != null) {
-				if (!existing.isEmpty()) {
-					deletions.addAll(existing);
+				LineIndent previous = previousRegions.get(previousRegions.size() - 1);
+				if (previous.indent > indent) {
+					// discard all regions with larger indent
+					do {
+						previousRegions.remove(previousRegions.size() - 1);
+						previous = previousRegions.get(previousRegions.size() - 1);
+					} while (previous.indent > indent);
+
+					// new folding range
+					int endLineNumber = previous.line - 1;
+					if (endLineNumber - line >= MINIMUM_RANGE_SIZE) {
+						regions.add(new int[] { line, endLineNumber });
+					}
+				}
+				if (previous.indent == indent) {
+					previous.line = line;
+				} else { // previous.indent < indent
+					// new region with a bigger indent
+					previousRegions.add(new LineIndent(line, indent));
 				}
-				// send the calculated updates to the annotations to the
-				// annotation model
-				projectionAnnotationModel.modifyAnnotations(deletions.toArray(new Annotation[1]), additions,
-						modifications.toArray(new Annotation[0]));
 			}
 		}
+		addRegionForKeyword(regions, lastLineWhichIsNotEmpty, lastLineForKeyword);
 	}
 
-	private void addAnnotationForKeyword(List<Annotation> modifications, List<FoldingAnnotation> deletions,
-			List<FoldingAnnotation> existing, Map<Annotation, Position> additions, int startLine,
-			Integer lastLineForKeyword) throws BadLocationException {
+	private static void addRegionForKeyword(List<int[]> regions, int startLine, Integer lastLineForKeyword) {
 		if (lastLineForKeyword != null) {
-			updateAnnotation(modifications, deletions, existing, additions, startLine, lastLineForKeyword);
+			regions.add(new int[] { startLine, lastLineForKeyword });
 		}
 	}
 
@@ -333,37 +634,75 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 	/**
 	 * Returns the line state for line which starts with a given keyword.
 	 *
-	 * @param lineContent        line content.
+	 * @param lineState          the state of the line, see
+	 *                           {@link #computeLineState(String, int, int)}.
 	 * @param lastLineForKeyword last line for the given keyword.
 	 */
-	private LineState getLineState(String lineContent, Integer lastLineForKeyword) {
+	private LineState getLineState(int lineState, Integer lastLineForKeyword) {
 		if (lineStartsWithKeyword == null) {
 			// none keyword defined.
 			return LineState.DontStartWithKeyWord;
 		}
-		if (lineContent != null && lineContent.trim().startsWith(lineStartsWithKeyword)) {
+		if ((lineState & KEYWORD) != 0) {
 			// The line starts with the given keyword (ex: starts with "import")
 			return LineState.StartWithKeyWord;
 		}
-		if (lastLineForKeyword != null && (lineContent == null || lineContent.trim().isEmpty())) {
+		if (lastLineForKeyword != null && (lineState & BLANK) != 0) {
 			// a last line for keyword was defined, line is empty
 			return LineState.EmptyLine;
 		}
 		return LineState.DontStartWithKeyWord;
 	}
 
+	/**
+	 * Computes the state of a line: its indentation level plus one, together with
+	 * the {@link #KEYWORD} and {@link #BLANK} flags if a keyword is defined.
+	 *
+	 * @param text  the text containing the line
+	 * @param start the start of the line in the text
+	 * @param end   the end of the line in the text, without the delimiter
+	 * @return the state of the line
+	 */
+	private int computeLineState(String text, int start, int end) {
+		int state = Math.min(computeIndentLevel(text, start, end, TAB_SIZE) + 1, INDENT_MASK);
+		if (lineStartsWithKeyword != null) {
+			String trimmed = text.substring(start, end).trim();
+			if (trimmed.startsWith(lineStartsWithKeyword)) {
+				state |= KEYWORD;
+			}
+			if (trimmed.isEmpty()) {
+				state |= BLANK;
+			}
+		}
+		return state;
+	}
+
+	private static int getIndent(int lineState) {
+		return (lineState & INDENT_MASK) - 1;
+	}
+
+	/**
+	 * Returns whether no folding region can contain the given line, as it has no
+	 * indentation and does not start with the keyword.
+	 */
+	private static boolean isTopLevel(int lineState) {
+		return (lineState & KEYWORD) == 0 && getIndent(lineState) == 0;
+	}
+
 	/**
 	 * Compute indentation level of the given line by using the given tab size.
 	 *
-	 * @param line    the line text.
+	 * @param text    the text containing the line.
+	 * @param start   the start of the line in the text.
+	 * @param end     the end of the line in the text.
 	 * @param tabSize the tab size.
 	 * @return the indentation level of the given line by using the given tab size.
 	 */
-	private static int computeIndentLevel(String line, int tabSize) {
-		int i = 0;
+	private static int computeIndentLevel(String text, int start, int end, int tabSize) {
+		int i = start;
 		int indent = 0;
-		while (i < line.length()) {
-			char ch = line.charAt(i);
+		while (i < end) {
+			char ch = text.charAt(i);
 			if (ch == ' ') {
 				indent++;
 			} else if (ch == '\t') {
@@ -373,7 +712,7 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 			}
 			i++;
 		}
-		if (i == line.length()) {
+		if (i == end) {
 			return -1; // line only consists of whitespace
 		}
 		return indent;
@@ -400,30 +739,6 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 		return annoIter;
 	}
 
-	/**
-	 * Update annotations.
-	 *
-	 * @param modifications the folding annotations to update.
-	 * @param deletions     the folding annotations to delete.
-	 * @param existing      the existing folding annotations.
-	 * @param additions     annoation to add
-	 * @param line          the line index
-	 * @param endLineNumber the end line number
-	 */
-	private void updateAnnotation(List<Annotation> modifications, List<FoldingAnnotation> deletions,
-			List<FoldingAnnotation> existing, Map<Annotation, Position> additions, int line, Integer endLineNumber)
-			throws BadLocationException {
-		int startOffset = document.getLineOffset(line);
-		int endOffset = document.getLineOffset(endLineNumber) + document.getLineLength(endLineNumber);
-		Position newPos = new Position(startOffset, endOffset - startOffset);
-		if (!existing.isEmpty()) {
-			FoldingAnnotation existingAnnotation = existing.remove(existing.size() - 1);
-			updateAnnotations(existingAnnotation, newPos, modifications, deletions);
-		} else {
-			additions.put(new FoldingAnnotation(false), newPos);
-		}
-	}
-
 	/**
 	 * Update annotations.
 	 *
@@ -456,39 +771,6 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 		}
 	}
 
-	/**
-	 * <p>
-	 * Searches the given {@link DirtyRegion} for annotations that now have a length
-	 * of 0. This is caused when something that was being folded has been deleted.
-	 * These {@link FoldingAnnotation}s are then added to the {@link List} of
-	 * {@link FoldingAnnotation}s to be deleted
-	 * </p>
-	 *
-	 * @param dirtyRegion find the now invalid {@link FoldingAnnotation}s in this
-	 *                    {@link DirtyRegion}
-	 * @param deletions   the current list of {@link FoldingAnnotation}s marked for
-	 *                    deletion that the newly found invalid
-	 *                    {@link FoldingAnnotation}s will be added to
-	 */
-	protected void markInvalidAnnotationsForDeletion(DirtyRegion dirtyRegion, List<FoldingAnnotation> deletions,
-			List<FoldingAnnotation> existing) {
-		Iterator<Annotation> iter = getAnnotationIterator(dirtyRegion);
-		if (iter != null) {
-			while (iter.hasNext()) {
-				Annotation anno = iter.next();
-				if (anno instanceof FoldingAnnotation) {
-					FoldingAnnotation folding = (FoldingAnnotation) anno;
-					Position pos = projectionAnnotationModel.getPosition(anno);
-					if (pos.length == 0) {
-						deletions.add(folding);
-					} else {
-						existing.add(folding);
-					}
-				}
-			}
-		}
-	}
-
 	protected List<FoldingAnnotation> getAllAnnotationsForDeletion(Iterator<Annotation> iter) {
 		List<FoldingAnnotation> deletions = new ArrayList<>();
 		if (iter != null) {
@@ -515,6 +797,14 @@ public class IndentFoldingStrategy implements IReconcilingStrategy, IReconciling
 
 	@Override
 	public void initialReconcile() {
-		reconcile(new DirtyRegion(0, document.getLength(), DirtyRegion.INSERT, document.get()), null);
+		var thisDocument = document;
+		if (thisDocument == null) {
+			return;
+		}
+		synchronized (lock) {
+			invalidate();
+		}
+		// the text of the region is not used, all lines are read again
+		reconcile(new DirtyRegion(0, thisDocument.getLength(), DirtyRegion.INSERT, null), null);
 	}
-}
\ No newline at end of file
+}
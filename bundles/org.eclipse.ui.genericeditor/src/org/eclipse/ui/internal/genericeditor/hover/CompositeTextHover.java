@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2017 Red Hat Inc. and others.
+ * Copyright (c) 2016, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,10 +28,16 @@ import org.eclipse.jface.text.ITextHoverExtension;
 import org.eclipse.jface.text.ITextHoverExtension2;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.Region;
+import org.eclipse.ui.internal.genericeditor.ExtensionDispatcher;
 
 /**
  * A text hover that delegates its operations to children
  * provided in constructor and returns the first interesting result.
+ * <p>
+ * The children compute their information in parallel, each within the
+ * time budget of an {@link ExtensionDispatcher}. Their regions are
+ * computed one after the other in the calling thread.
+ * </p>
  *
  * @since 1.0
  */
@@ -40,6 +46,7 @@ public class CompositeTextHover implements ITextHover, ITextHoverExtension, ITex
 	private final List<ITextHover> allHovers;
 	private LinkedHashMap<ITextHover, IRegion> regions = null;
 	private LinkedHashMap<ITextHover, Object> currentHovers = null;
+	private final ExtensionDispatcher dispatcher = new ExtensionDispatcher("Hover"); //$NON-NLS-1$
 
 	public CompositeTextHover(List<ITextHover> hoversToConsider) {
 		Assert.isNotNull(hoversToConsider);
@@ -50,16 +57,17 @@ public class CompositeTextHover implements ITextHover, ITextHoverExtension, ITex
 	@Override
 	public Object getHoverInfo2(ITextViewer textViewer, IRegion requestRegion) {
 		this.currentHovers = new LinkedHashMap<>();
-		for (ITextHover hover : this.allHovers) {
-			IRegion currentRegion = this.regions.get(hover);
-			if (currentRegion == null) {
-				continue;
-			}
-			Object res = hover instanceof ITextHoverExtension2 ?
+		LinkedHashMap<ITextHover, IRegion> hoverRegions = this.regions;
+		List<ITextHover> hovers = new ArrayList<>(hoverRegions.keySet());
+		List<Object> infos = this.dispatcher.collect(hovers, hover -> {
+			IRegion currentRegion = hoverRegions.get(hover);
+			return hover instanceof ITextHoverExtension2 ?
 				((ITextHoverExtension2)hover).getHoverInfo2(textViewer, currentRegion) :
 				hover.getHoverInfo(textViewer, currentRegion);
-			if (res != null) {
-				this.currentHovers.put(hover, res);
+		});
+		for (int i = 0; i < hovers.size(); i++) {
+			if (infos.get(i) != null) {
+				this.currentHovers.put(hovers.get(i), infos.get(i));
 			}
 		}
 		if (this.currentHovers.isEmpty()) {
@@ -95,12 +103,14 @@ public class CompositeTextHover implements ITextHover, ITextHoverExtension, ITex
 
 	@Override
 	public IRegion getHoverRegion(ITextViewer textViewer, int offset) {
-		this.regions = new LinkedHashMap<>();
+		// called in the UI thread; the children may access the widget, so they are
+		// not dispatched to other threads
+		LinkedHashMap<ITextHover, IRegion> hoverRegions = new LinkedHashMap<>();
 		IRegion res = null;
 		for (ITextHover hover : this.allHovers) {
 			IRegion region = hover.getHoverRegion(textViewer, offset);
 			if (region != null) {
-				this.regions.put(hover, region);
+				hoverRegions.put(hover, region);
 				if (res == null) {
 					res = region;
 				} else {
@@ -110,6 +120,7 @@ public class CompositeTextHover implements ITextHover, ITextHoverExtension, ITex
 				}
 			}
 		}
+		this.regions = hoverRegions;
 		return res;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -58,17 +58,14 @@ import org.eclipse.jface.text.source.LineRange;
 import org.eclipse.ui.internal.texteditor.NLSUtility;
 import org.eclipse.ui.internal.texteditor.TextEditorPlugin;
 import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DJBHashFunction;
-import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocEquivalenceComparator;
 import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
 import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.IHashFunction;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.LineHashDocument;
 import org.eclipse.ui.progress.IProgressConstants;
 
 import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
 
-import org.eclipse.compare.rangedifferencer.AbstractRangeDifferenceFactory;
-import org.eclipse.compare.rangedifferencer.IRangeComparator;
 import org.eclipse.compare.rangedifferencer.RangeDifference;
-import org.eclipse.compare.rangedifferencer.RangeDifferencer;
 
 /**
  * Standard implementation of <code>ILineDiffer</code> as an incremental diff engine. A
@@ -88,19 +85,6 @@ import org.eclipse.compare.rangedifferencer.RangeDifferencer;
 public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnnotationModel, ILineDifferExtension, ILineDifferExtension2 {
 
 
-	/**
-	 * Custom range difference factory.
-	 *
-	 * @since 3.5
-	 */
-	private static class RangeDifferenceFactory extends AbstractRangeDifferenceFactory {
-		@Override
-		protected org.eclipse.compare.rangedifferencer.RangeDifference createRangeDifference() {
-			return new QuickDiffRangeDifference();
-		}
-	}
-
-
 	/**
 	 * Artificial line difference information indicating a change with an empty line as original text.
 	 */
@@ -139,6 +123,17 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 	/** The delay after which the initialization job is triggered. */
 	private static final int INITIALIZE_DELAY= 500;
+	/**
+	 * The maximal number of lines a document change may replace or insert to be diffed
+	 * incrementally, larger changes are diffed by the initialization job.
+	 * @since 3.17
+	 */
+	private static final int MAX_INCREMENTAL_CHANGE= 1000;
+	/**
+	 * The maximal number of lines re-diffed around an incrementally diffed change.
+	 * @since 3.17
+	 */
+	private static final int MAX_INCREMENTAL_RANGE= 5000;
 
 	/** Suspended state */
 	private static final int SUSPENDED= 0;
@@ -207,6 +202,13 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private int fNLines;
 	/** The most recent range difference returned in a getLineInfo call, so it can be recyled. */
 	private QuickDiffRangeDifference fLastDifference;
+	/**
+	 * The differences of the previous diff while the initialization job computes new ones, or
+	 * <code>null</code> if there are none. They are shifted by the changes of the document so
+	 * they can answer line queries until the new differences are available.
+	 * @since 3.17
+	 */
+	private List<QuickDiffRangeDifference> fPreviousDifferences;
 	/**
 	 * <code>true</code> if incoming document events should be ignored,
 	 * <code>false</code> if not.
@@ -247,8 +249,6 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private Thread fThread;
 	private DocumentEvent fLastUIEvent;
 
-	private RangeDifferenceFactory fRangeDiffFactory= new RangeDifferenceFactory();
-
 
 	/**
 	 * Creates a new differ.
@@ -488,6 +488,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	protected synchronized void initialize() {
 		// make new incoming changes go into the queue of stored events, plus signal we can't restore.
 		fState= INITIALIZING;
+		// keep answering line queries from the current differences until the new ones are there
+		fPreviousDifferences= fDifferences;
 
 		if (fRightDocument == null)
 			return;
@@ -524,7 +526,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			public IStatus run(IProgressMonitor monitor) {
 
 				// 1:	wait for any previous job that was canceled to avoid job flooding
-				// It will return relatively quickly as RangeDifferencer supports canceling
+				// It will return relatively quickly as LineDifferencer supports canceling
 				if (oldJob != null)
 					try {
 						oldJob.join();
@@ -583,7 +585,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 				left.addDocumentListener(DocumentLineDiffer.this);
 
 				// create the reference copy - note that any changes on the
-				// reference will trigger re-initialization anyway
+				// reference will trigger re-initialization anyway. A line hash
+				// document is copied without reading its text.
 				reference= createCopy(left);
 				if (reference == null)
 					return Status.CANCEL_STATUS;
@@ -642,12 +645,15 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 				IHashFunction hash= new DJBHashFunction();
 				DocumentEquivalenceClass leftEquivalent= new DocumentEquivalenceClass(reference, hash);
 				fLeftEquivalent= leftEquivalent;
-				IRangeComparator ref= new DocEquivalenceComparator(leftEquivalent, null);
 
 				DocumentEquivalenceClass rightEquivalent= new DocumentEquivalenceClass(actual, hash);
 				fRightEquivalent= rightEquivalent;
-				IRangeComparator act= new DocEquivalenceComparator(rightEquivalent, null);
-				ArrayList<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, monitor, ref, act));
+				ArrayList<QuickDiffRangeDifference> diffs;
+				try {
+					diffs= LineDifferencer.findRanges(monitor, leftEquivalent, null, rightEquivalent, null);
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				}
 				// 7:	Reset the model to the just gotten differences
 				// 		re-inject stored events to get up to date.
 				synchronized (DocumentLineDiffer.this) {
@@ -656,6 +662,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 					// set the new differences so we can operate on them
 					fDifferences= diffs;
+					fPreviousDifferences= null;
+					fLastDifference= null;
 				}
 
 				// re-inject events accumulated in the meantime.
@@ -725,6 +733,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 					fInitializationJob= null;
 					fStoredEvents.clear();
 					fLastDifference= null;
+					fPreviousDifferences= null;
 					fDifferences.clear();
 				}
 			}
@@ -754,6 +763,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			}
 
 			private IDocument createUnprotectedCopy(IDocument document) {
+				if (document instanceof LineHashDocument)
+					return ((LineHashDocument) document).copy();
 				return new Document(document.get());
 			}
 		};
@@ -778,8 +789,10 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 		// if a initialization is going on, we just store the events in the meantime
 		if (!isInitialized()) {
-			if (fInitializationJob != null)
+			if (fInitializationJob != null) {
 				fStoredEvents.add(event);
+				shiftPreviousDifferences(event);
+			}
 			return;
 		}
 
@@ -938,8 +951,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		// size: the size of the document change in lines
 
 		// put an upper bound to the delay we can afford
-		if (added > 50 || fNLines > 50) {
-			initialize();
+		if (added > MAX_INCREMENTAL_CHANGE || fNLines > MAX_INCREMENTAL_CHANGE) {
+			initializeAfterChange(leftToRight, added);
 			return;
 		}
 
@@ -1002,7 +1015,6 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			leftLine += lineDelta;
 		int leftEndLine= leftLine - shiftAfter;
 		ILineRange leftRange= new LineRange(leftStartLine, leftEndLine - leftStartLine);
-		IRangeComparator reference= new DocEquivalenceComparator(leftEquivalent, leftRange);
 
 		// right (actual) document
 		int rightStartLine= consistentBefore.rightStart() + shiftBefore;
@@ -1011,11 +1023,10 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			rightLine += lineDelta;
 		int rightEndLine= rightLine - shiftAfter;
 		ILineRange rightRange= new LineRange(rightStartLine, rightEndLine - rightStartLine);
-		IRangeComparator change= new DocEquivalenceComparator(rightEquivalent, rightRange);
 
 		// put an upper bound to the delay we can afford
-		if (leftLine - shiftAfter - leftStartLine > 50 || rightLine - shiftAfter - rightStartLine > 50) {
-			initialize();
+		if (leftLine - shiftAfter - leftStartLine > MAX_INCREMENTAL_RANGE || rightLine - shiftAfter - rightStartLine > MAX_INCREMENTAL_RANGE) {
+			initializeAfterChange(leftToRight, added);
 			return;
 		}
 
@@ -1023,8 +1034,8 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 //			System.out.println("compare window: "+size+"\n\n<" + left.get(leftRegion.getOffset(), leftRegion.getLength()) +  //$NON-NLS-1$//$NON-NLS-2$
 //					">\n\n<" + right.get(rightRegion.getOffset(), rightRegion.getLength()) + ">\n"); //$NON-NLS-1$ //$NON-NLS-2$
 
-		// compare
-		List<QuickDiffRangeDifference> diffs= asQuickDiffRangeDifference(RangeDifferencer.findRanges(fRangeDiffFactory, null, reference, change));
+		// compare, only the lines between the consistent ranges are re-diffed
+		List<QuickDiffRangeDifference> diffs= LineDifferencer.findRanges(null, leftEquivalent, leftRange, rightEquivalent, rightRange);
 		if (diffs.isEmpty()) {
 			diffs.add(new QuickDiffRangeDifference(RangeDifference.CHANGE, 0, 0, 0, 0));
 		}
@@ -1143,16 +1154,60 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	}
 
 	/**
-	 * Converts a {@code RangeDifference[]} into an {@code ArrayList<QuickDiffRangeDifference>}.
-	 * This is unsafe in general, but OK if used carefully.
-	 * Workaround for <a href="https://bugs.eclipse.org/483319">bug 483319</a>.
+	 * Re-initializes the differ after a change that is too large to be diffed incrementally. The
+	 * current differences are shifted by the change so they can answer line queries until the
+	 * initialization job has computed the new ones.
+	 *
+	 * @param leftToRight <code>true</code> if the reference document was changed
+	 * @param added the number of lines of the inserted text
+	 * @since 3.17
+	 */
+	private void initializeAfterChange(boolean leftToRight, int added) {
+		initialize();
+		if (!leftToRight)
+			shiftPreviousDifferences(fFirstLine + fNLines - 1, added - fNLines);
+	}
+
+	/**
+	 * Shifts the previous differences by the change of the given event, which is about to be
+	 * applied to the document.
 	 *
-	 * @param ranges the ranges, <em>must</em> be of type {@link QuickDiffRangeDifference}
-	 * @return the ranges as a modifiable list
+	 * @param event the document event
+	 * @since 3.17
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private static ArrayList<QuickDiffRangeDifference> asQuickDiffRangeDifference(RangeDifference[] ranges) {
-		return new ArrayList(Arrays.asList(ranges));
+	private void shiftPreviousDifferences(DocumentEvent event) {
+		if (fPreviousDifferences == null)
+			return;
+		try {
+			IDocument document= event.getDocument();
+			int lastLine= document.getLineOfOffset(event.getOffset() + event.getLength());
+			int removed= lastLine - document.getLineOfOffset(event.getOffset());
+			String text= event.getText();
+			int inserted= text == null ? 0 : document.computeNumberOfLines(text);
+			shiftPreviousDifferences(lastLine, inserted - removed);
+		} catch (BadLocationException e) {
+			// the previous differences are only an approximation
+		}
+	}
+
+	/**
+	 * Shifts the previous differences that start after the given line of the actual document.
+	 *
+	 * @param line the last changed line
+	 * @param lineDelta the number of lines added by the change
+	 * @since 3.17
+	 */
+	private void shiftPreviousDifferences(int line, int lineDelta) {
+		List<QuickDiffRangeDifference> differences= fPreviousDifferences;
+		if (differences == null || lineDelta == 0)
+			return;
+		synchronized (differences) {
+			for (int i= findRangeDifferenceForRightLine(differences, line) + 1; i < differences.size(); i++) {
+				QuickDiffRangeDifference difference= differences.get(i);
+				difference.shiftRight(Math.max(lineDelta, -difference.rightStart()));
+			}
+		}
+		fLastDifference= null;
 	}
 
 	/**
@@ -1367,10 +1422,21 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 * @return the corresponding RangeDifference, or <code>null</code>
 	 */
 	private QuickDiffRangeDifference getRangeDifferenceForLeftLine(int leftLine) {
-		for (QuickDiffRangeDifference d : fDifferences) {
-			if (leftLine >= d.leftStart() && leftLine < d.leftEnd()) {
+		final List<QuickDiffRangeDifference> differences= fDifferences;
+		// the differences are sorted, binary search for the last one starting at or before the line
+		int low= 0;
+		int high= differences.size();
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if (differences.get(mid).leftStart() <= leftLine)
+				low= mid + 1;
+			else
+				high= mid;
+		}
+		if (low > 0) {
+			QuickDiffRangeDifference d= differences.get(low - 1);
+			if (leftLine >= d.leftStart() && leftLine < d.leftEnd())
 				return d;
-			}
 		}
 		return null;
 	}
@@ -1384,15 +1450,38 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private QuickDiffRangeDifference getRangeDifferenceForRightLine(int rightLine) {
 		final List<QuickDiffRangeDifference> differences= fDifferences;
 		synchronized (differences) {
-			for (QuickDiffRangeDifference d : differences) {
-				if (rightLine >= d.rightStart() && rightLine < d.rightEnd()) {
+			int index= findRangeDifferenceForRightLine(differences, rightLine);
+			if (index != -1) {
+				QuickDiffRangeDifference d= differences.get(index);
+				if (rightLine >= d.rightStart() && rightLine < d.rightEnd())
 					return d;
-				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Returns the index of the last difference that starts at or before the given line on the
+	 * right hand side. The differences are sorted by their start lines.
+	 *
+	 * @param differences the differences
+	 * @param rightLine the line on the right side
+	 * @return the index of the last difference starting at or before the line, or <code>-1</code>
+	 * @since 3.17
+	 */
+	private static int findRangeDifferenceForRightLine(List<QuickDiffRangeDifference> differences, int rightLine) {
+		int low= 0;
+		int high= differences.size();
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if (differences.get(mid).rightStart() <= rightLine)
+				low= mid + 1;
+			else
+				high= mid;
+		}
+		return low - 1;
+	}
+
 	@Override
 	public void addAnnotationModelListener(IAnnotationModelListener listener) {
 		fAnnotationModelListeners.add(listener);
@@ -1457,6 +1546,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			fRightDocument= null;
 			fRightEquivalent= null;
 
+			fPreviousDifferences= null;
 			fDifferences.clear();
 		}
 
@@ -1562,6 +1652,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			fLeftEquivalent= null;
 
 			fLastDifference= null;
+			fPreviousDifferences= null;
 			fStoredEvents.clear();
 			fDifferences.clear();
 
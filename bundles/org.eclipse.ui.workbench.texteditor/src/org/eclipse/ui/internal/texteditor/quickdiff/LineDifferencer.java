@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.texteditor.quickdiff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.jface.text.source.ILineRange;
+
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.Hash;
+
+import org.eclipse.compare.rangedifferencer.RangeDifference;
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+
+
+/**
+ * Computes the differences between the lines of two documents with the O(ND) difference
+ * algorithm of Eugene W. Myers, in its linear space variant.
+ * <p>
+ * The lines are compared by the hashes of their equivalence classes, which are mapped to integers
+ * once before comparing. Equal lines at the start and at the end of the compared ranges are
+ * skipped up front, so diffing a range around a small change costs hardly more than looking up
+ * the hashes of the range. If the ranges have too many differences to find the shortest edit
+ * script in reasonable time, a longer one is accepted.
+ * </p>
+ * <p>
+ * The differences have the same form as the ones returned by
+ * {@link RangeDifferencer#findRanges(org.eclipse.compare.rangedifferencer.AbstractRangeDifferenceFactory, IProgressMonitor, org.eclipse.compare.rangedifferencer.IRangeComparator, org.eclipse.compare.rangedifferencer.IRangeComparator)
+ * RangeDifferencer.findRanges}: unchanged and changed ranges alternate and cover both line ranges.
+ * The line numbers are relative to the start of the compared ranges.
+ * </p>
+ *
+ * @since 3.17
+ */
+public final class LineDifferencer {
+
+	/** The minimal number of edits after which the search for the shortest edit script gives up. */
+	private static final int MIN_TOO_EXPENSIVE= 256;
+
+	/** The lines of the left (reference) range, mapped to integers. */
+	private final int[] fLeft;
+	/** The lines of the right (actual) range, mapped to integers. */
+	private final int[] fRight;
+	/** Whether a line of the left range is matched by a line of the right range. */
+	private final boolean[] fLeftMatched;
+	/** Whether a line of the right range is matched by a line of the left range. */
+	private final boolean[] fRightMatched;
+	/** The number of edits after which the search for the shortest edit script gives up. */
+	private final int fTooExpensive;
+	/** The progress monitor, may be <code>null</code>. */
+	private final IProgressMonitor fMonitor;
+
+	private LineDifferencer(int[] left, int[] right, IProgressMonitor monitor) {
+		fLeft= left;
+		fRight= right;
+		fLeftMatched= new boolean[left.length];
+		fRightMatched= new boolean[right.length];
+		fTooExpensive= Math.max(MIN_TOO_EXPENSIVE, (int) Math.sqrt(left.length + right.length) * 4);
+		fMonitor= monitor;
+	}
+
+	/**
+	 * Computes the differences between the given line ranges of two documents.
+	 *
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @param left the equivalence class of the left (reference) document
+	 * @param leftRange the line range of the left document, or <code>null</code> for all lines
+	 * @param right the equivalence class of the right (actual) document
+	 * @param rightRange the line range of the right document, or <code>null</code> for all lines
+	 * @return the differences, with line numbers relative to the ranges
+	 * @throws OperationCanceledException if the monitor is canceled
+	 */
+	public static ArrayList<QuickDiffRangeDifference> findRanges(IProgressMonitor monitor, DocumentEquivalenceClass left, ILineRange leftRange, DocumentEquivalenceClass right, ILineRange rightRange) {
+		Map<Hash, Integer> ids= new HashMap<>();
+		int[] leftLines= toIds(left, leftRange, ids);
+		int[] rightLines= toIds(right, rightRange, ids);
+		LineDifferencer differencer= new LineDifferencer(leftLines, rightLines, monitor);
+		differencer.compare(0, leftLines.length, 0, rightLines.length);
+		return differencer.createRanges();
+	}
+
+	/**
+	 * Maps the lines of the given range to the integers of their hashes.
+	 *
+	 * @param equivalenceClass the equivalence class of the document
+	 * @param range the line range, or <code>null</code> for all lines
+	 * @param ids the integers of the hashes seen so far
+	 * @return the integers of the lines
+	 */
+	private static int[] toIds(DocumentEquivalenceClass equivalenceClass, ILineRange range, Map<Hash, Integer> ids) {
+		int start= range == null ? 0 : range.getStartLine();
+		int count= range == null ? equivalenceClass.getCount() : range.getNumberOfLines();
+		int[] lines= new int[count];
+		for (int i= 0; i < count; i++) {
+			Integer id= ids.computeIfAbsent(equivalenceClass.getHash(start + i), h -> Integer.valueOf(ids.size()));
+			lines[i]= id.intValue();
+		}
+		return lines;
+	}
+
+	/**
+	 * Matches the lines of the given left and right ranges.
+	 *
+	 * @param leftStart the first line of the left range
+	 * @param leftEnd the end of the left range (exclusive)
+	 * @param rightStart the first line of the right range
+	 * @param rightEnd the end of the right range (exclusive)
+	 */
+	private void compare(int leftStart, int leftEnd, int rightStart, int rightEnd) {
+		while (leftStart < leftEnd && rightStart < rightEnd && fLeft[leftStart] == fRight[rightStart])
+			match(leftStart++, rightStart++, 1);
+		while (leftStart < leftEnd && rightStart < rightEnd && fLeft[leftEnd - 1] == fRight[rightEnd - 1])
+			match(--leftEnd, --rightEnd, 1);
+		if (leftStart == leftEnd || rightStart == rightEnd)
+			return;
+
+		if (fMonitor != null && fMonitor.isCanceled())
+			throw new OperationCanceledException();
+
+		int[] split= findSplit(leftStart, leftEnd, rightStart, rightEnd);
+		compare(leftStart, split[0], rightStart, split[1]);
+		compare(split[0], leftEnd, split[1], rightEnd);
+	}
+
+	private void match(int leftLine, int rightLine, int length) {
+		for (int i= 0; i < length; i++) {
+			fLeftMatched[leftLine + i]= true;
+			fRightMatched[rightLine + i]= true;
+		}
+	}
+
+	/**
+	 * Finds the point where the forward and the backward paths of a shortest edit script of the
+	 * given ranges meet. The ranges must differ in their first and in their last lines. If the
+	 * ranges have too many differences, the end of the forward path that has reached furthest is
+	 * taken instead, which gives a valid, though not necessarily shortest, edit script.
+	 *
+	 * @param leftStart the first line of the left range
+	 * @param leftEnd the end of the left range (exclusive)
+	 * @param rightStart the first line of the right range
+	 * @param rightEnd the end of the right range (exclusive)
+	 * @return the split point as <code>{ leftLine, rightLine }</code>
+	 */
+	private int[] findSplit(int leftStart, int leftEnd, int rightStart, int rightEnd) {
+		int n= leftEnd - leftStart;
+		int m= rightEnd - rightStart;
+		// the search gives up before the paths have to go further
+		int maxD= Math.min((n + m + 1) / 2, fTooExpensive + 1);
+		// the furthest reaching paths by diagonal, the backward ones count from the ends of the ranges
+		int offset= maxD + 1;
+		int[] forward= new int[2 * maxD + 3];
+		int[] backward= new int[forward.length];
+		Arrays.fill(forward, -1);
+		Arrays.fill(backward, -1);
+		forward[offset + 1]= 0;
+		backward[offset + 1]= 0;
+		int delta= n - m;
+		boolean front= (delta & 1) != 0;
+		// diagonals that have left the ranges are not followed any longer
+		int forwardStart= 0, forwardEnd= 0, backwardStart= 0, backwardEnd= 0;
+
+		for (int d= 0; d <= maxD; d++) {
+			if (d > fTooExpensive)
+				return findFurthestForwardPath(forward, offset, d - 1, forwardStart, forwardEnd, leftStart, rightStart, n, m);
+
+			for (int k= -d + forwardStart; k <= d - forwardEnd; k+= 2) {
+				int x;
+				if (k == -d || k != d && forward[offset + k - 1] < forward[offset + k + 1])
+					x= forward[offset + k + 1];
+				else
+					x= forward[offset + k - 1] + 1;
+				int y= x - k;
+				while (x < n && y < m && fLeft[leftStart + x] == fRight[rightStart + y]) {
+					x++;
+					y++;
+				}
+				forward[offset + k]= x;
+				if (x > n) {
+					forwardEnd+= 2;
+				} else if (y > m) {
+					forwardStart+= 2;
+				} else if (front) {
+					int reverse= offset + delta - k;
+					if (reverse >= 0 && reverse < backward.length && backward[reverse] != -1 && x >= n - backward[reverse])
+						return new int[] { leftStart + x, rightStart + y };
+				}
+			}
+
+			for (int k= -d + backwardStart; k <= d - backwardEnd; k+= 2) {
+				int x;
+				if (k == -d || k != d && backward[offset + k - 1] < backward[offset + k + 1])
+					x= backward[offset + k + 1];
+				else
+					x= backward[offset + k - 1] + 1;
+				int y= x - k;
+				while (x < n && y < m && fLeft[leftEnd - 1 - x] == fRight[rightEnd - 1 - y]) {
+					x++;
+					y++;
+				}
+				backward[offset + k]= x;
+				if (x > n) {
+					backwardEnd+= 2;
+				} else if (y > m) {
+					backwardStart+= 2;
+				} else if (!front) {
+					int reverse= offset + delta - k;
+					if (reverse >= 0 && reverse < forward.length && forward[reverse] != -1) {
+						int forwardX= forward[reverse];
+						int forwardY= forwardX - (reverse - offset);
+						if (forwardX >= n - x)
+							return new int[] { leftStart + forwardX, rightStart + forwardY };
+					}
+				}
+			}
+		}
+		// not reached, the paths meet after at most n + m edits
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Returns the end of the forward path that has reached furthest into both ranges.
+	 */
+	private static int[] findFurthestForwardPath(int[] forward, int offset, int d, int forwardStart, int forwardEnd, int leftStart, int rightStart, int n, int m) {
+		int bestX= 0, bestY= 0;
+		for (int k= -d + forwardStart; k <= d - forwardEnd; k+= 2) {
+			int x= forward[offset + k];
+			int y= x - k;
+			if (x <= n && y >= 0 && y <= m && x + y > bestX + bestY) {
+				bestX= x;
+				bestY= y;
+			}
+		}
+		return new int[] { leftStart + bestX, rightStart + bestY };
+	}
+
+	/**
+	 * Creates the alternating unchanged and changed ranges from the matched lines.
+	 *
+	 * @return the differences
+	 */
+	private ArrayList<QuickDiffRangeDifference> createRanges() {
+		ArrayList<QuickDiffRangeDifference> ranges= new ArrayList<>();
+		int left= 0;
+		int right= 0;
+		while (left < fLeft.length || right < fRight.length) {
+			int leftStart= left;
+			int rightStart= right;
+			if (left < fLeft.length && right < fRight.length && fLeftMatched[left] && fRightMatched[right]) {
+				while (left < fLeft.length && right < fRight.length && fLeftMatched[left] && fRightMatched[right]) {
+					left++;
+					right++;
+				}
+				ranges.add(new QuickDiffRangeDifference(RangeDifference.NOCHANGE, rightStart, right - rightStart, leftStart, left - leftStart));
+			} else {
+				while (left < fLeft.length && !fLeftMatched[left])
+					left++;
+				while (right < fRight.length && !fRightMatched[right])
+					right++;
+				ranges.add(new QuickDiffRangeDifference(RangeDifference.CHANGE, rightStart, right - rightStart, leftStart, left - leftStart));
+			}
+		}
+		return ranges;
+	}
+}
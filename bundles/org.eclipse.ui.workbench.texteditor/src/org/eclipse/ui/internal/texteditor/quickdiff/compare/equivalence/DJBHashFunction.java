@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,13 +21,22 @@ public final class DJBHashFunction implements IHashFunction {
 
 	@Override
 	public Hash computeHash(CharSequence string) {
-		return new IntHash(hash(string));
+		return new IntHash(hash(string, 0, string.length()));
 	}
 
-	private int hash(CharSequence seq){
+	/**
+	 * Computes the hash of a range of characters, the same as {@link #computeHash(CharSequence)}
+	 * computes for the characters of the range.
+	 *
+	 * @param seq the characters
+	 * @param start the start of the range
+	 * @param end the end of the range (exclusive)
+	 * @return the hash of the range
+	 * @since 3.17
+	 */
+	static int hash(CharSequence seq, int start, int end) {
 		int hash = 5381;
-		int len= seq.length();
-		for (int i= 0; i < len; i++) {
+		for (int i= start; i < end; i++) {
 			char ch= seq.charAt(i);
 			hash = ((hash << 5) + hash) + ch; /* hash * 33 + ch */
 		}
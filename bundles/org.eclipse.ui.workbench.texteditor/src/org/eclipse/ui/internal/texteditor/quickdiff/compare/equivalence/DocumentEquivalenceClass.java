@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -75,6 +75,10 @@ public final class DocumentEquivalenceClass {
 			if (fDocument == null)
 				throw new AssertionError("hash cannot be null after loadAndForget"); //$NON-NLS-1$
 
+			// the document keeps the hashes of its lines, they are not cached a second time
+			if (fDocument instanceof LineHashDocument && fHashFunction instanceof DJBHashFunction)
+				return new IntHash(((LineHashDocument) fDocument).getLineHash(line));
+
 			IRegion lineRegion= fDocument.getLineInformation(line);
 			String lineContents= fDocument.get(lineRegion.getOffset(), lineRegion.getLength());
 			hash= fHashFunction.computeHash(lineContents);
@@ -140,7 +144,7 @@ public final class DocumentEquivalenceClass {
 	public void loadAndForget() {
 		int count= getCount();
 		for (int line= 0; line < count; line++)
-			getHash(line);
+			fHashes.set(line, getHash(line));
 
 		fDocument= null;
 	}
@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.eclipse.jface.text.AbstractDocument;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.TextUtilities;
+
+
+/**
+ * A document that keeps its text in a compact form, for reference documents that are compared
+ * line by line but rarely read, like the saved contents of a file that quick diff compares an
+ * editor with.
+ * <p>
+ * The text is kept compressed in blocks, reading a range of the text only inflates the blocks of
+ * the range. The lines are kept as offsets, and the hashes of the lines are computed once when the
+ * text is set, so that a {@link DocumentEquivalenceClass} with a {@link DJBHashFunction} compares
+ * the lines of the document without reading its text.
+ * </p>
+ * <p>
+ * The document is meant to be set as a whole; replacing a range of its text inflates and
+ * compresses the whole text again.
+ * </p>
+ *
+ * @since 3.17
+ */
+public final class LineHashDocument extends AbstractDocument {
+
+	/** The number of characters of a compressed block of the text. */
+	private static final int BLOCK_SIZE= 8192;
+
+	/** The line delimiters by their kind. */
+	private static final String[] DELIMITERS= { null, "\n", "\r", "\r\n" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final byte NONE= 0;
+	private static final byte LF= 1;
+	private static final byte CR= 2;
+	private static final byte CRLF= 3;
+
+	/**
+	 * The immutable content of the document.
+	 */
+	private static final class Content {
+
+		static final Content EMPTY= create(""); //$NON-NLS-1$
+
+		/** The length of the text. */
+		final int fLength;
+		/** The offsets of the lines. */
+		final int[] fLineOffsets;
+		/** The kinds of the delimiters of the lines. */
+		final byte[] fDelimiters;
+		/** The hashes of the lines without their delimiters, computed by {@link DJBHashFunction}. */
+		final int[] fLineHashes;
+		/** The text in compressed blocks of <code>BLOCK_SIZE</code> characters. */
+		final byte[][] fBlocks;
+
+		private Content(int length, int[] lineOffsets, byte[] delimiters, int[] lineHashes, byte[][] blocks) {
+			fLength= length;
+			fLineOffsets= lineOffsets;
+			fDelimiters= delimiters;
+			fLineHashes= lineHashes;
+			fBlocks= blocks;
+		}
+
+		static Content create(String text) {
+			int length= text.length();
+			int[] offsets= new int[16];
+			byte[] delimiters= new byte[16];
+			int[] hashes= new int[16];
+			int lines= 0;
+			int start= 0;
+			int offset= 0;
+			while (true) {
+				byte delimiter= NONE;
+				while (offset < length && delimiter == NONE) {
+					char c= text.charAt(offset++);
+					if (c == '\n') {
+						delimiter= LF;
+					} else if (c == '\r') {
+						if (offset < length && text.charAt(offset) == '\n') {
+							offset++;
+							delimiter= CRLF;
+						} else {
+							delimiter= CR;
+						}
+					}
+				}
+				if (lines == offsets.length) {
+					offsets= Arrays.copyOf(offsets, 2 * lines);
+					delimiters= Arrays.copyOf(delimiters, 2 * lines);
+					hashes= Arrays.copyOf(hashes, 2 * lines);
+				}
+				offsets[lines]= start;
+				delimiters[lines]= delimiter;
+				hashes[lines]= DJBHashFunction.hash(text, start, offset - getDelimiterLength(delimiter));
+				lines++;
+				if (delimiter == NONE)
+					break;
+				start= offset;
+			}
+			return new Content(length, Arrays.copyOf(offsets, lines), Arrays.copyOf(delimiters, lines), Arrays.copyOf(hashes, lines), compress(text));
+		}
+
+		int getNumberOfLines() {
+			return fLineOffsets.length;
+		}
+
+		int getLineEnd(int line) {
+			return line + 1 < fLineOffsets.length ? fLineOffsets[line + 1] : fLength;
+		}
+
+		/**
+		 * Returns the line of the given offset, the offset must be a legal one.
+		 */
+		int findLine(int offset) {
+			int index= Arrays.binarySearch(fLineOffsets, offset);
+			return index >= 0 ? index : -index - 2;
+		}
+	}
+
+	/**
+	 * An inflated block of the text.
+	 */
+	private static final class Block {
+
+		final Content fContent;
+		final int fIndex;
+		final char[] fChars;
+
+		Block(Content content, int index, char[] chars) {
+			fContent= content;
+			fIndex= index;
+			fChars= chars;
+		}
+	}
+
+	/**
+	 * The text store reading the text from the compressed blocks of the content.
+	 */
+	private final class CompressedTextStore implements ITextStore {
+
+		@Override
+		public char get(int offset) {
+			Content content= fContent;
+			return getBlock(content, offset / BLOCK_SIZE)[offset % BLOCK_SIZE];
+		}
+
+		@Override
+		public String get(int offset, int length) {
+			Content content= fContent;
+			StringBuilder text= new StringBuilder(length);
+			int end= offset + length;
+			while (offset < end) {
+				int block= offset / BLOCK_SIZE;
+				int start= offset - block * BLOCK_SIZE;
+				int count= Math.min(end - offset, BLOCK_SIZE - start);
+				text.append(getBlock(content, block), start, count);
+				offset+= count;
+			}
+			return text.toString();
+		}
+
+		@Override
+		public int getLength() {
+			return fContent.fLength;
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) {
+			String current= get(0, getLength());
+			set(current.substring(0, offset) + (text == null ? "" : text) + current.substring(offset + length)); //$NON-NLS-1$
+		}
+
+		@Override
+		public void set(String text) {
+			fContent= text == null || text.isEmpty() ? Content.EMPTY : Content.create(text);
+		}
+
+		private char[] getBlock(Content content, int index) {
+			Block block= fLastBlock;
+			if (block == null || block.fContent != content || block.fIndex != index) {
+				block= new Block(content, index, inflate(content, index));
+				fLastBlock= block;
+			}
+			return block.fChars;
+		}
+	}
+
+	/**
+	 * The line tracker answering from the line offsets of the content. The content is updated by
+	 * the text store, which the document updates before the line tracker.
+	 */
+	private final class LineTracker implements ILineTracker {
+
+		@Override
+		public String[] getLegalLineDelimiters() {
+			return TextUtilities.copy(TextUtilities.DELIMITERS);
+		}
+
+		@Override
+		public String getLineDelimiter(int line) throws BadLocationException {
+			Content content= fContent;
+			checkLine(content, line);
+			return line == content.getNumberOfLines() ? null : DELIMITERS[content.fDelimiters[line]];
+		}
+
+		@Override
+		public int computeNumberOfLines(String text) {
+			int count= 0;
+			int length= text.length();
+			for (int i= 0; i < length; i++) {
+				char c= text.charAt(i);
+				if (c == '\n') {
+					count++;
+				} else if (c == '\r') {
+					count++;
+					if (i + 1 < length && text.charAt(i + 1) == '\n')
+						i++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int getNumberOfLines() {
+			return fContent.getNumberOfLines();
+		}
+
+		@Override
+		public int getNumberOfLines(int offset, int length) throws BadLocationException {
+			Content content= fContent;
+			if (offset < 0 || length < 0 || offset + length > content.fLength)
+				throw new BadLocationException();
+			if (length == 0)
+				return 1;
+			return content.findLine(offset + length) - content.findLine(offset) + 1;
+		}
+
+		@Override
+		public int getLineOffset(int line) throws BadLocationException {
+			Content content= fContent;
+			if (line < 0 || line >= content.getNumberOfLines())
+				throw new BadLocationException();
+			return content.fLineOffsets[line];
+		}
+
+		@Override
+		public int getLineLength(int line) throws BadLocationException {
+			Content content= fContent;
+			checkLine(content, line);
+			if (line == content.getNumberOfLines())
+				return 0;
+			return content.getLineEnd(line) - content.fLineOffsets[line];
+		}
+
+		@Override
+		public int getLineNumberOfOffset(int offset) throws BadLocationException {
+			Content content= fContent;
+			checkOffset(content, offset);
+			return content.findLine(offset);
+		}
+
+		@Override
+		public IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+			Content content= fContent;
+			checkOffset(content, offset);
+			return getLineInformation(content, content.findLine(offset));
+		}
+
+		@Override
+		public IRegion getLineInformation(int line) throws BadLocationException {
+			Content content= fContent;
+			checkLine(content, line);
+			return getLineInformation(content, line);
+		}
+
+		private IRegion getLineInformation(Content content, int line) {
+			if (line == content.getNumberOfLines())
+				return new Region(content.fLength, 0);
+			int offset= content.fLineOffsets[line];
+			return new Region(offset, content.getLineEnd(line) - offset - getDelimiterLength(content.fDelimiters[line]));
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) throws BadLocationException {
+			// the text store has already updated the content
+		}
+
+		@Override
+		public void set(String text) {
+			// the text store has already updated the content
+		}
+
+		private void checkLine(Content content, int line) throws BadLocationException {
+			if (line < 0 || line > content.getNumberOfLines())
+				throw new BadLocationException();
+		}
+
+		private void checkOffset(Content content, int offset) throws BadLocationException {
+			if (offset < 0 || offset > content.fLength)
+				throw new BadLocationException();
+		}
+	}
+
+	/** The content of the document. */
+	private volatile Content fContent;
+	/** The block that has been inflated last, or <code>null</code>. */
+	private volatile Block fLastBlock;
+
+	/**
+	 * Creates a new empty document.
+	 */
+	public LineHashDocument() {
+		this(Content.EMPTY);
+	}
+
+	/**
+	 * Creates a new document with the given initial content.
+	 *
+	 * @param initialContent the initial content of the document
+	 */
+	public LineHashDocument(String initialContent) {
+		this();
+		getStore().set(initialContent);
+		getTracker().set(initialContent);
+	}
+
+	private LineHashDocument(Content content) {
+		fContent= content;
+		setTextStore(new CompressedTextStore());
+		setLineTracker(new LineTracker());
+		completeInitialization();
+	}
+
+	/**
+	 * Returns a copy of this document. The copy shares the compressed text and the line hashes
+	 * with this document, creating it does not read the text.
+	 *
+	 * @return a copy of this document
+	 */
+	public LineHashDocument copy() {
+		return new LineHashDocument(fContent);
+	}
+
+	/**
+	 * Returns the hash of the given line as computed by {@link DJBHashFunction}.
+	 *
+	 * @param line the line
+	 * @return the hash of the line without its delimiter
+	 * @throws IndexOutOfBoundsException if <code>line</code> is not a legal line of the document
+	 */
+	int getLineHash(int line) {
+		return fContent.fLineHashes[line];
+	}
+
+	private static int getDelimiterLength(byte delimiter) {
+		switch (delimiter) {
+			case NONE:
+				return 0;
+			case CRLF:
+				return 2;
+			default:
+				return 1;
+		}
+	}
+
+	/**
+	 * Compresses the given text in blocks of <code>BLOCK_SIZE</code> characters.
+	 *
+	 * @param text the text
+	 * @return the compressed blocks
+	 */
+	private static byte[][] compress(String text) {
+		byte[][] blocks= new byte[(text.length() + BLOCK_SIZE - 1) / BLOCK_SIZE][];
+		byte[] input= new byte[2 * BLOCK_SIZE];
+		byte[] output= new byte[input.length];
+		Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+		try {
+			for (int i= 0; i < blocks.length; i++) {
+				int start= i * BLOCK_SIZE;
+				int end= Math.min(text.length(), start + BLOCK_SIZE);
+				int length= 0;
+				for (int offset= start; offset < end; offset++) {
+					char c= text.charAt(offset);
+					input[length++]= (byte) (c >> 8);
+					input[length++]= (byte) c;
+				}
+				deflater.reset();
+				deflater.setInput(input, 0, length);
+				deflater.finish();
+				int compressed= 0;
+				while (!deflater.finished()) {
+					if (compressed == output.length)
+						output= Arrays.copyOf(output, 2 * output.length);
+					compressed+= deflater.deflate(output, compressed, output.length - compressed);
+				}
+				blocks[i]= Arrays.copyOf(output, compressed);
+			}
+		} finally {
+			deflater.end();
+		}
+		return blocks;
+	}
+
+	/**
+	 * Inflates the given block of the text.
+	 *
+	 * @param content the content
+	 * @param index the index of the block
+	 * @return the characters of the block
+	 */
+	private static char[] inflate(Content content, int index) {
+		int length= Math.min(BLOCK_SIZE, content.fLength - index * BLOCK_SIZE);
+		byte[] bytes= new byte[2 * length];
+		Inflater inflater= new Inflater();
+		try {
+			inflater.setInput(content.fBlocks[index]);
+			int inflated= 0;
+			while (inflated < bytes.length) {
+				int count= inflater.inflate(bytes, inflated, bytes.length - inflated);
+				if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+					throw new IllegalStateException("truncated block"); //$NON-NLS-1$
+				inflated+= count;
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+		char[] chars= new char[length];
+		for (int i= 0; i < length; i++)
+			chars[i]= (char) ((bytes[2 * i] & 0xff) << 8 | bytes[2 * i + 1] & 0xff);
+		return chars;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2008 IBM Corporation and others.
+ * Copyright (c) 2006, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,17 @@ package org.eclipse.ui.texteditor.spelling;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.ControlAdapter;
+import org.eclipse.swt.events.ControlEvent;
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -27,9 +35,17 @@ import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.core.runtime.content.IContentTypeManager;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.DocumentPartitioningChangedEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IDocumentPartitioningListener;
+import org.eclipse.jface.text.IDocumentPartitioningListenerExtension2;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.ITextViewerLifecycle;
+import org.eclipse.jface.text.IViewportListener;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.reconciler.DirtyRegion;
@@ -38,15 +54,22 @@ import org.eclipse.jface.text.reconciler.IReconcilingStrategyExtension;
 import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelExtension;
+import org.eclipse.jface.text.source.IAnnotationModelExtension2;
 import org.eclipse.jface.text.source.ISourceViewer;
 
 
 /**
  * Reconcile strategy used for spell checking.
+ * <p>
+ * When the whole document is reconciled, only the lines that have been changed since they were
+ * checked last are checked again, the lines visible in the viewer first and the others in chunks,
+ * and only the spelling annotations of the checked lines are updated. The whole document is
+ * checked initially and when it is reconciled without having been changed.
+ * </p>
  *
  * @since 3.3
  */
-public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconcilingStrategyExtension {
+public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconcilingStrategyExtension, ITextViewerLifecycle {
 
 
 	/**
@@ -63,6 +86,12 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 		/** Lock object for modifying the annotations. */
 		private Object fLockObject;
 
+		/**
+		 * The regions that are checked, or <code>null</code> if the whole document is checked.
+		 * Only the annotations in these regions are replaced.
+		 */
+		private IRegion[] fRegions;
+
 		/**
 		 * Initializes this collector with the given annotation model.
 		 *
@@ -87,17 +116,35 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 			fAddAnnotations= new HashMap<>();
 		}
 
+		/**
+		 * Sets the regions that are checked next. Only the annotations in these regions are
+		 * replaced by the problems that are collected.
+		 *
+		 * @param regions the regions, or <code>null</code> if the whole document is checked
+		 */
+		void setRegions(IRegion[] regions) {
+			fRegions= regions;
+		}
+
 		@Override
 		public void endCollecting() {
 
 			List<Annotation> toRemove= new ArrayList<>();
 
 			synchronized (fLockObject) {
-				Iterator<Annotation> iter= fAnnotationModel.getAnnotationIterator();
-				while (iter.hasNext()) {
-					Annotation annotation= iter.next();
-					if (SpellingAnnotation.TYPE.equals(annotation.getType()))
+				// problems that are reported again keep their annotations
+				Map<Position, Annotation> added= new HashMap<>();
+				for (Entry<Annotation, Position> entry : fAddAnnotations.entrySet())
+					added.put(entry.getValue(), entry.getKey());
+				for (Annotation annotation : getSpellingAnnotations()) {
+					Position position= fAnnotationModel.getPosition(annotation);
+					Annotation reported= position == null ? null : added.get(position);
+					if (reported != null && Objects.equals(reported.getText(), annotation.getText())) {
+						added.remove(position);
+						fAddAnnotations.remove(reported);
+					} else {
 						toRemove.add(annotation);
+					}
 				}
 				Annotation[] annotationsToRemove= toRemove.toArray(new Annotation[toRemove.size()]);
 
@@ -115,9 +162,231 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 
 			fAddAnnotations= null;
 		}
+
+		/**
+		 * Returns the spelling annotations in the checked regions.
+		 *
+		 * @return the spelling annotations to be replaced
+		 */
+		private Set<Annotation> getSpellingAnnotations() {
+			Set<Annotation> annotations= new LinkedHashSet<>();
+			if (fRegions == null) {
+				addSpellingAnnotations(fAnnotationModel.getAnnotationIterator(), null, annotations);
+			} else {
+				for (IRegion region : fRegions) {
+					Iterator<Annotation> iter;
+					if (fAnnotationModel instanceof IAnnotationModelExtension2)
+						iter= ((IAnnotationModelExtension2) fAnnotationModel).getAnnotationIterator(region.getOffset(), region.getLength(), true, true);
+					else
+						iter= fAnnotationModel.getAnnotationIterator();
+					addSpellingAnnotations(iter, region, annotations);
+				}
+			}
+			return annotations;
+		}
+
+		private void addSpellingAnnotations(Iterator<Annotation> iter, IRegion region, Set<Annotation> annotations) {
+			while (iter.hasNext()) {
+				Annotation annotation= iter.next();
+				if (SpellingAnnotation.TYPE.equals(annotation.getType())) {
+					Position position= region == null ? null : fAnnotationModel.getPosition(annotation);
+					if (region == null || position != null && position.overlapsWith(region.getOffset(), region.getLength()))
+						annotations.add(annotation);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Tracks the ranges of the document that have been changed since they were checked last. The
+	 * tracker does not refer to the strategy, as the strategy is not told when it is no longer
+	 * used and cannot remove the tracker from the document then.
+	 */
+	private static final class DirtyRanges implements IDocumentListener, IDocumentPartitioningListener, IDocumentPartitioningListenerExtension2 {
+
+		/** The maximal number of tracked ranges, the whole document is checked if there are more. */
+		private static final int MAX_RANGES= 64;
+
+		/** The changed ranges as sorted, disjoint <code>{ start, end }</code> pairs. */
+		private List<int[]> fRanges= new ArrayList<>();
+		/** Whether the whole document has to be checked. */
+		private boolean fAll= true;
+		/** The number of changes of the document. */
+		private int fModificationCount;
+		/** The length of the document after the last change. */
+		private int fLength;
+
+		DirtyRanges(IDocument document) {
+			fLength= document.getLength();
+		}
+
+		@Override
+		public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+			// the ranges are shifted before the change, as changes can be reported together afterwards
+			fModificationCount++;
+			int start= event.getOffset();
+			int oldEnd= start + event.getLength();
+			int delta= (event.getText() == null ? 0 : event.getText().length()) - event.getLength();
+			int end= oldEnd + delta;
+			fLength+= delta;
+			if (fAll)
+				return;
+
+			List<int[]> ranges= new ArrayList<>(fRanges.size() + 1);
+			for (int[] range : fRanges) {
+				if (range[1] < start) {
+					ranges.add(range);
+				} else if (range[0] > oldEnd) {
+					range[0]+= delta;
+					range[1]+= delta;
+					ranges.add(range);
+				} else {
+					start= Math.min(start, range[0]);
+					end= Math.max(end, range[1] + delta);
+				}
+			}
+			fRanges= ranges;
+			add(start, end);
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public synchronized void documentPartitioningChanged(IDocument document) {
+			fAll= true;
+		}
+
+		@Override
+		public synchronized void documentPartitioningChanged(DocumentPartitioningChangedEvent event) {
+			// the partitioning is changed after the ranges have been shifted
+			IRegion coverage= event.getCoverage();
+			if (!fAll && coverage != null)
+				add(coverage.getOffset(), Math.min(fLength, coverage.getOffset() + coverage.getLength()));
+		}
+
+		private void add(int start, int end) {
+			int index= 0;
+			while (index < fRanges.size() && fRanges.get(index)[1] < start)
+				index++;
+			while (index < fRanges.size() && fRanges.get(index)[0] <= end) {
+				int[] range= fRanges.remove(index);
+				start= Math.min(start, range[0]);
+				end= Math.max(end, range[1]);
+			}
+			fRanges.add(index, new int[] { start, end });
+			if (fRanges.size() > MAX_RANGES) {
+				fAll= true;
+				fRanges.clear();
+			}
+		}
+
+		/**
+		 * Extends the changed ranges to whole lines and splits them into the batches in which
+		 * they are checked: first the lines in the visible region, then the others in chunks of
+		 * about <code>CHUNK_SIZE</code> characters. The ranges are replaced by the split ones.
+		 * Must be called while synchronized on this tracker.
+		 *
+		 * @param document the document
+		 * @param visible the visible region of the viewer, or <code>null</code> if unknown
+		 * @return the batches of ranges, or <code>null</code> if the document has been changed
+		 *         concurrently
+		 */
+		List<List<int[]>> plan(IDocument document, IRegion visible) {
+			try {
+				if (document.getLength() != fLength)
+					return null;
+				if (fAll || fRanges.isEmpty()) {
+					// a reconcile without a change checks the whole document, it may have been forced
+					fRanges= new ArrayList<>();
+					fRanges.add(new int[] { 0, fLength });
+					fAll= false;
+				}
+
+				int visibleStart= -1;
+				int visibleEnd= -1;
+				if (visible != null && visible.getOffset() + visible.getLength() <= fLength) {
+					visibleStart= document.getLineInformationOfOffset(visible.getOffset()).getOffset();
+					visibleEnd= getLineEnd(document, visible.getOffset() + visible.getLength());
+				}
+
+				List<int[]> ranges= new ArrayList<>();
+				for (int[] range : fRanges) {
+					int start= document.getLineInformationOfOffset(range[0]).getOffset();
+					int end= getLineEnd(document, range[1]);
+					int[] last= ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+					if (last != null && start <= last[1])
+						last[1]= Math.max(last[1], end);
+					else
+						ranges.add(new int[] { start, end });
+				}
+
+				List<int[]> visibleBatch= new ArrayList<>();
+				List<List<int[]>> batches= new ArrayList<>();
+				List<int[]> batch= new ArrayList<>();
+				int batchSize= 0;
+				List<int[]> split= new ArrayList<>();
+				for (int[] range : ranges) {
+					int start= range[0];
+					int end= range[1];
+					if (start < visibleEnd && visibleStart < end) {
+						if (start < visibleStart)
+							split.add(new int[] { start, visibleStart });
+						int[] visiblePart= new int[] { Math.max(start, visibleStart), Math.min(end, visibleEnd) };
+						visibleBatch.add(visiblePart);
+						if (visibleEnd < end)
+							split.add(new int[] { visibleEnd, end });
+					} else {
+						split.add(range);
+					}
+				}
+				fRanges= new ArrayList<>(visibleBatch);
+				for (int[] range : split) {
+					int start= range[0];
+					while (start < range[1] || start == range[1] && start == range[0]) {
+						int end= range[1];
+						if (end - start > CHUNK_SIZE) {
+							int line= document.getLineOfOffset(start + CHUNK_SIZE);
+							if (line + 1 < document.getNumberOfLines())
+								end= Math.min(end, document.getLineOffset(line + 1));
+						}
+						if (batchSize > 0 && batchSize + end - start > CHUNK_SIZE) {
+							batches.add(batch);
+							batch= new ArrayList<>();
+							batchSize= 0;
+						}
+						int[] part= new int[] { start, end };
+						batch.add(part);
+						fRanges.add(part);
+						batchSize+= end - start;
+						if (end == start)
+							break;
+						start= end;
+					}
+				}
+				if (!batch.isEmpty())
+					batches.add(batch);
+				if (!visibleBatch.isEmpty())
+					batches.add(0, visibleBatch);
+				fRanges.sort((r1, r2) -> Integer.compare(r1[0], r2[0]));
+				return batches;
+			} catch (BadLocationException e) {
+				return null;
+			}
+		}
+
+		private static int getLineEnd(IDocument document, int offset) throws BadLocationException {
+			IRegion line= document.getLineInformationOfOffset(offset);
+			return line.getOffset() + line.getLength();
+		}
 	}
 
 
+	/** The number of characters checked together when the whole document is reconciled. */
+	private static final int CHUNK_SIZE= 64 * 1024;
+
 	/** Text content type */
 	private static final IContentType TEXT_CONTENT_TYPE= Platform.getContentTypeManager().getContentType(IContentTypeManager.CT_TEXT);
 
@@ -143,6 +412,24 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 	 */
 	private IRegion[] fRegions= new IRegion[1];
 
+	/**
+	 * The ranges of the document changed since they were checked last, or <code>null</code>.
+	 * @since 3.18
+	 */
+	private DirtyRanges fDirtyRanges;
+
+	/**
+	 * The region of the document visible in the viewer, or <code>null</code> if unknown.
+	 * @since 3.18
+	 */
+	private volatile IRegion fVisibleRegion;
+
+	/**
+	 * Keeps the visible region up to date while a document is set, or <code>null</code>.
+	 * @since 3.18
+	 */
+	private VisibleRegionTracker fVisibleRegionTracker;
+
 
 	/**
 	 * Creates a new comment reconcile strategy.
@@ -157,7 +444,6 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 		fSpellingService= spellingService;
 		fSpellingContext= new SpellingContext();
 		fSpellingContext.setContentType(getContentType());
-
 	}
 
 	@Override
@@ -186,10 +472,119 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 		if (getAnnotationModel() == null || fSpellingProblemCollector == null)
 			return;
 
+		if (fSpellingProblemCollector instanceof SpellingProblemCollector) {
+			SpellingProblemCollector collector= (SpellingProblemCollector) fSpellingProblemCollector;
+			DirtyRanges dirtyRanges= fDirtyRanges;
+			if (dirtyRanges != null && region.getOffset() == 0 && region.getLength() == fDocument.getLength()) {
+				reconcileDirtyRanges(dirtyRanges, collector);
+				return;
+			}
+			collector.setRegions(fRegions);
+		}
+
 		fRegions[0]= region;
 		fSpellingService.check(fDocument, fRegions, fSpellingContext, fSpellingProblemCollector, fProgressMonitor);
 	}
 
+	/**
+	 * Checks the lines changed since they were checked last, the visible ones first.
+	 *
+	 * @param dirtyRanges the dirty ranges of the document
+	 * @param collector the spelling problem collector
+	 */
+	private void reconcileDirtyRanges(DirtyRanges dirtyRanges, SpellingProblemCollector collector) {
+		List<List<int[]>> batches;
+		int modificationCount;
+		synchronized (dirtyRanges) {
+			batches= dirtyRanges.plan(fDocument, fVisibleRegion);
+			modificationCount= dirtyRanges.fModificationCount;
+		}
+		if (batches == null)
+			return;
+
+		for (List<int[]> batch : batches) {
+			IRegion[] regions= new IRegion[batch.size()];
+			synchronized (dirtyRanges) {
+				if (dirtyRanges.fModificationCount != modificationCount)
+					return;
+				for (int i= 0; i < regions.length; i++) {
+					int[] range= batch.get(i);
+					regions[i]= new Region(range[0], range[1] - range[0]);
+				}
+			}
+
+			collector.setRegions(regions);
+			fSpellingService.check(fDocument, regions, fSpellingContext, collector, fProgressMonitor);
+
+			// the ranges stay dirty if the document has been changed while they were checked
+			if (fProgressMonitor != null && fProgressMonitor.isCanceled())
+				return;
+			synchronized (dirtyRanges) {
+				if (dirtyRanges.fModificationCount != modificationCount)
+					return;
+				dirtyRanges.fRanges.removeAll(batch);
+			}
+		}
+	}
+
+	/**
+	 * Updates the visible region while the viewer is scrolled or resized.
+	 *
+	 * @since 3.18
+	 */
+	private final class VisibleRegionTracker extends ControlAdapter implements IViewportListener {
+
+		/** The text widget whose size is tracked, or <code>null</code>. */
+		private final StyledText fTextWidget;
+
+		VisibleRegionTracker() {
+			fViewer.addViewportListener(this);
+			StyledText textWidget= fViewer.getTextWidget();
+			if (textWidget != null && !textWidget.isDisposed() && textWidget.getDisplay().getThread() == Thread.currentThread()) {
+				fTextWidget= textWidget;
+				fTextWidget.addControlListener(this);
+				updateVisibleRegion();
+			} else {
+				fTextWidget= null;
+			}
+		}
+
+		@Override
+		public void viewportChanged(int verticalOffset) {
+			updateVisibleRegion();
+		}
+
+		@Override
+		public void controlResized(ControlEvent e) {
+			updateVisibleRegion();
+		}
+
+		void dispose() {
+			fViewer.removeViewportListener(this);
+			if (fTextWidget == null || fTextWidget.isDisposed())
+				return;
+			Display display= fTextWidget.getDisplay();
+			if (display.getThread() == Thread.currentThread())
+				fTextWidget.removeControlListener(this);
+			else
+				display.asyncExec(() -> {
+					if (!fTextWidget.isDisposed())
+						fTextWidget.removeControlListener(this);
+				});
+		}
+	}
+
+	/**
+	 * Updates the visible region from the viewer, must be called in the UI thread.
+	 */
+	private void updateVisibleRegion() {
+		if (fViewer.getDocument() == null)
+			return;
+		int top= fViewer.getTopIndexStartOffset();
+		int bottom= fViewer.getBottomIndexEndOffset();
+		fVisibleRegion= top < 0 || bottom < top ? null : new Region(top, bottom - top + 1);
+	}
+
 	/**
 	 * Returns the content type of the underlying editor input.
 	 *
@@ -211,10 +606,61 @@ public class SpellingReconcileStrategy implements IReconcilingStrategy, IReconci
 
 	@Override
 	public void setDocument(IDocument document) {
+		disconnect();
 		fDocument= document;
+		if (document != null) {
+			fDirtyRanges= new DirtyRanges(document);
+			document.addDocumentListener(fDirtyRanges);
+			document.addDocumentPartitioningListener(fDirtyRanges);
+			fVisibleRegionTracker= new VisibleRegionTracker();
+		}
 		fSpellingProblemCollector= createSpellingProblemCollector();
 	}
 
+	/**
+	 * Removes the listeners registered for the current document.
+	 *
+	 * @since 3.18
+	 */
+	private void disconnect() {
+		if (fDocument != null && fDirtyRanges != null) {
+			fDocument.removeDocumentListener(fDirtyRanges);
+			fDocument.removeDocumentPartitioningListener(fDirtyRanges);
+		}
+		fDirtyRanges= null;
+		if (fVisibleRegionTracker != null) {
+			fVisibleRegionTracker.dispose();
+			fVisibleRegionTracker= null;
+		}
+		fVisibleRegion= null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The listeners of this strategy are registered when a document is set.
+	 * </p>
+	 *
+	 * @since 3.18
+	 */
+	@Override
+	public void install(ITextViewer textViewer) {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Removes the listeners registered for the current document, since the reconciler does not
+	 * reset the document when it is uninstalled.
+	 * </p>
+	 *
+	 * @since 3.18
+	 */
+	@Override
+	public void uninstall() {
+		disconnect();
+	}
+
 	/**
 	 * Creates a new spelling problem collector.
 	 *
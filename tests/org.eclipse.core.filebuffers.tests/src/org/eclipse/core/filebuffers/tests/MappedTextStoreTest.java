@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.filebuffers.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.internal.filebuffers.MappedLineTracker;
+import org.eclipse.core.internal.filebuffers.MappedTextStore;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+/**
+ * Tests {@link MappedTextStore} and {@link MappedLineTracker} against the content decoded into a
+ * String and a {@link DefaultLineTracker}.
+ */
+public class MappedTextStoreTest {
+
+	private Path fFile;
+
+	@Before
+	public void setUp() throws IOException {
+		fFile= Files.createTempFile("mapped", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(fFile);
+	}
+
+	@Test
+	public void testSupportedCharsets() {
+		assertTrue(MappedTextStore.isSupported(StandardCharsets.UTF_8));
+		assertTrue(MappedTextStore.isSupported(StandardCharsets.ISO_8859_1));
+		assertTrue(MappedTextStore.isSupported(StandardCharsets.UTF_16LE));
+		assertFalse(MappedTextStore.isSupported(StandardCharsets.UTF_16));
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		check("", StandardCharsets.UTF_8); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testDelimitersAtWindowBoundaries() throws Exception {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 1; i <= 3; i++) {
+			while (buffer.length() < i * 64 * 1024 - 1)
+				buffer.append('x');
+			buffer.append(i == 2 ? "\n\r" : "\r\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		buffer.append("last\r"); //$NON-NLS-1$
+		check(buffer.toString(), StandardCharsets.ISO_8859_1);
+	}
+
+	@Test
+	public void testUTF8() throws Exception {
+		check(createContent(new Random(7), "a\u00e9\u20ac\ud83d\ude00"), StandardCharsets.UTF_8); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testUTF16() throws Exception {
+		check(createContent(new Random(11), "ab\u20ac\ud83d\ude00"), StandardCharsets.UTF_16LE); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testMalformedInput() throws Exception {
+		byte[] bytes= createContent(new Random(13), "ab").getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+		for (int i= 1000; i < bytes.length; i+= 10000)
+			bytes[i]= (byte) 0xC3;
+		Files.write(fFile, bytes);
+		check(new String(bytes, StandardCharsets.UTF_8), StandardCharsets.UTF_8, 0);
+	}
+
+	@Test
+	public void testSkipBytes() throws Exception {
+		byte[] content= "line1\nline2".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+		byte[] bytes= new byte[content.length + 3];
+		bytes[0]= (byte) 0xEF;
+		bytes[1]= (byte) 0xBB;
+		bytes[2]= (byte) 0xBF;
+		System.arraycopy(content, 0, bytes, 3, content.length);
+		Files.write(fFile, bytes);
+		check("line1\nline2", StandardCharsets.UTF_8, 3); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testModification() throws Exception {
+		String content= createContent(new Random(17), "abc"); //$NON-NLS-1$
+		Files.write(fFile, content.getBytes(StandardCharsets.UTF_8));
+		MappedTextStore store= new MappedTextStore(fFile, StandardCharsets.UTF_8, 0);
+		MappedLineTracker tracker= new MappedLineTracker(store);
+		DefaultLineTracker expected= new DefaultLineTracker();
+		expected.set(content);
+
+		tracker.replace(100, 50, "new\nlines\r\n"); //$NON-NLS-1$
+		expected.replace(100, 50, "new\nlines\r\n"); //$NON-NLS-1$
+		assertEquals(expected.getNumberOfLines(), tracker.getNumberOfLines());
+		for (int line= 0; line < 20; line++)
+			assertEquals(expected.getLineInformation(line), tracker.getLineInformation(line));
+
+		try {
+			store.replace(0, 0, "x"); //$NON-NLS-1$
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testExternalModification() throws Exception {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < 100000; i++)
+			buffer.append(i % 10 == 9 ? '\n' : 'x');
+		String content= buffer.toString();
+		Files.write(fFile, content.getBytes(StandardCharsets.ISO_8859_1));
+		MappedTextStore store= new MappedTextStore(fFile, StandardCharsets.ISO_8859_1, 0);
+		MappedLineTracker tracker= new MappedLineTracker(store);
+		int lines= tracker.getNumberOfLines();
+
+		// more line delimiters than when the file was indexed
+		Files.write(fFile, content.replace('x', '\n').getBytes(StandardCharsets.ISO_8859_1));
+		checkConsistent(store, tracker, lines);
+
+		// fewer line delimiters than when the file was indexed
+		store= new MappedTextStore(fFile, StandardCharsets.ISO_8859_1, 0);
+		tracker= new MappedLineTracker(store);
+		lines= tracker.getNumberOfLines();
+		Files.write(fFile, content.replace('\n', 'x').getBytes(StandardCharsets.ISO_8859_1));
+		checkConsistent(store, tracker, lines);
+	}
+
+	private void checkConsistent(MappedTextStore store, MappedLineTracker tracker, int lines) throws BadLocationException {
+		assertEquals(lines, tracker.getNumberOfLines());
+		int previous= 0;
+		for (int line= 0; line < lines; line++) {
+			int offset= tracker.getLineOffset(line);
+			assertTrue(offset >= previous);
+			previous= offset;
+		}
+		for (int offset= 0; offset <= store.getLength(); offset+= 997) {
+			int line= tracker.getLineNumberOfOffset(offset);
+			assertTrue(line >= 0 && line < lines);
+		}
+	}
+
+	private void check(String content, Charset charset) throws Exception {
+		Files.write(fFile, content.getBytes(charset));
+		check(content, charset, 0);
+	}
+
+	private void check(String expected, Charset charset, int skipBytes) throws Exception {
+		MappedTextStore store= new MappedTextStore(fFile, charset, skipBytes);
+		assertEquals(expected.length(), store.getLength());
+		assertEquals(expected, store.get(0, store.getLength()));
+		Random random= new Random(expected.length());
+		for (int i= 0; i < 1000 && expected.length() > 0; i++) {
+			int offset= random.nextInt(expected.length());
+			assertEquals(expected.charAt(offset), store.get(offset));
+			int length= random.nextInt(expected.length() - offset + 1);
+			assertEquals(expected.substring(offset, offset + length), store.get(offset, length));
+		}
+
+		DefaultLineTracker reference= new DefaultLineTracker();
+		reference.set(expected);
+		MappedLineTracker tracker= new MappedLineTracker(store);
+		assertEquals(reference.getNumberOfLines(), tracker.getNumberOfLines());
+		for (int line= 0; line <= reference.getNumberOfLines(); line++)
+			checkLine(reference, tracker, line);
+		for (int offset= 0; offset <= expected.length(); offset+= 1 + random.nextInt(97)) {
+			assertEquals(reference.getLineNumberOfOffset(offset), tracker.getLineNumberOfOffset(offset));
+			assertEquals(toRegion(reference.getLineInformationOfOffset(offset)), toRegion(tracker.getLineInformationOfOffset(offset)));
+			int length= random.nextInt(Math.min(expected.length() - offset, 500) + 1);
+			assertEquals(reference.getNumberOfLines(offset, length), tracker.getNumberOfLines(offset, length));
+		}
+		int length= expected.length();
+		assertEquals(reference.getLineNumberOfOffset(length), tracker.getLineNumberOfOffset(length));
+		assertEquals(toRegion(reference.getLineInformationOfOffset(length)), toRegion(tracker.getLineInformationOfOffset(length)));
+	}
+
+	private void checkLine(ILineTracker reference, ILineTracker tracker, int line) {
+		assertEquals(result(() -> reference.getLineOffset(line)), result(() -> tracker.getLineOffset(line)));
+		assertEquals(result(() -> reference.getLineLength(line)), result(() -> tracker.getLineLength(line)));
+		assertEquals(result(() -> reference.getLineDelimiter(line)), result(() -> tracker.getLineDelimiter(line)));
+		assertEquals(result(() -> reference.getLineInformation(line)), result(() -> tracker.getLineInformation(line)));
+	}
+
+	private interface Query {
+		Object run() throws BadLocationException;
+	}
+
+	private static Object result(Query query) {
+		try {
+			Object result= query.run();
+			return result instanceof IRegion region ? toRegion(region) : result;
+		} catch (BadLocationException e) {
+			return BadLocationException.class;
+		}
+	}
+
+	private static Region toRegion(IRegion region) {
+		return new Region(region.getOffset(), region.getLength());
+	}
+
+	private static String createContent(Random random, String characters) {
+		String[] delimiters= { "\n", "\r", "\r\n" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		StringBuilder buffer= new StringBuilder();
+		while (buffer.length() < 300000) {
+			int length= random.nextInt(120);
+			for (int i= 0; i < length; i++) {
+				int index= random.nextInt(characters.length());
+				char c= characters.charAt(index);
+				if (Character.isHighSurrogate(c))
+					buffer.append(c).append(characters.charAt(index + 1));
+				else if (!Character.isLowSurrogate(c))
+					buffer.append(c);
+			}
+			buffer.append(delimiters[random.nextInt(delimiters.length)]);
+		}
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.filebuffers.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.eclipse.core.internal.filebuffers.SynchronizableDocument;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.DocumentRewriteSessionType;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * Tests the read/write lock mode of {@link SynchronizableDocument}.
+ */
+public class SynchronizableDocumentTest {
+
+	private static final int LINES= 1000;
+	private static final int LINE_LENGTH= 20;
+
+	private static SynchronizableDocument createDocument() {
+		SynchronizableDocument document= new SynchronizableDocument(true);
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < LINES; i++)
+			buffer.append("a".repeat(LINE_LENGTH - 1)).append('\n'); //$NON-NLS-1$
+		document.set(buffer.toString());
+		document.setLockObject(new Object());
+		return document;
+	}
+
+	@Test
+	public void testListenerReadsDuringChange() throws Exception {
+		SynchronizableDocument document= createDocument();
+		AtomicReference<String> changed= new AtomicReference<>();
+		document.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+				try {
+					assertEquals("aaa", document.get(0, 3)); //$NON-NLS-1$
+				} catch (BadLocationException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				try {
+					IRegion line= document.getLineInformation(0);
+					changed.set(document.get(line.getOffset(), line.getLength()));
+				} catch (BadLocationException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		document.replace(0, 3, "bbb"); //$NON-NLS-1$
+		assertEquals("bbb" + "a".repeat(LINE_LENGTH - 4), changed.get()); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testReadDuringRewriteSession() throws Exception {
+		SynchronizableDocument document= createDocument();
+		DocumentRewriteSession session= document.startRewriteSession(DocumentRewriteSessionType.UNRESTRICTED);
+		document.replace(0, LINE_LENGTH, ""); //$NON-NLS-1$
+		AtomicReference<Object> result= new AtomicReference<>();
+		Thread reader= new Thread(() -> {
+			try {
+				result.set(Integer.valueOf(document.getLineOffset(LINES - 2)));
+			} catch (BadLocationException e) {
+				result.set(e);
+			}
+		});
+		reader.start();
+		reader.join();
+		document.stopRewriteSession(session);
+
+		assertEquals(Integer.valueOf((LINES - 2) * LINE_LENGTH), result.get());
+	}
+
+	/**
+	 * Every change replaces a whole line with another letter. Readers must never see a line with
+	 * different letters.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	@Test
+	public void testConcurrentReadersSeeCompleteChanges() throws Exception {
+		SynchronizableDocument document= createDocument();
+		AtomicBoolean done= new AtomicBoolean();
+		AtomicReference<Throwable> failure= new AtomicReference<>();
+		List<Thread> readers= new ArrayList<>();
+		for (int i= 0; i < 4; i++) {
+			int first= i;
+			Thread reader= new Thread(() -> {
+				try {
+					int line= first;
+					while (!done.get()) {
+						line= (line + 7) % LINES;
+						String text= document.get(document.getLineOffset(line), LINE_LENGTH - 1);
+						String expected= String.valueOf(text.charAt(0)).repeat(LINE_LENGTH - 1);
+						if (!expected.equals(text))
+							throw new AssertionError("line " + line + ": " + text); //$NON-NLS-1$ //$NON-NLS-2$
+						char c= document.getChar(line * LINE_LENGTH + LINE_LENGTH / 2);
+						if (c < 'a' || c > 'z')
+							throw new AssertionError("line " + line + ": " + c); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+
+		for (int i= 0; i < 20_000; i++) {
+			int line= i % LINES;
+			String letter= String.valueOf((char) ('a' + i % 26));
+			document.replace(line * LINE_LENGTH, LINE_LENGTH - 1, letter.repeat(LINE_LENGTH - 1));
+		}
+		done.set(true);
+		for (Thread reader : readers)
+			reader.join();
+
+		assertNull(failure.get());
+	}
+}
@@ -0,0 +1,365 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.TextPresentation;
+import org.eclipse.jface.text.presentation.IPresentationRepairer;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WordRule;
+
+/**
+ * Tests the background and the viewport first repair of {@link PresentationReconciler}.
+ */
+public class PresentationReconcilerTest {
+
+	/**
+	 * Records all presentations and allows to define the viewport.
+	 */
+	private static class RecordingTextViewer extends TestTextViewer {
+
+		private final List<TextPresentation> fPresentations= new ArrayList<>();
+		private int fTopOffset;
+		private int fBottomOffset;
+		private final List<IViewportListener> fViewportListeners= new ArrayList<>();
+
+		@Override
+		public synchronized void changeTextPresentation(TextPresentation presentation, boolean p1) {
+			fPresentations.add(presentation);
+			notifyAll();
+		}
+
+		@Override
+		public int getTopIndexStartOffset() {
+			return fTopOffset;
+		}
+
+		@Override
+		public int getBottomIndexEndOffset() {
+			return fBottomOffset;
+		}
+
+		@Override
+		public void addViewportListener(IViewportListener listener) {
+			fViewportListeners.add(listener);
+		}
+
+		@Override
+		public void removeViewportListener(IViewportListener listener) {
+			fViewportListeners.remove(listener);
+		}
+
+		void scrollTo(int topOffset, int bottomOffset) {
+			fTopOffset= topOffset;
+			fBottomOffset= bottomOffset;
+			for (IViewportListener listener : new ArrayList<>(fViewportListeners))
+				listener.viewportChanged(0);
+		}
+
+		synchronized List<TextPresentation> getPresentations() {
+			return new ArrayList<>(fPresentations);
+		}
+
+		synchronized void clearPresentations() {
+			fPresentations.clear();
+		}
+
+		/**
+		 * Waits until the recorded presentations cover the given range.
+		 */
+		synchronized void waitForRepair(int offset, int end) throws InterruptedException {
+			long timeout= System.currentTimeMillis() + 10_000;
+			while (!covers(offset, end)) {
+				long wait= timeout - System.currentTimeMillis();
+				if (wait <= 0)
+					fail("presentation not repaired");
+				wait(wait);
+			}
+		}
+
+		private boolean covers(int offset, int end) {
+			boolean[] covered= new boolean[end - offset];
+			for (TextPresentation presentation : fPresentations) {
+				IRegion extent= presentation.getExtent();
+				for (int i= Math.max(extent.getOffset(), offset); i < Math.min(extent.getOffset() + extent.getLength(), end); i++)
+					covered[i - offset]= true;
+			}
+			for (boolean c : covered) {
+				if (!c)
+					return false;
+			}
+			return true;
+		}
+	}
+
+	private PresentationReconciler fReconciler;
+
+	@After
+	public void tearDown() {
+		if (fReconciler != null)
+			fReconciler.uninstall();
+	}
+
+	private static PresentationReconciler createReconciler() {
+		WordRule rule= new WordRule(new IWordDetector() {
+			@Override
+			public boolean isWordStart(char c) {
+				return Character.isLetter(c);
+			}
+
+			@Override
+			public boolean isWordPart(char c) {
+				return Character.isLetter(c);
+			}
+		});
+		rule.addWord("keyword", new Token(new TextAttribute(null, null, SWT.BOLD)));
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setRules(new IRule[] { rule });
+		DefaultDamagerRepairer damagerRepairer= new DefaultDamagerRepairer(scanner);
+		PresentationReconciler reconciler= new PresentationReconciler();
+		reconciler.setDamager(damagerRepairer, IDocument.DEFAULT_CONTENT_TYPE);
+		reconciler.setRepairer(damagerRepairer, IDocument.DEFAULT_CONTENT_TYPE);
+		return reconciler;
+	}
+
+	private static String createText(int lines) {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < lines; i++)
+			buffer.append(i % 3 == 0 ? "keyword " : "word ").append(i).append(" text\n");
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns the bold ranges; the other ranges may be split differently at chunk boundaries.
+	 */
+	private static List<String> getStyles(List<TextPresentation> presentations) {
+		List<String> styles= new ArrayList<>();
+		for (TextPresentation presentation : presentations) {
+			Iterator<StyleRange> iterator= presentation.getNonDefaultStyleRangeIterator();
+			while (iterator.hasNext()) {
+				StyleRange range= iterator.next();
+				if (range.fontStyle == SWT.BOLD)
+					styles.add(range.start + ":" + range.length);
+			}
+		}
+		styles.sort((s1, s2) -> Integer.compare(Integer.parseInt(s1.substring(0, s1.indexOf(':'))), Integer.parseInt(s2.substring(0, s2.indexOf(':')))));
+		return styles;
+	}
+
+	@Test
+	public void testBackgroundRepair() throws Exception {
+		IDocument document= new Document(createText(5000));
+
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		PresentationReconciler reconciler= createReconciler();
+		reconciler.install(viewer);
+		viewer.setDocument(document);
+		List<String> expected= getStyles(viewer.getPresentations());
+		reconciler.uninstall();
+
+		viewer= new RecordingTextViewer();
+		fReconciler= createReconciler();
+		fReconciler.setBackgroundRepair(true);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+		viewer.waitForRepair(0, document.getLength());
+
+		assertTrue(viewer.getPresentations().size() > 1);
+		assertEquals(expected, getStyles(viewer.getPresentations()));
+	}
+
+	@Test
+	public void testVisibleRangeFirst() throws Exception {
+		IDocument document= new Document(createText(5000));
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		viewer.fTopOffset= document.getLineOffset(3000);
+		viewer.fBottomOffset= document.getLineOffset(3050);
+		fReconciler= createReconciler();
+		fReconciler.setBackgroundRepair(true);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+		viewer.waitForRepair(0, document.getLength());
+
+		IRegion first= viewer.getPresentations().get(0).getExtent();
+		assertEquals(viewer.fTopOffset, first.getOffset());
+		assertTrue(first.getOffset() + first.getLength() >= viewer.fBottomOffset);
+	}
+
+	@Test
+	public void testStaleRepairIsDiscarded() throws Exception {
+		IDocument document= new Document(createText(10));
+		CountDownLatch changed= new CountDownLatch(1);
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		fReconciler= createReconciler();
+		IPresentationRepairer repairer= fReconciler.getRepairer(IDocument.DEFAULT_CONTENT_TYPE);
+		fReconciler.setRepairer(new IPresentationRepairer() {
+			@Override
+			public void setDocument(IDocument d) {
+				repairer.setDocument(d);
+			}
+
+			@Override
+			public void createPresentation(TextPresentation presentation, ITypedRegion damage) {
+				try {
+					// the first repair takes until the document is changed
+					changed.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				repairer.createPresentation(presentation, damage);
+			}
+		}, IDocument.DEFAULT_CONTENT_TYPE);
+		fReconciler.setBackgroundRepair(true);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+		// registered after the reconciler, so it knows about the change when the repair continues
+		document.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+				changed.countDown();
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+			}
+		});
+		document.replace(0, 0, "keyword\n");
+		viewer.waitForRepair(0, document.getLength());
+
+		for (TextPresentation presentation : viewer.getPresentations()) {
+			IRegion extent= presentation.getExtent();
+			assertEquals(0, extent.getOffset());
+			assertEquals(document.getLength(), extent.getLength());
+		}
+		assertTrue(getStyles(viewer.getPresentations()).contains("0:7"));
+
+		viewer.clearPresentations();
+		document.replace(0, 7, "word");
+		viewer.waitForRepair(0, 4);
+		assertFalse(getStyles(viewer.getPresentations()).contains("0:4"));
+	}
+
+	@Test
+	public void testBackgroundRepairOfCopiedRange() throws Exception {
+		// the default text store does not share snapshots, only the damaged range is copied
+		IDocument document= new Document(createText(5000));
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		fReconciler= createReconciler();
+		fReconciler.setBackgroundRepair(true);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+		viewer.waitForRepair(0, document.getLength());
+
+		viewer.clearPresentations();
+		int offset= document.getLineOffset(2000);
+		document.replace(offset, 0, "keyword ");
+		viewer.waitForRepair(offset, offset + 8);
+
+		for (TextPresentation presentation : viewer.getPresentations()) {
+			IRegion extent= presentation.getExtent();
+			assertTrue(extent.getOffset() <= offset);
+			assertTrue(extent.getOffset() + extent.getLength() < document.getLength());
+		}
+		assertTrue(getStyles(viewer.getPresentations()).contains(offset + ":7"));
+	}
+
+	@Test
+	public void testViewportFirstRepair() throws Exception {
+		IDocument document= new Document(createText(5000));
+
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		PresentationReconciler reconciler= createReconciler();
+		reconciler.install(viewer);
+		viewer.setDocument(document);
+		List<String> expected= getStyles(viewer.getPresentations());
+		reconciler.uninstall();
+
+		viewer= new RecordingTextViewer();
+		viewer.fTopOffset= document.getLineOffset(3000);
+		viewer.fBottomOffset= document.getLineOffset(3050);
+		fReconciler= createReconciler();
+		fReconciler.setViewportRepairThreshold(1000);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+
+		List<TextPresentation> presentations= viewer.getPresentations();
+		assertTrue(presentations.size() > 2);
+		IRegion first= presentations.get(0).getExtent();
+		assertEquals(viewer.fTopOffset, first.getOffset());
+		assertEquals(viewer.fBottomOffset, first.getOffset() + first.getLength());
+		// the chunks next to the viewport come next
+		IRegion second= presentations.get(1).getExtent();
+		assertTrue(second.getOffset() == viewer.fBottomOffset || second.getOffset() + second.getLength() == viewer.fTopOffset);
+		assertTrue(viewer.covers(0, document.getLength()));
+		assertEquals(expected, getStyles(presentations));
+	}
+
+	@Test
+	public void testOffscreenDamageRepairedWhenVisible() throws Exception {
+		IDocument document= new Document(createText(5000));
+		RecordingTextViewer viewer= new RecordingTextViewer();
+		viewer.fBottomOffset= document.getLineOffset(50);
+		fReconciler= createReconciler();
+		fReconciler.setViewportRepairThreshold(1000);
+		fReconciler.setOffscreenRepairLimit(1000);
+		fReconciler.install(viewer);
+		viewer.setDocument(document);
+
+		assertEquals(1, viewer.getPresentations().size());
+		assertTrue(viewer.covers(0, viewer.fBottomOffset));
+
+		viewer.clearPresentations();
+		viewer.scrollTo(document.getLineOffset(2000), document.getLineOffset(2050));
+		assertEquals(1, viewer.getPresentations().size());
+		IRegion extent= viewer.getPresentations().get(0).getExtent();
+		assertEquals(viewer.fTopOffset, extent.getOffset());
+		assertEquals(viewer.fBottomOffset, extent.getOffset() + extent.getLength());
+
+		// an edit in the viewport repairs the damage, the repaired range is not repaired again
+		viewer.clearPresentations();
+		document.replace(viewer.fTopOffset, 0, "keyword ");
+		viewer.scrollTo(viewer.fTopOffset, document.getLineOffset(2050));
+		assertEquals(1, viewer.getPresentations().size());
+		assertTrue(getStyles(viewer.getPresentations()).contains(viewer.fTopOffset + ":7"));
+	}
+}
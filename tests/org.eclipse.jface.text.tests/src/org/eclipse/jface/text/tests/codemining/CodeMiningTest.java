@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Red Hat Inc. and others.
+ * Copyright (c) 2019, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,10 +13,12 @@
  *******************************************************************************/
 package org.eclipse.jface.text.tests.codemining;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -47,6 +49,7 @@ import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.codemining.ICodeMining;
 import org.eclipse.jface.text.codemining.ICodeMiningProvider;
+import org.eclipse.jface.text.codemining.LineHeaderCodeMining;
 import org.eclipse.jface.text.reconciler.DirtyRegion;
 import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
 import org.eclipse.jface.text.reconciler.MonoReconciler;
@@ -222,6 +225,49 @@ public class CodeMiningTest {
 		}.waitForCondition(fViewer.getTextWidget().getDisplay(), 1000));
 	}
 
+	@Test
+	public void testCodeMiningResolvedNearVisibleLines() throws BadLocationException {
+		AtomicInteger resolved= new AtomicInteger();
+		AtomicReference<BadLocationException> error= new AtomicReference<>();
+		fViewer.setCodeMiningProviders(new ICodeMiningProvider[] { new ICodeMiningProvider() {
+			@Override
+			public CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IProgressMonitor monitor) {
+				IDocument document= viewer.getDocument();
+				List<ICodeMining> minings= new ArrayList<>();
+				for (int line= 0; line < document.getNumberOfLines(); line++) {
+					try {
+						minings.add(new LineHeaderCodeMining(line, document, this) {
+							@Override
+							protected CompletableFuture<Void> doResolve(ITextViewer textViewer, IProgressMonitor progressMonitor) {
+								resolved.incrementAndGet();
+								setLabel("resolved");
+								return CompletableFuture.completedFuture(null);
+							}
+						});
+					} catch (BadLocationException e) {
+						error.compareAndSet(null, e);
+					}
+				}
+				return CompletableFuture.completedFuture(minings);
+			}
+
+			@Override
+			public void dispose() {
+			}
+		} });
+		fViewer.getDocument().set(TextViewerTest.generate5000Lines());
+		Assert.assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return fViewer.getTextWidget().getLineVerticalIndent(0) > 0;
+			}
+		}.waitForCondition(fViewer.getControl().getDisplay(), 3000));
+		DisplayHelper.sleep(fViewer.getControl().getDisplay(), 500);
+		Assert.assertNull(error.get());
+		int lines= fViewer.getDocument().getNumberOfLines();
+		Assert.assertTrue("Code minings far from the visible lines are resolved", resolved.get() < lines / 10);
+	}
+
 	private static boolean hasCodeMiningPrintedAfterTextOnLine(ITextViewer viewer, int line) throws BadLocationException {
 		StyledText widget = viewer.getTextWidget();
 		IDocument document= viewer.getDocument();
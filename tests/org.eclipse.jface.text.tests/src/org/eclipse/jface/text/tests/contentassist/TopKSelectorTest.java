@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.contentassist;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.internal.text.TopKSelector;
+
+public class TopKSelectorTest {
+
+	@Test
+	public void testSelect() {
+		List<Integer> elements= Arrays.asList(5, 3, 9, 1, 7);
+		assertEquals(Arrays.asList(1, 3, 5), TopKSelector.select(elements, 3, Comparator.naturalOrder()));
+		assertEquals(Arrays.asList(1, 3, 5, 7, 9), TopKSelector.select(elements, 10, Comparator.naturalOrder()));
+		assertEquals(Arrays.asList(), TopKSelector.select(elements, 0, Comparator.naturalOrder()));
+		assertEquals(Arrays.asList(5, 3), TopKSelector.select(elements, 2, null));
+		assertEquals(Arrays.asList(5, 3, 9, 1, 7), elements);
+	}
+
+	@Test
+	public void testStable() {
+		List<String> elements= Arrays.asList("b1", "a1", "b2", "a2", "c1", "a3");
+		Comparator<String> firstChar= Comparator.comparing(s -> Character.valueOf(s.charAt(0)));
+		assertEquals(Arrays.asList("a1", "a2", "a3", "b1"), TopKSelector.select(elements, 4, firstChar));
+	}
+
+	@Test
+	public void testMoveToFront() {
+		List<String> elements= Arrays.asList("a", "b", "c", "d");
+		assertEquals(Arrays.asList("c", "a", "b", "d"), TopKSelector.moveToFront(elements, Arrays.asList("c", "a")));
+		assertEquals(elements, TopKSelector.moveToFront(elements, Arrays.asList()));
+	}
+
+	@Test
+	public void testRandom() {
+		Random random= new Random(42);
+		for (int i= 0; i < 100; i++) {
+			List<Integer> elements= new ArrayList<>();
+			int size= random.nextInt(200);
+			for (int j= 0; j < size; j++)
+				elements.add(Integer.valueOf(random.nextInt(50)));
+			Comparator<Integer> comparator= Comparator.comparing(e -> Integer.valueOf(e.intValue() / 3));
+			int limit= random.nextInt(60) + 1;
+
+			List<Integer> sorted= new ArrayList<>(elements);
+			sorted.sort(comparator);
+			assertEquals(sorted.subList(0, Math.min(limit, size)), TopKSelector.select(elements, limit, comparator));
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.reconciler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
+import org.eclipse.jface.text.reconciler.Reconciler;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.tests.TestTextViewer;
+
+/**
+ * Tests the parallel reconciling and the dirty region coalescing of {@link Reconciler}.
+ */
+public class ReconcilerTest {
+
+	private static final String COMMENT= "comment";
+
+	/**
+	 * Waits in its first reconcile until the other strategies have been called as well.
+	 */
+	private static class WaitingStrategy implements IReconcilingStrategy {
+
+		private final CountDownLatch fStarted;
+		private final CountDownLatch fDone;
+		private volatile boolean fParallel;
+
+		WaitingStrategy(CountDownLatch started, CountDownLatch done) {
+			fStarted= started;
+			fDone= done;
+		}
+
+		@Override
+		public void setDocument(IDocument document) {
+		}
+
+		@Override
+		public void reconcile(DirtyRegion dirtyRegion, IRegion subRegion) {
+			reconcile(subRegion);
+		}
+
+		@Override
+		public void reconcile(IRegion partition) {
+			if (fDone.getCount() == 0)
+				return;
+			fStarted.countDown();
+			try {
+				fParallel= fStarted.await(1, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			fDone.countDown();
+		}
+	}
+
+	private Reconciler fReconciler;
+
+	@After
+	public void tearDown() {
+		if (fReconciler != null)
+			fReconciler.uninstall();
+	}
+
+	private static IDocument createDocument() {
+		Document document= new Document("code /* comment */ code");
+		FastPartitioner partitioner= new FastPartitioner(new RuleBasedPartitionScanner() {
+			{
+				setPredicateRules(new IPredicateRule[] { new MultiLineRule("/*", "*/", new Token(COMMENT)) });
+			}
+		}, new String[] { COMMENT });
+		partitioner.connect(document);
+		document.setDocumentPartitioner(partitioner);
+		return document;
+	}
+
+	private boolean[] reconcile(boolean parallel) throws Exception {
+		CountDownLatch started= new CountDownLatch(2);
+		CountDownLatch done= new CountDownLatch(2);
+		WaitingStrategy code= new WaitingStrategy(started, done);
+		WaitingStrategy comment= new WaitingStrategy(started, done);
+		fReconciler= new Reconciler();
+		fReconciler.setIsIncrementalReconciler(false);
+		fReconciler.setDelay(50);
+		fReconciler.setParallelReconciling(parallel);
+		fReconciler.setReconcilingStrategy(code, IDocument.DEFAULT_CONTENT_TYPE);
+		fReconciler.setReconcilingStrategy(comment, COMMENT);
+		TestTextViewer viewer= new TestTextViewer();
+		fReconciler.install(viewer);
+		IDocument document= createDocument();
+		viewer.setDocument(document);
+		document.replace(0, 0, "more ");
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		// the time is recorded after the strategy returned
+		long timeout= System.currentTimeMillis() + 5000;
+		while ((fReconciler.getReconcilingTime(code) == 0 || fReconciler.getReconcilingTime(comment) == 0) && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(fReconciler.getReconcilingTime(code) > 0);
+		assertTrue(fReconciler.getReconcilingTime(comment) > 0);
+		return new boolean[] { code.fParallel, comment.fParallel };
+	}
+
+	@Test
+	public void testParallelReconciling() throws Exception {
+		boolean[] parallel= reconcile(true);
+		assertTrue(parallel[0]);
+		assertTrue(parallel[1]);
+	}
+
+	@Test
+	public void testSequentialReconciling() throws Exception {
+		boolean[] parallel= reconcile(false);
+		// the first strategy waits in vain for the second one
+		assertTrue(!parallel[0] || !parallel[1]);
+	}
+
+	private static Accessor createQueue() {
+		return new Accessor("org.eclipse.jface.text.reconciler.DirtyRegionQueue", DirtyRegion.class.getClassLoader(), new Object[0]);
+	}
+
+	private static DirtyRegion insert(int offset, String text) {
+		return new DirtyRegion(offset, text.length(), DirtyRegion.INSERT, text);
+	}
+
+	private static DirtyRegion remove(int offset, int length) {
+		return new DirtyRegion(offset, length, DirtyRegion.REMOVE, null);
+	}
+
+	private static void add(Accessor queue, DirtyRegion dirtyRegion) {
+		queue.invoke("addDirtyRegion", new Object[] { dirtyRegion });
+	}
+
+	private static void assertDirtyRegion(Accessor queue, int offset, int length, String type, String text) {
+		DirtyRegion dirtyRegion= (DirtyRegion) queue.invoke("removeNextDirtyRegion", new Object[0]);
+		assertEquals(offset, dirtyRegion.getOffset());
+		assertEquals(length, dirtyRegion.getLength());
+		assertEquals(type, dirtyRegion.getType());
+		assertEquals(text, dirtyRegion.getText());
+	}
+
+	@Test
+	public void testCoalesceInsertions() {
+		Accessor queue= createQueue();
+		add(queue, insert(10, "ab"));
+		add(queue, insert(12, "c"));
+		add(queue, insert(11, "x"));
+		add(queue, remove(12, 1));
+		add(queue, insert(5, "y"));
+		assertEquals(Integer.valueOf(2), queue.invoke("getSize", new Object[0]));
+		assertDirtyRegion(queue, 10, 3, DirtyRegion.INSERT, "axc");
+		assertDirtyRegion(queue, 5, 1, DirtyRegion.INSERT, "y");
+	}
+
+	@Test
+	public void testCoalesceRemovals() {
+		Accessor queue= createQueue();
+		// backspace
+		add(queue, remove(10, 1));
+		add(queue, remove(9, 1));
+		// delete
+		add(queue, remove(9, 1));
+		add(queue, remove(8, 3));
+		assertEquals(Integer.valueOf(1), queue.invoke("getSize", new Object[0]));
+		assertDirtyRegion(queue, 8, 6, DirtyRegion.REMOVE, null);
+	}
+
+	@Test
+	public void testRemovingInsertionIsNotCoalesced() {
+		Accessor queue= createQueue();
+		add(queue, insert(10, "ab"));
+		add(queue, remove(10, 2));
+		add(queue, remove(20, 1));
+		assertEquals(Integer.valueOf(3), queue.invoke("getSize", new Object[0]));
+	}
+}
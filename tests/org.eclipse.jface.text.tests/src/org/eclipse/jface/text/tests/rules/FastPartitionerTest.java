@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,11 @@
  *******************************************************************************/
 package org.eclipse.jface.text.tests.rules;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -40,6 +44,7 @@ public class FastPartitionerTest {
 
 	protected static final String COMMENT= "comment";
 	protected static final String DEFAULT= IDocument.DEFAULT_CONTENT_TYPE;
+	protected static final String STRING= "string";
 
 	private IDocument fDoc;
 	private IDocumentPartitioner fPartitioner;
@@ -321,6 +326,95 @@ public class FastPartitionerTest {
 
 	}
 
+	@Test
+	public void testResumeInPartition() throws Exception {
+		fPartitioner.disconnect();
+		int[] reads= new int[1];
+		FastPartitioner partitioner= new FastPartitioner(createScanner(reads), new String[] { DEFAULT, COMMENT, STRING });
+		fDoc.setDocumentPartitioner(partitioner);
+		partitioner.connect(fDoc);
+		fPartitioner= partitioner;
+
+		StringBuilder buffer= new StringBuilder("a /*\n");
+		for (int i= 0; i < 1000; i++)
+			buffer.append("comment line\n");
+		buffer.append("*/ b\n");
+		fDoc.set(buffer.toString());
+		assertEqualPartition(2, buffer.length() - 3, COMMENT);
+
+		// only the changed line is rescanned
+		reads[0]= 0;
+		int offset= buffer.length() - 10;
+		fDoc.replace(offset, 0, "x");
+		assertTrue(reads[0] < 100);
+		assertEqualPartition(2, buffer.length() - 2, COMMENT);
+
+		Random random= new Random(17);
+		String[] texts= { "/*", "*/", "\"", "\n", "x", "\\", "" };
+		for (int i= 0; i < 500; i++) {
+			int length= fDoc.getLength();
+			offset= random.nextInt(length + 1);
+			int replaced= random.nextInt(Math.min(3, length - offset) + 1);
+			fDoc.replace(offset, replaced, texts[random.nextInt(texts.length)]);
+			assertPartitioning(partitioner, fDoc.get());
+		}
+	}
+
+	@Test
+	public void testBackgroundInitialization() throws Exception {
+		fPartitioner.disconnect();
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < 20000; i++)
+			buffer.append(i % 3 == 0 ? "/* comment\n */" : i % 3 == 1 ? " \"string\" " : "code;\n");
+		fDoc.set(buffer.toString());
+
+		FastPartitioner partitioner= new FastPartitioner(createScanner(new int[1]), new String[] { DEFAULT, COMMENT, STRING });
+		partitioner.setBackgroundInitialization(true);
+		fDoc.setDocumentPartitioner(partitioner);
+		partitioner.connect(fDoc);
+		fPartitioner= partitioner;
+
+		FastPartitioner expected= new FastPartitioner(createScanner(new int[1]), new String[] { DEFAULT, COMMENT, STRING });
+		expected.connect(new Document(fDoc.get()));
+		assertArrayEquals(expected.computePartitioning(0, 100), partitioner.computePartitioning(0, 100));
+		assertEquals(expected.getPartition(50000), partitioner.getPartition(50000));
+		assertEquals(expected.getContentType(fDoc.getLength() - 1), partitioner.getContentType(fDoc.getLength() - 1));
+		assertArrayEquals(expected.computePartitioning(0, fDoc.getLength()), partitioner.computePartitioning(0, fDoc.getLength()));
+
+		// changing the document completes the initialization
+		partitioner.disconnect();
+		partitioner= new FastPartitioner(createScanner(new int[1]), new String[] { DEFAULT, COMMENT, STRING });
+		partitioner.setBackgroundInitialization(true);
+		fDoc.setDocumentPartitioner(partitioner);
+		partitioner.connect(fDoc);
+		fPartitioner= partitioner;
+		fDoc.replace(10, 0, "/*");
+		assertPartitioning(partitioner, fDoc.get());
+	}
+
+	private static IPartitionTokenScanner createScanner(int[] reads) {
+		return new RuleBasedPartitionScanner() {
+			{
+				IPredicateRule[] rules= new IPredicateRule[] {
+						new MultiLineRule("/*", "*/", new Token(COMMENT)),
+						new SingleLineRule("\"", "\"", new Token(STRING), '\\', false, true) };
+				setPredicateRules(rules);
+			}
+
+			@Override
+			public int read() {
+				reads[0]++;
+				return super.read();
+			}
+		};
+	}
+
+	private static void assertPartitioning(IDocumentPartitioner partitioner, String text) {
+		FastPartitioner expected= new FastPartitioner(createScanner(new int[1]), new String[] { DEFAULT, COMMENT, STRING });
+		expected.connect(new Document(text));
+		assertArrayEquals(expected.computePartitioning(0, text.length()), partitioner.computePartitioning(0, text.length()));
+	}
+
 	private void assertComputePartitioning_InterleavingPartitions(int[] offsets) {
 		assertComputePartitioning_InterleavingPartitions(0, fDoc.getLength(), offsets, DEFAULT);
 	}
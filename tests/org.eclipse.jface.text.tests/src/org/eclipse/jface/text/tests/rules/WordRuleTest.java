@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Test;
 
 import org.eclipse.swt.SWT;
@@ -26,10 +30,15 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.TextAttribute;
 import org.eclipse.jface.text.rules.IRule;
 import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWhitespaceDetector;
 import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.NumberRule;
 import org.eclipse.jface.text.rules.PatternRule;
 import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
 import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
 import org.eclipse.jface.text.rules.WordRule;
 
 /**
@@ -212,5 +221,98 @@ public class WordRuleTest {
 
 	}
 
+	@Test
+	public void testCompiledRules() throws Exception {
+		IWordDetector javaDetector= new IWordDetector() {
+			@Override
+			public boolean isWordStart(char c) {
+				return Character.isJavaIdentifierStart(c);
+			}
+
+			@Override
+			public boolean isWordPart(char c) {
+				return Character.isJavaIdentifierPart(c);
+			}
+		};
+		IWhitespaceDetector whitespaceDetector= Character::isWhitespace;
+
+		Token keyword= new Token("keyword");
+		Token type= new Token("type");
+		Token constant= new Token("constant");
+		Token identifier= new Token("identifier");
+		WordRule keywordRule= new WordRule(javaDetector);
+		for (String word : new String[] { "if", "int", "interface", "in", "for", "final", "float", "\u00e9t\u00e9" })
+			keywordRule.addWord(word, keyword);
+		WordRule typeRule= new WordRule(javaDetector);
+		typeRule.addWord("int", type);
+		typeRule.addWord("String", type);
+		WordRule constantRule= new WordRule(javaDetector, identifier);
+		constantRule.addWord("null", constant);
+		constantRule.addWord("true", constant);
+		WordRule ignoreCaseRule= new WordRule(new SimpleWordDetector(), Token.UNDEFINED, true);
+		ignoreCaseRule.addWord("#IF", keyword);
+		WordRule columnRule= new WordRule(new SimpleWordDetector());
+		columnRule.addWord("@", keyword);
+		columnRule.setColumnConstraint(0);
+
+		IRule[] rules= {
+				new MultiLineRule("/*", "*/", new Token("comment")),
+				new SingleLineRule("\"", "\"", new Token("string"), '\\'),
+				new WhitespaceRule(whitespaceDetector),
+				ignoreCaseRule,
+				columnRule,
+				keywordRule,
+				typeRule,
+				new NumberRule(new Token("number")),
+				constantRule };
+
+		String[] fragments= { "if", "int", "interface", "integer", "in", "i", "for", "f", "final", "float", "String", "Str", "null", "nullable", "true",
+				"\u00e9t\u00e9", "x1", "42", "/* c */", "/*", "*/", "\"s\"", "\"", "#if", "#If", "@", " ", "\n", "\t", "(", ")", ";", "=", "\u00e4" };
+		Random random= new Random(1);
+		for (int run= 0; run < 50; run++) {
+			StringBuilder text= new StringBuilder();
+			for (int i= 0; i < 300; i++)
+				text.append(fragments[random.nextInt(fragments.length)]);
+			IDocument document= new Document(text.toString());
+
+			RuleBasedScanner scanner= new RuleBasedScanner();
+			scanner.setRules(rules);
+			RuleBasedScanner compiledScanner= new RuleBasedScanner();
+			compiledScanner.setRules(rules);
+			compiledScanner.setCompileRules(true);
+			assertEquals(text.toString(), scan(scanner, document), scan(compiledScanner, document));
+		}
+	}
+
+	@Test
+	public void testCompiledRulesAddWord() throws Exception {
+		WordRule rule= new WordRule(new SimpleWordDetector(), new Token("default"));
+		rule.addWord("one", new Token("one"));
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setRules(rule);
+		scanner.setCompileRules(true);
+		IDocument document= new Document("one two");
+		scanner.setRange(document, 0, document.getLength());
+		assertEquals("one", scanner.nextToken().getData());
+
+		rule.addWord("two", new Token("two"));
+		rule.addWord("one", new Token("three"));
+		scanner.setRange(document, 0, document.getLength());
+		assertEquals("three", scanner.nextToken().getData());
+		assertTrue(scanner.nextToken().isOther());
+		assertEquals("two", scanner.nextToken().getData());
+		assertTrue(scanner.nextToken().isEOF());
+	}
+
+	private static List<String> scan(RuleBasedScanner scanner, IDocument document) {
+		List<String> tokens= new ArrayList<>();
+		scanner.setRange(document, 0, document.getLength());
+		IToken token;
+		do {
+			token= scanner.nextToken();
+			tokens.add(token.getData() + "@" + scanner.getTokenOffset() + ":" + scanner.getTokenLength());
+		} while (!token.isEOF());
+		return tokens;
+	}
 
 }
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.internal.text.source.AnnotationIndex;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+
+public class AnnotationIndexTest {
+
+	private static AnnotationIndex build(List<Annotation> annotations, List<Position> positions) {
+		AnnotationIndex index= new AnnotationIndex();
+		for (int i= 0; i < annotations.size(); i++)
+			index.append(annotations.get(i), positions.get(i));
+		index.sort();
+		return index;
+	}
+
+	private static void assertSorted(AnnotationIndex index) {
+		for (int i= 1; i < index.size(); i++)
+			assertTrue(index.getPosition(i - 1).getOffset() <= index.getPosition(i).getOffset());
+	}
+
+	private static void assertSameAnnotations(AnnotationIndex expected, AnnotationIndex actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i= 0; i < expected.size(); i++)
+			assertEquals(expected.getPosition(i).getOffset(), actual.getPosition(i).getOffset());
+		List<Annotation> remaining= new ArrayList<>();
+		for (int i= 0; i < expected.size(); i++)
+			remaining.add(expected.getAnnotation(i));
+		for (int i= 0; i < actual.size(); i++)
+			assertTrue(remaining.remove(actual.getAnnotation(i)));
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		AnnotationIndex index= new AnnotationIndex();
+		Annotation a= new Annotation(false);
+		Annotation b= new Annotation(false);
+		Annotation c= new Annotation(false);
+		Position pa= new Position(20, 5);
+		Position pb= new Position(10, 1);
+		Position pc= new Position(20, 1);
+		index.add(a, pa);
+		index.add(b, pb);
+		index.add(c, pc);
+
+		assertEquals(3, index.size());
+		assertSame(b, index.getAnnotation(0));
+		assertSame(a, index.getAnnotation(1));
+		assertSame(c, index.getAnnotation(2));
+		assertEquals(1, index.lowerBound(11));
+		assertEquals(3, index.lowerBound(21));
+
+		assertTrue(index.remove(c, pc));
+		assertFalse(index.remove(c, pc));
+		assertTrue(index.remove(b, null));
+		assertEquals(1, index.size());
+		assertSame(a, index.getAnnotation(0));
+	}
+
+	@Test
+	public void testChangedPosition() {
+		AnnotationIndex index= new AnnotationIndex();
+		Annotation a= new Annotation(false);
+		Annotation b= new Annotation(false);
+		Position pa= new Position(10, 1);
+		Position pb= new Position(20, 1);
+		index.add(a, pa);
+		index.add(b, pb);
+
+		// the model changes the position in place
+		pa.setOffset(30);
+		assertTrue(index.remove(a, pa));
+		index.add(a, pa);
+
+		assertSame(b, index.getAnnotation(0));
+		assertSame(a, index.getAnnotation(1));
+	}
+
+	@Test
+	public void testRandomDeltas() {
+		Random random= new Random(42);
+		List<Annotation> annotations= new ArrayList<>();
+		List<Position> positions= new ArrayList<>();
+		for (int i= 0; i < 500; i++) {
+			annotations.add(new Annotation(false));
+			positions.add(new Position(random.nextInt(10000), random.nextInt(100)));
+		}
+		AnnotationIndex index= build(annotations, positions);
+
+		for (int i= 0; i < 2000; i++) {
+			int operation= random.nextInt(3);
+			if (operation == 0 || annotations.isEmpty()) {
+				Annotation annotation= new Annotation(false);
+				Position position= new Position(random.nextInt(10000), random.nextInt(100));
+				annotations.add(annotation);
+				positions.add(position);
+				index.add(annotation, position);
+			} else if (operation == 1) {
+				int k= random.nextInt(annotations.size());
+				assertTrue(index.remove(annotations.remove(k), positions.remove(k)));
+			} else {
+				int k= random.nextInt(annotations.size());
+				Position position= positions.get(k);
+				position.setOffset(random.nextInt(10000));
+				assertTrue(index.remove(annotations.get(k), position));
+				index.add(annotations.get(k), position);
+			}
+			assertSorted(index);
+		}
+		assertSameAnnotations(build(annotations, positions), index);
+	}
+
+	@Test
+	public void testMaxLengthRecomputedBySort() {
+		AnnotationIndex index= new AnnotationIndex();
+		Annotation longAnnotation= new Annotation(false);
+		Position longPosition= new Position(0, 1000);
+		index.add(longAnnotation, longPosition);
+		index.add(new Annotation(false), new Position(10, 5));
+		assertEquals(1000, index.getMaxLength());
+
+		index.remove(longAnnotation, longPosition);
+		index.sort();
+		assertEquals(5, index.getMaxLength());
+	}
+
+	@Test
+	public void testSkipRow() {
+		AnnotationIndex index= new AnnotationIndex();
+		index.add(new Annotation(false), new Position(0, 2));
+		index.add(new Annotation(false), new Position(5, 50));
+		index.add(new Annotation(false), new Position(8, 1));
+		Annotation deleted= new Annotation(false);
+		deleted.markDeleted(true);
+		index.add(deleted, new Position(9, 50));
+		index.add(new Annotation(false), new Position(20, 1));
+
+		List<Integer> reaching= new ArrayList<>();
+		assertEquals(4, index.skipRow(0, 20, reaching::add));
+		assertEquals(List.of(Integer.valueOf(1)), reaching);
+
+		reaching.clear();
+		assertEquals(1, index.skipRow(0, 3, reaching::add));
+		assertTrue(reaching.isEmpty());
+	}
+
+	@Test
+	public void testFindPosition() throws Exception {
+		IDocument document= new Document("line0\nline1\nline2\nline3\nline4\n");
+		AnnotationIndex index= new AnnotationIndex();
+		Position inLine1= new Position(7, 2);
+		Position fromLine0ToLine3= new Position(1, 20);
+		Position line0WithDelimiter= new Position(0, 6);
+		index.add(new Annotation(false), inLine1);
+		index.add(new Annotation(false), fromLine0ToLine3);
+		index.add(new Annotation(false), line0WithDelimiter);
+
+		assertSame(inLine1, index.findPosition(document, 6, 11));
+		assertSame(fromLine0ToLine3, index.findPosition(document, 12, 17));
+		assertNull(index.findPosition(document, 24, 29));
+		index.remove(index.getAnnotation(1), fromLine0ToLine3);
+		assertNull(index.findPosition(document, 12, 17));
+		index.remove(index.getAnnotation(1), inLine1);
+		// the trailing delimiter of a position does not reach the next line
+		assertNull(index.findPosition(document, 6, 11));
+		assertSame(line0WithDelimiter, index.findPosition(document, 0, 5));
+	}
+}
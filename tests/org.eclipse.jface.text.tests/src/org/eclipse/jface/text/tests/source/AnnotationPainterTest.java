@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IPainter;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationPainter;
+import org.eclipse.jface.text.source.SourceViewer;
+
+/**
+ * Tests that the decorations painted for a line follow the changes of the annotation model and of
+ * the document, although the annotation painter caches the annotations of the painted lines.
+ */
+public class AnnotationPainterTest {
+
+	private static final String TYPE= "recorded";
+
+	/**
+	 * Records the annotations drawn and where they are drawn.
+	 */
+	private static class RecordingDrawingStrategy implements AnnotationPainter.IDrawingStrategy {
+
+		final Map<Annotation, Integer> fDrawn= new HashMap<>();
+
+		@Override
+		public void draw(Annotation annotation, GC gc, StyledText textWidget, int offset, int length, Color color) {
+			if (gc == null)
+				textWidget.redrawRange(offset, length, true);
+			else
+				fDrawn.put(annotation, Integer.valueOf(offset));
+		}
+	}
+
+	private Shell fShell;
+	private SourceViewer fViewer;
+	private IDocument fDocument;
+	private AnnotationModel fModel;
+	private RecordingDrawingStrategy fStrategy;
+
+	@Before
+	public void setUp() {
+		fShell= new Shell(Display.getDefault());
+		fShell.setSize(800, 800);
+		fShell.setLayout(new FillLayout());
+		fViewer= new SourceViewer(fShell, null, SWT.V_SCROLL);
+		fShell.layout();
+		fShell.open();
+
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 20; i++)
+			text.append("line ").append(i).append('\n');
+		fDocument= new Document(text.toString());
+		fModel= new AnnotationModel();
+		fViewer.setDocument(fDocument, fModel);
+
+		fStrategy= new RecordingDrawingStrategy();
+		AnnotationPainter painter= new AnnotationPainter(fViewer, null);
+		painter.addDrawingStrategy(TYPE, fStrategy);
+		painter.addAnnotationType(TYPE, TYPE);
+		painter.setAnnotationTypeColor(TYPE, fShell.getDisplay().getSystemColor(SWT.COLOR_RED));
+		fViewer.addPainter(painter);
+		painter.paint(IPainter.CONFIGURATION);
+		processEvents();
+	}
+
+	@After
+	public void tearDown() {
+		fShell.dispose();
+	}
+
+	@Test
+	public void testAddedAndRemovedAnnotations() throws Exception {
+		addAnnotation(2);
+		Annotation removed= addAnnotation(5);
+		addAnnotation(9);
+		addAnnotation(12);
+		assertLinesPainted();
+
+		Annotation added= addAnnotation(7);
+		fModel.removeAnnotation(removed);
+		processEvents();
+		assertLinesPainted();
+		assertTrue(paintLine(7).containsKey(added));
+		assertFalse(paintLine(5).containsKey(removed));
+	}
+
+	@Test
+	public void testLinesInsertedAndDeletedAbove() throws Exception {
+		addAnnotation(4);
+		addAnnotation(6);
+		Annotation moved= addAnnotation(10);
+		addAnnotation(15);
+		assertLinesPainted();
+
+		// the annotations move to lines that have been painted without them
+		fDocument.replace(fDocument.getLineOffset(1), 0, "new 1\nnew 2\nnew 3\n");
+		processEvents();
+		assertLinesPainted();
+		assertEquals(Integer.valueOf(fModel.getPosition(moved).getOffset()), paintLine(13).get(moved));
+
+		fDocument.replace(fDocument.getLineOffset(0), fDocument.getLineOffset(5), "");
+		processEvents();
+		assertLinesPainted();
+		assertEquals(Integer.valueOf(fModel.getPosition(moved).getOffset()), paintLine(8).get(moved));
+	}
+
+	@Test
+	public void testLineChanged() throws Exception {
+		Annotation annotation= addAnnotation(3);
+		addAnnotation(8);
+		addAnnotation(11);
+		assertLinesPainted();
+
+		// the annotation moves within its line
+		fDocument.replace(fDocument.getLineOffset(3), 0, "more text ");
+		processEvents();
+		assertLinesPainted();
+		assertEquals(Integer.valueOf(fModel.getPosition(annotation).getOffset()), paintLine(3).get(annotation));
+	}
+
+	/**
+	 * Adds an annotation to the given line, after its first characters so that it does not touch
+	 * the previous line.
+	 */
+	private Annotation addAnnotation(int line) throws BadLocationException {
+		Annotation annotation= new Annotation(TYPE, false, "line " + line);
+		fModel.addAnnotation(annotation, new Position(fDocument.getLineOffset(line) + 2, 2));
+		processEvents();
+		return annotation;
+	}
+
+	/**
+	 * Paints every line on its own and asserts that all annotations of the line are drawn at their
+	 * current offsets, and that no annotation is drawn that is not in the model or at an old offset.
+	 */
+	private void assertLinesPainted() throws BadLocationException {
+		for (int line= 0; line < fDocument.getNumberOfLines(); line++) {
+			Map<Annotation, Integer> drawn= paintLine(line);
+			for (Entry<Annotation, Integer> entry : drawn.entrySet()) {
+				Position position= fModel.getPosition(entry.getKey());
+				assertNotNull("removed annotation drawn in line " + line, position);
+				assertEquals("annotation drawn at an old offset in line " + line, Integer.valueOf(position.getOffset()), entry.getValue());
+			}
+			for (Iterator<Annotation> iter= fModel.getAnnotationIterator(); iter.hasNext();) {
+				Annotation annotation= iter.next();
+				if (fDocument.getLineOfOffset(fModel.getPosition(annotation).getOffset()) == line)
+					assertTrue("annotation not drawn in line " + line, drawn.containsKey(annotation));
+			}
+		}
+	}
+
+	/**
+	 * Paints the given line and returns the annotations drawn and their offsets.
+	 */
+	private Map<Annotation, Integer> paintLine(int line) {
+		StyledText textWidget= fViewer.getTextWidget();
+		fStrategy.fDrawn.clear();
+		textWidget.redraw(0, textWidget.getLinePixel(line), textWidget.getClientArea().width, textWidget.getLineHeight() - 1, false);
+		textWidget.update();
+		return new HashMap<>(fStrategy.fDrawn);
+	}
+
+	private void processEvents() {
+		Display display= fShell.getDisplay();
+		while (display.readAndDispatch()) {
+			// process the pending paint requests
+		}
+	}
+}
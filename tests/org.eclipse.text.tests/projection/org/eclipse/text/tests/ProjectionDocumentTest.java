@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -2652,4 +2653,161 @@ public class ProjectionDocumentTest {
 			assertTrue(false);
 		}
 	}
+
+	private List<Position> getProjectedFragments(ProjectionDocument projection) {
+		List<Position> fragments= new ArrayList<>();
+		for (Position segment : projection.getSegments2()) {
+			Fragment fragment= ((Segment) segment).fragment;
+			if (fragment.getLength() > 0)
+				fragments.add(new Position(fragment.getOffset(), fragment.getLength()));
+		}
+		return fragments;
+	}
+
+	@Test
+	public void test30_1() {
+		// test adding several master document ranges at once
+
+		final List<DocumentEvent> receivedEvents= new ArrayList<>();
+
+		IDocumentListener listener= new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {}
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				receivedEvents.add(event);
+			}
+		};
+
+		fSlaveDocument.addDocumentListener(listener);
+		try {
+			IRegion[] ranges= {
+				new Region(160, 20),
+				new Region(0, 10),
+				new Region(40, 20),
+				new Region(5, 15),
+				new Region(90, 0),
+				new Region(80, 20),
+				new Region(120, 20)
+			};
+			fSlaveDocument.addMasterDocumentRanges(ranges);
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+
+		Position[] expected= {
+			new Position(0, 20),
+			new Position(40, 20),
+			new Position(80, 20),
+			new Position(120, 20),
+			new Position(160, 20)
+		};
+		assertFragmentation(expected);
+		assertSlaveContents(getProjectionASlaveContents());
+
+		DocumentEvent[] actual= new DocumentEvent[receivedEvents.size()];
+		receivedEvents.toArray(actual);
+		assertSlaveEvents(new DocumentEvent[] { new DocumentEvent(fSlaveDocument, 0, 0, getProjectionASlaveContents()) }, actual);
+	}
+
+	@Test
+	public void test30_2() {
+		// test removing several master document ranges at once
+
+		final List<DocumentEvent> receivedEvents= new ArrayList<>();
+
+		IDocumentListener listener= new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {}
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				receivedEvents.add(event);
+			}
+		};
+
+		createProjectionA();
+
+		fSlaveDocument.addDocumentListener(listener);
+		try {
+			IRegion[] ranges= {
+				new Region(130, 20),
+				new Region(40, 20),
+				new Region(50, 50),
+				new Region(20, 20)
+			};
+			fSlaveDocument.removeMasterDocumentRanges(ranges);
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+
+		Position[] expected= {
+			new Position(0, 20),
+			new Position(120, 10),
+			new Position(160, 20)
+		};
+		assertFragmentation(expected);
+		StringBuilder buffer= new StringBuilder(getOriginalMasterContents());
+		assertSlaveContents(buffer.substring(0, 20) + buffer.substring(120, 130) + buffer.substring(160, 180));
+
+		DocumentEvent[] actual= new DocumentEvent[receivedEvents.size()];
+		receivedEvents.toArray(actual);
+		DocumentEvent[] expectedEvents= { new DocumentEvent(fSlaveDocument, 20, 60, buffer.substring(120, 130)) };
+		assertSlaveEvents(expectedEvents, actual);
+	}
+
+	@Test
+	public void test30_3() {
+		// test removing all master document ranges at once
+
+		createProjectionA();
+		try {
+			fSlaveDocument.removeMasterDocumentRanges(new IRegion[] { new Region(0, fMasterDocument.getLength()) });
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+
+		assertFragmentation(new Position[] { new Position(180, 0) });
+		assertSlaveContents("");
+	}
+
+	@Test
+	public void test30_4() {
+		// test that adding and removing master document ranges at once is the same as one at a time
+
+		ProjectionDocument sequential= (ProjectionDocument) fSlaveDocumentManager.createSlaveDocument(fMasterDocument);
+		try {
+			// the ranges are line based as the ones of the projection viewer
+			Random random= new Random(1);
+			int lines= fMasterDocument.getNumberOfLines();
+			for (int i= 0; i < 500; i++) {
+				boolean add= random.nextBoolean();
+				IRegion[] ranges= new IRegion[1 + random.nextInt(6)];
+				for (int j= 0; j < ranges.length; j++) {
+					int line= random.nextInt(lines - 1);
+					int offset= fMasterDocument.getLineOffset(line);
+					int end= fMasterDocument.getLineOffset(Math.min(lines - 1, line + 1 + random.nextInt(3)));
+					ranges[j]= new Region(offset, end - offset);
+				}
+
+				if (add)
+					fSlaveDocument.addMasterDocumentRanges(ranges);
+				else
+					fSlaveDocument.removeMasterDocumentRanges(ranges);
+				for (IRegion range : ranges) {
+					if (add)
+						sequential.addMasterDocumentRange(range.getOffset(), range.getLength());
+					else
+						sequential.removeMasterDocumentRange(range.getOffset(), range.getLength());
+				}
+
+				// single removals may leave an empty fragment behind
+				Assert.assertEquals(getProjectedFragments(sequential), getProjectedFragments(fSlaveDocument));
+				assertSlaveContents(sequential.get());
+			}
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		} finally {
+			fSlaveDocumentManager.freeSlaveDocument(sequential);
+		}
+	}
 }
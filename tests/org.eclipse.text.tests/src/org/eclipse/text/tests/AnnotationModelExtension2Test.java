@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.text.tests;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -20,18 +21,25 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationModelEvent;
 import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelListener;
+import org.eclipse.jface.text.source.IAnnotationModelListenerExtension;
 
 /**
  * Tests the {@link org.eclipse.jface.text.source.IAnnotationModelExtension2}.
@@ -85,6 +93,25 @@ public class AnnotationModelExtension2Test {
 		}
 	}
 
+	/**
+	 * Manages its positions in the default position category of the document like annotation
+	 * models did before they used an indexed position category.
+	 */
+	private static class DefaultCategoryAnnotationModel extends AnnotationModel {
+
+		@Override
+		protected void addPosition(IDocument document, Position position) throws BadLocationException {
+			if (document != null)
+				document.addPosition(position);
+		}
+
+		@Override
+		protected void removePosition(IDocument document, Position position) {
+			if (document != null)
+				document.removePosition(position);
+		}
+	}
+
 	private static final int MODEL_COUNT= 3;
 
 	private Document fDocument;
@@ -276,4 +303,147 @@ public class AnnotationModelExtension2Test {
 		assertPermutations(true, true, expected);
 	}
 
+	@Test
+	public void testPositionsFollowChanges() throws Exception {
+		fAnnotationModel.addAnnotation(fInside, new Position(10, 11));
+		fAnnotationModel.addAnnotation(fAfter, new Position(20, 11));
+		fDocument.replace(0, 0, "xxxxx");
+
+		Assert.assertEquals(List.of("15:11", "25:11"), getPositions(fAnnotationModel, 10, 30, false, false));
+		Assert.assertEquals(List.of("15:11"), getPositions(fAnnotationModel, 10, 16, false, false));
+
+		fDocument.replace(16, 0, "\n");
+		fDocument.replace(0, 5, "");
+		Assert.assertEquals(List.of("10:12", "21:11"), getPositions(fAnnotationModel, 21, 1, true, true));
+		Position position= fAnnotationModel.getPosition(fAfter);
+		assertTrue(position.getOffset() == 21 && position.getLength() == 11);
+	}
+
+	@Test
+	public void testDeletedPositions() throws Exception {
+		fAnnotationModel.addAnnotation(fInside, new Position(10, 11));
+		fAnnotationModel.addAnnotation(fBefore, new Position(0, 11));
+		fDocument.replace(5, 20, "");
+		Assert.assertEquals(List.of("0:5"), getPositions(fAnnotationModel, 0, fDocument.getLength(), true, true));
+		assertNull(fAnnotationModel.getPosition(fInside));
+	}
+
+	@Test
+	public void testReplaceAnnotationsFiresOneEvent() throws Exception {
+		List<AnnotationModelEvent> events= new ArrayList<>();
+		class Listener implements IAnnotationModelListener, IAnnotationModelListenerExtension {
+			@Override
+			public void modelChanged(IAnnotationModel model) {
+			}
+
+			@Override
+			public void modelChanged(AnnotationModelEvent event) {
+				events.add(event);
+			}
+		}
+		fAnnotationModel.addAnnotationModelListener(new Listener());
+		events.clear();
+
+		int count= 10_000;
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < count; i++)
+			buffer.append("line ").append(i).append('\n');
+		fDocument.set(buffer.toString());
+		Map<Annotation, Position> added= new HashMap<>();
+		Annotation[] annotations= new Annotation[count];
+		for (int i= 0; i < count; i++) {
+			annotations[i]= new Annotation(false);
+			added.put(annotations[i], new Position(fDocument.getLineOffset(i), 4));
+		}
+		fAnnotationModel.replaceAnnotations(null, added);
+		Assert.assertEquals(1, events.size());
+		Assert.assertEquals(count, events.get(0).getAddedAnnotations().length);
+
+		Iterator<Annotation> iterator= fAnnotationModel.getAnnotationIterator(fDocument.getLineOffset(100), 1, true, true);
+		assertTrue(iterator.next() == annotations[100] && !iterator.hasNext());
+
+		fAnnotationModel.replaceAnnotations(Arrays.copyOf(annotations, count / 2), null);
+		Assert.assertEquals(2, events.size());
+		Assert.assertEquals(count / 2, events.get(1).getRemovedAnnotations().length);
+		assertTrue(!fAnnotationModel.getAnnotationIterator(fDocument.getLineOffset(100), 1, true, true).hasNext());
+		assertTrue(fAnnotationModel.getAnnotationIterator(fDocument.getLineOffset(count / 2), 1, true, true).hasNext());
+	}
+
+	/**
+	 * Compares the positions of an annotation model with the ones of a model that keeps its
+	 * positions in the default position category while the document is edited, and checks the
+	 * region queries.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	@Test
+	public void testRandomEdits() throws Exception {
+		AnnotationModel reference= new DefaultCategoryAnnotationModel();
+		reference.connect(fDocument);
+		Random random= new Random(1234);
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < 2000; i++)
+			buffer.append((char) ('a' + random.nextInt(26)));
+		fDocument.set(buffer.toString());
+		for (int i= 0; i < 500; i++) {
+			int offset= random.nextInt(fDocument.getLength());
+			int length= random.nextInt(Math.min(50, fDocument.getLength() - offset) + 1);
+			fAnnotationModel.addAnnotation(new Annotation(false), new Position(offset, length));
+			reference.addAnnotation(new Annotation(false), new Position(offset, length));
+		}
+
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(fDocument.getLength());
+			int length= random.nextInt(Math.min(random.nextInt(10) == 0 ? 200 : 5, fDocument.getLength() - offset) + 1);
+			fDocument.replace(offset, length, "x".repeat(random.nextInt(5)));
+
+			int regionOffset= random.nextInt(fDocument.getLength());
+			int regionLength= random.nextInt(100);
+			boolean canStartBefore= random.nextBoolean();
+			boolean canEndAfter= random.nextBoolean();
+			Assert.assertEquals(getPositions(reference, 0, fDocument.getLength(), true, true), getPositions(fAnnotationModel, 0, fDocument.getLength(), true, true));
+			// empty positions at the region bounds depend on the kind of query, leave them out
+			List<String> positions= getPositions(fAnnotationModel, regionOffset, regionLength, canStartBefore, canEndAfter);
+			positions.removeIf(position -> position.endsWith(":0"));
+			Assert.assertEquals(getPositionsInside(fAnnotationModel, regionOffset, regionLength, canStartBefore, canEndAfter), positions);
+		}
+		reference.disconnect(fDocument);
+	}
+
+	private static List<String> getPositions(AnnotationModel model, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		List<String> positions= new ArrayList<>();
+		Iterator<Annotation> iterator= model.getAnnotationIterator(offset, length, canStartBefore, canEndAfter);
+		while (iterator.hasNext()) {
+			Position position= model.getPosition(iterator.next());
+			positions.add(position.getOffset() + ":" + position.getLength());
+		}
+		positions.sort(null);
+		return positions;
+	}
+
+	private static List<String> getPositionsInside(AnnotationModel model, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		Position region= new Position(offset, length);
+		List<String> positions= new ArrayList<>();
+		Iterator<Annotation> iterator= model.getAnnotationIterator();
+		while (iterator.hasNext()) {
+			Position position= model.getPosition(iterator.next());
+			if (position.getLength() == 0)
+				continue;
+			int start= position.getOffset();
+			int end= start + position.getLength() - 1;
+			boolean inside;
+			if (canStartBefore && canEndAfter)
+				inside= region.overlapsWith(start, position.getLength());
+			else if (canStartBefore)
+				inside= region.includes(end);
+			else if (canEndAfter)
+				inside= region.includes(start);
+			else
+				inside= region.includes(start) && region.includes(end);
+			if (inside)
+				positions.add(start + ":" + position.getLength());
+		}
+		positions.sort(null);
+		return positions;
+	}
 }
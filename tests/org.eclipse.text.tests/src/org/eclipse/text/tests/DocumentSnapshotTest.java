@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.ConfigurableLineTracker;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.RopeTextStore;
+
+public class DocumentSnapshotTest {
+
+	@Test
+	public void testContent() throws Exception {
+		Document document= new Document(new RopeTextStore());
+		document.set("first line\nsecond line\n");
+		IDocument snapshot= document.getSnapshot();
+		document.replace(0, 5, "1st");
+		document.replace(document.getLength(), 0, "third line\n");
+
+		assertEquals("first line\nsecond line\n", snapshot.get());
+		assertEquals("second", snapshot.get(11, 6));
+		assertEquals('s', snapshot.getChar(11));
+		assertEquals(3, snapshot.getNumberOfLines());
+		assertEquals("1st line\nsecond line\nthird line\n", document.get());
+	}
+
+	@Test
+	public void testCopiedContent() throws Exception {
+		Document document= new Document("first line\r\nsecond line");
+		IDocument snapshot= document.getSnapshot();
+		document.replace(0, document.getLength(), "");
+
+		assertEquals("first line\r\nsecond line", snapshot.get());
+		assertEquals(2, snapshot.getNumberOfLines());
+		assertEquals("\r\n", snapshot.getLineDelimiter(0));
+		assertEquals(12, snapshot.getLineOffset(1));
+	}
+
+	@Test
+	public void testSnapshotShared() throws Exception {
+		assertTrue(new Document(new RopeTextStore()).isSnapshotShared());
+		assertFalse(new Document("text").isSnapshotShared());
+	}
+
+	@Test
+	public void testModificationStamp() throws Exception {
+		Document document= new Document(new RopeTextStore());
+		document.set("text");
+		IDocument snapshot= document.getSnapshot();
+		long stamp= document.getModificationStamp();
+		document.replace(0, 0, "more ");
+
+		assertNotEquals(stamp, document.getModificationStamp());
+		assertEquals(stamp, ((IDocumentExtension4) snapshot).getModificationStamp());
+	}
+
+	@Test
+	public void testImmutable() throws Exception {
+		Document document= new Document("text");
+		IDocument snapshot= document.getSnapshot();
+		try {
+			snapshot.replace(0, 0, "more ");
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		try {
+			snapshot.set("other");
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+		assertEquals("text", snapshot.get());
+	}
+
+	@Test
+	public void testConfigurableLineDelimiters() throws Exception {
+		Document document= new Document() {
+			{
+				setLineTracker(new ConfigurableLineTracker(new String[] { "|" }));
+			}
+		};
+		document.set("a|bb|\nccc");
+		IDocument snapshot= document.getSnapshot();
+
+		assertArrayEquals(new String[] { "|" }, snapshot.getLegalLineDelimiters());
+		assertEquals(3, snapshot.getNumberOfLines());
+		assertEquals(5, snapshot.getLineOffset(2));
+		assertEquals("|", snapshot.getLineDelimiter(1));
+		assertNull(snapshot.getLineDelimiter(2));
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		IDocument snapshot= new Document(new RopeTextStore()).getSnapshot();
+		assertLineInformation(new Document(), snapshot);
+	}
+
+	@Test
+	public void testLineInformation() throws Exception {
+		String[] texts= { "a", "\n", "\r", "\r\n", "\n\r", "a\r\nb", "a\rb\nc\r\n", "\r\r\n\n", "a\n", "a\r", "a\r\n" };
+		for (String text : texts) {
+			Document document= new Document(new RopeTextStore());
+			document.set(text);
+			assertLineInformation(new Document(text), document.getSnapshot());
+		}
+	}
+
+	/**
+	 * Large texts are split into several leaves of the same even length, so an odd prefix splits
+	 * <code>"\r\n"</code> delimiters between leaves.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	@Test
+	public void testDelimitersSplitBetweenLeaves() throws Exception {
+		String text= "a" + "\r\n".repeat(5000);
+		Document document= new Document(new RopeTextStore());
+		document.set(text);
+		assertLineInformation(new Document(text), document.getSnapshot());
+
+		document.replace(4001, 0, "\r");
+		document.replace(2, 0, "\n\r\n");
+		assertLineInformation(new Document(document.get()), document.getSnapshot());
+	}
+
+	/**
+	 * Edits a document whose rope has many small leaves, many of them split between
+	 * <code>'\r'</code> and <code>'\n'</code>, and compares the line information of snapshots with
+	 * the one of a regular document.
+	 *
+	 * @throws Exception if the test fails
+	 */
+	@Test
+	public void testRandomEdits() throws Exception {
+		Random random= new Random(4711);
+		Document document= new Document(new RopeTextStore());
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(document.getLength() + 1);
+			int length= random.nextInt(Math.min(document.getLength() - offset, 50) + 1);
+			String text= randomText(random, random.nextInt(10) == 0 ? random.nextInt(5000) : random.nextInt(10));
+			document.replace(offset, length, text);
+			if (i % 30 == 0)
+				assertLineInformation(new Document(document.get()), document.getSnapshot());
+		}
+		assertLineInformation(new Document(document.get()), document.getSnapshot());
+	}
+
+	@Test
+	public void testConcurrentReaders() throws Exception {
+		Random random= new Random(42);
+		Document document= new Document(new RopeTextStore());
+		document.set(randomText(random, 100_000));
+		String expected= document.get();
+		IDocument snapshot= document.getSnapshot();
+
+		AtomicReference<Throwable> failure= new AtomicReference<>();
+		List<Thread> readers= new ArrayList<>();
+		for (int i= 0; i < 4; i++) {
+			int seed= i;
+			Thread reader= new Thread(() -> {
+				try {
+					Random offsets= new Random(seed);
+					for (int j= 0; j < 100_000; j++) {
+						int offset= offsets.nextInt(expected.length());
+						assertEquals(expected.charAt(offset), snapshot.getChar(offset));
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+		for (int i= 0; i < 1000; i++)
+			document.replace(random.nextInt(document.getLength()), 1, "x");
+		for (Thread reader : readers)
+			reader.join();
+
+		if (failure.get() != null)
+			throw new AssertionError(failure.get());
+		assertEquals(expected, snapshot.get());
+	}
+
+	private static void assertLineInformation(IDocument expected, IDocument snapshot) throws BadLocationException {
+		assertEquals(expected.get(), snapshot.get());
+		int lines= expected.getNumberOfLines();
+		assertEquals(lines, snapshot.getNumberOfLines());
+		for (int line= 0; line < lines; line++) {
+			assertEquals(expected.getLineOffset(line), snapshot.getLineOffset(line));
+			assertEquals(expected.getLineLength(line), snapshot.getLineLength(line));
+			assertEquals(expected.getLineDelimiter(line), snapshot.getLineDelimiter(line));
+			assertRegionEquals(expected.getLineInformation(line), snapshot.getLineInformation(line));
+		}
+		// the line after the last line only exists if the last line is not empty
+		if (expected.getLineLength(lines - 1) > 0 && expected.getLineDelimiter(lines - 1) == null)
+			assertRegionEquals(expected.getLineInformation(lines), snapshot.getLineInformation(lines));
+		else
+			assertBadLocation(() -> snapshot.getLineInformation(lines));
+
+		int length= expected.getLength();
+		for (int offset= 0; offset <= length; offset++) {
+			assertEquals(expected.getLineOfOffset(offset), snapshot.getLineOfOffset(offset));
+			assertRegionEquals(expected.getLineInformationOfOffset(offset), snapshot.getLineInformationOfOffset(offset));
+			assertEquals(expected.getNumberOfLines(offset, length - offset), snapshot.getNumberOfLines(offset, length - offset));
+		}
+
+		assertBadLocation(() -> snapshot.getLineOffset(-1));
+		assertBadLocation(() -> snapshot.getLineOffset(lines));
+		assertBadLocation(() -> snapshot.getLineLength(lines));
+		assertBadLocation(() -> snapshot.getLineOfOffset(length + 1));
+		assertBadLocation(() -> snapshot.getLineInformation(lines + 1));
+	}
+
+	private static void assertRegionEquals(IRegion expected, IRegion actual) {
+		assertEquals(expected.getOffset(), actual.getOffset());
+		assertEquals(expected.getLength(), actual.getLength());
+	}
+
+	private interface LineQuery {
+		void run() throws BadLocationException;
+	}
+
+	private static void assertBadLocation(LineQuery query) {
+		try {
+			query.run();
+			fail();
+		} catch (BadLocationException e) {
+			// expected
+		}
+	}
+
+	private static String randomText(Random random, int length) {
+		char[] chars= new char[length];
+		for (int i= 0; i < length; i++) {
+			int c= random.nextInt(8);
+			chars[i]= c == 0 ? '\r' : c == 1 ? '\n' : (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+}
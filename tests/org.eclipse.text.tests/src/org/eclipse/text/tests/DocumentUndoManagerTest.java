@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corporation and others.
+ * Copyright (c) 2009, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -384,6 +387,141 @@ public class DocumentUndoManagerTest {
 
 	}
 
+	@Test
+	public void testMemoryBudgetCompression() throws ExecutionException, BadLocationException {
+		final Document document = new Document(createRepetitiveString(0, 20000));
+		createUndoManager(document);
+		assertEquals(-1, fUndoManager.getMemoryBudget());
+
+		List<String> contents = new ArrayList<>();
+		List<Long> stamps = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			contents.add(document.get());
+			stamps.add(Long.valueOf(document.getModificationStamp()));
+			document.replace(0, document.getLength(), createRepetitiveString(i, 20000));
+			fUndoManager.commit();
+		}
+		String last = document.get();
+		long footprint = fUndoManager.getMemoryFootprint();
+		assertTrue(footprint > 10 * 2 * 2 * 20000);
+
+		fUndoManager.setMemoryBudget(footprint / 4);
+		assertEquals(footprint / 4, fUndoManager.getMemoryBudget());
+		assertTrue(fUndoManager.getMemoryFootprint() <= footprint / 4);
+
+		// compression keeps all undo levels
+		for (int i = contents.size() - 1; i >= 0; i--) {
+			assertTrue(fUndoManager.undoable());
+			fUndoManager.undo();
+			assertEquals(contents.get(i), document.get());
+			assertEquals(stamps.get(i).longValue(), document.getModificationStamp());
+		}
+		assertFalse(fUndoManager.undoable());
+		while (fUndoManager.redoable())
+			fUndoManager.redo();
+		assertEquals(last, document.get());
+	}
+
+	@Test
+	public void testMemoryBudgetSpill() throws ExecutionException, BadLocationException {
+		final Document document = new Document(createRepetitiveString(0, 20000));
+		createUndoManager(document);
+
+		List<String> contents = new ArrayList<>();
+		for (int i = 1; i <= 10; i++) {
+			contents.add(document.get());
+			document.replace(0, document.getLength(), createRepetitiveString(i, 20000));
+			fUndoManager.commit();
+		}
+		fUndoManager.setMemoryBudget(fUndoManager.getMemoryFootprint() / 4);
+		long compressed = fUndoManager.getMemoryFootprint();
+
+		// spilling meets a budget which would otherwise require to remove changes
+		((DocumentUndoManager) fUndoManager).setSpillToFile(true);
+		fUndoManager.setMemoryBudget(compressed - 1);
+		assertTrue(fUndoManager.getMemoryFootprint() < compressed);
+
+		for (int i = contents.size() - 1; i >= 0; i--) {
+			fUndoManager.undo();
+			assertEquals(contents.get(i), document.get());
+		}
+		assertFalse(fUndoManager.undoable());
+	}
+
+	@Test
+	public void testMemoryBudgetCompaction() throws ExecutionException, BadLocationException {
+		final Document document = new Document(INITIAL_DOCUMENT_CONTENT);
+		createUndoManager(document);
+
+		// a compound change consisting of many consecutive small changes
+		fUndoManager.beginCompoundChange();
+		for (int i = 0; i < 100; i++) {
+			document.replace(10 + i, i % 3 == 0 ? 1 : 0, String.valueOf((char) ('a' + i % 26)));
+			fUndoManager.commit();
+		}
+		for (int i = 0; i < 100; i++) {
+			if (i % 3 == 2)
+				document.replace(9, 1, "");
+			else
+				document.replace(10, 0, String.valueOf((char) ('A' + i % 26)));
+			fUndoManager.commit();
+		}
+		fUndoManager.endCompoundChange();
+		String compound = document.get();
+		document.replace(0, 1, "x");
+		String last = document.get();
+
+		long footprint = fUndoManager.getMemoryFootprint();
+		fUndoManager.setMemoryBudget(footprint / 4);
+		assertTrue(fUndoManager.getMemoryFootprint() < footprint / 4);
+
+		fUndoManager.undo();
+		assertEquals(compound, document.get());
+		fUndoManager.undo();
+		assertEquals(INITIAL_DOCUMENT_CONTENT, document.get());
+		assertFalse(fUndoManager.undoable());
+		fUndoManager.redo();
+		assertEquals(compound, document.get());
+		fUndoManager.redo();
+		assertEquals(last, document.get());
+	}
+
+	@Test
+	public void testMemoryBudgetRemovesOldestChanges() throws ExecutionException, BadLocationException {
+		final Document document = new Document(createRandomString(1000));
+		createUndoManager(document);
+		fUndoManager.setMemoryBudget(20000);
+
+		List<String> contents = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			contents.add(document.get());
+			document.replace(0, 500, createRandomString(500));
+			fUndoManager.commit();
+			assertTrue(fUndoManager.getMemoryFootprint() <= 20000);
+		}
+
+		int undone = 0;
+		while (fUndoManager.undoable()) {
+			fUndoManager.undo();
+			undone++;
+			assertEquals(contents.get(contents.size() - undone), document.get());
+		}
+		assertTrue(undone > 1);
+		assertTrue(undone < contents.size());
+
+		fUndoManager.setMemoryBudget(-1);
+		assertEquals(-1, fUndoManager.getMemoryBudget());
+	}
+
+	private static String createRepetitiveString(int seed, int length) {
+		final StringBuilder buffer = new StringBuilder(length);
+		while (buffer.length() < length) {
+			buffer.append("line ").append(buffer.length() % 1000 + seed).append(": some text\n");
+		}
+		buffer.setLength(length);
+		return buffer.toString();
+	}
+
 	private static String createRandomString(int length) {
 		final StringBuilder buffer = new StringBuilder();
 
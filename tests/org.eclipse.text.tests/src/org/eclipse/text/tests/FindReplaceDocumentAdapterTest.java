@@ -17,8 +17,12 @@ package org.eclipse.text.tests;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.junit.After;
@@ -29,6 +33,9 @@ import org.junit.Test;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentRewriteSession;
+import org.eclipse.jface.text.DocumentRewriteSessionEvent;
+import org.eclipse.jface.text.DocumentRewriteSessionType;
 import org.eclipse.jface.text.FindReplaceDocumentAdapter;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
@@ -503,4 +510,97 @@ public class FindReplaceDocumentAdapterTest {
 		}
 		fail();
 	}
+
+	@Test
+	public void testLiteralFindMatchesRegex() throws Exception {
+		String characters= "aAbkK\u212A\u00DF\u0131iI\u0130\u00E9\u00C9_ .\\\n"; //$NON-NLS-1$
+		Random random= new Random(3);
+		fDocument.set(createText(random, characters, 3000));
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+		FindReplaceDocumentAdapter regexAdapter= new FindReplaceDocumentAdapter(fDocument);
+		for (int i= 0; i < 300; i++) {
+			String findString= createText(random, characters, 1 + random.nextInt(3));
+			boolean caseSensitive= random.nextBoolean();
+			boolean wholeWord= random.nextBoolean();
+			String pattern= Pattern.quote(findString);
+			if (wholeWord)
+				pattern= "\\b" + pattern + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+			for (int j= 0; j < 10; j++) {
+				int offset= random.nextInt(fDocument.getLength() + 1);
+				boolean forward= random.nextBoolean();
+				IRegion expected= regexAdapter.find(offset, pattern, forward, caseSensitive, false, true);
+				assertEquals(expected, adapter.find(offset, findString, forward, caseSensitive, wholeWord, false));
+			}
+		}
+	}
+
+	@Test
+	public void testLiteralFindReplace() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+		IRegion region= adapter.find(0, "METHOD", true, false, false, false); //$NON-NLS-1$
+		assertEquals(new Region(87, 6), region);
+		assertEquals(new Region(87, 7), adapter.replace("$0_", true)); //$NON-NLS-1$
+		assertEquals("method_1()", fDocument.get(87, 10)); //$NON-NLS-1$
+
+		assertNull(adapter.find(-1, "comment3", false, true, true, false)); //$NON-NLS-1$
+		try {
+			adapter.replace("x", false); //$NON-NLS-1$
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testReplaceAll() throws Exception {
+		List<DocumentRewriteSessionEvent> events= new ArrayList<>();
+		fDocument.addDocumentRewriteSessionListener(events::add);
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+
+		assertEquals(3, adapter.replaceAll("comment", "note", true, false, false)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, events.size());
+		assertEquals(1, adapter.replaceAll("NOTE", "Note", false, true, false)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, adapter.replaceAll("method", "x", true, true, false)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, adapter.replaceAll("(method)(\\d)", "\\C$2$1", true, false, true)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(0, adapter.replaceAll("x*", "y", true, false, true)); //$NON-NLS-1$ //$NON-NLS-2$
+
+		String expected= "package TestPackage;\n" + //$NON-NLS-1$
+				"/*\n" + //$NON-NLS-1$
+				"* Note\n" + //$NON-NLS-1$
+				"*/\n" + //$NON-NLS-1$
+				"	public class Class {\n" + //$NON-NLS-1$
+				"		// note1\n" + //$NON-NLS-1$
+				"		public void 1method() {\n" + //$NON-NLS-1$
+				"		}\n" + //$NON-NLS-1$
+				"		// note2\n" + //$NON-NLS-1$
+				"		public void 2method() {\n" + //$NON-NLS-1$
+				"		}\n" + //$NON-NLS-1$
+				"	}\n" + //$NON-NLS-1$
+				"// Gel\u00F6st"; //$NON-NLS-1$
+		assertEquals(expected, fDocument.get());
+
+		try {
+			adapter.replace("x", false); //$NON-NLS-1$
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testReplaceAllInRewriteSession() throws Exception {
+		fDocument.set("aaaa"); //$NON-NLS-1$
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+		DocumentRewriteSession session= fDocument.startRewriteSession(DocumentRewriteSessionType.SEQUENTIAL);
+		assertEquals(2, adapter.replaceAll("aa", "aab", true, false, false)); //$NON-NLS-1$ //$NON-NLS-2$
+		fDocument.stopRewriteSession(session);
+		assertEquals("aabaab", fDocument.get()); //$NON-NLS-1$
+	}
+
+	private static String createText(Random random, String characters, int length) {
+		StringBuilder buffer= new StringBuilder(length);
+		for (int i= 0; i < length; i++)
+			buffer.append(characters.charAt(random.nextInt(characters.length())));
+		return buffer.toString();
+	}
 }
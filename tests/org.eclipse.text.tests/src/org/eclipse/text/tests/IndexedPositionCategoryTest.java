@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Compares an indexed position category with a regular one.
+ */
+public class IndexedPositionCategoryTest {
+
+	private static final String LIST= "list";
+	private static final String INDEX= "index";
+
+	private Document fDocument;
+	private Random fRandom;
+
+	@Before
+	public void setUp() {
+		fDocument= new Document();
+		fDocument.addPositionCategory(LIST);
+		fDocument.addPositionCategory(INDEX, true);
+		fDocument.addPositionUpdater(new DefaultPositionUpdater(LIST));
+		fDocument.addPositionUpdater(new DefaultPositionUpdater(INDEX));
+		fRandom= new Random(42);
+	}
+
+	@Test
+	public void testCategories() {
+		assertTrue(fDocument.containsPositionCategory(INDEX));
+		assertTrue(fDocument.isIndexedPositionCategory(INDEX));
+		assertFalse(fDocument.isIndexedPositionCategory(LIST));
+		assertFalse(fDocument.isIndexedPositionCategory("unknown"));
+	}
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		fDocument.set(createText(2000));
+		addPositions(500);
+		for (int i= 0; i < 2000; i++) {
+			edit();
+			if (i % 10 == 0)
+				addPositions(5);
+			if (i % 50 == 0)
+				check();
+		}
+		check();
+	}
+
+	@Test
+	public void testLegacyUpdater() throws Exception {
+		fDocument= new Document(createText(1000));
+		fDocument.addPositionCategory(LIST);
+		fDocument.addPositionCategory(INDEX, true);
+		fDocument.addPositionUpdater(new DefaultPositionUpdater(LIST) {
+			// a subclass does not use the index
+		});
+		fDocument.addPositionUpdater(new DefaultPositionUpdater(INDEX) {
+			// a subclass does not use the index
+		});
+		addPositions(300);
+		for (int i= 0; i < 200; i++) {
+			edit();
+			check();
+		}
+	}
+
+	@Test
+	public void testRemove() throws Exception {
+		fDocument.set(createText(1000));
+		addPositions(300);
+		for (int i= 0; i < 100; i++)
+			edit();
+
+		List<Position> positions= sorted(fDocument.getPositions(INDEX));
+		List<Position> expected= sorted(fDocument.getPositions(LIST));
+		for (int i= 0; i < positions.size(); i+= 2) {
+			fDocument.removePosition(INDEX, positions.get(i));
+			fDocument.removePosition(LIST, expected.get(i));
+		}
+		check();
+	}
+
+	@Test
+	public void testLazyShift() throws Exception {
+		fDocument.set(createText(1000));
+		Position position= new Position(900, 10);
+		fDocument.addPosition(INDEX, position);
+		for (int i= 0; i < 100; i++)
+			fDocument.addPosition(INDEX, new Position(i * 5, 2));
+
+		fDocument.replace(0, 0, "abc");
+		Position[] positions= fDocument.getPositions(INDEX, 900, 20, false, false);
+		assertEquals(1, positions.length);
+		assertTrue(positions[0] == position);
+		assertEquals(903, position.offset);
+	}
+
+	private void edit() throws BadLocationException {
+		int length= fDocument.getLength();
+		int offset= fRandom.nextInt(length + 1);
+		int replaced= fRandom.nextInt(4) == 0 ? 0 : fRandom.nextInt(Math.min(length - offset, 30) + 1);
+		String text= fRandom.nextInt(3) == 0 ? "" : createText(fRandom.nextInt(20));
+		fDocument.replace(offset, replaced, text);
+	}
+
+	private void addPositions(int count) throws BadLocationException, BadPositionCategoryException {
+		int length= fDocument.getLength();
+		for (int i= 0; i < count; i++) {
+			int offset= fRandom.nextInt(length + 1);
+			int positionLength= fRandom.nextInt(Math.min(length - offset, 40) + 1);
+			fDocument.addPosition(LIST, new Position(offset, positionLength));
+			fDocument.addPosition(INDEX, new Position(offset, positionLength));
+		}
+	}
+
+	private void check() throws BadLocationException, BadPositionCategoryException {
+		Position[] expected= fDocument.getPositions(LIST);
+		Position[] actual= fDocument.getPositions(INDEX);
+		// the index keeps positions at the offset of a change sorted, the list does not
+		assertEquals(sorted(expected), sorted(actual));
+		for (int i= 1; i < actual.length; i++)
+			assertTrue(actual[i - 1].offset <= actual[i].offset);
+
+		int length= fDocument.getLength();
+		for (int i= 0; i < 50; i++) {
+			int offset= fRandom.nextInt(length + 1);
+			int regionLength= fRandom.nextInt(Math.min(length - offset, 100) + 1);
+			int index= offset;
+			assertEquals(Arrays.stream(actual).filter(p -> p.offset < index).count(), fDocument.computeIndexInCategory(INDEX, offset));
+			if (expected.length > 0) {
+				Position position= expected[fRandom.nextInt(expected.length)];
+				assertTrue(fDocument.containsPosition(INDEX, position.offset, position.length));
+			}
+			assertEquals(fDocument.containsPosition(LIST, offset, regionLength), fDocument.containsPosition(INDEX, offset, regionLength));
+			for (int j= 0; j < 4; j++) {
+				boolean canStartBefore= (j & 1) != 0;
+				boolean canEndAfter= (j & 2) != 0;
+				Position[] indexResult= fDocument.getPositions(INDEX, offset, regionLength, canStartBefore, canEndAfter);
+				assertEquals(sorted(getPositions(actual, offset, regionLength, canStartBefore, canEndAfter)), sorted(indexResult));
+			}
+		}
+	}
+
+	private static Position[] getPositions(Position[] positions, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		Position region= new Position(offset, length);
+		return Arrays.stream(positions).filter(p -> {
+			int end= Math.max(p.offset, p.offset + p.length - 1);
+			if (canStartBefore && canEndAfter)
+				return region.overlapsWith(p.offset, p.length);
+			if (canStartBefore)
+				return region.includes(end);
+			if (canEndAfter)
+				return region.includes(p.offset);
+			return region.includes(p.offset) && region.includes(p.offset + p.length - 1);
+		}).toArray(Position[]::new);
+	}
+
+	private static List<Position> sorted(Position[] positions) {
+		Position[] copy= positions.clone();
+		Arrays.sort(copy, Comparator.comparingInt((Position p) -> p.offset).thenComparingInt(p -> p.length));
+		return Arrays.asList(copy);
+	}
+
+	private String createText(int length) {
+		StringBuilder buffer= new StringBuilder(length);
+		for (int i= 0; i < length; i++) {
+			int c= fRandom.nextInt(30);
+			buffer.append(c == 0 ? '\n' : (char) ('a' + c % 26));
+		}
+		return buffer.toString();
+	}
+}
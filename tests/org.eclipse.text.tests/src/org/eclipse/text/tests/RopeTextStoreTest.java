@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.RopeTextStore;
+
+public class RopeTextStoreTest extends TextStoreTest {
+
+	@Override
+	protected ITextStore createTextStore() {
+		return new RopeTextStore();
+	}
+
+	@Test
+	public void testRandomEdits() {
+		Random random= new Random(4711);
+		RopeTextStore store= new RopeTextStore();
+		StringBuilder expected= new StringBuilder();
+		for (int i= 0; i < 5000; i++) {
+			int offset= random.nextInt(expected.length() + 1);
+			int length= random.nextInt(Math.min(expected.length() - offset, 3000) + 1);
+			String text= randomText(random, random.nextInt(4) == 0 ? random.nextInt(5000) : random.nextInt(5));
+			store.replace(offset, length, text);
+			expected.replace(offset, offset + length, text);
+			assertEquals(expected.length(), store.getLength());
+			if (expected.length() > 0) {
+				int index= random.nextInt(expected.length());
+				assertEquals(expected.charAt(index), store.get(index));
+			}
+		}
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testSequentialTyping() {
+		RopeTextStore store= new RopeTextStore();
+		StringBuilder expected= new StringBuilder();
+		store.set("0123456789");
+		expected.append("0123456789");
+		for (int i= 0; i < 10000; i++) {
+			String text= String.valueOf((char) ('a' + i % 26));
+			store.replace(5 + i, 0, text);
+			expected.insert(5 + i, text);
+		}
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+		for (int i= 0; i < expected.length(); i++)
+			assertEquals(expected.charAt(i), store.get(i));
+	}
+
+	@Test
+	public void testCopy() {
+		RopeTextStore store= new RopeTextStore();
+		store.set("first line\nsecond line\n");
+		RopeTextStore copy= store.copy();
+		store.replace(0, 5, "1st");
+		copy.replace(copy.getLength(), 0, "third line\n");
+
+		assertEquals("1st line\nsecond line\n", store.get(0, store.getLength()));
+		assertEquals("first line\nsecond line\nthird line\n", copy.get(0, copy.getLength()));
+	}
+
+	@Test
+	public void testDocument() throws Exception {
+		Document document= new Document(new RopeTextStore());
+		document.set("a\nb\nc");
+		document.replace(2, 1, "bb\nbbb");
+		assertEquals("a\nbb\nbbb\nc", document.get());
+		assertEquals(4, document.getNumberOfLines());
+		assertEquals("bbb", document.get(document.getLineOffset(2), document.getLineLength(2) - 1));
+	}
+
+	private static String randomText(Random random, int length) {
+		char[] chars= new char[length];
+		for (int i= 0; i < length; i++)
+			chars[i]= (char) ('a' + random.nextInt(26));
+		return new String(chars);
+	}
+}
@@ -16,8 +16,11 @@ package org.eclipse.text.tests;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -41,7 +44,9 @@ import org.eclipse.text.edits.TextEditCopier;
 import org.eclipse.text.edits.UndoEdit;
 
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 
 public class TextEditTests {
@@ -1385,6 +1390,147 @@ public class TextEditTests {
 		assertEquals(result, 2, 1);
 	}
 
+	@Test
+	public void testBulkUpdate() throws Exception {
+		Random random= new Random(5);
+		for (int i= 0; i < 300; i++) {
+			String text= createText(random, random.nextInt(200));
+			long seed= random.nextLong();
+			fRoot= new MultiTextEdit();
+			fRoot.addChildren(createEdits(new Random(seed), 0, text.length(), 0));
+			MultiTextEdit copy= new MultiTextEdit();
+			copy.addChildren(createEdits(new Random(seed), 0, text.length(), 0));
+			List<TextEdit> expectedEdits= flatten(fRoot);
+			List<TextEdit> actualEdits= flatten(copy);
+
+			IDocument expected= new Document(text);
+			UndoEdit expectedUndo= fRoot.apply(expected, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS);
+			IDocument actual= new Document(text);
+			List<DocumentEvent> events= new ArrayList<>();
+			actual.addDocumentListener(new IDocumentListener() {
+				@Override
+				public void documentAboutToBeChanged(DocumentEvent event) {
+				}
+				@Override
+				public void documentChanged(DocumentEvent event) {
+					events.add(event);
+				}
+			});
+			UndoEdit actualUndo= copy.apply(actual, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.BULK_UPDATE);
+
+			Assert.assertEquals(expected.get(), actual.get());
+			assertTrue(events.size() <= 1);
+			for (int j= 0; j < expectedEdits.size(); j++) {
+				TextEdit edit= expectedEdits.get(j);
+				assertEquals(actualEdits.get(j), edit.getOffset(), edit.getLength());
+			}
+			assertEquals(actualUndo, expectedUndo.getOffset(), expectedUndo.getLength());
+			TextEdit[] expectedUndos= expectedUndo.getChildren();
+			TextEdit[] actualUndos= actualUndo.getChildren();
+			Assert.assertEquals(expectedUndos.length, actualUndos.length);
+			for (int j= 0; j < expectedUndos.length; j++) {
+				assertEquals(actualUndos[j], expectedUndos[j].getOffset(), expectedUndos[j].getLength());
+				Assert.assertEquals(((ReplaceEdit) expectedUndos[j]).getText(), ((ReplaceEdit) actualUndos[j]).getText());
+			}
+			actualUndo.apply(actual);
+			Assert.assertEquals(text, actual.get());
+		}
+	}
+
+	@Test
+	public void testBulkUpdateWithMove() throws Exception {
+		fRoot.addChild(new ReplaceEdit(0, 1, "a"));
+		MoveSourceEdit source= new MoveSourceEdit(2, 2);
+		fRoot.addChild(source);
+		fRoot.addChild(new MoveTargetEdit(8, source));
+		fRoot.apply(fDocument, TextEdit.BULK_UPDATE);
+		Assert.assertEquals("a145672389", fDocument.get());
+	}
+
+	@Test
+	public void testAddChildren() throws Exception {
+		Random random= new Random(7);
+		for (int i= 0; i < 300; i++) {
+			int length= random.nextInt(100);
+			long seed= random.nextLong();
+			TextEdit[] edits= createEdits(new Random(seed), 0, length, 1);
+			Collections.shuffle(Arrays.asList(edits), new Random(seed));
+			TextEdit[] copies= createEdits(new Random(seed), 0, length, 1);
+			Collections.shuffle(Arrays.asList(copies), new Random(seed));
+			int split= random.nextInt(edits.length + 1);
+
+			MultiTextEdit expected= new MultiTextEdit();
+			for (TextEdit edit : copies)
+				expected.addChild(edit);
+			MultiTextEdit actual= new MultiTextEdit();
+			actual.addChildren(Arrays.copyOfRange(edits, 0, split));
+			actual.addChildren(Arrays.copyOfRange(edits, split, edits.length));
+
+			TextEdit[] expectedChildren= expected.getChildren();
+			TextEdit[] actualChildren= actual.getChildren();
+			Assert.assertEquals(edits.length, actualChildren.length);
+			for (int j= 0; j < actualChildren.length; j++) {
+				assertEquals(actualChildren[j], expectedChildren[j].getOffset(), expectedChildren[j].getLength());
+				assertTrue(actualChildren[j].getParent() == actual);
+			}
+		}
+	}
+
+	@Test
+	public void testAddChildrenOverlap() throws Exception {
+		try {
+			fRoot.addChildren(new TextEdit[] { new ReplaceEdit(0, 2, "a"), new InsertEdit(5, "c"), new InsertEdit(1, "b") });
+			fail();
+		} catch (MalformedTreeException e) {
+			// the edits before the overlapping one have been added
+			Assert.assertEquals(2, fRoot.getChildrenSize());
+		}
+	}
+
+	private static TextEdit[] createEdits(Random random, int offset, int end, int depth) {
+		List<TextEdit> edits= new ArrayList<>();
+		int position= offset;
+		while (position <= end) {
+			int length= random.nextInt(Math.min(end - position, 10) + 1);
+			switch (random.nextInt(depth < 2 ? 6 : 4)) {
+				case 0:
+					edits.add(new InsertEdit(position, createText(random, random.nextInt(4))));
+					length= 0;
+					break;
+				case 1:
+					edits.add(new DeleteEdit(position, length));
+					break;
+				case 2:
+					edits.add(new ReplaceEdit(position, length, createText(random, random.nextInt(6))));
+					break;
+				case 3:
+					edits.add(new RangeMarker(position, length));
+					break;
+				case 4:
+					TextEdit parent= random.nextBoolean() ? new ReplaceEdit(position, length, createText(random, 3)) : new RangeMarker(position, length);
+					if (length > 0)
+						parent.addChildren(createEdits(random, position, position + length, depth + 1));
+					edits.add(parent);
+					break;
+				default:
+					MultiTextEdit multi= random.nextBoolean() ? new MultiTextEdit(position, length) : new MultiTextEdit();
+					multi.addChildren(createEdits(random, position, position + length, depth + 1));
+					if (multi.hasChildren() || multi.getLength() > 0)
+						edits.add(multi);
+					break;
+			}
+			position+= length + random.nextInt(5);
+		}
+		return edits.toArray(new TextEdit[edits.size()]);
+	}
+
+	private static String createText(Random random, int length) {
+		StringBuilder buffer= new StringBuilder(length);
+		for (int i= 0; i < length; i++)
+			buffer.append((char) ('a' + random.nextInt(26)));
+		return buffer.toString();
+	}
+
 	private void doUndoRedo(UndoEdit undo, String redoResult) throws Exception {
 		UndoEdit redo= undo.apply(fDocument);
 		assertBufferContent();
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * Tests that the tree based line tracker built in bulk, by setting its content or by converting
+ * the list based tracker, has the same lines as the tree built by inserting the content through
+ * the replace path, and that it stays consistent when it is edited afterwards.
+ *
+ * @since 3.14
+ */
+public class TreeLineTrackerTest {
+
+	private static final String[] TEXTS= {
+			"",
+			"a",
+			"\n",
+			"\r",
+			"\r\n",
+			"\n\r",
+			"\r\r\n\n\r",
+			"a\rb\nc\r\nd",
+			"a\rb\nc\r\nd\r\n",
+			"line\r\nline\rline\nline\r",
+			"\r\n\r\n\r\n\r\n\r\n\r\n\r\n",
+			"\n\n\n\n\n\n\n\n\n\n\n\n\n\n\n\n\n"
+	};
+
+	@Test
+	public void testSet() throws Exception {
+		for (String text : TEXTS)
+			assertSameLines(text, createIncrementalTracker(text), createSetTracker(text));
+	}
+
+	@Test
+	public void testConversion() throws Exception {
+		for (String text : TEXTS)
+			assertSameLines(text, createIncrementalTracker(text), createConvertedTracker(text));
+	}
+
+	@Test
+	public void testRandomText() throws Exception {
+		Random random= new Random(11);
+		// every line count up to 70 to cover complete and incomplete trees
+		for (int lines= 0; lines < 70; lines++) {
+			String text= createText(random, lines, random.nextBoolean());
+			ILineTracker incremental= createIncrementalTracker(text);
+			assertSameLines(text, incremental, createSetTracker(text));
+			assertSameLines(text, incremental, createConvertedTracker(text));
+		}
+	}
+
+	@Test
+	public void testEditsAfterSet() throws Exception {
+		Random random= new Random(12);
+		for (int i= 0; i < 20; i++) {
+			String text= createText(random, random.nextInt(200), random.nextBoolean());
+			checkEdits(random, text, createSetTracker(text));
+		}
+	}
+
+	@Test
+	public void testEditsAfterConversion() throws Exception {
+		Random random= new Random(13);
+		for (int i= 0; i < 20; i++) {
+			String text= createText(random, random.nextInt(200), random.nextBoolean());
+			checkEdits(random, text, createConvertedTracker(text));
+		}
+	}
+
+	/**
+	 * Applies random edits to the given tracker and to a tracker that has been built through the
+	 * replace path, and compares their lines after every edit. Wrong balance factors or offsets of
+	 * the bulk built tree show up once the edits rebalance it.
+	 */
+	private static void checkEdits(Random random, String text, ILineTracker tracker) throws BadLocationException {
+		ILineTracker incremental= createIncrementalTracker(text);
+		StringBuilder content= new StringBuilder(text);
+		for (int i= 0; i < 100; i++) {
+			int offset= random.nextInt(content.length() + 1);
+			int length= random.nextInt(Math.min(20, content.length() - offset) + 1);
+			String replacement= createText(random, random.nextInt(4), random.nextBoolean());
+			tracker.replace(offset, length, replacement);
+			incremental.replace(offset, length, replacement);
+			content.replace(offset, offset + length, replacement);
+			assertSameLines(content.toString(), incremental, tracker);
+		}
+	}
+
+	/**
+	 * Returns a tree based tracker with the given content, appended through the replace path in
+	 * small chunks. A chunk does not end between the characters of a <code>\r\n</code> delimiter,
+	 * the replace path does not join them.
+	 */
+	private static ILineTracker createIncrementalTracker(String text) throws BadLocationException {
+		ILineTracker tracker= createConvertedTracker(""); //$NON-NLS-1$
+		int offset= 0;
+		while (offset < text.length()) {
+			int end= Math.min(text.length(), offset + 3);
+			if (end < text.length() && text.charAt(end - 1) == '\r' && text.charAt(end) == '\n')
+				end++;
+			tracker.replace(offset, 0, text.substring(offset, end));
+			offset= end;
+		}
+		return tracker;
+	}
+
+	/**
+	 * Returns a tree based tracker whose content has been set.
+	 */
+	private static ILineTracker createSetTracker(String text) throws BadLocationException {
+		ILineTracker tracker= createConvertedTracker("x"); //$NON-NLS-1$
+		tracker.set(text);
+		return tracker;
+	}
+
+	/**
+	 * Returns a tree based tracker that has been converted from a list based tracker with the
+	 * given content.
+	 */
+	private static ILineTracker createConvertedTracker(String text) throws BadLocationException {
+		ILineTracker tracker= new DefaultLineTracker();
+		tracker.set(text);
+		tracker.replace(0, 0, ""); // switches to the tree based tracker //$NON-NLS-1$
+		return tracker;
+	}
+
+	private static void assertSameLines(String text, ILineTracker expected, ILineTracker actual) throws BadLocationException {
+		String message= "text \"" + text.replace("\r", "\\r").replace("\n", "\\n") + "\", line "; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		assertEquals(message, expected.getNumberOfLines(), actual.getNumberOfLines());
+		for (int line= 0; line < expected.getNumberOfLines(); line++) {
+			IRegion region= expected.getLineInformation(line);
+			assertEquals(message + line, region, actual.getLineInformation(line));
+			assertEquals(message + line, expected.getLineLength(line), actual.getLineLength(line));
+			assertEquals(message + line, expected.getLineDelimiter(line), actual.getLineDelimiter(line));
+		}
+		for (int offset= 0; offset <= text.length(); offset++)
+			assertEquals(message + "of offset " + offset, expected.getLineNumberOfOffset(offset), actual.getLineNumberOfOffset(offset)); //$NON-NLS-1$
+	}
+
+	/**
+	 * Creates the given number of lines with random contents and <code>\r</code>,
+	 * <code>\n</code> and <code>\r\n</code> delimiters, and with or without a trailing delimiter.
+	 */
+	private static String createText(Random random, int lines, boolean trailingDelimiter) {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < lines; i++) {
+			int length= random.nextInt(4);
+			for (int j= 0; j < length; j++)
+				buffer.append((char) ('a' + random.nextInt(26)));
+			if (i < lines - 1 || trailingDelimiter) {
+				switch (random.nextInt(3)) {
+					case 0:
+						buffer.append('\r');
+						break;
+					case 1:
+						buffer.append('\n');
+						break;
+					default:
+						buffer.append("\r\n"); //$NON-NLS-1$
+				}
+			}
+		}
+		return buffer.toString();
+	}
+}
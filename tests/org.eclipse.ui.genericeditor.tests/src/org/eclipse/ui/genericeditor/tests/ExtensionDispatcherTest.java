@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.genericeditor.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextHover;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.contentassist.CompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.IContentAssistProcessor;
+import org.eclipse.jface.text.contentassist.IContextInformation;
+import org.eclipse.jface.text.contentassist.IContextInformationValidator;
+
+import org.eclipse.ui.internal.genericeditor.CompositeContentAssistProcessor;
+import org.eclipse.ui.internal.genericeditor.ExtensionDispatcher;
+import org.eclipse.ui.internal.genericeditor.hover.CompositeTextHover;
+
+/**
+ * Tests for the {@link ExtensionDispatcher}.
+ */
+public class ExtensionDispatcherTest {
+
+	@Test
+	public void testCallsRunInParallel() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 5000);
+		long start = System.currentTimeMillis();
+		List<Integer> results = inBackground(() -> dispatcher.collect(Arrays.asList(1, 2, 3, 4), value -> {
+			sleep(300);
+			return value * 10;
+		}));
+		assertEquals(Arrays.asList(10, 20, 30, 40), results);
+		assertTrue("calls were not run in parallel", System.currentTimeMillis() - start < 1200);
+	}
+
+	@Test
+	public void testSlowAndFailingCallsYieldNoResult() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 200);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		long start = System.currentTimeMillis();
+		List<String> results = inBackground(() -> dispatcher.collect(Arrays.asList("fast", "slow", "failing", "null"), value -> {
+			switch (value) {
+			case "slow":
+				try {
+					Thread.sleep(5000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return value;
+			case "failing":
+				throw new IllegalStateException("expected by the test");
+			case "null":
+				return null;
+			default:
+				return value;
+			}
+		}));
+		assertEquals(Arrays.asList("fast", null, null, null), results);
+		assertTrue("slow call was awaited", System.currentTimeMillis() - start < 2000);
+		assertTrue("slow call was not cancelled", interrupted.await(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testRunWaitsForAllCalls() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 10);
+		Set<Integer> done = ConcurrentHashMap.newKeySet();
+		inBackground(() -> {
+			dispatcher.run(Arrays.asList(1, 2, 3), value -> {
+				sleep(100 * value);
+				done.add(value);
+			});
+			return null;
+		});
+		assertEquals(Set.of(1, 2, 3), done);
+	}
+
+	@Test
+	public void testRunCompletesWhenAllThreadsAreBusy() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 10);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread busy = blockAllThreads(dispatcher, release);
+		try {
+			Set<Integer> done = ConcurrentHashMap.newKeySet();
+			inBackground(() -> {
+				dispatcher.run(Arrays.asList(1, 2), done::add);
+				return null;
+			});
+			assertEquals(Set.of(1, 2), done);
+		} finally {
+			release.countDown();
+			busy.join(5000);
+		}
+	}
+
+	@Test
+	public void testCollectCompletesWhenAllThreadsAreBusy() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 200);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread busy = blockAllThreads(dispatcher, release);
+		try {
+			List<Integer> results = inBackground(
+					() -> dispatcher.collect(Arrays.asList(1, 2), value -> value * 10));
+			assertEquals(Arrays.asList(10, 20), results);
+		} finally {
+			release.countDown();
+			busy.join(5000);
+		}
+	}
+
+	@Test
+	public void testBudgetStartsWithTheCall() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 300);
+		int count = 2 * Runtime.getRuntime().availableProcessors() + 2;
+		List<Integer> values = new ArrayList<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			values.add(i);
+			expected.add(i);
+		}
+		// together the calls take longer than the budget, each of them does not
+		List<Integer> results = inBackground(() -> dispatcher.collect(values, value -> {
+			sleep(150);
+			return value;
+		}));
+		assertEquals(expected, results);
+	}
+
+	@Test
+	public void testInterruptedCollectCancelsCalls() throws Exception {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 10000);
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch cancelled = new CountDownLatch(2);
+		AtomicReference<List<Integer>> results = new AtomicReference<>();
+		Thread thread = new Thread(() -> results.set(dispatcher.collect(Arrays.asList(1, 2), value -> {
+			started.countDown();
+			try {
+				Thread.sleep(10000);
+			} catch (InterruptedException e) {
+				cancelled.countDown();
+			}
+			return value;
+		})));
+		thread.start();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		thread.interrupt();
+		thread.join(5000);
+		assertEquals(Arrays.asList(null, null), results.get());
+		assertTrue("calls were not cancelled", cancelled.await(2, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCallsInUIThreadAreMadeInUIThread() {
+		ExtensionDispatcher dispatcher = new ExtensionDispatcher("Test", 5000);
+		Display display = Display.getDefault();
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		display.syncExec(() -> {
+			dispatcher.collect(Arrays.asList(1, 2, 3), value -> threads.add(Thread.currentThread()));
+			dispatcher.run(Arrays.asList(1, 2, 3), value -> threads.add(Thread.currentThread()));
+		});
+		assertEquals(Set.of(display.getThread()), threads);
+	}
+
+	@Test
+	public void testHoverRegionsAreComputedInCallingThread() {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		CompositeTextHover hover = new CompositeTextHover(
+				Arrays.asList(new Hover(threads, new Region(0, 10)), new Hover(threads, new Region(5, 10))));
+		IRegion region = hover.getHoverRegion(null, 7);
+		assertEquals(new Region(5, 5), region);
+		assertEquals(Set.of(Thread.currentThread()), threads);
+	}
+
+	@Test
+	public void testSlowProcessorDoesNotBlockContentAssist() throws Exception {
+		CompositeContentAssistProcessor processor = new CompositeContentAssistProcessor(Arrays.asList(
+				new Processor("first", 0), new Processor("slow", 10000), new Processor("last", 0)));
+		long start = System.currentTimeMillis();
+		ICompletionProposal[] proposals = inBackground(() -> processor.computeCompletionProposals(null, 0));
+		assertArrayEquals(new String[] { "first", "last" },
+				Arrays.stream(proposals).map(ICompletionProposal::getDisplayString).toArray());
+		assertTrue("slow processor was awaited",
+				System.currentTimeMillis() - start < ExtensionDispatcher.DEFAULT_BUDGET + 2000);
+	}
+
+	/**
+	 * Keeps all threads of the dispatcher busy until the given latch is released.
+	 */
+	private static Thread blockAllThreads(ExtensionDispatcher dispatcher, CountDownLatch release) {
+		List<Integer> blocking = new ArrayList<>();
+		for (int i = 0; i < 2 * Runtime.getRuntime().availableProcessors() + 2; i++) {
+			blocking.add(i);
+		}
+		Thread busy = new Thread(() -> dispatcher.run(blocking, value -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		busy.start();
+		sleep(200);
+		return busy;
+	}
+
+	/**
+	 * Runs the given call in a thread that is not a UI thread, where the
+	 * extensions are called in parallel.
+	 */
+	private static <T> T inBackground(Supplier<T> call) throws InterruptedException {
+		AtomicReference<T> result = new AtomicReference<>();
+		AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				result.set(call.get());
+			} catch (RuntimeException e) {
+				failure.set(e);
+			}
+		});
+		thread.start();
+		thread.join(20000);
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		return result.get();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class Hover implements ITextHover {
+		private final Set<Thread> threads;
+		private final IRegion region;
+
+		Hover(Set<Thread> threads, IRegion region) {
+			this.threads = threads;
+			this.region = region;
+		}
+
+		@Override
+		public IRegion getHoverRegion(ITextViewer textViewer, int offset) {
+			threads.add(Thread.currentThread());
+			return region;
+		}
+
+		@Override
+		public String getHoverInfo(ITextViewer textViewer, IRegion hoverRegion) {
+			return null;
+		}
+	}
+
+	private static class Processor implements IContentAssistProcessor {
+		private final String proposal;
+		private final long delay;
+
+		Processor(String proposal, long delay) {
+			this.proposal = proposal;
+			this.delay = delay;
+		}
+
+		@Override
+		public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int offset) {
+			sleep(delay);
+			return new ICompletionProposal[] { new CompletionProposal(proposal, offset, 0, proposal.length()) };
+		}
+
+		@Override
+		public IContextInformation[] computeContextInformation(ITextViewer viewer, int offset) {
+			return null;
+		}
+
+		@Override
+		public char[] getCompletionProposalAutoActivationCharacters() {
+			return null;
+		}
+
+		@Override
+		public char[] getContextInformationAutoActivationCharacters() {
+			return null;
+		}
+
+		@Override
+		public String getErrorMessage() {
+			return null;
+		}
+
+		@Override
+		public IContextInformationValidator getContextInformationValidator() {
+			return null;
+		}
+	}
+}
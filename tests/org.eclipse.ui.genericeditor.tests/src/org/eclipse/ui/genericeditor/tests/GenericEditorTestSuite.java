@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016-2017 Red Hat Inc. and others.
+ * Copyright (c) 2016, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,12 +28,14 @@ import org.junit.runners.Suite.SuiteClasses;
 		ShowInformationTest.class,
 		EditorTest.class,
 		FoldingTest.class,
+		IndentFoldingStrategyTest.class,
 		AutoEditTest.class,
 		ReconcilerTest.class,
 		HighlightTest.class,
 		IconsTest.class,
 		TestQuickAssist.class,
-		DoubleClickTest.class
+		DoubleClickTest.class,
+		ExtensionDispatcherTest.class
 })
 public class GenericEditorTestSuite {
 	// see @SuiteClasses
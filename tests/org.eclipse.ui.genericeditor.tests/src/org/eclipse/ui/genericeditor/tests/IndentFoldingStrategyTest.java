@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.genericeditor.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotation;
+import org.eclipse.jface.text.source.projection.ProjectionAnnotationModel;
+import org.eclipse.jface.text.source.projection.ProjectionViewer;
+
+import org.eclipse.ui.internal.genericeditor.folding.IndentFoldingStrategy;
+
+/**
+ * Tests that the incremental reconcile of the {@link IndentFoldingStrategy}
+ * yields the same folding regions as deriving them from the whole document.
+ */
+public class IndentFoldingStrategyTest {
+
+	private static final String KEYWORD = "import";
+
+	private Shell shell;
+
+	@Before
+	public void setUp() {
+		shell = new Shell(Display.getDefault());
+		shell.setSize(800, 600);
+		shell.setLayout(new FillLayout());
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		checkRandomEdits(null, 17);
+	}
+
+	@Test
+	public void testRandomEditsWithKeyword() throws Exception {
+		checkRandomEdits(KEYWORD, 23);
+	}
+
+	@Test
+	public void testCollapsedRegionSurvivesEditElsewhere() throws Exception {
+		IDocument document = new Document("first:\n  a\n  b\nsecond:\n  c\n  d\nthird:\n  e\n");
+		ProjectionViewer viewer = createViewer(document);
+		IndentFoldingStrategy strategy = createStrategy(viewer, document, null);
+		strategy.initialReconcile();
+		ProjectionAnnotationModel model = viewer.getProjectionAnnotationModel();
+		ProjectionAnnotation first = findAnnotation(model, 0);
+		assertNotNull(first);
+		collapse(model, first);
+		assertTrue(first.isCollapsed());
+
+		int offset = document.getLineOffset(4);
+		document.replace(offset, 0, "  new\n");
+		strategy.reconcile(new DirtyRegion(offset, 6, DirtyRegion.INSERT, "  new\n"), null);
+
+		assertSame(first, findAnnotation(model, 0));
+		assertTrue(first.isCollapsed());
+		assertEquals(new Position(0, 15), model.getPosition(first));
+		assertEquals(computeRegions(document.get(), null), getRegions(model));
+		strategy.uninstall();
+	}
+
+	/**
+	 * Applies random edits to a document, reconciles after some of them and
+	 * compares the folding regions with the ones derived from the whole document.
+	 */
+	private void checkRandomEdits(String keyword, long seed) throws BadLocationException {
+		Random random = new Random(seed);
+		IDocument document = new Document(createText(random, 300, keyword));
+		ProjectionViewer viewer = createViewer(document);
+		IndentFoldingStrategy strategy = createStrategy(viewer, document, keyword);
+		strategy.initialReconcile();
+		ProjectionAnnotationModel model = viewer.getProjectionAnnotationModel();
+		assertEquals(computeRegions(document.get(), keyword), getRegions(model));
+
+		for (int i = 0; i < 300; i++) {
+			int edits = 1 + random.nextInt(3);
+			for (int j = 0; j < edits; j++) {
+				edit(document, random, keyword);
+			}
+			strategy.reconcile(new DirtyRegion(0, 0, DirtyRegion.INSERT, ""), null);
+			assertEquals("after edit " + i, computeRegions(document.get(), keyword), getRegions(model));
+		}
+		strategy.uninstall();
+	}
+
+	private ProjectionViewer createViewer(IDocument document) {
+		ProjectionViewer viewer = new ProjectionViewer(shell, null, null, false, SWT.V_SCROLL);
+		viewer.setDocument(document, new AnnotationModel());
+		viewer.enableProjection();
+		return viewer;
+	}
+
+	private static IndentFoldingStrategy createStrategy(ProjectionViewer viewer, IDocument document,
+			String keyword) {
+		IndentFoldingStrategy strategy = new IndentFoldingStrategy(keyword);
+		strategy.setViewer(viewer);
+		strategy.setDocument(document);
+		strategy.projectionEnabled();
+		return strategy;
+	}
+
+	/**
+	 * Derives the folding regions from the whole document, with a new strategy
+	 * and viewer.
+	 */
+	private List<Position> computeRegions(String text, String keyword) {
+		IDocument document = new Document(text);
+		ProjectionViewer viewer = createViewer(document);
+		IndentFoldingStrategy strategy = createStrategy(viewer, document, keyword);
+		strategy.initialReconcile();
+		List<Position> regions = getRegions(viewer.getProjectionAnnotationModel());
+		strategy.uninstall();
+		viewer.getControl().dispose();
+		return regions;
+	}
+
+	private static List<Position> getRegions(ProjectionAnnotationModel model) {
+		List<Position> regions = new ArrayList<>();
+		for (Iterator<Annotation> iter = model.getAnnotationIterator(); iter.hasNext();) {
+			Position position = model.getPosition(iter.next());
+			if (position != null) {
+				regions.add(new Position(position.getOffset(), position.getLength()));
+			}
+		}
+		regions.sort(Comparator.comparingInt(Position::getOffset).thenComparingInt(Position::getLength));
+		return regions;
+	}
+
+	private static ProjectionAnnotation findAnnotation(ProjectionAnnotationModel model, int offset) {
+		for (Iterator<Annotation> iter = model.getAnnotationIterator(); iter.hasNext();) {
+			Annotation annotation = iter.next();
+			if (model.getPosition(annotation).getOffset() == offset) {
+				return (ProjectionAnnotation) annotation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Collapses the given annotation. The folding annotations can only be
+	 * collapsed once they have been painted across more than one line.
+	 */
+	private void collapse(ProjectionAnnotationModel model, ProjectionAnnotation annotation) {
+		Image image = new Image(shell.getDisplay(), 16, 100);
+		GC gc = new GC(image);
+		Canvas canvas = new Canvas(shell, SWT.NONE);
+		try {
+			annotation.paint(gc, canvas, new Rectangle(0, 0, 16, 5 * gc.getFontMetrics().getHeight()));
+		} finally {
+			canvas.dispose();
+			gc.dispose();
+			image.dispose();
+		}
+		model.collapse(annotation);
+	}
+
+	private static void edit(IDocument document, Random random, String keyword) throws BadLocationException {
+		int line = random.nextInt(document.getNumberOfLines());
+		int offset = document.getLineOffset(line);
+		int length = document.getLineLength(line);
+		switch (random.nextInt(6)) {
+		case 0:
+			// insert lines
+			document.replace(offset, 0, createText(random, 1 + random.nextInt(5), keyword));
+			break;
+		case 1:
+			// delete lines
+			int endLine = Math.min(document.getNumberOfLines() - 1, line + random.nextInt(4));
+			document.replace(offset, document.getLineOffset(endLine) + document.getLineLength(endLine) - offset, "");
+			break;
+		case 2:
+			// indent or outdent a line
+			if (random.nextBoolean()) {
+				document.replace(offset, 0, random.nextBoolean() ? "  " : "\t");
+			} else if (length > 0 && Character.isWhitespace(document.getChar(offset))) {
+				document.replace(offset, 1, "");
+			}
+			break;
+		case 3:
+			// join a line with the next one
+			String delimiter = document.getLineDelimiter(line);
+			if (delimiter != null) {
+				document.replace(offset + length - delimiter.length(), delimiter.length(), "");
+			}
+			break;
+		case 4:
+			// split a line
+			document.replace(offset + random.nextInt(length + 1), 0, "\n" + indent(random));
+			break;
+		default:
+			// replace a line
+			String replacement = createText(random, 1, keyword);
+			document.replace(offset, length, line == document.getNumberOfLines() - 1
+					? replacement.substring(0, replacement.length() - 1)
+					: replacement);
+		}
+	}
+
+	/**
+	 * Creates lines of keys and values with random indentation, blank lines and,
+	 * if given, lines starting with the keyword.
+	 */
+	private static String createText(Random random, int lines, String keyword) {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			int kind = random.nextInt(10);
+			if (kind == 0) {
+				buffer.append(random.nextBoolean() ? "" : "  ");
+			} else if (kind < 3 && keyword != null) {
+				buffer.append(random.nextInt(3) == 0 ? indent(random) : "").append(keyword).append(" a.b").append(i);
+			} else {
+				buffer.append(indent(random)).append("key").append(i).append(": value");
+			}
+			buffer.append('\n');
+		}
+		return buffer.toString();
+	}
+
+	private static String indent(Random random) {
+		switch (random.nextInt(5)) {
+		case 0:
+		case 1:
+			return "";
+		case 2:
+			return "  ";
+		case 3:
+			return "\t";
+		default:
+			return "    ";
+		}
+	}
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures an {@link AnnotationModel} with 100,000 annotations in a 100,000
+ * line document: adding and removing all annotations at once, querying the
+ * annotations of a viewport like a painter does, and typing with a viewport
+ * query after every change. The annotation model, which keeps its positions in
+ * an indexed position category, is compared with one that keeps them in the
+ * default position category of the document.
+ */
+public class AnnotationModelPerformanceTest extends PerformanceTestCase {
+
+	/**
+	 * Manages its positions in the default position category of the document like
+	 * annotation models did before they used an indexed position category.
+	 */
+	private static class DefaultCategoryAnnotationModel extends AnnotationModel {
+
+		@Override
+		protected void addPosition(IDocument document, Position position) throws BadLocationException {
+			if (document != null)
+				document.addPosition(position);
+		}
+
+		@Override
+		protected void removePosition(IDocument document, Position position) {
+			if (document != null)
+				document.removePosition(position);
+		}
+	}
+
+	private static final int LINES = 100_000;
+
+	private static final int VIEWPORT_LINES = 60;
+
+	private static final int QUERIES = 10_000;
+
+	private static final int CHANGES = 1_000;
+
+	private static final int WARM_UP_RUNS = 1;
+
+	private static final int MEASURED_RUNS = 5;
+
+	private static String fText;
+
+	public void testAddIndexedCategory() throws Exception {
+		measureAdd(true);
+	}
+
+	public void testAddDefaultCategory() throws Exception {
+		measureAdd(false);
+	}
+
+	public void testRemoveIndexedCategory() throws Exception {
+		measureRemove(true);
+	}
+
+	public void testRemoveDefaultCategory() throws Exception {
+		measureRemove(false);
+	}
+
+	public void testViewportQueriesIndexedCategory() throws Exception {
+		measureViewportQueries(true);
+	}
+
+	public void testViewportQueriesDefaultCategory() throws Exception {
+		measureViewportQueries(false);
+	}
+
+	public void testTypingIndexedCategory() throws Exception {
+		measureTyping(true);
+	}
+
+	public void testTypingDefaultCategory() throws Exception {
+		measureTyping(false);
+	}
+
+	private void measureAdd(boolean indexed) throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			IDocument document = new Document(getText());
+			AnnotationModel model = createModel(indexed, document);
+			Map<Annotation, Position> annotations = createAnnotations(document);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			model.replaceAnnotations(null, annotations);
+			if (measured)
+				stopMeasuring();
+			assertEquals(LINES, count(model.getAnnotationIterator()));
+			model.disconnect(document);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureRemove(boolean indexed) throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			IDocument document = new Document(getText());
+			AnnotationModel model = createModel(indexed, document);
+			Map<Annotation, Position> annotations = createAnnotations(document);
+			model.replaceAnnotations(null, annotations);
+			Annotation[] removed = annotations.keySet().toArray(new Annotation[annotations.size()]);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			model.replaceAnnotations(removed, null);
+			if (measured)
+				stopMeasuring();
+			assertEquals(0, count(model.getAnnotationIterator()));
+			model.disconnect(document);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureViewportQueries(boolean indexed) throws Exception {
+		IDocument document = new Document(getText());
+		AnnotationModel model = createModel(indexed, document);
+		model.replaceAnnotations(null, createAnnotations(document));
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			Random random = new Random(42);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (int j = 0; j < QUERIES; j++)
+				queryViewport(model, document, random.nextInt(LINES - VIEWPORT_LINES));
+			if (measured)
+				stopMeasuring();
+		}
+		model.disconnect(document);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureTyping(boolean indexed) throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			IDocument document = new Document(getText());
+			AnnotationModel model = createModel(indexed, document);
+			model.replaceAnnotations(null, createAnnotations(document));
+			int line = LINES / 2;
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (int j = 0; j < CHANGES; j++) {
+				document.replace(document.getLineOffset(line) + 1, 0, "x");
+				queryViewport(model, document, line);
+			}
+			if (measured)
+				stopMeasuring();
+			model.disconnect(document);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static AnnotationModel createModel(boolean indexed, IDocument document) {
+		AnnotationModel model = indexed ? new AnnotationModel() : new DefaultCategoryAnnotationModel();
+		model.connect(document);
+		return model;
+	}
+
+	private static void queryViewport(AnnotationModel model, IDocument document, int firstLine) throws BadLocationException {
+		int offset = document.getLineOffset(firstLine);
+		int end = document.getLineOffset(firstLine + VIEWPORT_LINES);
+		assertEquals(VIEWPORT_LINES, count(model.getAnnotationIterator(offset, end - offset, true, true)));
+	}
+
+	private static int count(Iterator<Annotation> iterator) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			count++;
+		}
+		return count;
+	}
+
+	private static String getText() {
+		if (fText == null) {
+			StringBuilder buffer = new StringBuilder();
+			for (int i = 0; i < LINES; i++)
+				buffer.append("\tint value").append(i).append("= compute(").append(i).append(");\n");
+			fText = buffer.toString();
+		}
+		return fText;
+	}
+
+	/**
+	 * Creates an annotation for the identifier of every line, like occurrences or
+	 * search results.
+	 */
+	private static Map<Annotation, Position> createAnnotations(IDocument document) throws BadLocationException {
+		Map<Annotation, Position> annotations = new HashMap<>();
+		for (int i = 0; i < LINES; i++)
+			annotations.put(new Annotation(false), new Position(document.getLineOffset(i) + 5, 5));
+		return annotations;
+	}
+}
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IPainter;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationPainter;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModelListener;
+import org.eclipse.jface.text.source.ISourceViewer;
+import org.eclipse.jface.text.source.SourceViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures scrolling through a 100,000 line document with 200,000 squiggly
+ * annotations: the viewport is moved page by page and painted after every move.
+ * The annotation painter looks up the annotations of the painted lines in its
+ * line cache; it is compared with a painter whose annotation model does not
+ * support region queries, which checks all decorations on every paint.
+ */
+public class AnnotationPainterPerformanceTest extends PerformanceTestCase {
+
+	private static final String TYPE = "squiggly";
+
+	private static final int LINES = 100_000;
+
+	private static final int SCROLLS = 100;
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	/**
+	 * Draws a line below the annotated text.
+	 */
+	private static class UnderlineDrawingStrategy implements AnnotationPainter.IDrawingStrategy {
+
+		@Override
+		public void draw(Annotation annotation, GC gc, StyledText textWidget, int offset, int length, Color color) {
+			if (gc == null) {
+				textWidget.redrawRange(offset, length, true);
+				return;
+			}
+			Point left = textWidget.getLocationAtOffset(offset);
+			Point right = textWidget.getLocationAtOffset(offset + length);
+			int y = left.y + textWidget.getLineHeight(offset) - 1;
+			gc.setForeground(color);
+			gc.drawLine(left.x, y, right.x, y);
+		}
+	}
+
+	/**
+	 * Hides the region queries of the annotation model from the painter.
+	 */
+	private static class UnindexedAnnotationModel implements IAnnotationModel {
+
+		private final IAnnotationModel fModel;
+
+		UnindexedAnnotationModel(IAnnotationModel model) {
+			fModel = model;
+		}
+
+		@Override
+		public void addAnnotationModelListener(IAnnotationModelListener listener) {
+			fModel.addAnnotationModelListener(listener);
+		}
+
+		@Override
+		public void removeAnnotationModelListener(IAnnotationModelListener listener) {
+			fModel.removeAnnotationModelListener(listener);
+		}
+
+		@Override
+		public void connect(IDocument document) {
+			fModel.connect(document);
+		}
+
+		@Override
+		public void disconnect(IDocument document) {
+			fModel.disconnect(document);
+		}
+
+		@Override
+		public void addAnnotation(Annotation annotation, Position position) {
+			fModel.addAnnotation(annotation, position);
+		}
+
+		@Override
+		public void removeAnnotation(Annotation annotation) {
+			fModel.removeAnnotation(annotation);
+		}
+
+		@Override
+		public Iterator<Annotation> getAnnotationIterator() {
+			return fModel.getAnnotationIterator();
+		}
+
+		@Override
+		public Position getPosition(Annotation annotation) {
+			return fModel.getPosition(annotation);
+		}
+	}
+
+	private Shell fShell;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fShell = new Shell(Display.getDefault());
+		fShell.setSize(800, 600);
+		fShell.setLayout(new FillLayout());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fShell.dispose();
+		super.tearDown();
+	}
+
+	public void testScrollingLineCache() throws Exception {
+		measureScrolling(true);
+	}
+
+	public void testScrollingAllDecorations() throws Exception {
+		measureScrolling(false);
+	}
+
+	private void measureScrolling(boolean lineCache) throws BadLocationException {
+		SourceViewer viewer = new SourceViewer(fShell, null, SWT.V_SCROLL);
+		fShell.layout();
+		fShell.open();
+		IDocument document = new Document(createText());
+		AnnotationModel model = new AnnotationModel();
+		model.replaceAnnotations(null, createAnnotations(document));
+		viewer.setDocument(document, model);
+
+		AnnotationPainter painter = new AnnotationPainter(viewer, null) {
+			@Override
+			protected IAnnotationModel findAnnotationModel(ISourceViewer sourceViewer) {
+				IAnnotationModel annotationModel = super.findAnnotationModel(sourceViewer);
+				return lineCache || annotationModel == null ? annotationModel : new UnindexedAnnotationModel(annotationModel);
+			}
+		};
+		painter.addDrawingStrategy(TYPE, new UnderlineDrawingStrategy());
+		painter.addAnnotationType(TYPE, TYPE);
+		painter.setAnnotationTypeColor(TYPE, fShell.getDisplay().getSystemColor(SWT.COLOR_RED));
+		viewer.addPainter(painter);
+		painter.paint(IPainter.CONFIGURATION);
+		StyledText textWidget = viewer.getTextWidget();
+		processEvents();
+
+		int pageLines = Math.max(1, textWidget.getClientArea().height / textWidget.getLineHeight());
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			int firstLine = i * SCROLLS * pageLines % (LINES - SCROLLS * pageLines);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (int j = 0; j < SCROLLS; j++) {
+				textWidget.setTopIndex(firstLine + j * pageLines);
+				textWidget.redraw();
+				textWidget.update();
+			}
+			if (measured)
+				stopMeasuring();
+			processEvents();
+		}
+		viewer.getControl().dispose();
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void processEvents() {
+		Display display = fShell.getDisplay();
+		while (display.readAndDispatch()) {
+			// process the pending paint requests
+		}
+	}
+
+	private static String createText() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < LINES; i++)
+			buffer.append("\tint value").append(i).append("= compute(").append(i).append(");\n");
+		return buffer.toString();
+	}
+
+	/**
+	 * Creates annotations for the identifier and the called method of every line,
+	 * like problems reported for a generated file.
+	 */
+	private static Map<Annotation, Position> createAnnotations(IDocument document) throws BadLocationException {
+		Map<Annotation, Position> annotations = new HashMap<>();
+		for (int i = 0; i < LINES; i++) {
+			int offset = document.getLineOffset(i);
+			annotations.put(new Annotation(TYPE, false, null), new Position(offset + 5, 5));
+			annotations.put(new Annotation(TYPE, false, null), new Position(offset + 12 + String.valueOf(i).length(), 7));
+		}
+		return annotations;
+	}
+}
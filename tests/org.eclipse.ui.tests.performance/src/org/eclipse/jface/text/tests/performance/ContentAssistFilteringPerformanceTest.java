@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jface.internal.text.TopKSelector;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.contentassist.ICompletionProposalExtension2;
+import org.eclipse.jface.text.contentassist.ICompletionProposalSorter;
+import org.eclipse.jface.text.contentassist.IContextInformation;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures the proposal list updates of a content assist session with 50,000
+ * proposals, once sorting all valid proposals like the proposal popup does by
+ * default and once selecting the best 200 of them like it does with a proposal
+ * limit. The proposals arrive in chunks as from several asynchronous
+ * processors, then a prefix is typed character by character and every
+ * keystroke filters the proposals that were valid before.
+ * <p>
+ * The test performs the steps of the proposal popup on every update, i.e.
+ * validating the proposals and sorting or selecting them, without opening the
+ * popup.
+ * </p>
+ */
+public class ContentAssistFilteringPerformanceTest extends PerformanceTestCase {
+
+	private static final int PROPOSALS = 50_000;
+
+	private static final int CHUNKS = 10;
+
+	private static final int LIMIT = 200;
+
+	private static final String PREFIX = "getValue";
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private static class Proposal implements ICompletionProposal, ICompletionProposalExtension2 {
+
+		private final String fName;
+
+		private final int fRelevance;
+
+		private final int fOffset;
+
+		Proposal(String name, int relevance, int offset) {
+			fName = name;
+			fRelevance = relevance;
+			fOffset = offset;
+		}
+
+		@Override
+		public boolean validate(IDocument document, int offset, DocumentEvent event) {
+			try {
+				String prefix = document.get(fOffset, offset - fOffset);
+				return fName.regionMatches(true, 0, prefix, 0, prefix.length());
+			} catch (BadLocationException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public String getDisplayString() {
+			return fName;
+		}
+
+		@Override
+		public void apply(IDocument document) {
+		}
+
+		@Override
+		public void apply(ITextViewer viewer, char trigger, int stateMask, int offset) {
+		}
+
+		@Override
+		public void selected(ITextViewer viewer, boolean smartToggle) {
+		}
+
+		@Override
+		public void unselected(ITextViewer viewer) {
+		}
+
+		@Override
+		public Point getSelection(IDocument document) {
+			return null;
+		}
+
+		@Override
+		public String getAdditionalProposalInfo() {
+			return null;
+		}
+
+		@Override
+		public Image getImage() {
+			return null;
+		}
+
+		@Override
+		public IContextInformation getContextInformation() {
+			return null;
+		}
+	}
+
+	/**
+	 * Sorts by relevance, then by name, like typical sorters do.
+	 */
+	private static final ICompletionProposalSorter SORTER = (p1, p2) -> {
+		int result = Integer.compare(((Proposal) p2).fRelevance, ((Proposal) p1).fRelevance);
+		return result != 0 ? result : p1.getDisplayString().compareToIgnoreCase(p2.getDisplayString());
+	};
+
+	public void testStreamingAllSorted() {
+		measureStreaming(false);
+	}
+
+	public void testStreamingBestSelected() {
+		measureStreaming(true);
+	}
+
+	public void testTypingAllSorted() throws Exception {
+		measureTyping(false);
+	}
+
+	public void testTypingBestSelected() throws Exception {
+		measureTyping(true);
+	}
+
+	/**
+	 * Measures the updates of the proposal list while the proposals arrive in
+	 * chunks.
+	 */
+	private void measureStreaming(boolean limited) {
+		List<ICompletionProposal> chunks = createProposals(1);
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			List<ICompletionProposal> displayed = stream(chunks, limited);
+			if (measured)
+				stopMeasuring();
+			assertEquals(limited ? LIMIT : PROPOSALS, displayed.size());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Measures every keystroke of typing the prefix once all proposals have
+	 * arrived.
+	 */
+	private void measureTyping(boolean limited) throws Exception {
+		IDocument document = new Document("\t");
+		int offset = document.getLength();
+		List<ICompletionProposal> chunks = createProposals(offset);
+		int expected = -1;
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			document.set("\t");
+			List<ICompletionProposal> displayed = stream(chunks, limited);
+			List<ICompletionProposal> proposals = limited ? TopKSelector.moveToFront(chunks, displayed) : displayed;
+			boolean measured = i >= WARM_UP_RUNS;
+			for (int j = 0; j < PREFIX.length(); j++) {
+				if (measured)
+					startMeasuring();
+				document.replace(offset + j, 0, PREFIX.substring(j, j + 1));
+				List<ICompletionProposal> filtered = new ArrayList<>(proposals.size());
+				for (ICompletionProposal proposal : proposals) {
+					if (((ICompletionProposalExtension2) proposal).validate(document, offset + j + 1, null))
+						filtered.add(proposal);
+				}
+				displayed = display(filtered, limited);
+				// the popup filters all valid proposals, the displayed ones first, if it displays only the best ones
+				proposals = limited ? TopKSelector.moveToFront(filtered, displayed) : displayed;
+				if (measured)
+					stopMeasuring();
+			}
+			if (expected == -1)
+				expected = proposals.size();
+			assertEquals(expected, proposals.size());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Adds the proposals chunk by chunk and prepares the valid proposals for
+	 * display after every chunk.
+	 */
+	private static List<ICompletionProposal> stream(List<ICompletionProposal> chunks, boolean limited) {
+		List<ICompletionProposal> proposals = new ArrayList<>();
+		List<ICompletionProposal> displayed = null;
+		for (int i = 0; i < CHUNKS; i++) {
+			proposals.addAll(chunks.subList(i * PROPOSALS / CHUNKS, (i + 1) * PROPOSALS / CHUNKS));
+			displayed = display(proposals, limited);
+		}
+		return displayed;
+	}
+
+	/**
+	 * Prepares the proposals for display like the proposal popup does.
+	 */
+	private static List<ICompletionProposal> display(List<ICompletionProposal> proposals, boolean limited) {
+		if (limited && proposals.size() > LIMIT)
+			return TopKSelector.select(new ArrayList<>(proposals), LIMIT, (Comparator<ICompletionProposal>) SORTER::compare);
+		List<ICompletionProposal> sorted = new ArrayList<>(proposals);
+		sorted.sort(SORTER::compare);
+		return sorted;
+	}
+
+	/**
+	 * Creates identifiers like <code>getValue123</code> or
+	 * <code>setName42</code>, a part of them starts with the prefix typed later
+	 * on.
+	 */
+	private static List<ICompletionProposal> createProposals(int offset) {
+		String[] verbs = { "get", "set", "is", "has", "create", "compute", "update", "find" };
+		String[] nouns = { "Value", "Name", "Vertex", "Variable", "Version", "Node", "Element", "Item" };
+		Random random = new Random(42);
+		List<ICompletionProposal> proposals = new ArrayList<>(PROPOSALS);
+		for (int i = 0; i < PROPOSALS; i++) {
+			String name = verbs[random.nextInt(verbs.length)] + nouns[random.nextInt(nouns.length)] + i;
+			proposals.add(new Proposal(name, random.nextInt(10), offset));
+		}
+		return proposals;
+	}
+}
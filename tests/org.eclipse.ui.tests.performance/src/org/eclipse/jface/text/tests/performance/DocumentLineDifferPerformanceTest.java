@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.compare.rangedifferencer.RangeDifferencer;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
+import org.eclipse.ui.internal.texteditor.quickdiff.LineDifferencer;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocEquivalenceComparator;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
+
+/**
+ * Measures quick diff on a 100,000 line file with 1,000 scattered edits: the
+ * initial diff of the file against its reference with {@link LineDifferencer}
+ * compared with {@link RangeDifferencer}, and the time
+ * {@link DocumentLineDiffer} spends in its document listener for every edit.
+ */
+public class DocumentLineDifferPerformanceTest extends PerformanceTestCase {
+
+	private static final int LINES = 100_000;
+
+	private static final int EDITS = 1_000;
+
+	private static final int WARM_UP_RUNS = 1;
+
+	private static final int MEASURED_RUNS = 5;
+
+	/**
+	 * Provides a fixed reference document.
+	 */
+	private static class ReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		ReferenceProvider(IDocument reference) {
+			fReference = reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "performance";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
+	public void testInitialDiffRangeDifferencer() throws Exception {
+		measureInitialDiff(false);
+	}
+
+	public void testInitialDiffLineDifferencer() throws Exception {
+		measureInitialDiff(true);
+	}
+
+	public void testScatteredEdits() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			Random random = new Random(2);
+			String text = createText();
+			IDocument document = new Document(text);
+			DocumentLineDiffer differ = new DocumentLineDiffer();
+			differ.setReferenceProvider(new ReferenceProvider(new Document(text)));
+			differ.connect(document);
+			waitForSynchronization(differ);
+
+			boolean measured = i >= WARM_UP_RUNS;
+			for (int j = 0; j < EDITS; j++) {
+				if (measured)
+					startMeasuring();
+				edit(document, random);
+				if (measured)
+					stopMeasuring();
+				// a full re-diff would run in the background and not be measured
+				assertTrue(differ.isSynchronized());
+			}
+			differ.disconnect(document);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private void measureInitialDiff(boolean lineDifferencer) throws Exception {
+		Random random = new Random(1);
+		IDocument reference = new Document(createText());
+		IDocument actual = new Document(reference.get());
+		for (int i = 0; i < EDITS; i++)
+			edit(actual, random);
+
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			DocumentEquivalenceClass left = new DocumentEquivalenceClass(reference);
+			DocumentEquivalenceClass right = new DocumentEquivalenceClass(actual);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			if (lineDifferencer)
+				LineDifferencer.findRanges(null, left, null, right, null);
+			else
+				RangeDifferencer.findRanges(new DocEquivalenceComparator(left, null), new DocEquivalenceComparator(right, null));
+			if (measured)
+				stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Changes, inserts or removes a few lines, every 50th edit pastes a block of
+	 * 200 lines.
+	 */
+	private static void edit(IDocument document, Random random) throws BadLocationException {
+		int line = random.nextInt(document.getNumberOfLines() - 1);
+		int offset = document.getLineOffset(line);
+		switch (random.nextInt(4)) {
+			case 0:
+				document.replace(offset, document.getLineLength(line), "changed " + random.nextInt() + "\n");
+				break;
+			case 1:
+				document.replace(offset, document.getLineLength(line), "");
+				break;
+			default:
+				int lines = random.nextInt(50) == 0 ? 200 : 1 + random.nextInt(3);
+				StringBuilder insertion = new StringBuilder();
+				for (int i = 0; i < lines; i++)
+					insertion.append("inserted ").append(random.nextInt()).append('\n');
+				document.replace(offset, 0, insertion.toString());
+				break;
+		}
+	}
+
+	private static void waitForSynchronization(DocumentLineDiffer differ) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 60000;
+		while (!differ.isSynchronized() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(differ.isSynchronized());
+	}
+
+	private static String createText() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < LINES; i++)
+			buffer.append("\tint value").append(i).append("= compute(").append(i % 100).append(");\n");
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPartitionTokenScanner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures the {@link FastPartitioner} on a synthetic 50 MB source file: the
+ * initial partitioning in the calling thread, the time until the first screen
+ * is partitioned with the initialization in a background thread, and
+ * repartitioning after changes deep inside a large comment with and without
+ * resuming the scanner at the changed line.
+ */
+public class FastPartitionerPerformanceTest extends PerformanceTestCase {
+
+	private static final String COMMENT = "comment";
+
+	private static final String STRING = "string";
+
+	private static final String[] CONTENT_TYPES = { IDocument.DEFAULT_CONTENT_TYPE, COMMENT, STRING };
+
+	private static final int SIZE = 50_000_000;
+
+	private static final int COMMENT_SIZE = 4_000_000;
+
+	private static final int EDITS = 50;
+
+	private static final int WARM_UP_RUNS = 1;
+
+	private static final int MEASURED_RUNS = 5;
+
+	private static String fText;
+
+	public void testInitialization() {
+		Document document = new Document(getText());
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			FastPartitioner partitioner = new FastPartitioner(createScanner(), CONTENT_TYPES);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			partitioner.connect(document);
+			if (measured)
+				stopMeasuring();
+			partitioner.disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testBackgroundInitializationFirstScreen() {
+		Document document = new Document(getText());
+		FastPartitioner reference = new FastPartitioner(createScanner(), CONTENT_TYPES);
+		reference.connect(document);
+		int partitions = reference.computePartitioning(0, document.getLength()).length;
+		reference.disconnect();
+
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			FastPartitioner partitioner = new FastPartitioner(createScanner(), CONTENT_TYPES);
+			partitioner.setBackgroundInitialization(true);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			partitioner.connect(document);
+			partitioner.computePartitioning(0, 10_000);
+			if (measured)
+				stopMeasuring();
+			assertEquals(partitions, partitioner.computePartitioning(0, document.getLength()).length);
+			partitioner.disconnect();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testChangesInLargeCommentResumed() throws Exception {
+		measureChanges(true);
+	}
+
+	public void testChangesInLargeCommentRestarted() throws Exception {
+		measureChanges(false);
+	}
+
+	/**
+	 * Types and deletes characters three quarters into the large comment. The
+	 * partition is scanned up to its end in any case, resuming the scanner saves
+	 * scanning from the start of the partition up to the changed line.
+	 */
+	private void measureChanges(boolean resume) throws Exception {
+		String text = getText();
+		Document document = new Document(text);
+		FastPartitioner partitioner = new FastPartitioner(createScanner(), CONTENT_TYPES) {
+			@Override
+			protected boolean canResumeScanner() {
+				return resume;
+			}
+		};
+		document.setDocumentPartitioner(partitioner);
+		partitioner.connect(document);
+
+		int offset = text.indexOf("/**", text.length() / 2) + COMMENT_SIZE * 3 / 4;
+		assertEquals(COMMENT, partitioner.getContentType(offset));
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (int j = 0; j < EDITS; j++) {
+				document.replace(offset + j, 0, "x");
+				document.replace(offset + j, 1, "");
+			}
+			if (measured)
+				stopMeasuring();
+		}
+		assertEquals(COMMENT, partitioner.getContentType(offset));
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static IPartitionTokenScanner createScanner() {
+		RuleBasedPartitionScanner scanner = new RuleBasedPartitionScanner();
+		scanner.setPredicateRules(new IPredicateRule[] {
+				new MultiLineRule("/*", "*/", new Token(COMMENT)),
+				new SingleLineRule("\"", "\"", new Token(STRING), '\\') });
+		return scanner;
+	}
+
+	/**
+	 * Returns Java like source with methods, strings and Javadoc comments, and a
+	 * large comment in the middle.
+	 */
+	private static String getText() {
+		if (fText == null) {
+			Random random = new Random(1);
+			StringBuilder buffer = new StringBuilder(SIZE + 10_000);
+			boolean largeComment = false;
+			while (buffer.length() < SIZE) {
+				if (!largeComment && buffer.length() > SIZE / 2) {
+					buffer.append("/**\n");
+					while (buffer.length() < SIZE / 2 + COMMENT_SIZE)
+						buffer.append(" * A long generated comment line.\n");
+					buffer.append(" */\n");
+					largeComment = true;
+				}
+				buffer.append("\t/**\n\t * Computes the value.\n\t *\n\t * @return the value\n\t */\n");
+				buffer.append("\tpublic int compute").append(random.nextInt(1000)).append("() {\n");
+				int statements = random.nextInt(10);
+				for (int i = 0; i < statements; i++)
+					buffer.append("\t\tString s").append(i).append("= \"value ").append(random.nextInt()).append("\"; // note\n");
+				buffer.append("\t\treturn 0;\n\t}\n\n");
+			}
+			fText = buffer.toString();
+		}
+		return fText;
+	}
+}
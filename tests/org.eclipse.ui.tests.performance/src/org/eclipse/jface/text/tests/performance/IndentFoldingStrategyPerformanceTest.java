@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.Iterator;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.IAnnotationModel;
+import org.eclipse.jface.text.source.projection.ProjectionViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.ui.internal.genericeditor.folding.IndentFoldingStrategy;
+
+/**
+ * Measures the indent folding of a 200,000 line YAML like document: deriving
+ * all folding regions once, and typing a line at a hundred places with the
+ * folding reconciled after every edit. The incremental reconcile, which derives
+ * the regions around the changed lines only, is compared with deriving all
+ * regions after every edit.
+ */
+public class IndentFoldingStrategyPerformanceTest extends PerformanceTestCase {
+
+	private static final int LINES = 200_000;
+
+	private static final int EDITS = 100;
+
+	private static final int WARM_UP_RUNS = 1;
+
+	private static final int MEASURED_RUNS = 5;
+
+	private Shell fShell;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fShell = new Shell(Display.getDefault());
+		fShell.setSize(800, 600);
+		fShell.setLayout(new FillLayout());
+		fShell.open();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fShell.dispose();
+		super.tearDown();
+	}
+
+	public void testInitialReconcile() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionViewer viewer = createViewer();
+			IndentFoldingStrategy strategy = createStrategy(viewer);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			strategy.initialReconcile();
+			if (measured)
+				stopMeasuring();
+			strategy.uninstall();
+			viewer.getControl().dispose();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testTypingIncremental() throws Exception {
+		measureTyping(true);
+	}
+
+	public void testTypingAllRegions() throws Exception {
+		measureTyping(false);
+	}
+
+	private void measureTyping(boolean incremental) throws BadLocationException {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionViewer viewer = createViewer();
+			IndentFoldingStrategy strategy = createStrategy(viewer);
+			strategy.initialReconcile();
+			IDocument document = viewer.getDocument();
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (int j = 0; j < EDITS; j++) {
+				int offset = document.getLineOffset((j * 7919 % (LINES / 20)) * 20 + 3);
+				String text = "    key" + j + ": value\n";
+				document.replace(offset, 0, text);
+				if (incremental)
+					strategy.reconcile(new DirtyRegion(offset, text.length(), DirtyRegion.INSERT, text), null);
+				else
+					strategy.initialReconcile();
+			}
+			if (measured)
+				stopMeasuring();
+			// the incremental reconcile must result in the regions derived from scratch
+			IAnnotationModel model = viewer.getProjectionAnnotationModel();
+			int annotations = count(model.getAnnotationIterator());
+			strategy.initialReconcile();
+			assertEquals(count(model.getAnnotationIterator()), annotations);
+			strategy.uninstall();
+			viewer.getControl().dispose();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private ProjectionViewer createViewer() {
+		ProjectionViewer viewer = new ProjectionViewer(fShell, null, null, false, SWT.V_SCROLL);
+		fShell.layout();
+		viewer.setDocument(new Document(createText()), new AnnotationModel());
+		viewer.enableProjection();
+		return viewer;
+	}
+
+	private static IndentFoldingStrategy createStrategy(ProjectionViewer viewer) {
+		IndentFoldingStrategy strategy = new IndentFoldingStrategy();
+		strategy.setViewer(viewer);
+		strategy.setDocument(viewer.getDocument());
+		strategy.projectionEnabled();
+		return strategy;
+	}
+
+	private static int count(Iterator<Annotation> iterator) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			iterator.next();
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Creates a document of top level keys with nested mappings and lists.
+	 */
+	private static String createText() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < LINES; i++) {
+			switch (i % 20) {
+				case 0:
+					buffer.append("key").append(i).append(":\n");
+					break;
+				case 1:
+				case 9:
+					buffer.append("  nested").append(i).append(":\n");
+					break;
+				case 5:
+				case 15:
+					buffer.append("    list:\n");
+					break;
+				case 19:
+					buffer.append('\n');
+					break;
+				default:
+					buffer.append(i % 20 > 15 ? "      - item" : "    value").append(i).append(": ").append(i).append('\n');
+			}
+		}
+		return buffer.toString();
+	}
+}
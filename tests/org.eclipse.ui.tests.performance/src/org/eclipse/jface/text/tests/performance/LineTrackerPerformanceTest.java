@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.Random;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures the initialization of the line trackers used by
+ * {@link DefaultLineTracker} for one million lines: setting the content of the
+ * list based tracker, converting it to the tree based tracker on the first
+ * modification, and setting the content of the tree based tracker, which both
+ * build the tree in bulk.
+ */
+public class LineTrackerPerformanceTest extends PerformanceTestCase {
+
+	private static final int LINES = 1_000_000;
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private static String fText;
+
+	public void testSetListTracker() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			DefaultLineTracker tracker = new DefaultLineTracker();
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			tracker.set(getText());
+			if (measured)
+				stopMeasuring();
+			assertLines(tracker);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testConvertToTreeTracker() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			DefaultLineTracker tracker = new DefaultLineTracker();
+			tracker.set(getText());
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			tracker.replace(0, 0, ""); // switches to the tree based tracker
+			if (measured)
+				stopMeasuring();
+			assertLines(tracker);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testSetTreeTracker() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			DefaultLineTracker tracker = new DefaultLineTracker();
+			tracker.replace(0, 0, ""); // switches to the tree based tracker
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			tracker.set(getText());
+			if (measured)
+				stopMeasuring();
+			assertLines(tracker);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void assertLines(DefaultLineTracker tracker) throws BadLocationException {
+		assertEquals(LINES + 1, tracker.getNumberOfLines());
+		assertEquals(getText().length(), tracker.getLineOffset(LINES));
+	}
+
+	private static String getText() {
+		if (fText == null) {
+			Random random = new Random(1);
+			StringBuilder buffer = new StringBuilder(LINES * 20);
+			for (int i = 0; i < LINES; i++) {
+				int length = random.nextInt(30);
+				for (int j = 0; j < length; j++)
+					buffer.append((char) ('a' + random.nextInt(26)));
+				buffer.append(i % 10 == 0 ? "\r\n" : "\n");
+			}
+			fText = buffer.toString();
+		}
+		return fText;
+	}
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.projection.ProjectionDocument;
+import org.eclipse.jface.text.projection.ProjectionDocumentManager;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures folding and unfolding the bodies of the 20,000 methods of a 100,000
+ * line document in a {@link ProjectionDocument}, one master document range at a
+ * time and all ranges with a single change, and reading the folded document.
+ */
+public class ProjectionDocumentPerformanceTest extends PerformanceTestCase {
+
+	private static final int REGIONS = 20_000;
+
+	private static final int LINES_PER_REGION = 5;
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private IDocument fMaster;
+
+	private IRegion[] fRegions;
+
+	private ProjectionDocumentManager fManager;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fMaster = new Document(createText());
+		fRegions = createRegions(fMaster);
+		fManager = new ProjectionDocumentManager();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		fManager = null;
+		fRegions = null;
+		fMaster = null;
+		super.tearDown();
+	}
+
+	public void testCollapseOneAtATime() throws Exception {
+		String folded = null;
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionDocument projection = createProjection();
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (IRegion region : fRegions)
+				projection.removeMasterDocumentRange(region.getOffset(), region.getLength());
+			if (measured)
+				stopMeasuring();
+			folded = assertSameFolding(folded, projection);
+			fManager.freeSlaveDocument(projection);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testCollapseAtOnce() throws Exception {
+		String folded = null;
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionDocument projection = createProjection();
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			projection.removeMasterDocumentRanges(fRegions);
+			if (measured)
+				stopMeasuring();
+			folded = assertSameFolding(folded, projection);
+			fManager.freeSlaveDocument(projection);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testExpandOneAtATime() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionDocument projection = createProjection();
+			projection.removeMasterDocumentRanges(fRegions);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			for (IRegion region : fRegions)
+				projection.addMasterDocumentRange(region.getOffset(), region.getLength());
+			if (measured)
+				stopMeasuring();
+			assertEquals(fMaster.get(), projection.get());
+			fManager.freeSlaveDocument(projection);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testExpandAtOnce() throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			ProjectionDocument projection = createProjection();
+			projection.removeMasterDocumentRanges(fRegions);
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			projection.addMasterDocumentRanges(fRegions);
+			if (measured)
+				stopMeasuring();
+			assertEquals(fMaster.get(), projection.get());
+			fManager.freeSlaveDocument(projection);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testReadFolded() throws Exception {
+		ProjectionDocument projection = createProjection();
+		projection.removeMasterDocumentRanges(fRegions);
+		int expected = hash(projection.get());
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			int hash = readCharacters(projection);
+			if (measured)
+				stopMeasuring();
+			assertEquals(expected, hash);
+		}
+		fManager.freeSlaveDocument(projection);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private ProjectionDocument createProjection() throws BadLocationException {
+		ProjectionDocument projection = (ProjectionDocument) fManager.createSlaveDocument(fMaster);
+		projection.addMasterDocumentRange(0, fMaster.getLength());
+		return projection;
+	}
+
+	/**
+	 * Asserts that the given projection shows the first line of every method
+	 * only, and the same content as the one of a previous run if any.
+	 */
+	private static String assertSameFolding(String expected, IDocument projection) {
+		String folded = projection.get();
+		assertEquals(REGIONS, projection.getNumberOfLines() - 1);
+		if (expected != null)
+			assertEquals(expected, folded);
+		return folded;
+	}
+
+	private static int readCharacters(IDocument document) throws BadLocationException {
+		int hash = 0;
+		for (int i = 0, length = document.getLength(); i < length; i++)
+			hash = 31 * hash + document.getChar(i);
+		return hash;
+	}
+
+	private static int hash(String text) {
+		int hash = 0;
+		for (int i = 0; i < text.length(); i++)
+			hash = 31 * hash + text.charAt(i);
+		return hash;
+	}
+
+	/**
+	 * Creates the text of 20,000 methods of five lines each.
+	 */
+	private static String createText() {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < REGIONS; i++) {
+			buffer.append("\tpublic int compute").append(i).append("() {\n");
+			buffer.append("\t\tint value= ").append(i).append(";\n");
+			buffer.append("\t\tvalue*= 31;\n");
+			buffer.append("\t\treturn value;\n");
+			buffer.append("\t}\n");
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns the bodies of the methods, i.e. the lines following the first line
+	 * of each method, as the projection viewer hides them when collapsing a
+	 * method.
+	 */
+	private static IRegion[] createRegions(IDocument document) throws BadLocationException {
+		IRegion[] regions = new IRegion[REGIONS];
+		for (int i = 0; i < REGIONS; i++) {
+			int offset = document.getLineOffset(i * LINES_PER_REGION + 1);
+			int end = document.getLineOffset((i + 1) * LINES_PER_REGION);
+			regions[i] = new Region(offset, end - offset);
+		}
+		return regions;
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.internal.filebuffers.SynchronizableDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Measures the contention of background readers with each other and with a
+ * typing user in a {@link SynchronizableDocument}, once synchronized with the
+ * lock object only and once with a read/write lock. Every reader reads a line at
+ * a time like a reconciler does, the writer inserts and removes a character at a
+ * time.
+ */
+public class SynchronizableDocumentPerformanceTest extends PerformanceTestCase {
+
+	private static final int LINES = 100_000;
+
+	private static final int READS = 500_000;
+
+	private static final int CHANGES = 200;
+
+	private static final int WARM_UP_RUNS = 1;
+
+	private static final int MEASURED_RUNS = 5;
+
+	public void testOneReaderLockObject() throws Exception {
+		measureReads(1, false);
+	}
+
+	public void testOneReaderReadWriteLock() throws Exception {
+		measureReads(1, true);
+	}
+
+	public void testEightReadersLockObject() throws Exception {
+		measureReads(8, false);
+	}
+
+	public void testEightReadersReadWriteLock() throws Exception {
+		measureReads(8, true);
+	}
+
+	public void testChangesWhileReadingLockObject() throws Exception {
+		measureChanges(false);
+	}
+
+	public void testChangesWhileReadingReadWriteLock() throws Exception {
+		measureChanges(true);
+	}
+
+	/**
+	 * Measures the time until the given number of readers are done while a
+	 * writer changes the document every millisecond.
+	 */
+	private void measureReads(int readers, boolean readWriteLock) throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			SynchronizableDocument document = createDocument(readWriteLock);
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			CountDownLatch start = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(readers);
+			List<Thread> threads = new ArrayList<>();
+			for (int j = 0; j < readers; j++)
+				threads.add(startReader(document, j, READS, start, new AtomicBoolean(), done, error));
+			Thread writer = startWriter(document, start, done, error);
+
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			start.countDown();
+			done.await();
+			if (measured)
+				stopMeasuring();
+			writer.join();
+			for (Thread thread : threads)
+				thread.join();
+			assertNull(error.get());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Measures the changes of a writer while eight readers read the document
+	 * without pause.
+	 */
+	private void measureChanges(boolean readWriteLock) throws Exception {
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			SynchronizableDocument document = createDocument(readWriteLock);
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			CountDownLatch start = new CountDownLatch(1);
+			AtomicBoolean stop = new AtomicBoolean();
+			CountDownLatch done = new CountDownLatch(8);
+			List<Thread> threads = new ArrayList<>();
+			for (int j = 0; j < 8; j++)
+				threads.add(startReader(document, j, Integer.MAX_VALUE, start, stop, done, error));
+
+			boolean measured = i >= WARM_UP_RUNS;
+			start.countDown();
+			int offset = document.getLineOffset(LINES / 2);
+			for (int j = 0; j < CHANGES; j++) {
+				if (measured)
+					startMeasuring();
+				document.replace(offset, 0, "x");
+				document.replace(offset, 1, "");
+				if (measured)
+					stopMeasuring();
+				Thread.sleep(1);
+			}
+			stop.set(true);
+			for (Thread thread : threads)
+				thread.join();
+			assertNull(error.get());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Starts a reader that reads the given number of random lines or until it is
+	 * stopped, and counts down <code>done</code> when it ends.
+	 */
+	private static Thread startReader(SynchronizableDocument document, int seed, int reads, CountDownLatch start, AtomicBoolean stop, CountDownLatch done, AtomicReference<Throwable> error) {
+		Thread reader = new Thread(() -> {
+			try {
+				start.await();
+				Random random = new Random(seed);
+				for (int i = 0; i < reads && !stop.get(); i++) {
+					IRegion line = document.getLineInformation(random.nextInt(LINES - 1));
+					assertEquals(line.getLength(), document.get(line.getOffset(), line.getLength()).length());
+				}
+			} catch (Throwable e) {
+				error.compareAndSet(null, e);
+			} finally {
+				done.countDown();
+			}
+		});
+		reader.start();
+		return reader;
+	}
+
+	/**
+	 * Starts a writer that types and deletes a character every millisecond until
+	 * the readers are done.
+	 */
+	private static Thread startWriter(SynchronizableDocument document, CountDownLatch start, CountDownLatch done, AtomicReference<Throwable> error) {
+		Thread writer = new Thread(() -> {
+			try {
+				start.await();
+				int offset = document.getLineOffset(LINES / 2);
+				while (done.getCount() > 0) {
+					document.replace(offset, 0, "x");
+					document.replace(offset, 1, "");
+					Thread.sleep(1);
+				}
+			} catch (Throwable e) {
+				error.compareAndSet(null, e);
+			}
+		});
+		writer.start();
+		return writer;
+	}
+
+	private static SynchronizableDocument createDocument(boolean readWriteLock) {
+		SynchronizableDocument document = new SynchronizableDocument(readWriteLock);
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < LINES; i++)
+			buffer.append("\tint value").append(i).append("= compute(").append(i).append(");\n");
+		document.set(buffer.toString());
+		document.setLockObject(new Object());
+		return document;
+	}
+}
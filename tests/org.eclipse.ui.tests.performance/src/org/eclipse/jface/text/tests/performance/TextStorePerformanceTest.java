@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.performance;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.RopeTextStore;
+import org.eclipse.test.performance.PerformanceTestCase;
+
+/**
+ * Compares the {@link RopeTextStore} with the {@link GapTextStore} for random
+ * edits, sequential typing and bulk replace on a 16 MB content. Every store and
+ * edit pattern is a scenario of its own.
+ */
+public class TextStorePerformanceTest extends PerformanceTestCase {
+
+	private static final int CONTENT_LENGTH = 16 * 1024 * 1024;
+
+	private static final int EDITS = 5000;
+
+	private static final int WARM_UP_RUNS = 2;
+
+	private static final int MEASURED_RUNS = 10;
+
+	private static String fContent;
+
+	public void testRandomEditsGapTextStore() {
+		measure(new GapTextStore(), TextStorePerformanceTest::randomEdits);
+	}
+
+	public void testRandomEditsRopeTextStore() {
+		measure(new RopeTextStore(), TextStorePerformanceTest::randomEdits);
+	}
+
+	public void testSequentialTypingGapTextStore() {
+		measure(new GapTextStore(), TextStorePerformanceTest::sequentialTyping);
+	}
+
+	public void testSequentialTypingRopeTextStore() {
+		measure(new RopeTextStore(), TextStorePerformanceTest::sequentialTyping);
+	}
+
+	public void testBulkReplaceGapTextStore() {
+		measure(new GapTextStore(), TextStorePerformanceTest::bulkReplace);
+	}
+
+	public void testBulkReplaceRopeTextStore() {
+		measure(new RopeTextStore(), TextStorePerformanceTest::bulkReplace);
+	}
+
+	private void measure(ITextStore store, Consumer<ITextStore> edits) {
+		String expected = null;
+		for (int i = 0; i < WARM_UP_RUNS + MEASURED_RUNS; i++) {
+			store.set(getContent());
+			boolean measured = i >= WARM_UP_RUNS;
+			if (measured)
+				startMeasuring();
+			edits.accept(store);
+			if (measured)
+				stopMeasuring();
+			String result = store.get(0, store.getLength());
+			if (expected == null)
+				expected = result;
+			else
+				assertEquals(expected, result);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void randomEdits(ITextStore store) {
+		Random random = new Random(2);
+		for (int i = 0; i < EDITS; i++) {
+			int offset = random.nextInt(store.getLength() - 10);
+			store.replace(offset, random.nextInt(10), "edit");
+		}
+	}
+
+	private static void sequentialTyping(ITextStore store) {
+		int offset = store.getLength() / 2;
+		for (int i = 0; i < EDITS; i++)
+			store.replace(offset + i, 0, "x");
+	}
+
+	private static void bulkReplace(ITextStore store) {
+		int chunk = store.getLength() / 64;
+		for (int i = 0; i < 64; i++) {
+			int offset = i * chunk;
+			store.replace(offset, chunk, store.get(offset, chunk).toUpperCase());
+		}
+	}
+
+	private static String getContent() {
+		if (fContent == null) {
+			StringBuilder buffer = new StringBuilder(CONTENT_LENGTH);
+			Random random = new Random(1);
+			while (buffer.length() < CONTENT_LENGTH) {
+				int length = random.nextInt(80);
+				for (int i = 0; i < length; i++)
+					buffer.append((char) ('a' + random.nextInt(26)));
+				buffer.append('\n');
+			}
+			buffer.setLength(CONTENT_LENGTH);
+			fContent = buffer.toString();
+		}
+		return fContent;
+	}
+}
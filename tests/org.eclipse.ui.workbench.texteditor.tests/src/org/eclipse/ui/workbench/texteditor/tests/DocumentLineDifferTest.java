@@ -1,5 +1,5 @@
 /*******************************************************************************
-* Copyright (c) 2018 Etienne Reichenbach and others.
+* Copyright (c) 2018, 2026 Etienne Reichenbach and others.
 *
 * This program and the accompanying materials
 * are made available under the terms of the Eclipse Public License 2.0
@@ -14,15 +14,31 @@
 package org.eclipse.ui.workbench.texteditor.tests;
 
 import static org.eclipse.jface.text.DocumentRewriteSessionType.SEQUENTIAL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Iterator;
+import java.util.Random;
+
 import org.junit.Test;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.ILineDiffInfo;
 
+import org.eclipse.ui.internal.texteditor.quickdiff.DiffRegion;
 import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
+import org.eclipse.ui.internal.texteditor.quickdiff.QuickDiffRangeDifference;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.LineHashDocument;
+
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
 
 /**
  * Tests for the {@link DocumentLineDiffer}.
@@ -37,6 +53,50 @@ public class DocumentLineDifferTest {
 	private final DocumentLineDiffer fLineDiffer= new DocumentLineDiffer();
 
 
+	/** The reference document of the {@link #fLineDiffer}. */
+	private IDocument fReference;
+
+
+	/**
+	 * Provides a fixed reference document.
+	 */
+	private static class ReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		ReferenceProvider(IDocument reference) {
+			fReference= reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "test";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
+
 	/**
 	 * Test that when a document is {@link DocumentLineDiffer#connect(IDocument) connected} the
 	 * differ is neither {@link DocumentLineDiffer#isSuspended() suspended} nor
@@ -169,4 +229,206 @@ public class DocumentLineDifferTest {
 		assertFalse(fLineDiffer.isSuspended());
 	}
 
+	/**
+	 * Test that the differences computed against the reference tell the changed, added and
+	 * unchanged lines.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void differencesAgainstReference() throws Exception {
+		// given
+		fDocument.set("a\nx\nc\nd\ne\n");
+
+		// when
+		synchronize("a\nb\nc\nd\n");
+
+		// then
+		assertEquals(ILineDiffInfo.UNCHANGED, fLineDiffer.getLineInfo(0).getChangeType());
+		assertEquals(ILineDiffInfo.CHANGED, fLineDiffer.getLineInfo(1).getChangeType());
+		assertEquals(ILineDiffInfo.UNCHANGED, fLineDiffer.getLineInfo(3).getChangeType());
+		assertEquals(ILineDiffInfo.ADDED, fLineDiffer.getLineInfo(4).getChangeType());
+		assertDifferences();
+	}
+
+	/**
+	 * Test that the initial differences keep as many lines unchanged as possible.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void initialDifferencesAreMinimal() throws Exception {
+		// given
+		Random random= new Random(42);
+		String[] reference= createLines(random, 300);
+		String[] actual= createLines(random, 300);
+		fDocument.set(String.join("\n", actual));
+
+		// when
+		synchronize(String.join("\n", reference));
+
+		// then
+		int unchanged= 0;
+		for (Iterator<Annotation> it= fLineDiffer.getAnnotationIterator(); it.hasNext();) {
+			DiffRegion region= (DiffRegion) it.next();
+			if (region.getChangeType() == ILineDiffInfo.UNCHANGED)
+				unchanged+= region.getDifference().rightLength();
+		}
+		assertEquals(longestCommonSubsequence(reference, actual), unchanged);
+		assertDifferences();
+	}
+
+	/**
+	 * Test that changes of the document are diffed incrementally and keep the differences
+	 * consistent with the documents.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void incrementalChangesKeepDifferencesConsistent() throws Exception {
+		// given
+		Random random= new Random(7);
+		String text= String.join("\n", createLines(random, 500));
+		fDocument.set(text);
+		synchronize(text);
+
+		// when
+		for (int i= 0; i < 200; i++) {
+			int line= random.nextInt(fDocument.getNumberOfLines());
+			int offset= fDocument.getLineOffset(line);
+			int length= random.nextBoolean() ? fDocument.getLineLength(line) : 0;
+			String replacement= random.nextInt(3) == 0 ? "" : String.join("\n", createLines(random, 1 + random.nextInt(3))) + "\n";
+			fDocument.replace(offset, length, replacement);
+
+			// then
+			assertTrue(fLineDiffer.isSynchronized());
+			assertDifferences();
+		}
+	}
+
+	/**
+	 * Test that while a change too large to be diffed incrementally is re-diffed, the lines after
+	 * the change are still answered from the previous differences.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void previousDifferencesAnswerDuringLargeChange() throws Exception {
+		// given
+		fDocument.set("a\nb\nc\n");
+		synchronize("a\nx\nc\n");
+		StringBuilder insertion= new StringBuilder();
+		for (int i= 0; i < 2000; i++)
+			insertion.append("inserted ").append(i).append('\n');
+
+		// when
+		fDocument.replace(0, 0, insertion.toString());
+
+		// then
+		assertFalse(fLineDiffer.isSynchronized());
+		ILineDiffInfo info= fLineDiffer.getLineInfo(2001);
+		assertNotNull(info);
+		assertEquals(ILineDiffInfo.CHANGED, info.getChangeType());
+		waitForSynchronization();
+		assertEquals(ILineDiffInfo.ADDED, fLineDiffer.getLineInfo(0).getChangeType());
+		assertEquals(ILineDiffInfo.CHANGED, fLineDiffer.getLineInfo(2001).getChangeType());
+		assertDifferences();
+	}
+
+	/**
+	 * Test that a reference keeping the hashes of its lines is diffed like a document and that
+	 * changes are reverted to its text.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void lineHashReferenceIsDiffedAndReverted() throws Exception {
+		// given
+		Random random= new Random(3);
+		String[] reference= createLines(random, 5000);
+		String[] actual= reference.clone();
+		actual[10]= "changed";
+		actual[4500]= "changed";
+		fDocument.set(String.join("\n", actual));
+
+		// when
+		synchronize(new LineHashDocument(String.join("\n", reference)));
+
+		// then
+		assertEquals(ILineDiffInfo.CHANGED, fLineDiffer.getLineInfo(10).getChangeType());
+		assertEquals(ILineDiffInfo.CHANGED, fLineDiffer.getLineInfo(4500).getChangeType());
+		assertDifferences();
+		fLineDiffer.revertLine(10);
+		fLineDiffer.revertLine(4500);
+		assertEquals(String.join("\n", reference), fDocument.get());
+	}
+
+	private void synchronize(String reference) throws InterruptedException {
+		synchronize(new Document(reference));
+	}
+
+	private void synchronize(IDocument reference) throws InterruptedException {
+		fReference= reference;
+		fLineDiffer.setReferenceProvider(new ReferenceProvider(fReference));
+		fLineDiffer.connect(fDocument);
+		waitForSynchronization();
+	}
+
+	private void waitForSynchronization() throws InterruptedException {
+		long timeout= System.currentTimeMillis() + 10000;
+		while (!fLineDiffer.isSynchronized() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(fLineDiffer.isSynchronized());
+	}
+
+	private static String[] createLines(Random random, int count) {
+		String[] lines= new String[count];
+		for (int i= 0; i < count; i++)
+			lines[i]= String.valueOf((char) ('a' + random.nextInt(3)));
+		return lines;
+	}
+
+	private static int longestCommonSubsequence(String[] left, String[] right) {
+		int[][] lengths= new int[left.length + 1][right.length + 1];
+		for (int i= 1; i <= left.length; i++) {
+			for (int j= 1; j <= right.length; j++) {
+				if (left[i - 1].equals(right[j - 1]))
+					lengths[i][j]= lengths[i - 1][j - 1] + 1;
+				else
+					lengths[i][j]= Math.max(lengths[i - 1][j], lengths[i][j - 1]);
+			}
+		}
+		return lengths[left.length][right.length];
+	}
+
+	/**
+	 * Asserts that the differences cover both documents without gaps and that the lines of the
+	 * unchanged ranges are equal.
+	 *
+	 * @throws BadLocationException if the differences are out of the documents
+	 */
+	private void assertDifferences() throws BadLocationException {
+		IDocument reference= fReference;
+		int left= 0;
+		int right= 0;
+		for (Iterator<Annotation> it= fLineDiffer.getAnnotationIterator(); it.hasNext();) {
+			DiffRegion region= (DiffRegion) it.next();
+			QuickDiffRangeDifference difference= region.getDifference();
+			assertEquals(left, difference.leftStart());
+			assertEquals(right, difference.rightStart());
+			if (region.getChangeType() == ILineDiffInfo.UNCHANGED) {
+				assertEquals(difference.leftLength(), difference.rightLength());
+				for (int i= 0; i < difference.rightLength(); i++)
+					assertEquals(getLine(reference, difference.leftStart() + i), getLine(fDocument, difference.rightStart() + i));
+			}
+			left= difference.leftEnd();
+			right= difference.rightEnd();
+		}
+		assertEquals(reference.getNumberOfLines(), left);
+		assertEquals(fDocument.getNumberOfLines(), right);
+	}
+
+	private static String getLine(IDocument document, int line) throws BadLocationException {
+		return document.get(document.getLineOffset(line), document.getLineInformation(line).getLength());
+	}
 }
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.workbench.texteditor.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.DocumentEquivalenceClass;
+import org.eclipse.ui.internal.texteditor.quickdiff.compare.equivalence.LineHashDocument;
+
+/**
+ * Tests for the {@link LineHashDocument}.
+ */
+public class LineHashDocumentTest {
+
+	private static final String[] DELIMITERS= { "\n", "\r\n", "\r" };
+
+	private static final String[] WORDS= { "int", "value", "=", "été", "中文", "\t", "" };
+
+	@Test
+	public void linesAreTheSameAsInDocument() throws Exception {
+		String[] texts= { "", "a", "a\n", "\n\n", "a\r\nb\rc\nd", "a\r\n\r\n", "\r", "\r\r\n\n", "x\r\n" };
+		for (String text : texts)
+			assertSameLines(new Document(text), new LineHashDocument(text));
+
+		String text= createText(new Random(1), 5000);
+		assertSameLines(new Document(text), new LineHashDocument(text));
+	}
+
+	@Test
+	public void textIsReadAcrossBlocks() throws Exception {
+		Random random= new Random(2);
+		String text= createText(random, 20000);
+		LineHashDocument document= new LineHashDocument(text);
+
+		assertEquals(text, document.get());
+		for (int i= 0; i < 1000; i++) {
+			int offset= random.nextInt(text.length());
+			int length= random.nextInt(Math.min(text.length() - offset, 30000));
+			assertEquals(text.substring(offset, offset + length), document.get(offset, length));
+			assertEquals(text.charAt(offset), document.getChar(offset));
+		}
+	}
+
+	@Test
+	public void hashesAreTheSameAsForDocument() throws Exception {
+		String text= createText(new Random(3), 5000);
+		assertSameHashes(new Document(text), new LineHashDocument(text));
+		assertSameHashes(new Document(text), new LineHashDocument(text).copy());
+	}
+
+	@Test
+	public void replaceUpdatesTextAndLines() throws Exception {
+		Random random= new Random(4);
+		String text= createText(random, 2000);
+		Document expected= new Document(text);
+		LineHashDocument document= new LineHashDocument(text);
+
+		for (int i= 0; i < 20; i++) {
+			int offset= random.nextInt(expected.getLength());
+			int length= random.nextInt(Math.min(expected.getLength() - offset, 200));
+			String replacement= createText(random, random.nextInt(3));
+			expected.replace(offset, length, replacement);
+			document.replace(offset, length, replacement);
+
+			// the line tracker of the document keeps a '\r' and a '\n' joined by a replace as two delimiters
+			assertEquals(expected.get(), document.get());
+			assertSameLines(new Document(expected.get()), document);
+		}
+		assertSameHashes(new Document(expected.get()), document);
+	}
+
+	@Test
+	public void copyKeepsContentWhenDocumentIsSet() throws Exception {
+		LineHashDocument document= new LineHashDocument("a\nb\n");
+		LineHashDocument copy= document.copy();
+
+		document.set("c");
+
+		assertEquals("c", document.get());
+		assertEquals(1, document.getNumberOfLines());
+		assertEquals("a\nb\n", copy.get());
+		assertEquals(3, copy.getNumberOfLines());
+	}
+
+	private static void assertSameLines(IDocument expected, IDocument actual) throws BadLocationException {
+		assertEquals(expected.getLength(), actual.getLength());
+		assertEquals(expected.getNumberOfLines(), actual.getNumberOfLines());
+		for (int line= 0; line < expected.getNumberOfLines(); line++) {
+			assertEquals(expected.getLineOffset(line), actual.getLineOffset(line));
+			assertEquals(expected.getLineLength(line), actual.getLineLength(line));
+			assertEquals(expected.getLineDelimiter(line), actual.getLineDelimiter(line));
+			assertRegion(expected.getLineInformation(line), actual.getLineInformation(line));
+		}
+		for (int offset= 0; offset <= expected.getLength(); offset++) {
+			assertEquals(expected.getLineOfOffset(offset), actual.getLineOfOffset(offset));
+			assertRegion(expected.getLineInformationOfOffset(offset), actual.getLineInformationOfOffset(offset));
+			int length= Math.min(expected.getLength() - offset, 100);
+			assertEquals(expected.getNumberOfLines(offset, length), actual.getNumberOfLines(offset, length));
+		}
+		String text= "a\r\nb\rc\n\nd";
+		assertEquals(expected.computeNumberOfLines(text), actual.computeNumberOfLines(text));
+	}
+
+	private static void assertRegion(IRegion expected, IRegion actual) {
+		assertEquals(expected.getOffset(), actual.getOffset());
+		assertEquals(expected.getLength(), actual.getLength());
+	}
+
+	private static void assertSameHashes(IDocument expected, IDocument actual) {
+		DocumentEquivalenceClass expectedHashes= new DocumentEquivalenceClass(expected);
+		DocumentEquivalenceClass actualHashes= new DocumentEquivalenceClass(actual);
+		assertEquals(expectedHashes.getCount(), actualHashes.getCount());
+		for (int line= 0; line < expectedHashes.getCount(); line++)
+			assertEquals(expectedHashes.getHash(line), actualHashes.getHash(line));
+	}
+
+	private static String createText(Random random, int lines) {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < lines; i++) {
+			int words= random.nextInt(8);
+			for (int j= 0; j < words; j++)
+				text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			text.append(DELIMITERS[random.nextInt(DELIMITERS.length)]);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.workbench.texteditor.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.ISourceViewer;
+
+import org.eclipse.ui.texteditor.spelling.ISpellingProblemCollector;
+import org.eclipse.ui.texteditor.spelling.SpellingAnnotation;
+import org.eclipse.ui.texteditor.spelling.SpellingContext;
+import org.eclipse.ui.texteditor.spelling.SpellingProblem;
+import org.eclipse.ui.texteditor.spelling.SpellingReconcileStrategy;
+import org.eclipse.ui.texteditor.spelling.SpellingService;
+
+/**
+ * Tests for the {@link SpellingReconcileStrategy}.
+ */
+public class SpellingReconcileStrategyTest {
+
+	private static final String MISSPELLED= "teh";
+
+	/**
+	 * Reports every occurrence of {@link #MISSPELLED} in the checked regions.
+	 */
+	private static class TestSpellingService extends SpellingService {
+
+		int fCheckedCharacters;
+
+		TestSpellingService() {
+			super(null);
+		}
+
+		@Override
+		public void check(IDocument document, IRegion[] regions, SpellingContext context, ISpellingProblemCollector collector, IProgressMonitor monitor) {
+			collector.beginCollecting();
+			try {
+				for (IRegion region : regions) {
+					fCheckedCharacters+= region.getLength();
+					String text= document.get(region.getOffset(), region.getLength());
+					for (int index= text.indexOf(MISSPELLED); index != -1; index= text.indexOf(MISSPELLED, index + 1))
+						collector.accept(new TestSpellingProblem(region.getOffset() + index));
+				}
+			} catch (Exception e) {
+				throw new AssertionError(e);
+			} finally {
+				collector.endCollecting();
+			}
+		}
+	}
+
+	private static class TestSpellingProblem extends SpellingProblem {
+
+		private final int fOffset;
+
+		TestSpellingProblem(int offset) {
+			fOffset= offset;
+		}
+
+		@Override
+		public int getOffset() {
+			return fOffset;
+		}
+
+		@Override
+		public int getLength() {
+			return MISSPELLED.length();
+		}
+
+		@Override
+		public String getMessage() {
+			return MISSPELLED;
+		}
+
+		@Override
+		public ICompletionProposal[] getProposals() {
+			return new ICompletionProposal[0];
+		}
+	}
+
+	private Document fDocument;
+
+	private AnnotationModel fAnnotationModel;
+
+	private TestSpellingService fSpellingService;
+
+	private SpellingReconcileStrategy fStrategy;
+
+	private List<IViewportListener> fViewportListeners;
+
+	@Before
+	public void setUp() {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 1000; i++)
+			text.append(i % 10 == 0 ? "line with teh typo\n" : "line without typo\n");
+		fDocument= new Document(text.toString());
+		fAnnotationModel= new AnnotationModel();
+		fAnnotationModel.connect(fDocument);
+		fSpellingService= new TestSpellingService();
+		fViewportListeners= new ArrayList<>();
+		fStrategy= new SpellingReconcileStrategy(createViewer(fAnnotationModel), fSpellingService);
+		fStrategy.setDocument(fDocument);
+	}
+
+	@Test
+	public void initialReconcileChecksWholeDocument() {
+		fStrategy.initialReconcile();
+
+		assertEquals(fDocument.getLength(), fSpellingService.fCheckedCharacters, 1000);
+		assertAnnotations();
+		assertEquals(100, getSpellingAnnotations().size());
+	}
+
+	@Test
+	public void changedLinesAreCheckedOnly() throws Exception {
+		fStrategy.initialReconcile();
+		List<Annotation> before= getSpellingAnnotations();
+		fSpellingService.fCheckedCharacters= 0;
+
+		int offset= fDocument.getLineOffset(501);
+		fDocument.replace(offset, 4, "teh");
+		fDocument.replace(fDocument.getLineOffset(600), 0, "new ");
+		fStrategy.reconcile(new Region(0, fDocument.getLength()));
+
+		assertEquals(fDocument.getLineLength(501) + fDocument.getLineLength(600), fSpellingService.fCheckedCharacters, 2);
+		assertAnnotations();
+		List<Annotation> after= getSpellingAnnotations();
+		assertEquals(101, after.size());
+		assertTrue(after.containsAll(before));
+	}
+
+	@Test
+	public void fixedProblemIsRemoved() throws Exception {
+		fStrategy.initialReconcile();
+
+		IRegion line= fDocument.getLineInformation(500);
+		fDocument.replace(line.getOffset(), line.getLength(), "line with the typo");
+		fStrategy.reconcile(new Region(0, fDocument.getLength()));
+
+		assertAnnotations();
+		assertEquals(99, getSpellingAnnotations().size());
+	}
+
+	@Test
+	public void reconcileWithoutChangeChecksWholeDocument() {
+		fStrategy.initialReconcile();
+		fSpellingService.fCheckedCharacters= 0;
+
+		fStrategy.reconcile(new Region(0, fDocument.getLength()));
+
+		assertEquals(fDocument.getLength(), fSpellingService.fCheckedCharacters, 1000);
+		assertEquals(100, getSpellingAnnotations().size());
+	}
+
+	@Test
+	public void reconcilingRegionKeepsOtherAnnotations() throws Exception {
+		fStrategy.initialReconcile();
+
+		int offset= fDocument.getLineOffset(5);
+		fDocument.replace(offset, 4, "teh");
+		fStrategy.reconcile(new DirtyRegion(offset, 3, DirtyRegion.INSERT, "teh"), new Region(offset, 3));
+
+		assertAnnotations();
+		assertEquals(101, getSpellingAnnotations().size());
+	}
+
+	@Test
+	public void listenersAreRemovedWithDocument() {
+		assertEquals(1, fViewportListeners.size());
+		fStrategy.setDocument(null);
+		assertTrue(fViewportListeners.isEmpty());
+		fStrategy.setDocument(fDocument);
+		assertEquals(1, fViewportListeners.size());
+	}
+
+	@Test
+	public void listenersAreRemovedOnUninstall() throws Exception {
+		fStrategy.initialReconcile();
+		fStrategy.uninstall();
+		assertTrue(fViewportListeners.isEmpty());
+
+		fDocument.replace(fDocument.getLineOffset(501), 4, "teh");
+		fSpellingService.fCheckedCharacters= 0;
+		fStrategy.reconcile(new Region(0, fDocument.getLength()));
+		// the changes are no longer tracked, the whole document is checked
+		assertEquals(fDocument.getLength(), fSpellingService.fCheckedCharacters);
+	}
+
+	/**
+	 * Asserts that there is exactly one spelling annotation for every misspelled word.
+	 */
+	private void assertAnnotations() {
+		String text= fDocument.get();
+		List<Integer> expected= new ArrayList<>();
+		for (int index= text.indexOf(MISSPELLED); index != -1; index= text.indexOf(MISSPELLED, index + 1))
+			expected.add(Integer.valueOf(index));
+		List<Integer> actual= new ArrayList<>();
+		for (Annotation annotation : getSpellingAnnotations()) {
+			Position position= fAnnotationModel.getPosition(annotation);
+			assertEquals(MISSPELLED.length(), position.getLength());
+			actual.add(Integer.valueOf(position.getOffset()));
+		}
+		actual.sort(null);
+		assertEquals(expected, actual);
+	}
+
+	private List<Annotation> getSpellingAnnotations() {
+		List<Annotation> annotations= new ArrayList<>();
+		for (Iterator<Annotation> iter= fAnnotationModel.getAnnotationIterator(); iter.hasNext();) {
+			Annotation annotation= iter.next();
+			if (SpellingAnnotation.TYPE.equals(annotation.getType()))
+				annotations.add(annotation);
+		}
+		return annotations;
+	}
+
+	private ISourceViewer createViewer(AnnotationModel annotationModel) {
+		return (ISourceViewer) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ISourceViewer.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getAnnotationModel":
+					return annotationModel;
+				case "getDocument":
+					return fDocument;
+				case "addViewportListener":
+					fViewportListeners.add((IViewportListener) args[0]);
+					return null;
+				case "removeViewportListener":
+					fViewportListeners.remove(args[0]);
+					return null;
+				default:
+					if (method.getReturnType() == int.class)
+						return Integer.valueOf(-1);
+					if (method.getReturnType() == boolean.class)
+						return Boolean.FALSE;
+					return null;
+			}
+		});
+	}
+}